@@ -3,13 +3,12 @@ package com.czertainly.core.api.web;
 import com.czertainly.api.interfaces.core.web.AuditLogController;
 import com.czertainly.api.model.core.audit.AuditLogFilter;
 import com.czertainly.api.model.core.audit.AuditLogResponseDto;
-import com.czertainly.api.model.core.audit.ExportResultDto;
 import com.czertainly.api.model.core.audit.ObjectType;
 import com.czertainly.api.model.core.audit.OperationStatusEnum;
 import com.czertainly.api.model.core.audit.OperationType;
+import com.czertainly.core.model.ExportFile;
 import com.czertainly.core.service.AuditLogService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -33,13 +32,16 @@ public class AuditLogControllerImpl implements AuditLogController {
 
     @Override
     public ResponseEntity<org.springframework.core.io.Resource> exportAuditLogs(AuditLogFilter filter, Pageable pageable) {
-        ExportResultDto export = auditLogService.exportAuditLogs(filter, pageable.getSort());
+        ExportFile export = auditLogService.exportAuditLogs(filter, pageable.getSort());
+        if (export == null) {
+            return ResponseEntity.ok().contentLength(0).build();
+        }
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .contentLength(export.getFileContent().length)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + export.getFileName())
-                .body(new ByteArrayResource(export.getFileContent()));
+                .contentLength(export.contentLength())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + export.fileName())
+                .body(export.resource());
     }
 
     @Override
@@ -12,6 +12,7 @@ import com.czertainly.api.model.core.location.LocationDto;
 import com.czertainly.api.model.core.scheduler.PaginationRequestDto;
 import com.czertainly.api.model.core.search.SearchFieldDataByGroupDto;
 import com.czertainly.api.model.core.v2.ClientCertificateRequestDto;
+import com.czertainly.core.model.KeysetPage;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.ApprovalService;
@@ -20,6 +21,7 @@ import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.converter.CertificateFormatConverter;
 import com.czertainly.core.util.converter.CertificateFormatEncodingConverter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.WebDataBinder;
@@ -27,6 +29,8 @@ import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
@@ -42,6 +46,11 @@ import java.util.UUID;
 @RestController
 public class CertificateControllerImpl implements CertificateController {
 
+    public static final String PAGINATION_MODE_HEADER = "X-Pagination-Mode";
+    public static final String PAGINATION_MODE_KEYSET = "keyset";
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+    public static final String INCLUDE_TOTAL_COUNT_HEADER = "X-Include-Total-Count";
+
     private CertificateService certificateService;
 
     private CertificateEventHistoryService certificateEventHistoryService;
@@ -58,7 +67,19 @@ public class CertificateControllerImpl implements CertificateController {
 
     @Override
     public CertificateResponseDto listCertificates(SearchRequestDto request) throws ValidationException {
-        return certificateService.listCertificates(SecurityFilter.create(), request);
+        // keyset pagination is opt-in using request headers since the search request is shared with offset pagination
+        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null || !PAGINATION_MODE_KEYSET.equalsIgnoreCase(requestAttributes.getRequest().getHeader(PAGINATION_MODE_HEADER))) {
+            return certificateService.listCertificates(SecurityFilter.create(), request);
+        }
+
+        HttpServletRequest httpRequest = requestAttributes.getRequest();
+        boolean includeTotalCount = Boolean.parseBoolean(httpRequest.getHeader(INCLUDE_TOTAL_COUNT_HEADER));
+        KeysetPage<CertificateResponseDto> page = certificateService.listCertificates(SecurityFilter.create(), request, httpRequest.getHeader(CONTINUATION_TOKEN_HEADER), includeTotalCount);
+        if (page.continuationToken() != null && requestAttributes.getResponse() != null) {
+            requestAttributes.getResponse().setHeader(CONTINUATION_TOKEN_HEADER, page.continuationToken());
+        }
+        return page.content();
     }
 
     @Override
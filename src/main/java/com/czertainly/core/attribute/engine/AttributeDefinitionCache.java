@@ -0,0 +1,197 @@
+package com.czertainly.core.attribute.engine;
+
+import com.czertainly.api.model.common.attribute.v2.AttributeType;
+import com.czertainly.api.model.common.attribute.v2.BaseAttribute;
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.dao.entity.AttributeDefinition;
+import com.czertainly.core.dao.entity.AttributeRelation;
+import com.czertainly.core.dao.repository.AttributeDefinitionRepository;
+import com.czertainly.core.dao.repository.AttributeRelationRepository;
+import com.czertainly.core.util.ExpiringCache;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of attribute definitions keyed by type, connector UUID, attribute UUID and name, and of relations
+ * of custom attributes to resources. Definitions are evicted when they are created, updated or deleted and entries expire
+ * after TTL to pick up changes made by other instances. Entries loaded in transaction that is rolled back are discarded,
+ * since they could have been created by that transaction.
+ * Returned definitions are detached copies and can be modified by the caller without affecting cached definition.
+ * Copies must not be saved, since merge would overwrite relations and content items of the definition, write paths
+ * have to load managed definition from repository instead.
+ */
+@Component
+public class AttributeDefinitionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttributeDefinitionCache.class);
+    private static final ObjectMapper DEFINITION_OBJECT_MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final ExpiringCache<DefinitionKey, AttributeDefinition> definitionsCache;
+    private final ExpiringCache<RelationKey, Optional<AttributeRelation>> relationsCache;
+
+    private AttributeDefinitionRepository attributeDefinitionRepository;
+    private AttributeRelationRepository attributeRelationRepository;
+
+    public AttributeDefinitionCache(@Value("${attributes.definition-cache.ttl:300000}") long ttl,
+                                    @Value("${attributes.definition-cache.max-size:10000}") int maxSize) {
+        this.definitionsCache = new ExpiringCache<>(Duration.ofMillis(ttl), maxSize);
+        this.relationsCache = new ExpiringCache<>(Duration.ofMillis(ttl), maxSize);
+    }
+
+    @Autowired
+    public void setAttributeDefinitionRepository(AttributeDefinitionRepository attributeDefinitionRepository) {
+        this.attributeDefinitionRepository = attributeDefinitionRepository;
+    }
+
+    @Autowired
+    public void setAttributeRelationRepository(AttributeRelationRepository attributeRelationRepository) {
+        this.attributeRelationRepository = attributeRelationRepository;
+    }
+
+    /**
+     * Get attribute definition of connector attribute
+     * @param attributeType type of the attribute
+     * @param connectorUuid UUID of the connector
+     * @param attributeUuid UUID of the attribute
+     * @param name name of the attribute
+     * @return copy of attribute definition or empty if not found
+     */
+    public Optional<AttributeDefinition> getDefinition(AttributeType attributeType, UUID connectorUuid, UUID attributeUuid, String name) {
+        DefinitionKey key = new DefinitionKey(attributeType, connectorUuid, attributeUuid, name);
+        return getDefinition(key, () -> attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(attributeType, connectorUuid, attributeUuid, name));
+    }
+
+    /**
+     * Get attribute definition identified by name, i.e. custom attribute or global metadata
+     * @param attributeType type of the attribute
+     * @param name name of the attribute
+     * @return copy of attribute definition or empty if not found
+     */
+    public Optional<AttributeDefinition> getDefinitionByName(AttributeType attributeType, String name) {
+        DefinitionKey key = new DefinitionKey(attributeType, null, null, name);
+        if (attributeType == AttributeType.META) {
+            return getDefinition(key, () -> attributeDefinitionRepository.findByTypeAndNameAndGlobal(AttributeType.META, name, true));
+        }
+        return getDefinition(key, () -> attributeDefinitionRepository.findByTypeAndName(attributeType, name));
+    }
+
+    /**
+     * Get relation of enabled custom attribute to resource. Returned relation must not be modified.
+     * @param resource resource
+     * @param definitionUuid UUID of custom attribute definition
+     * @return relation or empty if custom attribute is not associated with resource or is disabled
+     */
+    public Optional<AttributeRelation> getEnabledCustomAttributeRelation(Resource resource, UUID definitionUuid) {
+        RelationKey key = new RelationKey(resource, definitionUuid);
+        Optional<AttributeRelation> relation = relationsCache.get(key);
+        if (relation == null) {
+            relation = attributeRelationRepository.findByResourceAndAttributeDefinitionUuidAndAttributeDefinitionTypeAndAttributeDefinitionEnabled(resource, definitionUuid, AttributeType.CUSTOM, true);
+            relationsCache.put(key, relation);
+            evictOnRollback(() -> relationsCache.invalidate(key));
+        }
+        return relation;
+    }
+
+    /**
+     * Evict attribute definition and its relations. Has to be called when definition is created, updated or deleted.
+     * Eviction is repeated after completion of current transaction, so definition read by other transactions before commit is not kept.
+     * @param definition attribute definition
+     */
+    public void evict(AttributeDefinition definition) {
+        logger.debug("Evicting cached attribute definition {} with UUID {}.", definition.getName(), definition.getUuid());
+        Runnable eviction = () -> {
+            definitionsCache.invalidate(new DefinitionKey(definition.getType(), definition.getConnectorUuid(), definition.getAttributeUuid(), definition.getName()));
+            definitionsCache.invalidate(new DefinitionKey(definition.getType(), null, null, definition.getName()));
+            if (definition.getUuid() != null) {
+                definitionsCache.invalidateValuesIf(cached -> definition.getUuid().equals(cached.getUuid()));
+                relationsCache.invalidateIf(key -> definition.getUuid().equals(key.definitionUuid()));
+            }
+        };
+        eviction.run();
+        afterCompletion(eviction, false);
+    }
+
+    /**
+     * Evict all cached definitions and relations, e.g. when definitions are deleted or updated in bulk
+     */
+    public void evictAll() {
+        logger.debug("Evicting all cached attribute definitions.");
+        Runnable eviction = () -> {
+            definitionsCache.invalidateAll();
+            relationsCache.invalidateAll();
+        };
+        eviction.run();
+        afterCompletion(eviction, false);
+    }
+
+    private Optional<AttributeDefinition> getDefinition(DefinitionKey key, Supplier<Optional<AttributeDefinition>> loader) {
+        AttributeDefinition definition = definitionsCache.get(key);
+        if (definition == null) {
+            Optional<AttributeDefinition> loadedDefinition = loader.get();
+            if (loadedDefinition.isEmpty()) {
+                return Optional.empty();
+            }
+            // loaded definition is managed by current persistence context, cache its detached copy
+            definition = copy(loadedDefinition.get());
+            definitionsCache.put(key, definition);
+            evictOnRollback(() -> definitionsCache.invalidate(key));
+        }
+        return Optional.of(copy(definition));
+    }
+
+    private static void evictOnRollback(Runnable eviction) {
+        afterCompletion(eviction, true);
+    }
+
+    private static void afterCompletion(Runnable eviction, boolean onlyOnRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (!onlyOnRollback || status != STATUS_COMMITTED) {
+                    eviction.run();
+                }
+            }
+        });
+    }
+
+    private static AttributeDefinition copy(AttributeDefinition definition) {
+        AttributeDefinition copy = new AttributeDefinition();
+        copy.setUuid(definition.getUuid());
+        copy.setConnectorUuid(definition.getConnectorUuid());
+        copy.setAttributeUuid(definition.getAttributeUuid());
+        copy.setName(definition.getName());
+        copy.setType(definition.getType());
+        copy.setContentType(definition.getContentType());
+        copy.setLabel(definition.getLabel());
+        copy.setRequired(definition.isRequired());
+        copy.setReadOnly(definition.isReadOnly());
+        copy.setEnabled(definition.isEnabled());
+        copy.setGlobal(definition.isGlobal());
+        copy.setOperation(definition.getOperation());
+        copy.setCreatedAt(definition.getCreatedAt());
+        copy.setUpdatedAt(definition.getUpdatedAt());
+        copy.setDefinition(definition.getDefinition() == null ? null : DEFINITION_OBJECT_MAPPER.convertValue(definition.getDefinition(), BaseAttribute.class));
+        return copy;
+    }
+
+    private record DefinitionKey(AttributeType type, UUID connectorUuid, UUID attributeUuid, String name) {
+    }
+
+    private record RelationKey(Resource resource, UUID definitionUuid) {
+    }
+}
@@ -20,8 +20,8 @@ import com.czertainly.core.attribute.engine.records.ObjectAttributeContent;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeDefinitionContent;
-import com.czertainly.core.dao.entity.AttributeContent2Object;
-import com.czertainly.core.dao.entity.AttributeContentItem;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
+import com.czertainly.core.attribute.engine.records.ObjectUuidAttributeContentDetail;
 import com.czertainly.core.dao.entity.AttributeDefinition;
 import com.czertainly.core.dao.entity.AttributeRelation;
 import com.czertainly.core.dao.repository.AttributeContent2ObjectRepository;
@@ -37,9 +37,15 @@ import com.czertainly.core.util.SearchHelper;
 import com.czertainly.core.util.converter.Sql2PredicateConverter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.format.FormatMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,6 +71,7 @@ public class AttributeEngine {
     private AttributeRelationRepository attributeRelationRepository;
     private AttributeContentItemRepository attributeContentItemRepository;
     private AttributeContent2ObjectRepository attributeContent2ObjectRepository;
+    private AttributeDefinitionCache attributeDefinitionCache;
 
     private AuthHelper authHelper;
 
@@ -93,6 +100,11 @@ public class AttributeEngine {
         this.attributeContent2ObjectRepository = attributeContent2ObjectRepository;
     }
 
+    @Autowired
+    public void setAttributeDefinitionCache(AttributeDefinitionCache attributeDefinitionCache) {
+        this.attributeDefinitionCache = attributeDefinitionCache;
+    }
+
     //region Search (Filtering) related methods
 
     public List<SearchFieldDataByGroupDto> getResourceSearchableFields(Resource resource, boolean settable) {
@@ -179,7 +191,10 @@ public class AttributeEngine {
     // TODO: make it generic to be used also for DATA attributes and update DTOs accordingly
     public List<MetadataResponseDto> getMappedMetadataContent(ObjectAttributeContentInfo contentInfo) {
         List<ObjectAttributeContentDetail> objectMetadataContents = attributeContent2ObjectRepository.getObjectAttributeContentDetail(AttributeType.META, contentInfo.connectorUuid(), null, contentInfo.objectType(), contentInfo.objectUuid(), contentInfo.sourceObjectType(), contentInfo.sourceObjectUuid());
+        return getMappedMetadataContent(objectMetadataContents);
+    }
 
+    private List<MetadataResponseDto> getMappedMetadataContent(List<ObjectAttributeContentDetail> objectMetadataContents) {
         Map<UUID, String> connectorMapping = new HashMap<>();
         Map<UUID, Map<Resource, Map<UUID, ResponseMetadataDto>>> mapping = new HashMap<>();
         for (ObjectAttributeContentDetail objectMetadataContent : objectMetadataContents) {
@@ -242,6 +257,7 @@ public class AttributeEngine {
     public void updateCustomAttributeResources(UUID uuid, List<Resource> resources) throws NotFoundException {
         AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByUuidAndType(uuid, AttributeType.CUSTOM).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         attributeRelationRepository.deleteAll(attributeRelationRepository.findByAttributeDefinitionUuid(attributeDefinition.getUuid()));
+        attributeDefinitionCache.evict(attributeDefinition);
         Set<String> differences = resources.stream().filter(e -> !Resource.getCustomAttributesResources().contains(e)).map(Resource::getCode).collect(Collectors.toSet());
         if (!differences.isEmpty()) {
             throw new ValidationException(ValidationError.create("Unsupported Resources for Custom Attribute binding: " + StringUtils.join(differences, ", ")));
@@ -280,6 +296,7 @@ public class AttributeEngine {
         attributeDefinition.setReadOnly(customAttribute.getProperties().isReadOnly());
         attributeDefinition.setDefinition(customAttribute);
         attributeDefinition = attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinitionCache.evict(attributeDefinition);
 
         // save relations
         if (resources != null) {
@@ -327,12 +344,17 @@ public class AttributeEngine {
         // load missing data attributes definitions from DB
         for (RequestAttributeDto requestAttributeDto : requestAttributes) {
             if (definitionsMapping.get(requestAttributeDto.getName()) == null) {
-                AttributeDefinition missingDefinition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttributeDto.getUuid()), requestAttributeDto.getName()).orElse(null);
+                AttributeDefinition missingDefinition = attributeDefinitionCache.getDefinition(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttributeDto.getUuid()), requestAttributeDto.getName()).orElse(null);
                 if (missingDefinition != null) {
                     // update operation - if attribute is retrieved by callback, we do not know its operation
                     if (!Objects.equals(missingDefinition.getOperation(), operation)) {
+                        // cached definition is detached copy, managed definition is updated so its relations and content items are kept
+                        attributeDefinitionRepository.findByUuid(missingDefinition.getUuid()).ifPresent(managedDefinition -> {
+                            managedDefinition.setOperation(operation);
+                            attributeDefinitionRepository.save(managedDefinition);
+                            attributeDefinitionCache.evict(managedDefinition);
+                        });
                         missingDefinition.setOperation(operation);
-                        attributeDefinitionRepository.save(missingDefinition);
                     }
                     definitionsMapping.put(requestAttributeDto.getName(), missingDefinition);
                 }
@@ -396,6 +418,7 @@ public class AttributeEngine {
         }
         attributeDefinition.setDefinition(dataAttribute);
         attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinitionCache.evict(attributeDefinition);
     }
 
     public AttributeDefinition updateMetadataAttributeDefinition(MetadataAttribute metadataAttribute, UUID connectorUuid) throws AttributeException {
@@ -407,10 +430,10 @@ public class AttributeEngine {
 
         AttributeDefinition attributeDefinition = null;
         if (isGlobal) {
-            attributeDefinition = attributeDefinitionRepository.findByTypeAndNameAndGlobal(AttributeType.META, metadataAttribute.getName(), true).orElse(null);
+            attributeDefinition = attributeDefinitionCache.getDefinitionByName(AttributeType.META, metadataAttribute.getName()).orElse(null);
         }
         if (attributeDefinition == null) {
-            attributeDefinition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.META, connectorUuid, UUID.fromString(metadataAttribute.getUuid()), metadataAttribute.getName()).orElse(null);
+            attributeDefinition = attributeDefinitionCache.getDefinition(AttributeType.META, connectorUuid, UUID.fromString(metadataAttribute.getUuid()), metadataAttribute.getName()).orElse(null);
         }
         if (attributeDefinition != null) {
             // check for change of content type
@@ -427,12 +450,24 @@ public class AttributeEngine {
 //            attributeDefinition.setOperation(operation);
             attributeDefinition.setGlobal(isGlobal);
         }
-        attributeDefinition.setLabel(metadataAttribute.getProperties().getLabel());
-
         // we don't need content in definition
         metadataAttribute.setContent(List.of());
+
+        // metadata are updated with each object they are reported for, store definition only when it has changed
+        if (attributeDefinition.getUuid() != null
+                && Objects.equals(attributeDefinition.getLabel(), metadataAttribute.getProperties().getLabel())
+                && ATTRIBUTES_OBJECT_MAPPER.valueToTree(metadataAttribute).equals(ATTRIBUTES_OBJECT_MAPPER.valueToTree(attributeDefinition.getDefinition()))) {
+            return attributeDefinition;
+        }
+
+        // cached definition is detached copy, changes are applied to managed definition so its relations and content items are kept
+        if (attributeDefinition.getUuid() != null) {
+            attributeDefinition = attributeDefinitionRepository.findByUuid(attributeDefinition.getUuid()).orElseThrow(() -> new AttributeException("Metadata attribute definition was removed while being updated.", metadataAttribute.getUuid(), metadataAttribute.getName(), metadataAttribute.getType(), connectorUuid == null ? null : connectorUuid.toString()));
+        }
+        attributeDefinition.setLabel(metadataAttribute.getProperties().getLabel());
         attributeDefinition.setDefinition(metadataAttribute);
-        attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinition = attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinitionCache.evict(attributeDefinition);
 
         return attributeDefinition;
     }
@@ -445,18 +480,29 @@ public class AttributeEngine {
             return;
         }
 
+        // content of all metadata is stored in one batch
+        ArrayNode contentItems = ATTRIBUTES_OBJECT_MAPPER.createArrayNode();
         for (MetadataAttribute metadataAttribute : attributes) {
             if (metadataAttribute.getType() != AttributeType.META) {
                 continue;
             }
 
-            updateMetadataAttribute(metadataAttribute, objectAttributeContentInfo);
+            List<BaseAttributeContent> attributeContentItems = metadataAttribute.getContent();
+            AttributeDefinition attributeDefinition = prepareMetadataAttributeContent(contentItems, metadataAttribute, objectAttributeContentInfo);
+            addObjectAttributeContent(contentItems, attributeDefinition, objectAttributeContentInfo, attributeContentItems);
         }
+        insertObjectAttributesContent(contentItems, objectAttributeContentInfo);
     }
 
     public void updateMetadataAttribute(MetadataAttribute metadataAttribute, ObjectAttributeContentInfo objectAttributeContentInfo) throws AttributeException {
+        ArrayNode contentItems = ATTRIBUTES_OBJECT_MAPPER.createArrayNode();
+        AttributeDefinition attributeDefinition = prepareMetadataAttributeContent(contentItems, metadataAttribute, objectAttributeContentInfo);
+        addObjectAttributeContent(contentItems, attributeDefinition, objectAttributeContentInfo, metadataAttribute.getContent());
+        insertObjectAttributesContent(contentItems, objectAttributeContentInfo);
+    }
+
+    private AttributeDefinition prepareMetadataAttributeContent(ArrayNode contentItems, MetadataAttribute metadataAttribute, ObjectAttributeContentInfo objectAttributeContentInfo) throws AttributeException {
         UUID connectorUuid = objectAttributeContentInfo.connectorUuid();
-        List<BaseAttributeContent> contentItems = metadataAttribute.getContent();
         AttributeDefinition attributeDefinition = updateMetadataAttributeDefinition(metadataAttribute, connectorUuid);
 
         if (objectAttributeContentInfo.connectorUuid() == null) {
@@ -465,9 +511,9 @@ public class AttributeEngine {
 
         // delete content of metadata for this object as its content should be replaced
         if (metadataAttribute.getProperties().isOverwrite()) {
-            deleteObjectAttributeDefinitionContent(attributeDefinition.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid());
+            deleteObjectAttributeDefinitionContent(contentItems, attributeDefinition.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid());
         }
-        createObjectAttributeContent(attributeDefinition, objectAttributeContentInfo, contentItems);
+        return attributeDefinition;
     }
 
     public List<DataAttribute> getDefinitionObjectAttributeContent(AttributeType attributeType, UUID connectorUuid, String operation, Resource objectType, UUID objectUuid) {
@@ -498,19 +544,58 @@ public class AttributeEngine {
     }
 
     private List<ResponseAttributeDto> getObjectCustomAttributesContent(Resource objectType, UUID objectUuid, SecurityResourceFilter securityResourceFilter) {
-        List<UUID> allowedAttributes = null;
-        List<UUID> forbiddenAttributes = null;
-        if (securityResourceFilter != null) {
-            if (securityResourceFilter.areOnlySpecificObjectsAllowed()) {
-                allowedAttributes = securityResourceFilter.getAllowedObjects();
-                if (allowedAttributes.isEmpty()) allowedAttributes.add(null);
-            } else if (!securityResourceFilter.getForbiddenObjects().isEmpty()) {
-                forbiddenAttributes = securityResourceFilter.getForbiddenObjects();
+        List<ObjectAttributeContent> objectContents = attributeContent2ObjectRepository.getObjectCustomAttributesContent(AttributeType.CUSTOM, objectType, objectUuid, getAllowedAttributes(securityResourceFilter), getForbiddenAttributes(securityResourceFilter));
+        return getResponseAttributes(objectContents);
+    }
+
+    /**
+     * Load custom attributes and metadata content of multiple objects in single query, e.g. to evaluate rules on whole batch of objects
+     * @param objectType type of the objects
+     * @param objectUuids UUIDs of the objects
+     * @return content mapped by object UUID, every requested object is present in the map
+     */
+    public Map<UUID, ObjectAttributesContent> getObjectsAttributesContent(Resource objectType, List<UUID> objectUuids) {
+        logger.debug("Getting the custom attributes and metadata for {} {} objects", objectUuids.size(), objectType.getLabel());
+        if (objectUuids.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        SecurityResourceFilter securityResourceFilter = loadCustomAttributesSecurityResourceFilter();
+        List<ObjectUuidAttributeContentDetail> objectsContents = attributeContent2ObjectRepository.getObjectsCustomAttributesAndMetadataContent(AttributeType.CUSTOM, AttributeType.META, objectType, objectUuids, getAllowedAttributes(securityResourceFilter), getForbiddenAttributes(securityResourceFilter));
+
+        Map<UUID, List<ObjectAttributeContent>> customAttributesContents = new HashMap<>();
+        Map<UUID, List<ObjectAttributeContentDetail>> metadataContents = new HashMap<>();
+        for (ObjectUuidAttributeContentDetail objectContent : objectsContents) {
+            if (objectContent.type() == AttributeType.CUSTOM) {
+                customAttributesContents.computeIfAbsent(objectContent.objectUuid(), k -> new ArrayList<>()).add(objectContent.toObjectAttributeContent());
+            } else {
+                metadataContents.computeIfAbsent(objectContent.objectUuid(), k -> new ArrayList<>()).add(objectContent.toObjectAttributeContentDetail());
             }
         }
 
-        List<ObjectAttributeContent> objectContents = attributeContent2ObjectRepository.getObjectCustomAttributesContent(AttributeType.CUSTOM, objectType, objectUuid, allowedAttributes, forbiddenAttributes);
-        return getResponseAttributes(objectContents);
+        Map<UUID, ObjectAttributesContent> mapping = new HashMap<>();
+        for (UUID objectUuid : objectUuids) {
+            mapping.put(objectUuid, new ObjectAttributesContent(
+                    getResponseAttributes(customAttributesContents.getOrDefault(objectUuid, List.of())),
+                    getMappedMetadataContent(metadataContents.getOrDefault(objectUuid, List.of()))));
+        }
+        return mapping;
+    }
+
+    private static List<UUID> getAllowedAttributes(SecurityResourceFilter securityResourceFilter) {
+        if (securityResourceFilter == null || !securityResourceFilter.areOnlySpecificObjectsAllowed()) {
+            return null;
+        }
+        List<UUID> allowedAttributes = securityResourceFilter.getAllowedObjects();
+        if (allowedAttributes.isEmpty()) allowedAttributes.add(null);
+        return allowedAttributes;
+    }
+
+    private static List<UUID> getForbiddenAttributes(SecurityResourceFilter securityResourceFilter) {
+        if (securityResourceFilter == null || securityResourceFilter.areOnlySpecificObjectsAllowed() || securityResourceFilter.getForbiddenObjects().isEmpty()) {
+            return null;
+        }
+        return securityResourceFilter.getForbiddenObjects();
     }
 
     public List<ResponseAttributeDto> getObjectDataAttributesContent(UUID connectorUuid, String operation, Resource objectType, UUID objectUuid) {
@@ -529,7 +614,7 @@ public class AttributeEngine {
         List<DataAttribute> dataAttributes = new ArrayList<>();
         String connectorUuidStr = connectorUuid == null ? null : connectorUuid.toString();
         for (RequestAttributeDto requestAttribute : requestAttributes) {
-            AttributeDefinition definition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttribute.getUuid()), requestAttribute.getName())
+            AttributeDefinition definition = attributeDefinitionCache.getDefinition(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttribute.getUuid()), requestAttribute.getName())
                     .orElseThrow(() -> new AttributeException("Missing data attribute definition", requestAttribute.getUuid() == null ? null : requestAttribute.getUuid(), requestAttribute.getName(), AttributeType.DATA, connectorUuidStr));
 
             validateAttributeContent(definition, requestAttribute.getContent());
@@ -606,10 +691,12 @@ public class AttributeEngine {
         // delete all content for operation
         ObjectAttributeContentInfo objectAttributeContentInfo = new ObjectAttributeContentInfo(connectorUuid, objectType, objectUuid);
         deleteOperationObjectAttributesContent(AttributeType.DATA, operation, objectAttributeContentInfo);
+        ArrayNode contentItems = ATTRIBUTES_OBJECT_MAPPER.createArrayNode();
         for (RequestAttributeDto requestAttribute : requestAttributes) {
-            AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttribute.getUuid()), requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
-            createObjectAttributeContent(attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent());
+            AttributeDefinition attributeDefinition = attributeDefinitionCache.getDefinition(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttribute.getUuid()), requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
+            addObjectAttributeContent(contentItems, attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent());
         }
+        insertObjectAttributesContent(contentItems, objectAttributeContentInfo);
 
         return getObjectDataAttributesContent(connectorUuid, operation, objectType, objectUuid);
     }
@@ -623,16 +710,18 @@ public class AttributeEngine {
         SecurityResourceFilter securityResourceFilter = loadCustomAttributesSecurityResourceFilter();
         validateCustomAttributesContent(objectType, requestAttributes, securityResourceFilter);
 
+        ObjectAttributeContentInfo objectAttributeContentInfo = new ObjectAttributeContentInfo(objectType, objectUuid);
+        ArrayNode contentItems = ATTRIBUTES_OBJECT_MAPPER.createArrayNode();
         if (securityResourceFilter == null) {
             // custom attributes content is automatically replaced
             deleteObjectAttributeContentByType(AttributeType.CUSTOM, objectType, objectUuid);
             for (RequestAttributeDto requestAttribute : requestAttributes) {
-                AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
-                createObjectAttributeContent(attributeDefinition, new ObjectAttributeContentInfo(objectType, objectUuid), requestAttribute.getContent());
+                AttributeDefinition attributeDefinition = attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
+                addObjectAttributeContent(contentItems, attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent());
             }
         } else {
             for (RequestAttributeDto requestAttribute : requestAttributes) {
-                AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
+                AttributeDefinition attributeDefinition = attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
                 if ((securityResourceFilter.areOnlySpecificObjectsAllowed())) {
                     if (!securityResourceFilter.getAllowedObjects().contains(attributeDefinition.getUuid())) {
                         throw new AttributeException(String.format("Updating custom attribute `%s` is not allowed", attributeDefinition.getName()));
@@ -643,10 +732,11 @@ public class AttributeEngine {
                     }
                 }
 
-                deleteObjectAttributeDefinitionContent(attributeDefinition.getUuid(), objectType, objectUuid);
-                createObjectAttributeContent(attributeDefinition, new ObjectAttributeContentInfo(objectType, objectUuid), requestAttribute.getContent());
+                deleteObjectAttributeDefinitionContent(contentItems, attributeDefinition.getUuid(), objectType, objectUuid);
+                addObjectAttributeContent(contentItems, attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent());
             }
         }
+        insertObjectAttributesContent(contentItems, objectAttributeContentInfo);
 
         return getObjectCustomAttributesContent(objectType, objectUuid, securityResourceFilter);
     }
@@ -656,7 +746,7 @@ public class AttributeEngine {
         if (definitionUuid != null) {
             attributeDefinition = attributeDefinitionRepository.findByUuid(definitionUuid).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, definitionUuid.toString()));
         } else {
-            attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, attributeName).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, attributeName.toString()));
+            attributeDefinition = attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, attributeName).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, attributeName.toString()));
         }
         if (attributeDefinition.getType() != AttributeType.CUSTOM) {
             throw new AttributeException("Cannot update content of attribute. Only custom attributes are allowed to be updated directly.", attributeDefinition.getUuid().toString(), attributeDefinition.getName(), attributeDefinition.getType(), null);
@@ -665,7 +755,7 @@ public class AttributeEngine {
             throw new AttributeException("Cannot update content of disabled attribute.", attributeDefinition.getUuid().toString(), attributeDefinition.getName(), attributeDefinition.getType(), null);
         }
 
-        AttributeRelation relation = attributeRelationRepository.findByResourceAndAttributeDefinitionUuidAndAttributeDefinitionTypeAndAttributeDefinitionEnabled(objectType, attributeDefinition.getUuid(), AttributeType.CUSTOM, true).orElseThrow(() -> new AttributeException("Cannot update content of attribute since it is not associated with resource " + objectType.getLabel(), attributeDefinition.getUuid().toString(), attributeDefinition.getName(), attributeDefinition.getType(), null));
+        AttributeRelation relation = attributeDefinitionCache.getEnabledCustomAttributeRelation(objectType, attributeDefinition.getUuid()).orElseThrow(() -> new AttributeException("Cannot update content of attribute since it is not associated with resource " + objectType.getLabel(), attributeDefinition.getUuid().toString(), attributeDefinition.getName(), attributeDefinition.getType(), null));
 
         // filter out updating
         SecurityResourceFilter securityResourceFilter = loadCustomAttributesSecurityResourceFilter();
@@ -808,6 +898,7 @@ public class AttributeEngine {
         attributeContent2ObjectRepository.deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuid(AttributeType.DATA, connectorUuid);
         attributeContentItemRepository.deleteByAttributeDefinitionTypeAndAttributeDefinitionConnectorUuid(AttributeType.DATA, connectorUuid);
         long deletedDefinitions = attributeDefinitionRepository.deleteByTypeAndConnectorUuid(AttributeType.DATA, connectorUuid);
+        attributeDefinitionCache.evictAll();
         logger.debug("Deleted {} data attribute definitions for connector with UUID {}", deletedDefinitions, connectorUuid);
 
         // remove connector reference from metadata definitions and content
@@ -820,12 +911,14 @@ public class AttributeEngine {
         AttributeDefinition definition = attributeDefinitionRepository.findByUuidAndType(definitionUuid, attributeType).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, definitionUuid.toString()));
         deleteAllAttributeDefinitionContent(definitionUuid);
         attributeDefinitionRepository.delete(definition);
+        attributeDefinitionCache.evict(definition);
     }
 
     public void deleteAttributeDefinition(AttributeType attributeType, UUID connectorUuid, UUID attributeUuid, String name) throws NotFoundException {
         AttributeDefinition definition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(attributeType, connectorUuid, attributeUuid, name).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, attributeUuid));
         deleteAllAttributeDefinitionContent(definition.getUuid());
         attributeDefinitionRepository.delete(definition);
+        attributeDefinitionCache.evict(definition);
     }
 
     public void deleteAllObjectAttributeContent(Resource objectType, UUID objectUuid) {
@@ -834,6 +927,11 @@ public class AttributeEngine {
         logger.debug("Deleted {} attribute content items for {} with UUID {}", deletedCount, objectType.getLabel(), objectUuid);
     }
 
+    public void deleteAllObjectsAttributeContent(Resource objectType, List<UUID> objectUuids) {
+        long deletedCount = attributeContent2ObjectRepository.deleteByObjectTypeAndObjectUuids(objectType, objectUuids);
+        logger.debug("Deleted {} attribute content items for {} {} objects", deletedCount, objectUuids.size(), objectType.getLabel());
+    }
+
     public void deleteObjectAttributesContent(AttributeType attributeType, ObjectAttributeContentInfo contentInfo) {
         logger.debug("Deleting the {} attribute content for resource {} with UUID {}. Info: {}", attributeType.getLabel(), contentInfo.objectType().getLabel(), contentInfo.objectUuid(), contentInfo);
         long deletedCount = attributeContent2ObjectRepository.deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(attributeType, contentInfo.connectorUuid(), contentInfo.objectType(), contentInfo.objectUuid(), contentInfo.sourceObjectType(), contentInfo.sourceObjectUuid());
@@ -847,42 +945,61 @@ public class AttributeEngine {
     }
 
     private void createObjectAttributeContent(AttributeDefinition attributeDefinition, ObjectAttributeContentInfo objectAttributeContentInfo, List<BaseAttributeContent> attributeContentItems) throws AttributeException {
+        ArrayNode contentItems = ATTRIBUTES_OBJECT_MAPPER.createArrayNode();
+        addObjectAttributeContent(contentItems, attributeDefinition, objectAttributeContentInfo, attributeContentItems);
+        insertObjectAttributesContent(contentItems, objectAttributeContentInfo);
+    }
+
+    private void addObjectAttributeContent(ArrayNode contentItems, AttributeDefinition attributeDefinition, ObjectAttributeContentInfo objectAttributeContentInfo, List<BaseAttributeContent> attributeContentItems) throws AttributeException {
         logger.debug("Creating the attribute content for attribute {} of type {}. Info: {}", attributeDefinition.getName(), attributeDefinition.getType().getLabel(), objectAttributeContentInfo);
 
         validateAttributeContent(attributeDefinition, attributeContentItems);
+        if (attributeContentItems == null) {
+            return;
+        }
+
+        // content is serialized same way as JSON column of content item, so it has the same hash as already stored content item
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        FormatMapper jsonFormatMapper = session.getFactory().getSessionFactoryOptions().getJsonFormatMapper();
+        JavaType<BaseAttributeContent> contentJavaType = session.getFactory().getTypeConfiguration().getJavaTypeRegistry().getDescriptor(BaseAttributeContent.class);
+
+        Set<String> contentJsons = new HashSet<>();
         for (int i = 0; i < attributeContentItems.size(); i++) {
-            AttributeContentItem contentItemEntity;
-            BaseAttributeContent<?> attributeContentItem = attributeContentItems.get(i);
-            Optional<AttributeContentItem> contentItemEntityResponse = attributeContentItemRepository.findByJsonAndAttributeDefinitionUuid(attributeContentItem, attributeDefinition.getUuid());
-
-            // check if content item for this attribute definition exists to don't create duplicate items
-            if (contentItemEntityResponse.isPresent()) {
-                contentItemEntity = contentItemEntityResponse.get();
-
-                // check if that content item is not already assigned to same object for meta attribute
-                // TODO: do we need to allow duplicate content items for one attribute definition? Maybe if attribute is list or do this check just for META attributes?
-                var aco = attributeContent2ObjectRepository.getByConnectorUuidAndAttributeContentItemUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(objectAttributeContentInfo.connectorUuid(), contentItemEntity.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid(), objectAttributeContentInfo.sourceObjectType(), objectAttributeContentInfo.sourceObjectUuid());
-                if (!aco.isEmpty()) {
-                    continue;
-                }
-            } else {
-                contentItemEntity = new AttributeContentItem();
-                contentItemEntity.setJson(attributeContentItem);
-                contentItemEntity.setAttributeDefinitionUuid(attributeDefinition.getUuid());
-                contentItemEntity = attributeContentItemRepository.save(contentItemEntity);
+            String contentJson = jsonFormatMapper.toString(attributeContentItems.get(i), contentJavaType, session);
+            // same content item is assigned to object only once
+            if (!contentJsons.add(contentJson)) {
+                continue;
             }
+            contentItems.addObject()
+                    .put("uuid", UUID.randomUUID().toString())
+                    .put("itemUuid", UUID.randomUUID().toString())
+                    .put("definitionUuid", attributeDefinition.getUuid().toString())
+                    .put("order", i)
+                    .putRawValue("json", new RawValue(contentJson));
+        }
+    }
 
-            final AttributeContent2Object objectContentItem = new AttributeContent2Object();
-            objectContentItem.setObjectUuid(objectAttributeContentInfo.objectUuid());
-            objectContentItem.setObjectType(objectAttributeContentInfo.objectType());
-            objectContentItem.setConnectorUuid(objectAttributeContentInfo.connectorUuid());
-            objectContentItem.setSourceObjectUuid(objectAttributeContentInfo.sourceObjectUuid());
-            objectContentItem.setSourceObjectType(objectAttributeContentInfo.sourceObjectType());
-            objectContentItem.setSourceObjectName(objectAttributeContentInfo.sourceObjectName());
-            objectContentItem.setOrder(i);
-            objectContentItem.setAttributeContentItem(contentItemEntity);
-            attributeContent2ObjectRepository.save(objectContentItem);
+    /**
+     * Store content items in two statements regardless of their count. Missing content items are inserted first and then all content items
+     * are resolved by their attribute definition and content hash and assigned to object if not assigned yet.
+     */
+    private void insertObjectAttributesContent(ArrayNode contentItems, ObjectAttributeContentInfo objectAttributeContentInfo) {
+        if (contentItems.isEmpty()) {
+            return;
         }
+
+        ObjectNode objectInfo = ATTRIBUTES_OBJECT_MAPPER.createObjectNode()
+                .put("objectType", objectAttributeContentInfo.objectType().name())
+                .put("objectUuid", objectAttributeContentInfo.objectUuid().toString())
+                .put("connectorUuid", objectAttributeContentInfo.connectorUuid() == null ? null : objectAttributeContentInfo.connectorUuid().toString())
+                .put("sourceObjectType", objectAttributeContentInfo.sourceObjectType() == null ? null : objectAttributeContentInfo.sourceObjectType().name())
+                .put("sourceObjectUuid", objectAttributeContentInfo.sourceObjectUuid() == null ? null : objectAttributeContentInfo.sourceObjectUuid().toString())
+                .put("sourceObjectName", objectAttributeContentInfo.sourceObjectName());
+
+        String contentItemsJson = contentItems.toString();
+        int insertedItems = attributeContentItemRepository.insertMissingContentItems(contentItemsJson);
+        int insertedObjectItems = attributeContent2ObjectRepository.insertMissingObjectContentItems(contentItemsJson, objectInfo.toString());
+        logger.debug("Inserted {} new content items and assigned {} of {} content items to {} with UUID {}", insertedItems, insertedObjectItems, contentItems.size(), objectAttributeContentInfo.objectType().getLabel(), objectAttributeContentInfo.objectUuid());
     }
 
     private List<ValidationError> validateAttributesContent(Map<String, AttributeDefinition> definitionsMapping, List<RequestAttributeDto> attributes) {
@@ -963,6 +1080,20 @@ public class AttributeEngine {
         logger.debug("Deleted {} attribute content items for {} with UUID {} for attribute {}", deletedCount, objectType.getLabel(), objectUuid, definitionUuid);
     }
 
+    /**
+     * Delete content of attribute assigned to object while content items are being batched. Content of the attribute already added to the batch
+     * is discarded too, so the batch inserted afterwards has the same result as if every attribute was deleted and inserted in order.
+     */
+    private void deleteObjectAttributeDefinitionContent(ArrayNode contentItems, UUID definitionUuid, Resource objectType, UUID objectUuid) {
+        String definitionUuidStr = definitionUuid.toString();
+        for (int i = contentItems.size() - 1; i >= 0; i--) {
+            if (definitionUuidStr.equals(contentItems.get(i).path("definitionUuid").asText())) {
+                contentItems.remove(i);
+            }
+        }
+        deleteObjectAttributeDefinitionContent(definitionUuid, objectType, objectUuid);
+    }
+
     private SecurityResourceFilter loadCustomAttributesSecurityResourceFilter() {
         // if user is anonymous or protocol user, allow all custom attribute content for sake of system processes and protocol operations
         boolean loadAllContent = false;
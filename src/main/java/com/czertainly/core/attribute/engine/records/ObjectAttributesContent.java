@@ -0,0 +1,15 @@
+package com.czertainly.core.attribute.engine.records;
+
+import com.czertainly.api.model.client.attribute.ResponseAttributeDto;
+import com.czertainly.api.model.client.metadata.MetadataResponseDto;
+
+import java.util.List;
+
+/**
+ * Custom attributes and metadata content of an object loaded at once to evaluate rules on it
+ */
+public record ObjectAttributesContent(
+    List<ResponseAttributeDto> customAttributes,
+    List<MetadataResponseDto> metadata
+)
+{}
@@ -0,0 +1,32 @@
+package com.czertainly.core.attribute.engine.records;
+
+import com.czertainly.api.model.common.attribute.v2.AttributeType;
+import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType;
+import com.czertainly.api.model.common.attribute.v2.content.BaseAttributeContent;
+import com.czertainly.api.model.core.auth.Resource;
+
+import java.util.UUID;
+
+public record ObjectUuidAttributeContentDetail(
+    UUID objectUuid,
+    UUID uuid,
+    String name,
+    String label,
+    AttributeType type,
+    AttributeContentType contentType,
+    BaseAttributeContent<?> contentItem,
+    UUID connectorUuid,
+    String connectorName,
+    Resource sourceObjectType,
+    UUID sourceObjectUuid,
+    String sourceObjectName
+)
+{
+    public ObjectAttributeContent toObjectAttributeContent() {
+        return new ObjectAttributeContent(uuid, name, label, type, contentType, contentItem);
+    }
+
+    public ObjectAttributeContentDetail toObjectAttributeContentDetail() {
+        return new ObjectAttributeContentDetail(uuid, name, label, type, contentType, contentItem, connectorUuid, connectorName, sourceObjectType, sourceObjectUuid, sourceObjectName);
+    }
+}
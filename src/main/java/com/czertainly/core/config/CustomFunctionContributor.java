@@ -0,0 +1,26 @@
+package com.czertainly.core.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers custom SQL functions usable in JPQL and Criteria queries. Registered through
+ * META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class CustomFunctionContributor implements FunctionContributor {
+
+    /**
+     * Function checking if value is contained in array bound as single parameter, i.e. {@code value = ANY(?)}.
+     * Unlike IN list with parameter for each value, statement stays the same regardless of number of values.
+     */
+    public static final String IN_ARRAY_FUNCTION = "in_array";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                IN_ARRAY_FUNCTION,
+                "(?1 = any(?2))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
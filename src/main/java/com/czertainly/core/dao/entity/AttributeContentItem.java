@@ -16,7 +16,7 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "attribute_content_item")
+@Table(name = "attribute_content_item", uniqueConstraints = {@UniqueConstraint(name = "attribute_content_item_definition_hash_key", columnNames = {"attribute_definition_uuid", "json_hash"})})
 public class AttributeContentItem extends UniquelyIdentified {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,6 +30,9 @@ public class AttributeContentItem extends UniquelyIdentified {
     @JdbcTypeCode(SqlTypes.JSON)
     private BaseAttributeContent<?> json;
 
+    @Column(name = "json_hash", length = 32, insertable = false, updatable = false, columnDefinition = "VARCHAR(32) GENERATED ALWAYS AS (md5(CAST(json AS TEXT))) STORED")
+    private String jsonHash;
+
     @JsonBackReference
     @OneToMany(mappedBy = "attributeContentItem", fetch = FetchType.LAZY)
     private List<AttributeContent2Object> objects;
@@ -58,6 +58,12 @@ public class Certificate extends UniquelyIdentifiedAndAudited implements Seriali
     @Column(name = "subject_dn_normalized")
     private String subjectDnNormalized;
 
+    @Column(name = "subject_key_identifier")
+    private String subjectKeyIdentifier;
+
+    @Column(name = "authority_key_identifier")
+    private String authorityKeyIdentifier;
+
     @Column(name = "not_before")
     private Date notBefore;
 
@@ -431,6 +437,22 @@ public class Certificate extends UniquelyIdentifiedAndAudited implements Seriali
         this.subjectDnNormalized = subjectDnNormalized;
     }
 
+    public String getSubjectKeyIdentifier() {
+        return subjectKeyIdentifier;
+    }
+
+    public void setSubjectKeyIdentifier(String subjectKeyIdentifier) {
+        this.subjectKeyIdentifier = subjectKeyIdentifier;
+    }
+
+    public String getAuthorityKeyIdentifier() {
+        return authorityKeyIdentifier;
+    }
+
+    public void setAuthorityKeyIdentifier(String authorityKeyIdentifier) {
+        this.authorityKeyIdentifier = authorityKeyIdentifier;
+    }
+
     public CertificateContent getCertificateContent() {
         return certificateContent;
     }
@@ -40,6 +40,14 @@ public class CmpTransaction extends UniquelyIdentified {
     @Column(name = "custom_reason")
     private String customReason;
 
+    /**
+     * type of the certificate request (ir, cr, kur) of the transaction, response to pollReq is of corresponding type
+     */
+    @Setter
+    @Getter
+    @Column(name = "request_type")
+    private Integer requestType;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JsonBackReference
     @JoinColumn(name = "cmp_profile_uuid", insertable = false, updatable = false)
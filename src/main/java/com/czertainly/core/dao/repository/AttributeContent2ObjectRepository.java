@@ -6,6 +6,7 @@ import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContent;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeDefinitionContent;
+import com.czertainly.core.attribute.engine.records.ObjectUuidAttributeContentDetail;
 import com.czertainly.core.dao.entity.AttributeContent2Object;
 import com.czertainly.core.model.SearchFieldObject;
 import org.springframework.data.jpa.repository.Modifying;
@@ -18,8 +19,6 @@ import java.util.UUID;
 @Repository
 public interface AttributeContent2ObjectRepository extends SecurityFilterRepository<AttributeContent2Object, String> {
 
-    List<AttributeContent2Object> getByConnectorUuidAndAttributeContentItemUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(UUID connectorUuid, UUID attributeContentItemUuid, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
-
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
                 ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json)
@@ -108,10 +107,50 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
             """)
     List<ObjectAttributeDefinitionContent> getObjectAttributeDefinitionContent(AttributeType attributeType, UUID connectorUuid, String operation, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
 
+    @Query("""
+            SELECT new com.czertainly.core.attribute.engine.records.ObjectUuidAttributeContentDetail(
+                aco.objectUuid, ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, aco.connectorUuid, c.name, aco.sourceObjectType, aco.sourceObjectUuid, aco.sourceObjectName)
+                FROM AttributeContent2Object aco
+                LEFT JOIN Connector c ON c.uuid = aco.connectorUuid
+                JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
+                JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
+                WHERE aco.objectType = ?3 AND aco.objectUuid IN (?4)
+                    AND ((ad.type = ?1 AND ad.enabled = true
+                            AND (COALESCE(?5) IS NULL OR aci.attributeDefinitionUuid IN (?5))
+                            AND (COALESCE(?6) IS NULL OR aci.attributeDefinitionUuid NOT IN (?6)))
+                        OR ad.type = ?2)
+                ORDER BY aco.objectUuid, aci.attributeDefinitionUuid, aco.order
+            """)
+    List<ObjectUuidAttributeContentDetail> getObjectsCustomAttributesAndMetadataContent(AttributeType customAttributeType, AttributeType metadataAttributeType, Resource objectType, List<UUID> objectUuids, List<UUID> allowedDefinitionUuids, List<UUID> forbiddenDefinitionUuids);
+
+    /**
+     * Link content items to object, content items are resolved by attribute definition and hash of content JSON.
+     * Content item already linked to the object with the same connector and source object is skipped.
+     * @param contentItems JSON array of content items with properties uuid, definitionUuid, order and json
+     * @param objectInfo JSON object with properties objectType, objectUuid, connectorUuid, sourceObjectType, sourceObjectUuid and sourceObjectName
+     * @return number of inserted links
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO {h-schema}attribute_content_2_object (uuid, attribute_content_item_uuid, object_type, object_uuid, connector_uuid, source_object_type, source_object_uuid, source_object_name, item_order)
+                SELECT CAST(item ->> 'uuid' AS uuid), aci.uuid, info ->> 'objectType', CAST(info ->> 'objectUuid' AS uuid),
+                    CAST(info ->> 'connectorUuid' AS uuid), info ->> 'sourceObjectType', CAST(info ->> 'sourceObjectUuid' AS uuid), info ->> 'sourceObjectName', CAST(item ->> 'order' AS integer)
+                FROM jsonb_array_elements(CAST(?1 AS jsonb)) AS items(item)
+                CROSS JOIN (SELECT CAST(?2 AS jsonb)) AS target(info)
+                JOIN {h-schema}attribute_content_item aci ON aci.attribute_definition_uuid = CAST(item ->> 'definitionUuid' AS uuid)
+                    AND aci.json_hash = md5(CAST(item -> 'json' AS text)) AND aci.json = item -> 'json'
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertMissingObjectContentItems(String contentItems, String objectInfo);
+
     @Modifying
     @Query("UPDATE AttributeContent2Object aco SET aco.connectorUuid = NULL WHERE aco.connectorUuid = ?1")
     void removeConnectorByConnectorUuid(UUID connectorUuid);
 
+    @Modifying
+    @Query("DELETE FROM AttributeContent2Object aco WHERE aco.objectType = ?1 AND aco.objectUuid IN ?2")
+    int deleteByObjectTypeAndObjectUuids(Resource objectType, List<UUID> objectUuids);
+
     long deleteByObjectTypeAndObjectUuid(Resource objectType, UUID objectUuid);
     long deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuid(AttributeType attributeType, UUID connectorUuid);
     long deleteByAttributeContentItemAttributeDefinitionTypeAndObjectTypeAndObjectUuid(AttributeType attributeType, Resource objectType, UUID objectUuid);
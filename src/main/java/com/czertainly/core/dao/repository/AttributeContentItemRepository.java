@@ -1,18 +1,30 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.api.model.common.attribute.v2.AttributeType;
-import com.czertainly.api.model.common.attribute.v2.content.BaseAttributeContent;
 import com.czertainly.core.dao.entity.AttributeContentItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AttributeContentItemRepository extends JpaRepository<AttributeContentItem, String> {
 
-    Optional<AttributeContentItem> findByJsonAndAttributeDefinitionUuid(BaseAttributeContent<?> attributeContent, UUID definitionUuid);
+    /**
+     * Insert content items that do not exist yet for their attribute definition, existing items are found by hash of content JSON
+     * @param contentItems JSON array of content items with properties itemUuid, definitionUuid and json
+     * @return number of inserted content items
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO {h-schema}attribute_content_item (uuid, attribute_definition_uuid, json)
+                SELECT CAST(item ->> 'itemUuid' AS uuid), CAST(item ->> 'definitionUuid' AS uuid), item -> 'json'
+                FROM jsonb_array_elements(CAST(?1 AS jsonb)) AS items(item)
+            ON CONFLICT (attribute_definition_uuid, json_hash) DO NOTHING
+            """, nativeQuery = true)
+    int insertMissingContentItems(String contentItems);
 
     long deleteByAttributeDefinitionUuid(UUID definitionUuid);
     long deleteByAttributeDefinitionTypeAndAttributeDefinitionConnectorUuid(AttributeType attributeType, UUID connectorUuid);
@@ -1,6 +1,7 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.CertificateContent;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -18,4 +19,11 @@ public interface CertificateContentRepository extends SecurityFilterRepository<C
             "WHERE t1.id IS NULL AND t2.id IS null")
     List<CertificateContent> findCertificateContentNotUsed();
 
+    @Modifying
+    @Query("DELETE FROM CertificateContent c " +
+            "WHERE c.id IN ?1 " +
+            "AND NOT EXISTS (SELECT 1 FROM Certificate t1 WHERE t1.certificateContentId = c.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM DiscoveryCertificate t2 WHERE t2.certificateContentId = c.id)")
+    int deleteNotUsedByIds(List<Long> ids);
+
 }
@@ -2,11 +2,18 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.CertificateEventHistory;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface CertificateEventHistoryRepository extends SecurityFilterRepository<CertificateEventHistory, Long> {
     List<CertificateEventHistory> findByCertificateOrderByCreatedDesc(Certificate certificate);
+
+    @Modifying
+    @Query("DELETE FROM CertificateEventHistory h WHERE h.certificateUuid IN ?1")
+    int deleteByCertificateUuids(List<UUID> certificateUuids);
 }
@@ -2,8 +2,15 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.CertificateLocation;
 import com.czertainly.core.dao.entity.CertificateLocationId;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface CertificateLocationRepository extends SecurityFilterRepository<CertificateLocation, CertificateLocationId> {
+
+    @Query("SELECT DISTINCT cl.id.certificateUuid FROM CertificateLocation cl WHERE cl.id.certificateUuid IN ?1")
+    List<UUID> findCertificateUuidsByCertificateUuids(List<UUID> certificateUuids);
 }
@@ -4,7 +4,6 @@ import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.CertificateContent;
 import com.czertainly.core.dao.entity.RaProfile;
-import com.czertainly.core.dao.repository.custom.CustomCertificateRepository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
@@ -18,7 +17,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CertificateRepository extends SecurityFilterRepository<Certificate, Long>, CustomCertificateRepository {
+public interface CertificateRepository extends SecurityFilterRepository<Certificate, Long> {
 
     @EntityGraph(attributePaths = {"certificateContent"})
     Optional<Certificate> findByUuid(UUID uuid);
@@ -54,7 +53,14 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
 
     @Modifying
     @Query("delete from Certificate u where u.uuid in ?1")
-    void deleteCertificateWithIds(List<String> uuids);
+    int deleteCertificateWithIds(List<UUID> uuids);
+
+    @Query("SELECT DISTINCT c.certificateContentId FROM Certificate c WHERE c.uuid IN ?1 AND c.certificateContentId IS NOT NULL")
+    List<Long> findCertificateContentIdsByUuids(List<UUID> uuids);
+
+    @Modifying
+    @Query("UPDATE Certificate c SET c.raProfileUuid = ?1 WHERE c.uuid IN ?2")
+    int updateRaProfileUuid(UUID raProfileUuid, List<UUID> uuids);
 
     Optional<Certificate> findByUserUuid(UUID userUuid);
 
@@ -63,11 +69,11 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
     @Query("SELECT COUNT(*) FROM Certificate c WHERE c.certificateContentId IS NOT NULL AND c.validationStatus NOT IN :skipStatuses")
     long countCertificatesToCheckStatus(@Param("skipStatuses") List<CertificateValidationStatus> skipStatuses);
 
-    @Query("SELECT c.uuid FROM Certificate c " +
+    @Query("SELECT c.uuid, c.issuerDnNormalized, c.statusValidationTimestamp FROM Certificate c " +
             "WHERE c.certificateContentId IS NOT NULL AND c.validationStatus NOT IN :skipStatuses " +
             "AND (c.statusValidationTimestamp IS NULL OR c.statusValidationTimestamp <= :statusValidityEndTimestamp) " +
             "ORDER BY c.statusValidationTimestamp ASC NULLS FIRST")
-    List<UUID> findCertificatesToCheckStatus(@Param("statusValidityEndTimestamp") LocalDateTime statusValidityEndTimestamp,
+    List<Object[]> findCertificatesToCheckStatus(@Param("statusValidityEndTimestamp") LocalDateTime statusValidityEndTimestamp,
                                              @Param("skipStatuses") List<CertificateValidationStatus> skipStatuses,
                                              Pageable pageable);
 
@@ -80,4 +86,6 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
     Optional<Certificate> findByIssuerDnNormalizedAndSerialNumber(String issuerDnNormalized, String serialNumber);
 
     List<Certificate> findBySubjectDnNormalized(String issuerDnNormalized);
+
+    List<Certificate> findBySubjectDnNormalizedAndSubjectKeyIdentifier(String subjectDnNormalized, String subjectKeyIdentifier);
 }
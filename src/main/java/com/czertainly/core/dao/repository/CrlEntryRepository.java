@@ -2,13 +2,21 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.CrlEntry;
 import com.czertainly.core.dao.entity.CrlEntryId;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface CrlEntryRepository extends SecurityFilterRepository<CrlEntry, Long>
 {
 
     Optional<CrlEntry> findById(CrlEntryId id);
+
+    long countByIdCrlUuid(UUID crlUuid);
+
+    @Query("SELECT e.id.serialNumber, e.revocationDate, e.revocationReason FROM CrlEntry e WHERE e.id.crlUuid = ?1")
+    List<Object[]> findRevokedEntriesByCrlUuid(UUID crlUuid);
 }
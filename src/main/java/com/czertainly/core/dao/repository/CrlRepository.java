@@ -1,6 +1,8 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.Crl;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +16,8 @@ public interface CrlRepository extends SecurityFilterRepository<Crl, Long>
 
     List<Crl> findByCaCertificateUuid(UUID caCertificateUuid);
 
+    @Modifying
+    @Query("UPDATE Crl c SET c.caCertificateUuid = NULL WHERE c.caCertificateUuid IN ?1")
+    int clearCaCertificateUuids(List<UUID> caCertificateUuids);
 
 }
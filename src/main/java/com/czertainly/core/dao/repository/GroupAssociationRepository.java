@@ -5,18 +5,26 @@ import com.czertainly.core.dao.entity.GroupAssociation;
 import com.czertainly.core.dao.entity.ResourceObjectAssociation;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface GroupAssociationRepository extends JpaRepository<GroupAssociation, UUID> {
     List<GroupAssociation> findByResourceAndObjectUuid(Resource resource, UUID objectUuid);
+    List<GroupAssociation> findByResourceAndObjectUuidIn(Resource resource, Collection<UUID> objectUuids);
     boolean existsByResourceAndObjectUuidAndGroupUuid(Resource resource, UUID objectUuid, UUID groupUuid);
     long deleteByGroupUuid(UUID groupUuid);
     long deleteByResourceAndObjectUuid(Resource resource, UUID objectUuid);
     long deleteByResourceAndObjectUuidAndGroupUuid(Resource resource, UUID objectUuid, UUID groupUuid);
 
+    @Modifying
+    @Query("DELETE FROM GroupAssociation ga WHERE ga.resource = ?1 AND ga.objectUuid IN ?2")
+    int deleteByResourceAndObjectUuids(Resource resource, List<UUID> objectUuids);
+
 }
@@ -3,8 +3,11 @@ package com.czertainly.core.dao.repository;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.OwnerAssociation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,5 +18,10 @@ public interface OwnerAssociationRepository extends JpaRepository<OwnerAssociati
     long deleteByOwnerUuid(UUID ownerUuid);
     long deleteByResourceAndObjectUuidAndOwnerUuidNotNull(Resource resource, UUID objectUuid);
 
-    long countByOwnerUuidAndResourceAndObjectUuidIn(UUID ownerUuid, Resource resource, List<UUID> objectUuids);
+    @Query("SELECT oa.objectUuid FROM OwnerAssociation oa WHERE oa.ownerUuid = ?1 AND oa.resource = ?2 AND oa.objectUuid IN ?3")
+    List<UUID> findObjectUuidsByOwnerUuidAndResourceAndObjectUuidIn(UUID ownerUuid, Resource resource, Collection<UUID> objectUuids);
+
+    @Modifying
+    @Query("DELETE FROM OwnerAssociation oa WHERE oa.resource = ?1 AND oa.objectUuid IN ?2")
+    int deleteByResourceAndObjectUuids(Resource resource, List<UUID> objectUuids);
 }
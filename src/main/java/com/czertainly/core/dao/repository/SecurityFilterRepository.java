@@ -10,6 +10,7 @@ import org.springframework.data.repository.NoRepositoryBean;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.BiFunction;
 
 @NoRepositoryBean
@@ -27,9 +28,49 @@ public interface SecurityFilterRepository<T, ID> extends JpaRepository<T, ID> {
 
     List<T> findUsingSecurityFilter(SecurityFilter filter, List<String> fetchAssociations, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, Pageable p, BiFunction<Root<T>, CriteriaBuilder, Order> order);
 
+    /**
+     * Find first objects in specified order, used for keyset pagination where position is part of additional where clause.
+     * UUIDs of the first objects are selected first and objects with fetched associations are loaded by their UUIDs,
+     * so the limit is applied by database also when collection associations are fetched.
+     * @param filter security filter
+     * @param fetchAssociations associations to fetch
+     * @param additionalWhereClause additional predicate, can be null
+     * @param limit maximum number of returned objects
+     * @param orders orders of objects, should define total ordering of objects
+     * @return list of first objects
+     */
+    List<T> findFirstUsingSecurityFilter(SecurityFilter filter, List<String> fetchAssociations, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, int limit, List<BiFunction<Root<T>, CriteriaBuilder, Order>> orders);
+
+    /**
+     * Find UUIDs of first objects ordered by UUID, used for processing of objects in chunks where position is part of additional where clause
+     * @param filter security filter
+     * @param additionalWhereClause additional predicate, can be null
+     * @param limit maximum number of returned UUIDs
+     * @return list of UUIDs of first objects
+     */
+    List<UUID> findFirstUuidsUsingSecurityFilter(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, int limit);
+
     Long countUsingSecurityFilter(SecurityFilter filter);
 
     Long countUsingSecurityFilter(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause);
 
+    /**
+     * Count objects grouped by value of expression
+     * @param filter security filter
+     * @param groupBy expression to group objects by
+     * @param additionalWhereClause additional predicate, can be null
+     * @return list of rows with group value and count of distinct objects in the group
+     */
+    List<Object[]> countGroupedUsingSecurityFilter(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Expression<?>> groupBy, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause);
+
+    /**
+     * Count objects satisfying each of the conditions in single query
+     * @param filter security filter
+     * @param conditions conditions to count objects for
+     * @param additionalWhereClause additional predicate, can be null
+     * @return counts of distinct objects satisfying the conditions, in order of conditions
+     */
+    List<Long> countByConditionsUsingSecurityFilter(SecurityFilter filter, List<BiFunction<Root<T>, CriteriaBuilder, Predicate>> conditions, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause);
+
     List<T> findUsingSecurityFilterByCustomCriteriaQuery(SecurityFilter filter, Root<T> root, CriteriaQuery<T> criteriaQuery, Predicate customPredicates);
 }
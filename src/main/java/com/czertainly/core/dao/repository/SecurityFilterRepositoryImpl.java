@@ -5,6 +5,7 @@ import com.czertainly.api.exception.ValidationException;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.CryptographicKeyItem;
+import com.czertainly.core.dao.entity.GroupAssociation;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
@@ -13,6 +14,7 @@ import com.czertainly.core.util.AuthHelper;
 import com.czertainly.core.util.converter.Sql2PredicateConverter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
@@ -69,13 +71,13 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
 
     @Override
     public List<T> findUsingSecurityFilter(SecurityFilter filter, List<String> fetchAssociations, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause) {
-        final CriteriaQuery<T> cr = createCriteriaBuilder(filter, fetchAssociations, additionalWhereClause, null);
+        final CriteriaQuery<T> cr = createCriteriaBuilder(filter, fetchAssociations, additionalWhereClause, List.of());
         return entityManager.createQuery(cr).getResultList();
     }
 
     @Override
     public List<T> findUsingSecurityFilter(final SecurityFilter filter, List<String> fetchAssociations, final BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, final Pageable p, final BiFunction<Root<T>, CriteriaBuilder, Order> order) {
-        final CriteriaQuery<T> cr = createCriteriaBuilder(filter, fetchAssociations, additionalWhereClause, order);
+        final CriteriaQuery<T> cr = createCriteriaBuilder(filter, fetchAssociations, additionalWhereClause, order == null ? List.of() : List.of(order));
         if (p != null) {
             return entityManager.createQuery(cr).setFirstResult((int) p.getOffset()).setMaxResults(p.getPageSize()).getResultList();
         } else {
@@ -83,6 +85,51 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         }
     }
 
+    @Override
+    public List<T> findFirstUsingSecurityFilter(SecurityFilter filter, List<String> fetchAssociations, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, int limit, List<BiFunction<Root<T>, CriteriaBuilder, Order>> orders) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final Class<T> entity = this.entityInformation.getJavaType();
+
+        // page of UUIDs is selected first without fetching collections, limit combined with collection fetch would be applied in memory
+        final CriteriaQuery<Tuple> uuidQuery = cb.createTupleQuery();
+        final Root<T> uuidRoot = uuidQuery.from(entity);
+        final List<Order> uuidOrders = orders.stream().map(order -> order.apply(uuidRoot, cb)).toList();
+        final List<Selection<?>> selections = new ArrayList<>();
+        selections.add(uuidRoot.get("uuid"));
+        // distinct query requires ordering expressions to be selected
+        uuidOrders.forEach(order -> selections.add(order.getExpression()));
+        uuidQuery.multiselect(selections).distinct(true).orderBy(uuidOrders);
+        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, uuidQuery, uuidRoot, cb);
+        if (!predicates.isEmpty()) {
+            uuidQuery.where(predicates.toArray(new Predicate[]{}));
+        }
+        final List<UUID> uuids = entityManager.createQuery(uuidQuery).setMaxResults(limit).getResultList().stream().map(tuple -> tuple.get(0, UUID.class)).toList();
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+
+        // objects of the page are loaded with fetched associations, security filter was already applied to selected UUIDs
+        final CriteriaQuery<T> cr = createCriteriaBuilder(SecurityFilter.create(), fetchAssociations, (root, criteriaBuilder) -> root.get("uuid").in(uuids), orders);
+        return entityManager.createQuery(cr).getResultList();
+    }
+
+    @Override
+    public List<UUID> findFirstUuidsUsingSecurityFilter(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, int limit) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final Class<T> entity = this.entityInformation.getJavaType();
+        final CriteriaQuery<UUID> cr = cb.createQuery(UUID.class);
+        final Root<T> root = cr.from(entity);
+        final Path<UUID> uuid = root.get("uuid");
+
+        // distinct UUIDs, security filter predicates can join associations of the object
+        cr.select(uuid).distinct(true).orderBy(cb.asc(uuid));
+        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, cr, root, cb);
+        if (!predicates.isEmpty()) {
+            cr.where(predicates.toArray(new Predicate[]{}));
+        }
+        return entityManager.createQuery(cr).setMaxResults(limit).getResultList();
+    }
+
     @Override
     public Long countUsingSecurityFilter(SecurityFilter filter) {
         return countUsingSecurityFilter(filter, null);
@@ -95,15 +142,58 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         return crlist.get(0);
     }
 
+    @Override
+    public List<Object[]> countGroupedUsingSecurityFilter(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Expression<?>> groupBy, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final Class<T> entity = this.entityInformation.getJavaType();
+        final CriteriaQuery<Tuple> cr = cb.createTupleQuery();
+        final Root<T> root = cr.from(entity);
+        final Expression<?> groupByExpression = groupBy.apply(root, cb);
+
+        // count distinct objects, security filter predicates can join associations of the object
+        cr.multiselect(groupByExpression, cb.countDistinct(root)).groupBy(groupByExpression);
+        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, cr, root, cb);
+        if (!predicates.isEmpty()) {
+            cr.where(predicates.toArray(new Predicate[]{}));
+        }
+        return entityManager.createQuery(cr).getResultList().stream().map(Tuple::toArray).toList();
+    }
+
+    @Override
+    public List<Long> countByConditionsUsingSecurityFilter(SecurityFilter filter, List<BiFunction<Root<T>, CriteriaBuilder, Predicate>> conditions, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final Class<T> entity = this.entityInformation.getJavaType();
+        final CriteriaQuery<Tuple> cr = cb.createTupleQuery();
+        final Root<T> root = cr.from(entity);
+        final Path<UUID> uuid = root.get("uuid");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (BiFunction<Root<T>, CriteriaBuilder, Predicate> condition : conditions) {
+            selections.add(cb.countDistinct(cb.<UUID>selectCase().when(condition.apply(root, cb), uuid).otherwise(cb.nullLiteral(UUID.class))));
+        }
+        cr.multiselect(selections);
+        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, cr, root, cb);
+        if (!predicates.isEmpty()) {
+            cr.where(predicates.toArray(new Predicate[]{}));
+        }
+
+        Tuple result = entityManager.createQuery(cr).getSingleResult();
+        List<Long> counts = new ArrayList<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            counts.add(result.get(i, Long.class));
+        }
+        return counts;
+    }
+
     @Override
     public List<T> findUsingSecurityFilterByCustomCriteriaQuery(SecurityFilter filter, Root<T> root, CriteriaQuery<T> criteriaQuery, Predicate customPredicates) {
         List<Predicate> predicates = new ArrayList<>();
         if (filter.getResourceFilter() != null) {
             if (filter.getResourceFilter().areOnlySpecificObjectsAllowed()) {
-                predicates.add(root.get("objectUuid").in(filter.getResourceFilter().getAllowedObjects()));
+                predicates.add(Sql2PredicateConverter.prepareInArrayPredicate(entityManager.getCriteriaBuilder(), root.get("objectUuid"), filter.getResourceFilter().getAllowedObjects()));
             } else {
                 if (!filter.getResourceFilter().getForbiddenObjects().isEmpty()) {
-                    predicates.add(root.get("objectUuid").in(filter.getResourceFilter().getForbiddenObjects()).not());
+                    predicates.add(Sql2PredicateConverter.prepareInArrayPredicate(entityManager.getCriteriaBuilder(), root.get("objectUuid"), filter.getResourceFilter().getForbiddenObjects()).not());
                 }
             }
         }
@@ -113,7 +203,7 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         return entityManager.createQuery(criteriaQuery).getResultList();
     }
 
-    private CriteriaQuery<T> createCriteriaBuilder(final SecurityFilter filter, List<String> fetchAssociations, final BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, final BiFunction<Root<T>, CriteriaBuilder, Order> order) {
+    private CriteriaQuery<T> createCriteriaBuilder(final SecurityFilter filter, List<String> fetchAssociations, final BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, final List<BiFunction<Root<T>, CriteriaBuilder, Order>> orders) {
         final Class<T> entity = this.entityInformation.getJavaType();
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaQuery<T> cr = cb.createQuery(entity);
@@ -123,11 +213,11 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
 
         fetchAssociations(root, fetchAssociations);
 
-        if (order != null) {
-            cr.orderBy(order.apply(root, cb));
+        if (!orders.isEmpty()) {
+            cr.orderBy(orders.stream().map(order -> order.apply(root, cb)).toList());
         }
 
-        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, root, cb);
+        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, cr, root, cb);
         return predicates.isEmpty() ? cr : cr.where(predicates.toArray(new Predicate[]{}));
     }
 
@@ -137,7 +227,7 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         final CriteriaQuery<Long> cr = cb.createQuery(Long.class);
         final Root<T> root = cr.from(entity);
         cr.select(cb.countDistinct(root));
-        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, root, cb);
+        final List<Predicate> predicates = getPredicates(filter, additionalWhereClause, cr, root, cb);
         return predicates.isEmpty() ? cr : cr.where(predicates.toArray(new Predicate[]{}));
     }
 
@@ -160,7 +250,7 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         }
     }
 
-    private List<Predicate> getPredicates(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, Root<T> root, CriteriaBuilder cb) {
+    private List<Predicate> getPredicates(SecurityFilter filter, BiFunction<Root<T>, CriteriaBuilder, Predicate> additionalWhereClause, AbstractQuery<?> query, Root<T> root, CriteriaBuilder cb) {
         List<Predicate> predicates = new ArrayList<>();
         if (additionalWhereClause != null) {
             predicates.add(additionalWhereClause.apply(root, cb));
@@ -171,8 +261,8 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         }
 
         List<Predicate> combinedObjectAccessPredicates = new ArrayList<>();
-        Predicate resourceFilterPredicate = getPredicateBySecurityResourceFilter(root, filter.getResourceFilter(), "uuid");
-        Predicate parentResourceFilterPredicate = getPredicateBySecurityResourceFilter(root, filter.getParentResourceFilter(), filter.getParentRefProperty());
+        Predicate resourceFilterPredicate = getPredicateBySecurityResourceFilter(root, cb, filter.getResourceFilter(), "uuid");
+        Predicate parentResourceFilterPredicate = getPredicateBySecurityResourceFilter(root, cb, filter.getParentResourceFilter(), filter.getParentRefProperty());
 
         // no predicates from security filter means user can retrieve all objects and it is not necessary to evaluate groups and owner associations
         if (resourceFilterPredicate == null && parentResourceFilterPredicate == null) {
@@ -184,7 +274,7 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
             // check for group membership predicate
             if (filter.getResourceFilter().getResource().hasGroups()
                     && (filter.getResourceFilter().getResourceAction() == ResourceAction.LIST || filter.getResourceFilter().getResourceAction() == ResourceAction.DETAIL)) {
-                combinedObjectAccessPredicates.add(getPredicateBySecurityResourceFilter(root, filter.getGroupMembersFilter(), "groups.uuid"));
+                combinedObjectAccessPredicates.add(getGroupMembershipPredicate(query, root, cb, filter.getResourceFilter().getResource(), filter.getGroupMembersFilter()));
             }
             // check for owner association predicate
             if (filter.getResourceFilter().getResource().hasOwner()) {
@@ -206,7 +296,29 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
         return predicates;
     }
 
-    private Predicate getPredicateBySecurityResourceFilter(Root<T> root, SecurityResourceFilter resourceFilter, String attributeName) {
+    /**
+     * Group membership is checked by EXISTS subquery on group associations instead of joining groups of the object,
+     * so objects are not multiplied by number of their groups
+     */
+    private Predicate getGroupMembershipPredicate(AbstractQuery<?> query, Root<T> root, CriteriaBuilder cb, Resource resource, SecurityResourceFilter groupMembersFilter) {
+        if (groupMembersFilter == null || (!groupMembersFilter.areOnlySpecificObjectsAllowed() && groupMembersFilter.getForbiddenObjects().isEmpty())) {
+            return null;
+        }
+
+        final Subquery<Integer> subquery = query.subquery(Integer.class);
+        final Root<GroupAssociation> groupAssociationRoot = subquery.from(GroupAssociation.class);
+        final Expression<?> objectUuid = Sql2PredicateConverter.prepareExpression(root, root.getJavaType().equals(CryptographicKeyItem.class) ? "cryptographicKey.uuid" : "uuid");
+        final Predicate groupPredicate = groupMembersFilter.areOnlySpecificObjectsAllowed()
+                ? Sql2PredicateConverter.prepareInArrayPredicate(cb, groupAssociationRoot.get("groupUuid"), groupMembersFilter.getAllowedObjects())
+                : Sql2PredicateConverter.prepareInArrayPredicate(cb, groupAssociationRoot.get("groupUuid"), groupMembersFilter.getForbiddenObjects()).not();
+        subquery.select(cb.literal(1)).where(
+                cb.equal(groupAssociationRoot.get("resource"), resource),
+                cb.equal(groupAssociationRoot.get("objectUuid"), objectUuid),
+                groupPredicate);
+        return cb.exists(subquery);
+    }
+
+    private Predicate getPredicateBySecurityResourceFilter(Root<T> root, CriteriaBuilder cb, SecurityResourceFilter resourceFilter, String attributeName) {
         Predicate predicate = null;
         if (root.getJavaType().equals(CryptographicKeyItem.class)) {
             attributeName = "cryptographicKey." + attributeName;
@@ -219,10 +331,10 @@ public class SecurityFilterRepositoryImpl<T, ID> extends SimpleJpaRepository<T,
                 attributeName = attributeName.substring(attributeName.lastIndexOf(".") + 1);
             }
             if (resourceFilter.areOnlySpecificObjectsAllowed()) {
-                predicate = Sql2PredicateConverter.prepareExpression(from, attributeName).in(resourceFilter.getAllowedObjects());
+                predicate = Sql2PredicateConverter.prepareInArrayPredicate(cb, Sql2PredicateConverter.prepareExpression(from, attributeName), resourceFilter.getAllowedObjects());
             } else {
                 if (!resourceFilter.getForbiddenObjects().isEmpty()) {
-                    predicate = Sql2PredicateConverter.prepareExpression(from, attributeName).in(resourceFilter.getForbiddenObjects()).not();
+                    predicate = Sql2PredicateConverter.prepareInArrayPredicate(cb, Sql2PredicateConverter.prepareExpression(from, attributeName), resourceFilter.getForbiddenObjects()).not();
                 }
             }
         }
@@ -2,15 +2,22 @@ package com.czertainly.core.dao.repository.acme;
 
 import com.czertainly.core.dao.entity.acme.AcmeNonce;
 import com.czertainly.core.dao.repository.SecurityFilterRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AcmeNonceRepository extends SecurityFilterRepository<AcmeNonce, Long> {
     Optional<AcmeNonce> findByNonce(String nonce);
 
-    List<AcmeNonce> findAllByExpiresBefore(Date expires);
+    @Modifying
+    @Query("DELETE FROM acme_nonce n WHERE n.nonce = ?1 AND n.expires > ?2")
+    int deleteValidNonce(String nonce, Date now);
+
+    @Modifying
+    @Query("DELETE FROM acme_nonce n WHERE n.expires <= ?1")
+    int deleteExpiredNonces(Date now);
 }
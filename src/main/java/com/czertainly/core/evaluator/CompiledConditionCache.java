@@ -0,0 +1,51 @@
+package com.czertainly.core.evaluator;
+
+import com.czertainly.api.exception.RuleException;
+import com.czertainly.core.dao.entity.workflows.ConditionItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of compiled condition items keyed by condition item UUID. Condition items are recreated when condition is updated,
+ * so new version of condition gets new UUID. Cached item is still checked against current field identifier, operator
+ * and value of condition item and recompiled if they do not match.
+ */
+@Component
+public class CompiledConditionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledConditionCache.class);
+
+    private final Map<UUID, CompiledConditionItem> compiledItems = new ConcurrentHashMap<>();
+
+    CompiledConditionItem get(ConditionItem conditionItem, Class<?> resourceClass) throws RuleException {
+        // condition item that is not persisted cannot be identified, compile it for single use
+        if (conditionItem.getUuid() == null) {
+            return CompiledConditionItem.compile(conditionItem, resourceClass);
+        }
+
+        CompiledConditionItem compiledItem = compiledItems.get(conditionItem.getUuid());
+        if (compiledItem == null || !compiledItem.isCompiledFrom(conditionItem, resourceClass)) {
+            compiledItem = CompiledConditionItem.compile(conditionItem, resourceClass);
+            compiledItems.put(conditionItem.getUuid(), compiledItem);
+        }
+        return compiledItem;
+    }
+
+    /**
+     * Evict compiled condition items. Has to be called when condition items are updated or deleted.
+     * @param conditionItems condition items to evict
+     */
+    public void evict(Collection<ConditionItem> conditionItems) {
+        for (ConditionItem conditionItem : conditionItems) {
+            if (conditionItem.getUuid() != null && compiledItems.remove(conditionItem.getUuid()) != null) {
+                logger.debug("Evicted compiled condition item {}.", conditionItem.getUuid());
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.czertainly.core.evaluator;
+
+import com.czertainly.api.exception.RuleException;
+import com.czertainly.api.model.core.search.FilterConditionOperator;
+import com.czertainly.api.model.core.search.FilterFieldSource;
+import com.czertainly.api.model.core.search.FilterFieldType;
+import com.czertainly.api.model.core.search.SearchableFields;
+import com.czertainly.core.dao.entity.workflows.ConditionItem;
+import com.czertainly.core.enums.SearchFieldNameEnum;
+import org.apache.commons.beanutils.PropertyUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Condition item on property of the object compiled to be evaluated repeatedly. Field identifier, field type, operator
+ * function and condition value are resolved once and getters of the property path are looked up on the resource class,
+ * instead of resolving them by reflection for each evaluated object.
+ */
+final class CompiledConditionItem {
+
+    private final FilterFieldSource fieldSource;
+    private final String fieldIdentifier;
+    private final FilterConditionOperator operator;
+    private final Object value;
+    private final Class<?> resourceClass;
+
+    private final PropertyAccessor accessor;
+    private final PropertyAccessor itemAccessor;
+    private final BiFunction<Object, Object, Boolean> operatorFunction;
+    private final Object conditionValue;
+
+    private CompiledConditionItem(ConditionItem conditionItem, Class<?> resourceClass, PropertyAccessor accessor, PropertyAccessor itemAccessor, BiFunction<Object, Object, Boolean> operatorFunction, Object conditionValue) {
+        this.fieldSource = conditionItem.getFieldSource();
+        this.fieldIdentifier = conditionItem.getFieldIdentifier();
+        this.operator = conditionItem.getOperator();
+        this.value = conditionItem.getValue();
+        this.resourceClass = resourceClass;
+        this.accessor = accessor;
+        this.itemAccessor = itemAccessor;
+        this.operatorFunction = operatorFunction;
+        this.conditionValue = conditionValue;
+    }
+
+    /**
+     * Compile condition item on property of the object
+     * @param conditionItem condition item with property field source
+     * @param resourceClass class of objects the condition is evaluated on, getters are resolved on this class.
+     *                      If null, property is read by reflection for each evaluated object.
+     * @return compiled condition item
+     * @throws RuleException when field identifier, operator or condition value are not valid
+     */
+    static CompiledConditionItem compile(ConditionItem conditionItem, Class<?> resourceClass) throws RuleException {
+        String fieldIdentifier = conditionItem.getFieldIdentifier();
+        SearchableFields field;
+        try {
+            field = Enum.valueOf(SearchableFields.class, fieldIdentifier);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuleException("Field identifier '" + fieldIdentifier + "' is not supported.");
+        }
+        // Determine field type from field identifier using Searchable field enum
+        SearchFieldNameEnum propertyEnum;
+        try {
+            propertyEnum = SearchFieldNameEnum.getEnumBySearchableFields(field);
+        } catch (Exception e) {
+            throw new RuleException("Field identifier '" + fieldIdentifier + "' is not supported.");
+        }
+        if (propertyEnum == null) {
+            throw new RuleException("Unknown property field identifier: " + fieldIdentifier);
+        }
+
+        FilterFieldType fieldType = propertyEnum.getFieldTypeEnum().getFieldType();
+        BiFunction<Object, Object, Boolean> operatorFunction = RuleEvaluator.getOperatorFunction(fieldType, conditionItem.getOperator());
+        if (operatorFunction == null) {
+            throw new RuleException("Condition is not set properly: operator " + conditionItem.getOperator() + " is not supported for field " + fieldIdentifier + ".");
+        }
+        Object conditionValue;
+        try {
+            conditionValue = RuleEvaluator.prepareConditionValue(fieldType, conditionItem.getOperator(), conditionItem.getValue());
+        } catch (Exception e) {
+            throw new RuleException("Condition is not set properly: " + e.getMessage());
+        }
+
+        String propertyPath = field.getCode();
+        String itemProperty = propertyPath.substring(propertyPath.lastIndexOf(".") + 1);
+        PropertyAccessor accessor = resourceClass == null ? null : resolveAccessor(resourceClass, propertyPath);
+        PropertyAccessor itemAccessor = null;
+        if (accessor == null) {
+            accessor = object -> getPropertyValue(object, propertyPath, false);
+        } else {
+            itemAccessor = resolveCollectionItemAccessor(resourceClass, propertyPath);
+        }
+        if (itemAccessor == null) {
+            itemAccessor = item -> getPropertyValue(item, itemProperty, true);
+        }
+
+        return new CompiledConditionItem(conditionItem, resourceClass, accessor, itemAccessor, operatorFunction, conditionValue);
+    }
+
+    /**
+     * Check if the compiled condition item corresponds to the current state of condition item
+     */
+    boolean isCompiledFrom(ConditionItem conditionItem, Class<?> resourceClass) {
+        return this.resourceClass == resourceClass
+                && fieldSource == conditionItem.getFieldSource()
+                && operator == conditionItem.getOperator()
+                && Objects.equals(fieldIdentifier, conditionItem.getFieldIdentifier())
+                && Objects.equals(value, conditionItem.getValue());
+    }
+
+    boolean evaluate(Object object) throws RuleException {
+        // Get value of property from the object
+        Object objectValue;
+        try {
+            objectValue = accessor.get(object);
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new RuleException("Cannot get property " + fieldIdentifier + " from object " + object.getClass().getSimpleName() + ".");
+        }
+
+        // Apply comparing function on value in object and value in condition, return whether the condition is satisfied
+        try {
+            if (!(objectValue instanceof Collection<?> objectValues)) {
+                return operatorFunction.apply(objectValue, conditionValue);
+            }
+            for (Object item : objectValues) {
+                if (!operatorFunction.apply(itemAccessor.get(item), conditionValue)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            throw new RuleException("Condition is not set properly: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resolve getters of the property path on the class. When property before the last one is collection, the collection
+     * is returned and the last property is read from each of its items.
+     * @return accessor or null if the getters cannot be resolved from declared types
+     */
+    private static PropertyAccessor resolveAccessor(Class<?> resourceClass, String propertyPath) {
+        String[] properties = propertyPath.split("\\.");
+        List<Method> getters = new ArrayList<>(properties.length);
+        Class<?> type = resourceClass;
+        for (int i = 0; i < properties.length; i++) {
+            Method getter = findGetter(type, properties[i]);
+            if (getter == null) return null;
+            getters.add(getter);
+            type = getter.getReturnType();
+            if (Collection.class.isAssignableFrom(type) && i < properties.length - 1) {
+                // only collection of objects with the last property is supported
+                if (i != properties.length - 2) return null;
+                break;
+            }
+        }
+
+        Method[] path = getters.toArray(new Method[0]);
+        return object -> {
+            Object current = object;
+            for (Method getter : path) {
+                if (current == null) return null;
+                current = getter.invoke(current);
+            }
+            return current;
+        };
+    }
+
+    private static PropertyAccessor resolveCollectionItemAccessor(Class<?> resourceClass, String propertyPath) {
+        int indexOfDot = propertyPath.lastIndexOf(".");
+        if (indexOfDot == -1) return null;
+
+        Class<?> type = resourceClass;
+        Type genericType = null;
+        for (String property : propertyPath.substring(0, indexOfDot).split("\\.")) {
+            Method getter = findGetter(type, property);
+            if (getter == null) return null;
+            type = getter.getReturnType();
+            genericType = getter.getGenericReturnType();
+        }
+        if (!Collection.class.isAssignableFrom(type) || !(genericType instanceof ParameterizedType parameterizedType)
+                || !(parameterizedType.getActualTypeArguments()[0] instanceof Class<?> itemClass)) {
+            return null;
+        }
+
+        Method getter = findGetter(itemClass, propertyPath.substring(indexOfDot + 1));
+        return getter == null ? null : item -> item == null ? null : getter.invoke(item);
+    }
+
+    private static Method findGetter(Class<?> type, String property) {
+        for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(type)) {
+            if (descriptor.getName().equals(property)) {
+                return descriptor.getReadMethod();
+            }
+        }
+        return null;
+    }
+
+    private static Object getPropertyValue(Object object, String fieldIdentifier, boolean alreadyNested) throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
+        final int indexOfDot = fieldIdentifier.lastIndexOf(".");
+        boolean isNested = indexOfDot != -1;
+        try {
+            if (alreadyNested) {
+                return PropertyUtils.getProperty(object, fieldIdentifier.substring(indexOfDot + 1));
+            }
+            return PropertyUtils.getProperty(object, fieldIdentifier);
+        } catch (NoSuchMethodException e) {
+            if (!isNested || alreadyNested) {
+                throw e;
+            }
+
+            final String parentPropertyIdentifier = fieldIdentifier.substring(0, indexOfDot);
+            Object tmpValue = PropertyUtils.getProperty(object, parentPropertyIdentifier);
+            if (tmpValue instanceof Collection<?>) {
+                return tmpValue;
+            }
+
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PropertyAccessor {
+        Object get(Object object) throws IllegalAccessException, InvocationTargetException, NoSuchMethodException;
+    }
+}
@@ -2,12 +2,15 @@ package com.czertainly.core.evaluator;
 
 import com.czertainly.api.exception.RuleException;
 import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
 import com.czertainly.core.dao.entity.workflows.Rule;
 import com.czertainly.core.dao.entity.workflows.ConditionItem;
 import com.czertainly.core.dao.entity.workflows.Trigger;
 import com.czertainly.core.dao.entity.workflows.TriggerHistory;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public interface IRuleEvaluator<T> {
 
@@ -19,6 +22,15 @@ public interface IRuleEvaluator<T> {
      * @return True if all the rules are satisfied, false otherwise
      */
     public boolean evaluateRules(List<Rule> rules, T object, TriggerHistory triggerHistory) throws RuleException;
+    /**
+     * Method to evaluate a list of Rules on an Object with custom attributes and metadata of the object loaded beforehand
+     *
+     * @param rules    List of the Rules
+     * @param object   Object to evaluate Rules on
+     * @param attributesContent Custom attributes and metadata content of the object, loaded for each condition item if null
+     * @return True if all the rules are satisfied, false otherwise
+     */
+    public boolean evaluateRules(List<Rule> rules, T object, TriggerHistory triggerHistory, ObjectAttributesContent attributesContent) throws RuleException;
     /**
      * Method to evaluate a list of Rules on a list of Objects
      *
@@ -35,6 +47,24 @@ public interface IRuleEvaluator<T> {
      * @return True if the condition item is satisfied, false otherwise
      */
     public Boolean evaluateConditionItem(ConditionItem conditionItem, T object, Resource resource) throws RuleException;
+    /**
+     * Method to evaluate a Condition item on an Object with custom attributes and metadata of the object loaded beforehand
+     *
+     * @param conditionItem    Condition item to be evaluated
+     * @param object   Object to evaluate conditionItem on
+     * @param attributesContent Custom attributes and metadata content of the object, loaded for the condition item if null
+     * @return True if the condition item is satisfied, false otherwise
+     */
+    public Boolean evaluateConditionItem(ConditionItem conditionItem, T object, Resource resource, ObjectAttributesContent attributesContent) throws RuleException;
+
+    /**
+     * Method to load custom attributes and metadata content of Objects in single query to evaluate Rules of multiple Triggers on them
+     *
+     * @param resource Resource of the Objects
+     * @param objects  Objects to load content for, objects not yet stored in database are skipped
+     * @return Content mapped by UUID of the Object
+     */
+    public Map<UUID, ObjectAttributesContent> loadAttributesContent(Resource resource, List<T> objects) throws RuleException;
 
     /**
      * Method to perform Actions and Action Groups in a Trigger on an Object
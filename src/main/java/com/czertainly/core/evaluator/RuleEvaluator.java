@@ -16,6 +16,7 @@ import com.czertainly.api.model.core.search.FilterFieldType;
 import com.czertainly.api.model.core.search.SearchableFields;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
 import com.czertainly.core.dao.entity.workflows.*;
 import com.czertainly.core.enums.ResourceToClass;
 import com.czertainly.core.enums.SearchFieldNameEnum;
@@ -41,10 +42,17 @@ import java.util.function.BiFunction;
 public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
     private static final Logger logger = LoggerFactory.getLogger(RuleEvaluator.class);
-    private static final String DATETIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    private static final Set<FilterConditionOperator> COMPARISON_OPERATORS = EnumSet.of(FilterConditionOperator.GREATER, FilterConditionOperator.GREATER_OR_EQUAL, FilterConditionOperator.LESSER, FilterConditionOperator.LESSER_OR_EQUAL);
 
     private AttributeEngine attributeEngine;
     private TriggerService triggerService;
+    private CompiledConditionCache compiledConditionCache;
+
+    @Autowired
+    public void setCompiledConditionCache(CompiledConditionCache compiledConditionCache) {
+        this.compiledConditionCache = compiledConditionCache;
+    }
 
     @Autowired
     public void setTriggerService(TriggerService triggerService) {
@@ -58,6 +66,11 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
     @Override
     public boolean evaluateRules(List<Rule> rules, T object, TriggerHistory triggerHistory) throws RuleException {
+        return evaluateRules(rules, object, triggerHistory, null);
+    }
+
+    @Override
+    public boolean evaluateRules(List<Rule> rules, T object, TriggerHistory triggerHistory, ObjectAttributesContent attributesContent) throws RuleException {
         // Rule evaluated is check if any rule has been evaluated, no rules will be evaluated if all rules in the list have incompatible resource
         boolean ruleEvaluated = false;
         for (Rule rule : rules) {
@@ -76,7 +89,7 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
             ruleEvaluated = true;
             for (Condition condition : rule.getConditions()) {
                 for (ConditionItem conditionItem : condition.getItems()) {
-                    if (!getConditionEvaluationResult(conditionItem, object, triggerHistory, rule)) return false;
+                    if (!getConditionEvaluationResult(conditionItem, object, triggerHistory, rule, attributesContent)) return false;
                 }
             }
         }
@@ -91,8 +104,16 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
     @Override
     public boolean evaluateRules(List<Rule> rules, List<T> listOfObjects) throws RuleException {
+        // Load custom attributes and metadata of all objects at once if they are needed by conditions of the rules
+        Map<UUID, ObjectAttributesContent> attributesContents = Map.of();
+        Resource attributesResource = getAttributesConditionResource(rules, listOfObjects);
+        if (attributesResource != null) {
+            attributesContents = loadAttributesContent(attributesResource, listOfObjects);
+        }
+
         for (T object : listOfObjects) {
-            if (!evaluateRules(rules, object, null)) {
+            ObjectAttributesContent attributesContent = attributesResource == null ? null : attributesContents.get(getObjectUuid(object, attributesResource));
+            if (!evaluateRules(rules, object, null, attributesContent)) {
                 logger.debug("Rules have not been satisfied for a object in the list, the list does not contain objects satisfying the rules.");
                 return false;
             }
@@ -103,6 +124,11 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
     @Override
     public Boolean evaluateConditionItem(ConditionItem conditionItem, T object, Resource resource) throws RuleException {
+        return evaluateConditionItem(conditionItem, object, resource, null);
+    }
+
+    @Override
+    public Boolean evaluateConditionItem(ConditionItem conditionItem, T object, Resource resource, ObjectAttributesContent attributesContent) throws RuleException {
         FilterFieldSource fieldSource = conditionItem.getFieldSource();
         String fieldIdentifier = conditionItem.getFieldIdentifier();
         FilterConditionOperator operator = conditionItem.getOperator();
@@ -110,60 +136,21 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
         // First, check where from to get object value based on Field Source
         if (fieldSource == FilterFieldSource.PROPERTY) {
-            Object objectValue;
-            SearchableFields field;
-            try {
-                field = Enum.valueOf(SearchableFields.class, fieldIdentifier);
-            } catch (IllegalArgumentException e) {
-                throw new RuleException("Field identifier '" + fieldIdentifier + "' is not supported.");
-            }
-            // Get value of property from the object
-            try {
-                objectValue = getPropertyValue(object, field.getCode(), false);
-            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                throw new RuleException("Cannot get property " + fieldIdentifier + " from resource " + resource + ".");
-            }
-            // Determine field type from field identifier using Searchable field enum
-            SearchFieldNameEnum propertyEnum;
-            try {
-                propertyEnum = SearchFieldNameEnum.getEnumBySearchableFields(field);
-            } catch (Exception e) {
-                throw new RuleException("Field identifier '" + fieldIdentifier + "' is not supported.");
-            }
-            if (propertyEnum == null) {
-                throw new RuleException("Unknown property field identifier: " + fieldIdentifier);
-            }
-
-            FilterFieldType fieldType = propertyEnum.getFieldTypeEnum().getFieldType();
-            // Apply comparing function on value in object and value in condition, based on operator and field type, return whether the condition is satisfied
-            try {
-                if (!(objectValue instanceof Collection<?> objectValues)) {
-                    return fieldTypeToOperatorActionMap.get(fieldType).get(operator).apply(objectValue, conditionValue);
-                }
-                for (Object item : objectValues) {
-                    Object o = getPropertyValue(item, field.getCode(), true);
-                    if (!fieldTypeToOperatorActionMap.get(fieldType).get(operator).apply(o, conditionValue)) {
-                        return false;
-                    }
-                }
-                return true;
-            } catch (Exception e) {
-                throw new RuleException("Condition is not set properly: " + e.getMessage());
+            // Property condition is compiled once with resolved field type, operator function and property getters
+            Class<?> resourceClass = ResourceToClass.getClassByResource(resource);
+            if (resourceClass != null && !resourceClass.isInstance(object)) {
+                resourceClass = null;
             }
+            return compiledConditionCache.get(conditionItem, resourceClass).evaluate(object);
         }
 
         // Check for UUID in the object, if there is no UUID, it means that the object is not yet in database and therefore won't have any attributes linked to it
-        UUID objectUuid;
-        try {
-            objectUuid = (UUID) PropertyUtils.getProperty(object, "uuid");
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            throw new RuleException("Cannot get uuid from resource " + resource + ".");
-        }
+        UUID objectUuid = getObjectUuid(object, resource);
 
         if (objectUuid != null) {
             if (fieldSource == FilterFieldSource.CUSTOM) {
                 // If source is Custom Attribute, retrieve custom attributes of this object and find the attribute which has Name equal to Field Identifier
-                List<ResponseAttributeDto> responseAttributeDtos = attributeEngine.getObjectCustomAttributesContent(resource, objectUuid);
+                List<ResponseAttributeDto> responseAttributeDtos = attributesContent != null ? attributesContent.customAttributes() : attributeEngine.getObjectCustomAttributesContent(resource, objectUuid);
                 ResponseAttributeDto attributeToCompare = responseAttributeDtos.stream().filter(rad -> Objects.equals(rad.getName(), fieldIdentifier)).findFirst().orElse(null);
                 if (attributeToCompare == null) return false;
                 // Evaluate condition on each attribute content of the attribute, if at least teh condition is evaluated as satisfied at least once, the condition is satisfied for the object
@@ -177,7 +164,7 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
                 AttributeContentType fieldAttributeContentType = AttributeContentType.valueOf(split[1]);
                 String fieldIdentifierName = split[0];
                 // From all Metadata of the object, find those with matching Name and Content Type and evaluate condition on these, return true for the first satisfying attribute, otherwise continue wit next
-                List<MetadataResponseDto> metadata = attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(resource, objectUuid));
+                List<MetadataResponseDto> metadata = attributesContent != null ? attributesContent.metadata() : attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(resource, objectUuid));
                 for (List<ResponseMetadataDto> responseMetadataDtos : metadata.stream().map(MetadataResponseDto::getItems).toList()) {
                     for (ResponseAttributeDto responseAttributeDto : responseMetadataDtos) {
                         if (Objects.equals(responseAttributeDto.getName(), fieldIdentifierName) & fieldAttributeContentType == responseAttributeDto.getContentType()) {
@@ -195,6 +182,16 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
         return false;
     }
 
+    @Override
+    public Map<UUID, ObjectAttributesContent> loadAttributesContent(Resource resource, List<T> objects) throws RuleException {
+        List<UUID> objectUuids = new ArrayList<>();
+        for (T object : objects) {
+            UUID objectUuid = getObjectUuid(object, resource);
+            if (objectUuid != null) objectUuids.add(objectUuid);
+        }
+        return attributeEngine.getObjectsAttributesContent(resource, objectUuids);
+    }
+
     @Override
     public void performActions(Trigger trigger, T object, TriggerHistory triggerHistory) throws RuleException {
         Class resourceClass = ResourceToClass.getClassByResource(trigger.getResource());
@@ -263,32 +260,37 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
         }
     }
 
-    private Object getPropertyValue(Object object, String fieldIdentifier, boolean alreadyNested) throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
-        final int indexOfDot = fieldIdentifier.lastIndexOf(".");
-        boolean isNested = indexOfDot != -1;
+    private UUID getObjectUuid(T object, Resource resource) throws RuleException {
         try {
-            if (alreadyNested) {
-                return PropertyUtils.getProperty(object, fieldIdentifier.substring(indexOfDot + 1));
-            }
-            return PropertyUtils.getProperty(object, fieldIdentifier);
-        } catch (NoSuchMethodException e) {
-            if (!isNested || alreadyNested) {
-                throw e;
-            }
+            return (UUID) PropertyUtils.getProperty(object, "uuid");
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new RuleException("Cannot get uuid from resource " + resource + ".");
+        }
+    }
 
-            final String parentPropertyIdentifier = fieldIdentifier.substring(0, indexOfDot);
-            Object tmpValue = PropertyUtils.getProperty(object, parentPropertyIdentifier);
-            if (tmpValue instanceof Collection<?>) {
-                return tmpValue;
+    /**
+     * Get resource of the first rule applicable to the objects that has condition on custom attributes or metadata
+     * @return resource or null if no rule needs attributes content of the objects
+     */
+    private Resource getAttributesConditionResource(List<Rule> rules, List<T> objects) {
+        if (objects.isEmpty()) return null;
+        for (Rule rule : rules) {
+            Class<?> resourceClass = ResourceToClass.getClassByResource(rule.getResource());
+            if (resourceClass == null || !resourceClass.isInstance(objects.get(0))) continue;
+            for (Condition condition : rule.getConditions()) {
+                for (ConditionItem conditionItem : condition.getItems()) {
+                    if (conditionItem.getFieldSource() == FilterFieldSource.CUSTOM || conditionItem.getFieldSource() == FilterFieldSource.META) {
+                        return rule.getResource();
+                    }
+                }
             }
-
-            throw e;
         }
+        return null;
     }
 
-    private boolean getConditionEvaluationResult(ConditionItem conditionItem, T object, TriggerHistory triggerHistory, Rule rule) {
+    private boolean getConditionEvaluationResult(ConditionItem conditionItem, T object, TriggerHistory triggerHistory, Rule rule, ObjectAttributesContent attributesContent) {
         try {
-            if (!evaluateConditionItem(conditionItem, object, rule.getResource())) {
+            if (!evaluateConditionItem(conditionItem, object, rule.getResource(), attributesContent)) {
                 String message = String.format("Condition item '%s %s %s %s' is false.", conditionItem.getFieldSource().getLabel(), conditionItem.getFieldIdentifier(), conditionItem.getOperator().getLabel(), conditionItem.getValue() != null ? conditionItem.getValue().toString() : "");
                 logger.debug("Rule {} is not satisfied. Reason: {}", rule.getName(), message);
                 TriggerHistoryRecord triggerHistoryRecord = triggerService.createTriggerHistoryRecord(triggerHistory, conditionItem.getCondition().getUuid(), null, message);
@@ -338,18 +340,18 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
         dateOperatorFunctionMap = new HashMap<>();
         dateOperatorFunctionMap.putAll(commonOperatorFunctionMap);
-        dateOperatorFunctionMap.put(FilterConditionOperator.GREATER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isAfter(LocalDate.parse(c.toString())));
-        dateOperatorFunctionMap.put(FilterConditionOperator.GREATER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isBefore(LocalDate.parse(c.toString()))));
-        dateOperatorFunctionMap.put(FilterConditionOperator.LESSER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isBefore(LocalDate.parse(c.toString())));
-        dateOperatorFunctionMap.put(FilterConditionOperator.LESSER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isAfter(LocalDate.parse(c.toString()))));
+        dateOperatorFunctionMap.put(FilterConditionOperator.GREATER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isAfter((LocalDate) c));
+        dateOperatorFunctionMap.put(FilterConditionOperator.GREATER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isBefore((LocalDate) c)));
+        dateOperatorFunctionMap.put(FilterConditionOperator.LESSER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isBefore((LocalDate) c));
+        dateOperatorFunctionMap.put(FilterConditionOperator.LESSER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().isAfter((LocalDate) c)));
         fieldTypeToOperatorActionMap.put(FilterFieldType.DATE, dateOperatorFunctionMap);
 
         datetimeOperatorFunctionMap = new HashMap<>();
         datetimeOperatorFunctionMap.putAll(commonOperatorFunctionMap);
-        datetimeOperatorFunctionMap.put(FilterConditionOperator.GREATER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isAfter(LocalDateTime.parse(c.toString(), DateTimeFormatter.ofPattern(DATETIME_FORMAT))));
-        datetimeOperatorFunctionMap.put(FilterConditionOperator.GREATER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isBefore(LocalDateTime.parse(c.toString(), DateTimeFormatter.ofPattern(DATETIME_FORMAT)))));
-        datetimeOperatorFunctionMap.put(FilterConditionOperator.LESSER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isBefore(LocalDateTime.parse(c.toString(), DateTimeFormatter.ofPattern(DATETIME_FORMAT))));
-        datetimeOperatorFunctionMap.put(FilterConditionOperator.LESSER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isAfter(LocalDateTime.parse(c.toString(), DateTimeFormatter.ofPattern(DATETIME_FORMAT)))));
+        datetimeOperatorFunctionMap.put(FilterConditionOperator.GREATER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isAfter((LocalDateTime) c));
+        datetimeOperatorFunctionMap.put(FilterConditionOperator.GREATER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isBefore((LocalDateTime) c)));
+        datetimeOperatorFunctionMap.put(FilterConditionOperator.LESSER, (o, c) -> ((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isBefore((LocalDateTime) c));
+        datetimeOperatorFunctionMap.put(FilterConditionOperator.LESSER_OR_EQUAL, (o, c) -> !(((Date) o).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().isAfter((LocalDateTime) c)));
         fieldTypeToOperatorActionMap.put(FilterFieldType.DATETIME, datetimeOperatorFunctionMap);
 
         fieldTypeToOperatorActionMap.put(FilterFieldType.LIST, commonOperatorFunctionMap);
@@ -357,16 +359,38 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
 
     }
 
+    static BiFunction<Object, Object, Boolean> getOperatorFunction(FilterFieldType fieldType, FilterConditionOperator operator) {
+        Map<FilterConditionOperator, BiFunction<Object, Object, Boolean>> operatorFunctionMap = fieldTypeToOperatorActionMap.get(fieldType);
+        return operatorFunctionMap == null ? null : operatorFunctionMap.get(operator);
+    }
+
+    /**
+     * Convert condition value to the form expected by operator function, dates compared by operators are parsed
+     */
+    static Object prepareConditionValue(FilterFieldType fieldType, FilterConditionOperator operator, Object conditionValue) {
+        if (conditionValue == null || !COMPARISON_OPERATORS.contains(operator)) {
+            return conditionValue;
+        }
+        if (fieldType == FilterFieldType.DATE) {
+            return LocalDate.parse(conditionValue.toString());
+        }
+        if (fieldType == FilterFieldType.DATETIME) {
+            return LocalDateTime.parse(conditionValue.toString(), DATETIME_FORMATTER);
+        }
+        return conditionValue;
+    }
+
     private static int compareNumbers(Number objectNumber, Number conditionNumber) {
         return Float.compare(objectNumber.floatValue(), conditionNumber.floatValue());
     }
 
     private boolean evaluateConditionOnAttribute(ResponseAttributeDto attributeDto, Object conditionValue, FilterConditionOperator operator) throws RuleException {
         AttributeContentType contentType = attributeDto.getContentType();
+        FilterFieldType fieldType = contentTypeToFieldType(contentType);
         for (BaseAttributeContent attributeContent : attributeDto.getContent()) {
             Object attributeValue = contentType.isFilterByData() ? attributeContent.getData() : attributeContent.getReference();
             try {
-                if (fieldTypeToOperatorActionMap.get(contentTypeToFieldType(contentType)).get(operator).apply(attributeValue, conditionValue))
+                if (fieldTypeToOperatorActionMap.get(fieldType).get(operator).apply(attributeValue, prepareConditionValue(fieldType, operator, conditionValue)))
                     return true;
             } catch (Exception e) {
                 throw new RuleException("Invalid condition.");
@@ -16,6 +16,7 @@ import com.czertainly.core.messaging.producers.NotificationProducer;
 import com.czertainly.core.service.ApprovalService;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.AuthHelper;
+import com.czertainly.core.util.CertificateStateNotifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
@@ -46,6 +47,8 @@ public class ActionListener {
 
     private AuthHelper authHelper;
 
+    private CertificateStateNotifier certificateStateNotifier;
+
     @RabbitListener(queues = RabbitMQConstants.QUEUE_ACTIONS_NAME, messageConverter = "jsonMessageConverter")
     public void processMessage(final ActionMessage actionMessage) throws MessageHandlingException {
         boolean hasApproval = actionMessage.getApprovalUuid() != null;
@@ -100,6 +103,9 @@ public class ActionListener {
     }
 
     private void processCertificateAction(final ActionMessage actionMessage, boolean hasApproval, boolean isApproved) throws ConnectorException, CertificateException, NoSuchAlgorithmException, AlreadyExistException, CertificateOperationException {
+        // wake up threads waiting for the certificate once the action is finished, successfully or not
+        certificateStateNotifier.notifyAfterCompletion(actionMessage.getResourceUuid());
+
         // handle rejected actions
         if (hasApproval && !isApproved) {
             switch (actionMessage.getResourceAction()) {
@@ -157,4 +163,9 @@ public class ActionListener {
     public void setAuthHelper(AuthHelper authHelper) {
         this.authHelper = authHelper;
     }
+
+    @Autowired
+    public void setCertificateStateNotifier(CertificateStateNotifier certificateStateNotifier) {
+        this.certificateStateNotifier = certificateStateNotifier;
+    }
 }
@@ -0,0 +1,39 @@
+package com.czertainly.core.model;
+
+import com.czertainly.api.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last returned object in keyset pagination. Objects are ordered by creation time and UUID descending,
+ * next page starts with the first object after this position. Token is passed to clients as opaque Base64 string.
+ *
+ * @param created creation time of the last returned object
+ * @param uuid    UUID of the last returned object
+ */
+public record ContinuationToken(OffsetDateTime created, UUID uuid) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String value = created.toString() + SEPARATOR + uuid.toString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContinuationToken decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new ValidationException("Invalid continuation token");
+            }
+            return new ContinuationToken(OffsetDateTime.parse(value.substring(0, separatorIndex)), UUID.fromString(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid continuation token");
+        }
+    }
+}
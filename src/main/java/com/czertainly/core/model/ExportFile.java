@@ -0,0 +1,13 @@
+package com.czertainly.core.model;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * File with exported data
+ *
+ * @param fileName      name of the exported file
+ * @param contentLength size of the exported file in bytes
+ * @param resource      content of the exported file, it can be read only once
+ */
+public record ExportFile(String fileName, long contentLength, Resource resource) {
+}
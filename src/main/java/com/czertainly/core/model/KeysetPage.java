@@ -0,0 +1,10 @@
+package com.czertainly.core.model;
+
+/**
+ * Page of objects returned by keyset pagination
+ *
+ * @param content           returned page
+ * @param continuationToken encoded token of the next page, null if there are no more objects
+ */
+public record KeysetPage<T>(T content, String continuationToken) {
+}
@@ -6,6 +6,7 @@ import com.czertainly.core.security.authn.client.dto.AuthenticationResponseDto;
 import com.czertainly.core.security.authn.client.dto.UserDetailsDto;
 import com.czertainly.core.util.AuthHelper;
 import com.czertainly.core.util.CertificateUtil;
+import com.czertainly.core.util.ExpiringCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.logging.Log;
@@ -23,7 +24,10 @@ import reactor.core.publisher.Mono;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Component
@@ -34,19 +38,42 @@ public class CzertainlyAuthenticationClient extends CzertainlyBaseAuthentication
     private final ObjectMapper objectMapper;
     private final String customAuthServiceBaseUrl;
 
+    /**
+     * Cache of successful authentications keyed by hash of the authentication payload (certificate, token and system user headers)
+     */
+    private final ExpiringCache<String, AuthenticationInfo> authenticationCache;
+
     @Value("${server.ssl.certificate-header-name}")
     private String certificateHeaderName;
 
     @Value("${auth.token.header-name}")
     private String authTokenHeaderName;
 
-    public CzertainlyAuthenticationClient(@Autowired ObjectMapper objectMapper, @Value("${auth-service.base-url}") String customAuthServiceBaseUrl) {
+    public CzertainlyAuthenticationClient(ObjectMapper objectMapper, String customAuthServiceBaseUrl) {
+        this(objectMapper, customAuthServiceBaseUrl, 0, 0);
+    }
+
+    @Autowired
+    public CzertainlyAuthenticationClient(ObjectMapper objectMapper, @Value("${auth-service.base-url}") String customAuthServiceBaseUrl, @Value("${auth.cache.ttl:10000}") long cacheTtl, @Value("${auth.cache.max-size:1000}") int cacheMaxSize) {
 
         this.objectMapper = objectMapper;
         this.customAuthServiceBaseUrl = customAuthServiceBaseUrl;
+        this.authenticationCache = new ExpiringCache<>(Duration.ofMillis(cacheTtl), cacheMaxSize);
     }
 
     public AuthenticationInfo authenticate(HttpHeaders headers) throws AuthenticationException {
+        AuthenticationRequestDto authPayload = getAuthPayload(headers);
+        String cacheKey = authenticationCache.isEnabled() ? getCacheKey(authPayload) : null;
+        // authentication requested before eviction of the cache is not cached, it could contain stale user details or roles
+        long cacheGeneration = authenticationCache.getGeneration();
+        if (cacheKey != null) {
+            AuthenticationInfo cachedInfo = authenticationCache.get(cacheKey);
+            if (cachedInfo != null) {
+                logger.trace(String.format("Using cached authentication of user '%s'.", cachedInfo.getUsername()));
+                return cachedInfo;
+            }
+        }
+
         try {
             logger.trace(
                     String.format(
@@ -59,7 +86,7 @@ public class CzertainlyAuthenticationClient extends CzertainlyBaseAuthentication
             WebClient.RequestHeadersSpec<?> request = getClient(customAuthServiceBaseUrl)
                     .post()
                     .uri("/auth")
-                    .body(Mono.just(getAuthPayload(headers)), AuthenticationRequestDto.class)
+                    .body(Mono.just(authPayload), AuthenticationRequestDto.class)
                     .accept(MediaType.APPLICATION_JSON);
 
             AuthenticationResponseDto response = request
@@ -70,12 +97,47 @@ public class CzertainlyAuthenticationClient extends CzertainlyBaseAuthentication
             if (response == null) {
                 throw new CzertainlyAuthenticationException("Empty response received from authentication service.");
             }
-            return createAuthenticationInfo(response);
+            AuthenticationInfo authenticationInfo = createAuthenticationInfo(response);
+            if (cacheKey != null && !authenticationInfo.isAnonymous()) {
+                authenticationCache.putIfGeneration(cacheKey, authenticationInfo, cacheGeneration);
+            }
+            return authenticationInfo;
         } catch (WebClientResponseException.InternalServerError e) {
             throw new CzertainlyAuthenticationException("An error occurred when calling authentication service.", e);
         }
     }
 
+    /**
+     * Evict cached authentications of the user. Has to be called when user details or roles of the user change.
+     * @param userUuid UUID of the user
+     */
+    public void evictUser(String userUuid) {
+        logger.debug(String.format("Evicting cached authentications of user with UUID %s.", userUuid));
+        authenticationCache.invalidateValuesIf(info -> Objects.equals(info.getUserUuid(), userUuid));
+    }
+
+    /**
+     * Evict all cached authentications. Has to be called when change affects multiple users, e.g. role is updated or deleted.
+     */
+    public void invalidateCache() {
+        logger.debug("Invalidating cache of authentications.");
+        authenticationCache.invalidateAll();
+    }
+
+    private String getCacheKey(AuthenticationRequestDto requestDto) {
+        String payload = String.join("\n",
+                Objects.toString(requestDto.getCertificateContent(), ""),
+                Objects.toString(requestDto.getAuthenticationToken(), ""),
+                Objects.toString(requestDto.getSystemUsername(), ""),
+                Objects.toString(requestDto.getUserUuid(), ""));
+        try {
+            return CertificateUtil.getThumbprint(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            logger.debug("Unable to compute authentication cache key: " + e.getMessage());
+            return null;
+        }
+    }
+
     private AuthenticationRequestDto getAuthPayload(HttpHeaders headers) {
         AuthenticationRequestDto requestDto = new AuthenticationRequestDto();
         final List<String> certificateHeaderNameList = headers.get(certificateHeaderName);
@@ -10,6 +10,7 @@ import com.czertainly.core.security.authn.CzertainlyAuthenticationToken;
 import com.czertainly.core.security.authn.CzertainlyUserDetails;
 import com.czertainly.core.security.authz.opa.OpaClient;
 import com.czertainly.core.security.authz.opa.dto.AnonymousPrincipal;
+import com.czertainly.core.security.authz.opa.dto.OpaObjectAccessResult;
 import com.czertainly.core.security.authz.opa.dto.OpaRequestDetails;
 import com.czertainly.core.security.authz.opa.dto.OpaRequestedResource;
 import com.czertainly.core.security.authz.opa.dto.OpaResourceAccessResult;
@@ -27,6 +28,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Component
@@ -108,31 +110,35 @@ public class ExternalMethodAuthorizationVoter extends AbstractExternalAuthorizat
             return ACCESS_GRANTED;
         }
 
-        // evaluate if objects owners equal to principal
-        if (resource.hasOwner()) {
-            long ownerCount = ownerAssociationRepository.countByOwnerUuidAndResourceAndObjectUuidIn(UUID.fromString(principal.getUserUuid()), resource, objectUUIDs.stream().filter(u -> u.getValue() != null).map(SecuredUUID::getValue).toList());
-            if (ownerCount == objectUUIDs.size()) {
+        // objects without UUID cannot have owner or group associations
+        if (objectUUIDs.stream().anyMatch(u -> u.getValue() == null)) {
+            return ACCESS_DENIED;
+        }
+
+        // access is granted when principal owns all objects, otherwise all objects have to be accessible through group members permissions,
+        // associations of all objects are loaded at once
+        Set<UUID> objectUuids = objectUUIDs.stream().map(SecuredUUID::getValue).collect(Collectors.toSet());
+        if (resource.hasOwner() && principal.getUserUuid() != null) {
+            List<UUID> ownedUuids = ownerAssociationRepository.findObjectUuidsByOwnerUuidAndResourceAndObjectUuidIn(UUID.fromString(principal.getUserUuid()), resource, objectUuids);
+            if (objectUuids.size() == new HashSet<>(ownedUuids).size()) {
+                logger.trace(String.format("Access to the method '%s' object has been granted by owner association.", methodInvocation.getMethod().getName()));
                 return ACCESS_GRANTED;
             }
         }
 
         // evaluate group members permissions on objects assigned groups
         if (resource.hasGroups() && (resourceAction == ResourceAction.LIST || resourceAction == ResourceAction.DETAIL)) {
-            properties.clear();
-            properties.put(NAME_PROP_NAME, Resource.GROUP.getCode());
-            properties.put(ACTION_PROP_NAME, ResourceAction.MEMBERS.getCode());
-
-            for (SecuredUUID objectUuid : objectUUIDs) {
-                // load groups associations
-                List<String> groupUuids = groupAssociationRepository.findByResourceAndObjectUuid(resource, objectUuid.getValue()).stream().map(g -> g.getGroupUuid().toString()).toList();
-                if (groupUuids.isEmpty()) {
-                    return ACCESS_DENIED;
-                }
-                OpaRequestedResource opaRequest = new OpaRequestedResource(properties);
-                opaRequest.setObjectUUIDs(groupUuids);
+            Map<UUID, List<UUID>> objectsGroups = groupAssociationRepository.findByResourceAndObjectUuidIn(resource, objectUuids).stream()
+                    .collect(Collectors.groupingBy(GroupAssociation::getObjectUuid, Collectors.mapping(GroupAssociation::getGroupUuid, Collectors.toList())));
+            if (objectsGroups.size() != objectUuids.size()) {
+                logger.trace(String.format("Access to the method '%s' object has been denied since object is not assigned to any group.", methodInvocation.getMethod().getName()));
+                return ACCESS_DENIED;
+            }
 
-                OpaResourceAccessResult result = this.checkAccess(principal.getRawData(), opaRequest);
-                if (!result.isAuthorized()) {
+            // group members permissions are evaluated by single OPA request for all groups
+            Predicate<UUID> groupMembersAllowed = getGroupMembersPermissions(principal.getRawData());
+            for (List<UUID> groupUuids : objectsGroups.values()) {
+                if (!groupUuids.stream().allMatch(groupMembersAllowed)) {
                     logger.trace(String.format("Access to the method '%s' object has been denied by missing group member permissions.", methodInvocation.getMethod().getName()));
                     return ACCESS_DENIED;
                 }
@@ -145,6 +151,32 @@ public class ExternalMethodAuthorizationVoter extends AbstractExternalAuthorizat
         return ACCESS_DENIED;
     }
 
+    private Predicate<UUID> getGroupMembersPermissions(String principal) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(NAME_PROP_NAME, Resource.GROUP.getCode());
+        properties.put(ACTION_PROP_NAME, ResourceAction.MEMBERS.getCode());
+
+        OpaObjectAccessResult result;
+        try {
+            result = this.opaClient.checkObjectAccess(OpaPolicy.OBJECTS.policyName, new OpaRequestedResource(properties), principal, new OpaRequestDetails(null));
+        } catch (Exception e) {
+            logger.error(
+                    String.format(
+                            "An error occurred during the authorization request to the OPA policy '%s'.",
+                            OpaPolicy.OBJECTS.policyName),
+                    e
+            );
+            return groupUuid -> false;
+        }
+
+        if (result.isActionAllowedForGroupOfObjects()) {
+            Set<String> forbiddenGroups = result.getForbiddenObjects() == null ? Set.of() : new HashSet<>(result.getForbiddenObjects());
+            return groupUuid -> !forbiddenGroups.contains(groupUuid.toString());
+        }
+        Set<String> allowedGroups = result.getAllowedObjects() == null ? Set.of() : new HashSet<>(result.getAllowedObjects());
+        return groupUuid -> allowedGroups.contains(groupUuid.toString());
+    }
+
     private int vote(String principal, MethodInvocation methodInvocation, List<ExternalAuthorizationConfigAttribute> attributes) {
         try {
             Map<String, String> properties = attributes
@@ -1,6 +1,7 @@
 package com.czertainly.core.security.authz.opa;
 
 import com.czertainly.core.security.authz.opa.dto.*;
+import com.czertainly.core.util.ExpiringCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -14,6 +15,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.time.Duration;
 
 @Component
 public class OpaClient {
@@ -26,9 +28,20 @@ public class OpaClient {
 
     private final String opaBaseUrl;
 
-    public OpaClient(@Autowired ObjectMapper om, @Value("${opa.base-url}") String opaBaseUrl) {
+    /**
+     * Cache of OPA decisions keyed by policy name and serialized input (principal, requested resource and details)
+     */
+    private final ExpiringCache<String, Object> decisionCache;
+
+    public OpaClient(ObjectMapper om, String opaBaseUrl) {
+        this(om, opaBaseUrl, 0, 0);
+    }
+
+    @Autowired
+    public OpaClient(ObjectMapper om, @Value("${opa.base-url}") String opaBaseUrl, @Value("${opa.cache.ttl:5000}") long cacheTtl, @Value("${opa.cache.max-size:10000}") int cacheMaxSize) {
         this.om = om;
         this.opaBaseUrl = opaBaseUrl;
+        this.decisionCache = new ExpiringCache<>(Duration.ofMillis(cacheTtl), cacheMaxSize);
     }
 
     public OpaResourceAccessResult checkResourceAccess(String policyName, OpaRequestedResource resource, String principal, OpaRequestDetails details) throws AccessDeniedException {
@@ -53,6 +66,16 @@ public class OpaClient {
             ParameterizedTypeReference<OpaResultWrapper<T>> typeReference = ParameterizedTypeReference.forType(type);
             String body = om.writeValueAsString(new OpaRequestWrapper<>(new OpaInput(resource, principal, details)));
 
+            String cacheKey = policyName + ":" + body;
+            // decision requested before invalidation of the cache is not cached, it could be based on stale roles or permissions
+            long cacheGeneration = decisionCache.getGeneration();
+            @SuppressWarnings("unchecked")
+            T cachedResult = (T) decisionCache.get(cacheKey);
+            if (cachedResult != null) {
+                logger.trace(String.format("Using cached decision of OPA policy '%s'.", policyName));
+                return cachedResult;
+            }
+
             OpaResultWrapper<T> wrapper = getClient()
                     .post()
                     .uri("/v1/data/" + policyName)
@@ -64,12 +87,22 @@ public class OpaClient {
                     .block();
 
             if (wrapper == null) throw new RuntimeException("Empty response received from OPA.");
+            decisionCache.putIfGeneration(cacheKey, wrapper.getResult(), cacheGeneration);
             return wrapper.getResult();
         } catch (Exception e) {
             throw new AccessDeniedException("An error occurred when calling OPA.", e);
         }
     }
 
+    /**
+     * Invalidate all cached OPA decisions. Has to be called when roles, permissions or their assignments change
+     * since these are not part of the cache key.
+     */
+    public void invalidateCache() {
+        logger.debug("Invalidating cache of OPA decisions.");
+        decisionCache.invalidateAll();
+    }
+
     public WebClient getClient() {
         if (client == null) {
             client = WebClient.builder().baseUrl(opaBaseUrl).build();
@@ -1,11 +1,9 @@
 package com.czertainly.core.service;
 
 import com.czertainly.api.exception.NotFoundException;
-import com.czertainly.api.model.client.certificate.SearchFilterRequestDto;
 import com.czertainly.api.model.core.certificate.CertificateEvent;
 import com.czertainly.api.model.core.certificate.CertificateEventHistoryDto;
 import com.czertainly.api.model.core.certificate.CertificateEventStatus;
-import com.czertainly.api.model.core.search.SearchFieldDataDto;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.CertificateEventHistory;
 
@@ -31,5 +29,12 @@ public interface CertificateEventHistoryService {
 
     void addEventHistory(UUID certificateUuid, CertificateEvent event, CertificateEventStatus status, String message, String additionalInformation);
 
-    void addEventHistoryForRequest(List<SearchFilterRequestDto> filters, String entity, List<SearchFieldDataDto> originalJson, CertificateEvent event, CertificateEventStatus status, String message);
+    /**
+     * Method to add the same event into the history of multiple Certificates.
+     * @param certificateUuids UUIDs of certificates that should record the event
+     * @param event Certificate event
+     * @param status Event result
+     * @param message Short message for the event
+     */
+    void addEventHistoryForCertificates(List<UUID> certificateUuids, CertificateEvent event, CertificateEventStatus status, String message);
 }
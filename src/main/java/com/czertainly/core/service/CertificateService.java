@@ -12,6 +12,7 @@ import com.czertainly.api.model.core.location.LocationDto;
 import com.czertainly.api.model.core.search.SearchFieldDataByGroupDto;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.model.KeysetPage;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 
@@ -28,6 +29,18 @@ public interface CertificateService extends ResourceExtensionService  {
 
     CertificateResponseDto listCertificates(SecurityFilter filter, SearchRequestDto request) throws ValidationException;
 
+    /**
+     * List certificates using keyset pagination ordered by creation time and UUID. Page number of the request is ignored,
+     * position of the page is given by continuation token returned with previous page.
+     *
+     * @param filter            Security filter
+     * @param request           Search request with filters and number of items per page
+     * @param continuationToken Continuation token returned with previous page, null for first page
+     * @param includeTotalCount Whether total number of filtered certificates should be counted
+     * @return Page of certificates with continuation token of next page
+     */
+    KeysetPage<CertificateResponseDto> listCertificates(SecurityFilter filter, SearchRequestDto request, String continuationToken, boolean includeTotalCount) throws ValidationException;
+
     CertificateDetailDto getCertificate(SecuredUUID uuid) throws NotFoundException, CertificateException, IOException;
 
     Certificate getCertificateEntity(SecuredUUID uuid) throws NotFoundException;
@@ -16,7 +16,7 @@ public interface CrlService {
 
     Crl getCurrentCrl(X509Certificate certificate, X509Certificate issuerCertificate) throws IOException;
 
-    CrlEntry findCrlEntryForCertificate(String serialNumber, UUID crlUuid);
+    CrlEntry findCrlEntryForCertificate(String serialNumber, Crl crl);
 
     List<Crl> findCrlsForCaCertificate(UUID caCertificateUuid);
 }
@@ -22,4 +22,6 @@ public interface ResourceObjectAssociationService {
     void removeOwnerAssociations(UUID ownerUuid);
 
     void removeObjectAssociations(Resource resource, UUID objectUuid);
+
+    void removeObjectsAssociations(Resource resource, List<UUID> objectUuids);
 }
@@ -0,0 +1,28 @@
+package com.czertainly.core.service.acme;
+
+import javax.naming.NamingException;
+import java.util.List;
+
+/**
+ * Resolver of DNS TXT records used to validate DNS-01 challenges
+ */
+public interface AcmeDnsResolver {
+
+    /**
+     * Get values of TXT records with the given name
+     *
+     * @param name        domain name of TXT records
+     * @param providerUrl JNDI DNS provider URL of the resolver, e.g. dns://8.8.8.8:53 or dns:// for system resolver
+     * @return list of values of TXT records, empty if there are none
+     * @throws NamingException when lookup fails
+     */
+    List<String> getTxtRecords(String name, String providerUrl) throws NamingException;
+
+    /**
+     * Discard previously resolved TXT records, so next lookup queries the resolver again
+     *
+     * @param name        domain name of TXT records
+     * @param providerUrl JNDI DNS provider URL of the resolver
+     */
+    void invalidate(String name, String providerUrl);
+}
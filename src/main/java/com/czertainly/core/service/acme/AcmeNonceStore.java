@@ -0,0 +1,32 @@
+package com.czertainly.core.service.acme;
+
+import java.util.Date;
+
+/**
+ * Store of ACME nonces issued in Replay-Nonce header (RFC 8555 Section 6.5)
+ */
+public interface AcmeNonceStore {
+
+    /**
+     * Store newly issued nonce
+     *
+     * @param nonce   issued nonce
+     * @param expires time after which the nonce is no longer valid
+     */
+    void add(String nonce, Date expires);
+
+    /**
+     * Atomically remove the nonce from store, so it can be used only once
+     *
+     * @param nonce nonce received in the request
+     * @return true if the nonce was issued and has not expired or been used yet, false otherwise
+     */
+    boolean consume(String nonce);
+
+    /**
+     * Remove all expired nonces from store
+     *
+     * @return number of removed nonces
+     */
+    int purgeExpired();
+}
@@ -46,4 +46,12 @@ public interface AcmeService {
 
     ResponseEntity<?> revokeCertificate(String acmeProfileName, String jwsBody, URI requestUri, boolean isRaProfileBased) throws AcmeProblemDocumentException, ConnectorException, CertificateException;
 
+    /**
+     * Invalidate challenges that stayed in processing state longer than the configured timeout, e.g. because
+     * the instance validating them was stopped
+     *
+     * @return number of invalidated challenges
+     */
+    int invalidateStuckChallenges();
+
 }
@@ -0,0 +1,204 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.api.exception.AcmeProblemDocumentException;
+import com.czertainly.api.model.core.acme.Problem;
+import com.czertainly.core.service.acme.AcmeConstants;
+import com.czertainly.core.service.acme.AcmeDnsResolver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates HTTP-01 and DNS-01 challenges asynchronously on bounded pool of threads, so slow or unreachable client hosts
+ * do not block request threads. Failed validation is retried with exponential backoff (RFC 8555 Section 8.2).
+ */
+@Component
+public class AcmeChallengeValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcmeChallengeValidator.class);
+
+    // key authorization is short, larger responses are not read completely
+    private static final int MAX_HTTP_RESPONSE_SIZE = 8192;
+
+    private static final int DEFAULT_HTTP_PORT = 80;
+
+    private final int maxAttempts;
+
+    private final long retryDelay;
+
+    private final int timeout;
+
+    private final int httpPort;
+
+    private final AcmeDnsResolver dnsResolver;
+
+    private final HttpClient httpClient;
+
+    private final ScheduledExecutorService executor;
+
+    @Autowired
+    public AcmeChallengeValidator(@Value("${acme.validation.max-concurrent:8}") int maxConcurrentValidations,
+                                  @Value("${acme.validation.max-attempts:3}") int maxAttempts,
+                                  @Value("${acme.validation.retry-delay:5000}") long retryDelay,
+                                  @Value("${acme.validation.timeout:10000}") int timeout,
+                                  AcmeDnsResolver dnsResolver) {
+        this(maxConcurrentValidations, maxAttempts, retryDelay, timeout, dnsResolver, DEFAULT_HTTP_PORT);
+    }
+
+    AcmeChallengeValidator(int maxConcurrentValidations, int maxAttempts, long retryDelay, int timeout, AcmeDnsResolver dnsResolver, int httpPort) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelay = retryDelay;
+        this.timeout = timeout;
+        this.httpPort = httpPort;
+        this.dnsResolver = dnsResolver;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeout))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(maxConcurrentValidations, runnable -> {
+            Thread thread = new Thread(runnable, "acme-validation-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Validate HTTP-01 challenge
+     *
+     * @param domain                   domain of the identifier
+     * @param token                    token of the challenge
+     * @param expectedKeyAuthorization key authorization expected in the response
+     * @return future completed with result of the validation
+     */
+    public CompletableFuture<Boolean> validateHttpChallenge(String domain, String token, String expectedKeyAuthorization) {
+        return validateWithRetries("HTTP-01 challenge for domain " + domain, () -> checkHttpChallenge(domain, token, expectedKeyAuthorization));
+    }
+
+    /**
+     * Validate DNS-01 challenge
+     *
+     * @param domain                   domain of the identifier
+     * @param expectedKeyAuthorization digest of key authorization expected in TXT record
+     * @param dnsProviderUrl           JNDI DNS provider URL of the resolver
+     * @return future completed with result of the validation
+     */
+    public CompletableFuture<Boolean> validateDnsChallenge(String domain, String expectedKeyAuthorization, String dnsProviderUrl) {
+        return validateWithRetries("DNS-01 challenge for domain " + domain, () -> checkDnsChallenge(domain, expectedKeyAuthorization, dnsProviderUrl));
+    }
+
+    private CompletableFuture<Boolean> validateWithRetries(String description, ValidationCheck check) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        scheduleAttempt(description, check, 1, 0, result);
+        return result;
+    }
+
+    private void scheduleAttempt(String description, ValidationCheck check, int attempt, long delay, CompletableFuture<Boolean> result) {
+        try {
+            executor.schedule(() -> runAttempt(description, check, attempt, result), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // executor is shut down, challenge must not stay in processing state
+            logger.warn("Validation of {} was rejected: {}", description, e.getMessage());
+            result.complete(false);
+        }
+    }
+
+    private void runAttempt(String description, ValidationCheck check, int attempt, CompletableFuture<Boolean> result) {
+        boolean isValid = false;
+        boolean retry = true;
+        try {
+            isValid = check.isValid();
+        } catch (AcmeProblemDocumentException e) {
+            logger.debug("Validation of {} failed: {}", description, e.getMessage());
+            retry = false;
+        } catch (Exception e) {
+            logger.debug("Validation of {} failed in attempt {}: {}", description, attempt, e.getMessage());
+        }
+
+        if (isValid || !retry || attempt >= maxAttempts) {
+            logger.debug("Validation of {} completed after {} attempts, valid: {}", description, attempt, isValid);
+            result.complete(isValid);
+        } else {
+            scheduleAttempt(description, check, attempt + 1, retryDelay << (attempt - 1), result);
+        }
+    }
+
+    private boolean checkHttpChallenge(String domain, String token, String expectedKeyAuthorization) throws Exception {
+        String host = httpPort == DEFAULT_HTTP_PORT ? domain : domain + ":" + httpPort;
+        URI uri = URI.create(String.format(AcmeConstants.HTTP_CHALLENGE_BASE_URL, host, token));
+        for (int redirectCount = 0; redirectCount <= AcmeConstants.MAX_REDIRECT_COUNT; redirectCount++) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMillis(timeout))
+                    .method(AcmeConstants.HTTP_CHALLENGE_REQUEST_METHOD, HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int responseCode = response.statusCode();
+                if (responseCode >= 300 && responseCode < 400) {
+                    Optional<String> location = response.headers().firstValue(AcmeConstants.LOCATION_HEADER_NAME);
+                    if (location.isEmpty()) return false;
+
+                    uri = uri.resolve(location.get());
+                    if (!(uri.getPort() == 80 || uri.getPort() == 443 || uri.getPort() == -1)) {
+                        throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.TLS, "Only 80 and 443 ports can be followed");
+                    }
+                    continue;
+                }
+                if (responseCode != 200) {
+                    logger.debug("HTTP-01 validation of domain {} received response code {}", domain, responseCode);
+                    return false;
+                }
+
+                // RFC 8555 Section 8.3, trailing whitespace of the response is ignored
+                String keyAuthorization = new String(body.readNBytes(MAX_HTTP_RESPONSE_SIZE), StandardCharsets.UTF_8).stripTrailing();
+                logger.debug("HTTP-01 validation response from the server: {}, expected response: {}", keyAuthorization, expectedKeyAuthorization);
+                return keyAuthorization.equals(expectedKeyAuthorization);
+            }
+        }
+        return false;
+    }
+
+    private boolean checkDnsChallenge(String domain, String expectedKeyAuthorization, String dnsProviderUrl) throws Exception {
+        String name = AcmeConstants.DNS_ACME_PREFIX + domain;
+        List<String> txtRecords = dnsResolver.getTxtRecords(name, dnsProviderUrl);
+        if (txtRecords.contains(expectedKeyAuthorization)) {
+            return true;
+        }
+
+        // record may have been published after the records were resolved, next attempt asks resolver again
+        dnsResolver.invalidate(name, dnsProviderUrl);
+        logger.debug("TXT record {} with expected value not found, found values: {}", name, txtRecords);
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface ValidationCheck {
+        boolean isValid() throws Exception;
+    }
+}
@@ -27,6 +27,7 @@ import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.service.acme.AcmeConstants;
+import com.czertainly.core.service.acme.AcmeNonceStore;
 import com.czertainly.core.service.acme.AcmeService;
 import com.czertainly.core.service.acme.message.AcmeJwsRequest;
 import com.czertainly.core.service.v2.ClientOperationService;
@@ -48,6 +49,7 @@ import org.bouncycastle.util.io.pem.PemObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
@@ -56,19 +58,15 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.naming.Context;
-import javax.naming.NamingEnumeration;
-import javax.naming.NamingException;
-import javax.naming.directory.Attribute;
-import javax.naming.directory.Attributes;
-import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -77,7 +75,11 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.security.spec.InvalidKeySpecException;
 import java.text.ParseException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -86,7 +88,14 @@ public class AcmeServiceImpl implements AcmeService {
 
     private static final Logger logger = LoggerFactory.getLogger(AcmeServiceImpl.class);
 
-    private AcmeNonceRepository acmeNonceRepository;
+    private AcmeNonceStore acmeNonceStore;
+
+    private AcmeChallengeValidator acmeChallengeValidator;
+
+    @Value("${acme.validation.processing-timeout:600000}")
+    private long processingTimeout;
+
+    private PlatformTransactionManager transactionManager;
     private RaProfileRepository raProfileRepository;
     private AcmeProfileRepository acmeProfileRepository;
     private AcmeAccountRepository acmeAccountRepository;
@@ -103,8 +112,18 @@ public class AcmeServiceImpl implements AcmeService {
     }
 
     @Autowired
-    public void setAcmeNonceRepository(AcmeNonceRepository acmeNonceRepository) {
-        this.acmeNonceRepository = acmeNonceRepository;
+    public void setAcmeNonceStore(AcmeNonceStore acmeNonceStore) {
+        this.acmeNonceStore = acmeNonceStore;
+    }
+
+    @Autowired
+    public void setAcmeChallengeValidator(AcmeChallengeValidator acmeChallengeValidator) {
+        this.acmeChallengeValidator = acmeChallengeValidator;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
     }
 
     @Autowired
@@ -461,28 +480,17 @@ public class AcmeServiceImpl implements AcmeService {
         AcmeOrder order = authorization.getOrder();
         logger.debug("Order corresponding to the Challenge: {}", order.toString());
 
-        boolean isValid;
-        if (challenge.getType().equals(ChallengeType.HTTP01)) {
-            isValid = validateHttpChallenge(challenge);
-        } else {
-            isValid = validateDnsChallenge(challenge);
-        }
+        // validation of the challenge runs asynchronously, client polls the challenge until it is not processing
+        if (challenge.getStatus() != ChallengeStatus.PROCESSING && challenge.getStatus() != ChallengeStatus.VALID) {
+            Supplier<CompletableFuture<Boolean>> validation = prepareChallengeValidation(challenge);
+            challenge.setStatus(ChallengeStatus.PROCESSING);
+            acmeChallengeRepository.save(challenge);
 
-        if (isValid) {
-            challenge.setValidated(new Date());
-            challenge.setStatus(ChallengeStatus.VALID);
-            authorization.setStatus(AuthorizationStatus.VALID);
-            order.setStatus(OrderStatus.READY);
-        } else {
-            challenge.setStatus(ChallengeStatus.INVALID);
+            String validatedChallengeId = challenge.getChallengeId();
+            runAfterCommit(() -> validation.get().thenAccept(isValid -> updateChallengeStatus(validatedChallengeId, isValid)));
+            logger.debug("Validation of the Challenge is started: {}", challenge);
         }
 
-        acmeOrderRepository.save(order);
-        acmeChallengeRepository.save(challenge);
-        acmeAuthorizationRepository.save(authorization);
-
-        logger.debug("Validation of the Challenge is completed: {}", challenge);
-
         return ResponseEntity.ok()
                 .header(AcmeConstants.NONCE_HEADER_NAME, generateNonce())
                 .header(AcmeConstants.LINK_HEADER_NAME, generateLinkHeader(acmeProfileName, isRaProfileBased))
@@ -675,11 +683,7 @@ public class AcmeServiceImpl implements AcmeService {
     private String generateNonce() {
         String nonceString = AcmeRandomGeneratorAndValidator.generateNonce();
         Date expires = AcmeCommonHelper.addSeconds(new Date(), AcmeConstants.NONCE_VALIDITY);
-        AcmeNonce acmeNonce = new AcmeNonce();
-        acmeNonce.setCreated(new Date());
-        acmeNonce.setNonce(nonceString);
-        acmeNonce.setExpires(expires);
-        acmeNonceRepository.save(acmeNonce);
+        acmeNonceStore.add(nonceString, expires);
         return nonceString;
     }
 
@@ -902,114 +906,92 @@ public class AcmeServiceImpl implements AcmeService {
         }
     }
 
-    private boolean validateHttpChallenge(AcmeChallenge challenge) throws AcmeProblemDocumentException {
-        logger.debug("Initiating HTTP-01 Challenge validation: {}", challenge.toString());
-        String response = getHttpChallengeResponse(
-                SerializationUtil.deserializeIdentifier(
-                                challenge
-                                        .getAuthorization()
-                                        .getIdentifier()
-                        )
-                        .getValue().replace("*.", ""),
-                challenge.getToken());
-        PublicKey pubKey;
-        try {
-            pubKey = AcmePublicKeyProcessor.publicKeyObjectFromString(challenge.getAuthorization().getOrder().getAcmeAccount().getPublicKey());
-        } catch (Exception e) {
-            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
+    private Supplier<CompletableFuture<Boolean>> prepareChallengeValidation(AcmeChallenge challenge) throws AcmeProblemDocumentException {
+        // all data needed for validation are loaded before, so the validation does not hold database connection
+        String domain = SerializationUtil.deserializeIdentifier(challenge.getAuthorization().getIdentifier()).getValue();
+        String token = challenge.getToken();
+        AcmeAccount acmeAccount = challenge.getAuthorization().getOrder().getAcmeAccount();
+        if (challenge.getType().equals(ChallengeType.HTTP01)) {
+            logger.debug("Initiating HTTP-01 Challenge validation: {}", challenge);
+            PublicKey pubKey;
+            try {
+                pubKey = AcmePublicKeyProcessor.publicKeyObjectFromString(acmeAccount.getPublicKey());
+            } catch (Exception e) {
+                throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
+            }
+            String expectedResponse = AcmeCommonHelper.createKeyAuthorization(token, pubKey);
+            return () -> acmeChallengeValidator.validateHttpChallenge(domain.replace("*.", ""), token, expectedResponse);
         }
-        String expectedResponse = AcmeCommonHelper.createKeyAuthorization(challenge.getToken(), pubKey);
-        logger.debug("HTTP01 validation response from the server: {}, expected response: {}", response, expectedResponse);
-        return response.equals(expectedResponse);
+
+        logger.info("Initiating DNS-01 validation for challenge: {}", challenge);
+        String expectedKeyAuthorization = generateDnsValidationToken(acmeAccount.getPublicKey(), token);
+        String dnsProviderUrl = getDnsProviderUrl(acmeAccount.getAcmeProfile());
+        return () -> acmeChallengeValidator.validateDnsChallenge(domain, expectedKeyAuthorization, dnsProviderUrl);
     }
 
-    private boolean validateDnsChallenge(AcmeChallenge challenge) throws AcmeProblemDocumentException {
-        logger.info("Initiating DNS-01 validation for challenge: {}", challenge.toString());
-        Properties env = getEnv(challenge);
-        List<String> txtRecords = new ArrayList<>();
-        String expectedKeyAuthorization = generateDnsValidationToken(challenge.getAuthorization().getOrder().getAcmeAccount().getPublicKey(), challenge.getToken());
-        DirContext context;
-        try {
-            context = new InitialDirContext(env);
-            Attributes list = context.getAttributes(AcmeConstants.DNS_ACME_PREFIX
-                            + SerializationUtil.deserializeIdentifier(
-                            challenge.getAuthorization().getIdentifier()).getValue(),
-                    new String[]{AcmeConstants.DNS_RECORD_TYPE});
-            NamingEnumeration<? extends Attribute> records = list.getAll();
-
-            while (records.hasMore()) {
-                javax.naming.directory.Attribute record = records.next();
-                txtRecords.add(record.get().toString());
-            }
-        } catch (NamingException e) {
-            logger.error(e.getMessage());
-        }
-        if (txtRecords.isEmpty()) {
-            logger.error("TXT record is empty for Challenge: {}", challenge);
-            return false;
-        }
-        if (!txtRecords.contains(expectedKeyAuthorization)) {
-            logger.error("TXT record not found for Challenge: {}", challenge);
-            return false;
+    @Override
+    public int invalidateStuckChallenges() {
+        OffsetDateTime processingSince = OffsetDateTime.now().minus(Duration.ofMillis(processingTimeout));
+        List<AcmeChallenge> stuckChallenges = acmeChallengeRepository.findByStatusAndUpdatedBefore(ChallengeStatus.PROCESSING, processingSince);
+        for (AcmeChallenge challenge : stuckChallenges) {
+            logger.warn("Validation of Challenge with ID {} did not complete in time, Challenge is invalidated", challenge.getChallengeId());
+            challenge.setStatus(ChallengeStatus.INVALID);
+            acmeChallengeRepository.save(challenge);
         }
-        return true;
+        return stuckChallenges.size();
     }
 
-    private static Properties getEnv(AcmeChallenge challenge) {
-        Properties env = new Properties();
-        env.setProperty(Context.INITIAL_CONTEXT_FACTORY, AcmeConstants.DNS_CONTENT_FACTORY);
-        AcmeProfile acmeProfile = challenge.getAuthorization().getOrder().getAcmeAccount().getAcmeProfile();
-        if (acmeProfile.getDnsResolverIp() == null || acmeProfile.getDnsResolverIp().isEmpty()) {
-            env.setProperty(Context.PROVIDER_URL, AcmeConstants.DNS_ENV_PREFIX);
-        } else {
-            env.setProperty(Context.PROVIDER_URL, AcmeConstants.DNS_ENV_PREFIX + acmeProfile.getDnsResolverIp() + ":" + Optional.ofNullable(acmeProfile.getDnsResolverPort())
-                    .orElse(AcmeConstants.DEFAULT_DNS_PORT));
+    private void updateChallengeStatus(String challengeId, boolean isValid) {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            AcmeChallenge challenge = acmeChallengeRepository.findByChallengeId(challengeId).orElse(null);
+            if (challenge == null) {
+                logger.warn("Challenge with ID {} was removed before its validation completed", challengeId);
+                transactionManager.commit(status);
+                return;
+            }
+
+            AcmeAuthorization authorization = challenge.getAuthorization();
+            AcmeOrder order = authorization.getOrder();
+            if (isValid) {
+                challenge.setValidated(new Date());
+                challenge.setStatus(ChallengeStatus.VALID);
+                authorization.setStatus(AuthorizationStatus.VALID);
+                order.setStatus(OrderStatus.READY);
+            } else {
+                challenge.setStatus(ChallengeStatus.INVALID);
+            }
+
+            acmeOrderRepository.save(order);
+            acmeChallengeRepository.save(challenge);
+            acmeAuthorizationRepository.save(authorization);
+            transactionManager.commit(status);
+            logger.debug("Validation of the Challenge is completed: {}", challenge);
+        } catch (Exception e) {
+            if (!status.isCompleted()) transactionManager.rollback(status);
+            logger.error("Unable to update status of Challenge with ID {}: {}", challengeId, e.getMessage(), e);
         }
-        return env;
     }
 
-    private String getHttpChallengeResponse(String domain, String token) throws AcmeProblemDocumentException {
-        return getResponseFollowRedirects(String.format(AcmeConstants.HTTP_CHALLENGE_BASE_URL, domain, token));
+    private static void runAfterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
     }
 
-    private String getResponseFollowRedirects(String url) throws AcmeProblemDocumentException {
-        String finalUrl = url;
-        String acmeChallengeOutput = "";
-        int redirectFollowCount = 0;
-        try {
-            HttpURLConnection connection;
-            do {
-                redirectFollowCount += 1;
-                URL urlObject = new URL(finalUrl);
-                if (!(urlObject.getPort() == 80 || urlObject.getPort() == 443 || urlObject.getPort() == -1)) {
-                    throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.TLS, "Only 80 and 443 ports can be followed");
-                }
-                connection = (HttpURLConnection) new URL(finalUrl).openConnection();
-                connection.setInstanceFollowRedirects(false);
-                connection.setUseCaches(false);
-                connection.setRequestMethod(AcmeConstants.HTTP_CHALLENGE_REQUEST_METHOD);
-                connection.connect();
-                int responseCode = connection.getResponseCode();
-                if (100 <= connection.getResponseCode() && connection.getResponseCode() <= 399) {
-                    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                    acmeChallengeOutput = bufferedReader.lines().collect(Collectors.joining());
-                }
-                if (responseCode >= 300 && responseCode < 400) {
-                    String redirectedUrl = connection.getHeaderField(AcmeConstants.LOCATION_HEADER_NAME);
-                    if (null == redirectedUrl) {
-                        break;
-                    }
-                    finalUrl = redirectedUrl;
-                } else
-                    break;
-            } while (connection.getResponseCode() != HttpURLConnection.HTTP_OK && redirectFollowCount < AcmeConstants.MAX_REDIRECT_COUNT);
-            connection.disconnect();
-        } catch (AcmeProblemDocumentException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error(e.getMessage());
+    private static String getDnsProviderUrl(AcmeProfile acmeProfile) {
+        if (acmeProfile.getDnsResolverIp() == null || acmeProfile.getDnsResolverIp().isEmpty()) {
+            return AcmeConstants.DNS_ENV_PREFIX;
         }
-        return acmeChallengeOutput;
+        return AcmeConstants.DNS_ENV_PREFIX + acmeProfile.getDnsResolverIp() + ":" + Optional.ofNullable(acmeProfile.getDnsResolverPort())
+                .orElse(AcmeConstants.DEFAULT_DNS_PORT);
     }
 
     private String generateDnsValidationToken(String publicKey, String token) throws AcmeProblemDocumentException {
@@ -1198,10 +1180,7 @@ public class AcmeServiceImpl implements AcmeService {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.BAD_NONCE);
         }
 
-        acmeNonceRepository.deleteAll(acmeNonceRepository.findAllByExpiresBefore(new Date()));
-        AcmeNonce acmeNonce = acmeNonceRepository.findByNonce(nonce.toString()).orElseThrow(
-                () -> new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.BAD_NONCE));
-        if (acmeNonce.getExpires().after(AcmeCommonHelper.addSeconds(new Date(), AcmeConstants.NONCE_VALIDITY))) {
+        if (!acmeNonceStore.consume(nonce.toString())) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.BAD_NONCE);
         }
     }
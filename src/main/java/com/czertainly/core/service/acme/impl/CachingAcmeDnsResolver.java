@@ -0,0 +1,91 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.core.service.acme.AcmeConstants;
+import com.czertainly.core.service.acme.AcmeDnsResolver;
+import com.czertainly.core.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.naming.Context;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * DNS resolver caching non-empty TXT record sets, so validation of challenges sharing the same name
+ * (e.g. wildcard and base domain) does not query the resolver repeatedly. JNDI does not expose TTL of
+ * the records, therefore records are cached for configured time, which should not exceed usual TTL of
+ * _acme-challenge records. Empty answers are never cached as the record may be published any moment.
+ */
+@Component
+public class CachingAcmeDnsResolver implements AcmeDnsResolver {
+
+    private static final String DNS_TIMEOUT_INITIAL_PROPERTY = "com.sun.jndi.dns.timeout.initial";
+    private static final String DNS_TIMEOUT_RETRIES_PROPERTY = "com.sun.jndi.dns.timeout.retries";
+
+    private final ExpiringCache<String, List<String>> recordsCache;
+
+    private final int timeout;
+
+    public CachingAcmeDnsResolver(@Value("${acme.dns.cache-ttl:60000}") long cacheTtl,
+                                  @Value("${acme.validation.timeout:10000}") int timeout) {
+        this.recordsCache = new ExpiringCache<>(Duration.ofMillis(cacheTtl), 10000);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public List<String> getTxtRecords(String name, String providerUrl) throws NamingException {
+        String cacheKey = getCacheKey(name, providerUrl);
+        List<String> records = recordsCache.get(cacheKey);
+        if (records != null) {
+            return records;
+        }
+
+        records = lookupTxtRecords(name, providerUrl);
+        if (!records.isEmpty()) {
+            recordsCache.put(cacheKey, records);
+        }
+        return records;
+    }
+
+    @Override
+    public void invalidate(String name, String providerUrl) {
+        recordsCache.invalidate(getCacheKey(name, providerUrl));
+    }
+
+    private List<String> lookupTxtRecords(String name, String providerUrl) throws NamingException {
+        Properties env = new Properties();
+        env.setProperty(Context.INITIAL_CONTEXT_FACTORY, AcmeConstants.DNS_CONTENT_FACTORY);
+        env.setProperty(Context.PROVIDER_URL, providerUrl);
+        // JNDI doubles the timeout with every retry, total time of the lookup is bounded by validation timeout
+        env.setProperty(DNS_TIMEOUT_INITIAL_PROPERTY, String.valueOf(Math.max(1, timeout / 7)));
+        env.setProperty(DNS_TIMEOUT_RETRIES_PROPERTY, "3");
+
+        List<String> records = new ArrayList<>();
+        DirContext context = new InitialDirContext(env);
+        try {
+            Attributes attributes = context.getAttributes(name, new String[]{AcmeConstants.DNS_RECORD_TYPE});
+            Attribute txtRecords = attributes.get(AcmeConstants.DNS_RECORD_TYPE);
+            if (txtRecords != null) {
+                NamingEnumeration<?> values = txtRecords.getAll();
+                while (values.hasMore()) {
+                    records.add(values.next().toString());
+                }
+            }
+        } finally {
+            context.close();
+        }
+        return List.copyOf(records);
+    }
+
+    private static String getCacheKey(String name, String providerUrl) {
+        return providerUrl + " " + name;
+    }
+}
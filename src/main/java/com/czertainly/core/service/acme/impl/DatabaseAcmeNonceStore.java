@@ -0,0 +1,54 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.core.dao.entity.acme.AcmeNonce;
+import com.czertainly.core.dao.repository.acme.AcmeNonceRepository;
+import com.czertainly.core.service.acme.AcmeNonceStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Nonce store keeping nonces in database, so they are shared by all instances of clustered deployment
+ */
+@Component
+@Transactional
+@ConditionalOnProperty(value = "acme.nonce.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseAcmeNonceStore implements AcmeNonceStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseAcmeNonceStore.class);
+
+    private AcmeNonceRepository acmeNonceRepository;
+
+    @Autowired
+    public void setAcmeNonceRepository(AcmeNonceRepository acmeNonceRepository) {
+        this.acmeNonceRepository = acmeNonceRepository;
+    }
+
+    @Override
+    public void add(String nonce, Date expires) {
+        AcmeNonce acmeNonce = new AcmeNonce();
+        acmeNonce.setCreated(new Date());
+        acmeNonce.setNonce(nonce);
+        acmeNonce.setExpires(expires);
+        acmeNonceRepository.save(acmeNonce);
+    }
+
+    @Override
+    public boolean consume(String nonce) {
+        return acmeNonceRepository.deleteValidNonce(nonce, new Date()) > 0;
+    }
+
+    @Override
+    public int purgeExpired() {
+        int deleted = acmeNonceRepository.deleteExpiredNonces(new Date());
+        if (deleted > 0) {
+            logger.debug("Purged {} expired ACME nonces", deleted);
+        }
+        return deleted;
+    }
+}
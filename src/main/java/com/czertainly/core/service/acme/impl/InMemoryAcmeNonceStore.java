@@ -0,0 +1,86 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.core.service.acme.AcmeNonceStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Nonce store keeping nonces in memory of single instance. Nonces are split into stripes by hash, each guarded
+ * by its own lock, so concurrent requests do not contend on one lock. When the store is full, the oldest nonces
+ * are dropped, which is allowed by RFC 8555 as clients retry the request with fresh nonce on badNonce error.
+ */
+@Component
+@ConditionalOnProperty(value = "acme.nonce.store", havingValue = "memory")
+public class InMemoryAcmeNonceStore implements AcmeNonceStore {
+
+    private static final int STRIPES_COUNT = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES_COUNT];
+
+    public InMemoryAcmeNonceStore(@Value("${acme.nonce.max-size:1000000}") int maxSize) {
+        int stripeMaxSize = Math.max(1, maxSize / STRIPES_COUNT);
+        for (int i = 0; i < STRIPES_COUNT; i++) {
+            stripes[i] = new Stripe(stripeMaxSize);
+        }
+    }
+
+    @Override
+    public void add(String nonce, Date expires) {
+        Stripe stripe = getStripe(nonce);
+        synchronized (stripe) {
+            stripe.put(nonce, expires.getTime());
+        }
+    }
+
+    @Override
+    public boolean consume(String nonce) {
+        Stripe stripe = getStripe(nonce);
+        Long expires;
+        synchronized (stripe) {
+            expires = stripe.remove(nonce);
+        }
+        return expires != null && expires > System.currentTimeMillis();
+    }
+
+    @Override
+    public int purgeExpired() {
+        int purged = 0;
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                // all nonces have the same validity, so insertion order is also order of expiration
+                Iterator<Long> iterator = stripe.values().iterator();
+                while (iterator.hasNext() && iterator.next() <= now) {
+                    iterator.remove();
+                    ++purged;
+                }
+            }
+        }
+        return purged;
+    }
+
+    private Stripe getStripe(String nonce) {
+        int hash = nonce.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES_COUNT - 1)];
+    }
+
+    private static class Stripe extends LinkedHashMap<String, Long> {
+
+        private final int maxSize;
+
+        private Stripe(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
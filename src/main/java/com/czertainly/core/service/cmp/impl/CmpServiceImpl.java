@@ -99,6 +99,9 @@ public class CmpServiceImpl implements CmpService {
     private RevocationMessageHandler revocationMessageHandler;
     @Autowired
     public void setRevocationMessageHandler(RevocationMessageHandler revocationMessageHandler) { this.revocationMessageHandler = revocationMessageHandler; }
+    private PollReqMessageHandler pollReqMessageHandler;
+    @Autowired
+    public void setPollReqMessageHandler(PollReqMessageHandler pollReqMessageHandler) { this.pollReqMessageHandler = pollReqMessageHandler; }
 
     // -- TRANSACTION
     private CmpTransactionService cmpTransactionService;
@@ -181,12 +184,13 @@ public class CmpServiceImpl implements CmpService {
                     pkiResponse = revocationMessageHandler.handle(pkiRequest, configuration); break;
                 case PKIBody.TYPE_CERT_CONFIRM:                    // (24) certConf, Certificate confirm; CertConfirmContent
                     pkiResponse = certConfirmMessageHandler.handle(pkiRequest, configuration); break;
+                case PKIBody.TYPE_POLL_REQ:                        // (25)  pollReq, Polling request; PollReqContent
+                    pkiResponse = pollReqMessageHandler.handle(pkiRequest, configuration); break;
                 case PKIBody.TYPE_CROSS_CERT_REQ:
                 case PKIBody.TYPE_KEY_RECOVERY_REQ:
                 case PKIBody.TYPE_GEN_MSG:
                 case PKIBody.TYPE_NESTED:
                 case PKIBody.TYPE_P10_CERT_REQ:
-                case PKIBody.TYPE_POLL_REQ:
                 case PKIBody.TYPE_REVOCATION_ANN:
                 case PKIBody.TYPE_CERT_ANN:
                 case PKIBody.TYPE_CA_KEY_UPDATE_ANN:
@@ -322,7 +322,22 @@ public class PkiMessageBuilder {
 
     public static PKIBody createIpCpKupBody(PKIBody body, CertResponse[] response,
                                                  CMPCertificate[] caPubs) throws CmpProcessingException {
-        int bodyType = body.getType();
+        return createIpCpKupBody(body.getType(), response, caPubs);
+    }
+
+    /**
+     * Generate an {@link PKIBody} of type IP, CP or KUP for response to given type of request, e.g. when
+     * the response is sent to pollReq of the client.
+     *
+     * @param bodyType type of request (supported only PKIBody.TYPE_INIT_REQ, PKIBody.TYPE_CERT_REQ or
+     *                 PKIBody.TYPE_KEY_UPDATE_REQ)
+     * @param response responses to the certificate requests
+     * @param caPubs list of CA certifications
+     * @return a IP, CP or KUP body
+     * @throws CmpProcessingException if type is not supported
+     */
+    public static PKIBody createIpCpKupBody(int bodyType, CertResponse[] response,
+                                            CMPCertificate[] caPubs) throws CmpProcessingException {
         switch(bodyType){
             case PKIBody.TYPE_INIT_REQ:
             case PKIBody.TYPE_CERT_REQ:
@@ -166,20 +166,10 @@ public class CrmfMessageHandler implements MessageHandler<PKIMessage> {
                         "certificate was not provided");
             }
             // -- polling against the database
-            Certificate polledCert = pollFeature.pollCertificate(tid,
+            Certificate polledCert = pollFeature.waitForCertificate(tid,
                     serialNumber==null?null:serialNumber.getValue().toString(16), requestedCert.getUuid(),
                     CertificateState.ISSUED);
 
-            // -- parse polled certificate (as X509)
-            X509Certificate parsedCert = parseCertificate(tid, polledCert);
-            // -- field: caPubs
-            if(listOfCaCerts == null){
-                listOfCaCerts = createListCaPubs(tid, polledCert);
-            } else {
-                List<CMPCertificate> list = createListCaPubs(tid, polledCert);
-                if(!list.isEmpty()) listOfCaCerts.addAll(list);
-            }
-
             // -- store as transaction (tid+uuid of cert)
             CmpTransactionState trxState = switch (request.getBody().getType()) {
                 case PKIBody.TYPE_INIT_REQ, PKIBody.TYPE_CERT_REQ -> crmfIrCrMessageHandler.getTransactionState();
@@ -189,11 +179,31 @@ public class CrmfMessageHandler implements MessageHandler<PKIMessage> {
                                 "CRMF message cannot be handled - type is not supported, type=" + msgBodyType);
                 default -> null;
             };
-            cmpTransactionService.save(cmpTransactionService.createTransactionEntity(
+            CmpTransaction transaction = cmpTransactionService.createTransactionEntity(
                     tid.toString(),
                     configuration.getProfile(),
                     polledCert.getUuid().toString(),
-                    trxState));
+                    trxState);
+            transaction.setRequestType(request.getBody().getType());
+            cmpTransactionService.save(transaction);
+
+            // -- certificate action is still processed, client has to ask for the certificate later (pollReq)
+            if(pollFeature.isPending(polledCert, CertificateState.ISSUED)) {
+                LOG.info("TID={} | certificate with uuid={} is not issued yet, client is asked to poll", tid, polledCert.getUuid());
+                return buildResponse(request, request.getBody().getType(), new CertResponse[]{
+                        new CertResponse(crmf.getCertReqId(), new PKIStatusInfo(PKIStatus.waiting), null, null)}, null, configuration);
+            }
+            pollFeature.verifyState(tid, polledCert, CertificateState.ISSUED);
+
+            // -- parse polled certificate (as X509)
+            X509Certificate parsedCert = parseCertificate(tid, polledCert);
+            // -- field: caPubs
+            if(listOfCaCerts == null){
+                listOfCaCerts = createListCaPubs(tid, polledCert);
+            } else {
+                List<CMPCertificate> list = createListCaPubs(tid, polledCert);
+                if(!list.isEmpty()) listOfCaCerts.addAll(list);
+            }
 
             // -- create cert response
             try {
@@ -224,18 +234,54 @@ public class CrmfMessageHandler implements MessageHandler<PKIMessage> {
         listOfCertResponses.toArray(certResponses);
 
         // -- create response
+        return buildResponse(request, request.getBody().getType(), certResponses, caPubs, configuration);
+    }
+
+    /**
+     * Create ip, cp or kup response with issued certificate for the certificate request, which was not
+     * finished in time of the original request and client asked for it again (pollReq).
+     *
+     * @param request message of the client (pollReq)
+     * @param requestType type of original certificate request (ir, cr, kur)
+     * @param certReqId id of the certificate request
+     * @param certificate issued certificate
+     * @return response message with the certificate
+     */
+    public PKIMessage handlePolledCertificate(PKIMessage request, int requestType, ASN1Integer certReqId,
+                                              Certificate certificate, ConfigurationContext configuration)
+            throws CmpBaseException {
+        ASN1OctetString tid = request.getHeader().getTransactionID();
+        X509Certificate parsedCert = parseCertificate(tid, certificate);
+        List<CMPCertificate> listOfCaCerts = createListCaPubs(tid, certificate);
+        try {
+            CertResponse[] certResponses = {new CertResponse(
+                    certReqId,
+                    new PKIStatusInfo(PKIStatus.granted),
+                    new CertifiedKeyPair(new CertOrEncCert(CMPCertificate.getInstance(parsedCert.getEncoded()))),
+                    null)};
+            return buildResponse(request, requestType, certResponses,
+                    listOfCaCerts.isEmpty() ? null : listOfCaCerts.toArray(new CMPCertificate[0]), configuration);
+        } catch (CertificateEncodingException e) {
+            throw new CmpProcessingException(tid, PKIFailureInfo.badRequest,
+                    "SN="+parsedCert.getSerialNumber()+" | CRMF cmp certificate encoding error", e);
+        }
+    }
+
+    private PKIMessage buildResponse(PKIMessage request, int requestType, CertResponse[] certResponses,
+                                     CMPCertificate[] caPubs, ConfigurationContext configuration)
+            throws CmpProcessingException {
         try {
             return new PkiMessageBuilder(configuration)
                     .addHeader(PkiMessageBuilder.buildBasicHeaderTemplate(request))
                     .addBody(PkiMessageBuilder.createIpCpKupBody(
-                            request.getBody(),
+                            requestType,
                             certResponses,
                             caPubs))
                     .addExtraCerts(null)
                     .build();
         } catch (Exception e) {
-            throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat,
-                    "CRMF message cannot be build, type="+ PkiMessageDumper.msgTypeAsString(request.getBody().getType()), e);
+            throw new CmpProcessingException(request.getHeader().getTransactionID(), PKIFailureInfo.badDataFormat,
+                    "CRMF message cannot be build, type="+ PkiMessageDumper.msgTypeAsString(requestType), e);
         }
     }
 
@@ -6,18 +6,23 @@ import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
+import com.czertainly.core.util.CertificateStateNotifier;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.cmp.PKIFailureInfo;
 import org.bouncycastle.asn1.cmp.PKIHeader;
+import org.bouncycastle.asn1.cmp.PollRepContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class PollFeature {
@@ -27,53 +32,106 @@ public class PollFeature {
     @PersistenceContext
     private EntityManager entityManager;
 
-    //@Value("${app.cmp.protocol.poll.feature.timeout}")
-    private Integer pollFeatureTimeout;
+    /**
+     * maximum time (in milliseconds) to wait for the certificate to get into expected state
+     */
+    @Value("${cmp.poll.timeout:10000}")
+    private long pollTimeout;
+
+    /**
+     * interval (in milliseconds) for re-reading of the certificate state when no signal is received, covers
+     * certificate actions processed by another instance
+     */
+    @Value("${cmp.poll.recheck-interval:2000}")
+    private long recheckInterval;
+
+    /**
+     * time (in seconds) after which client should poll again for certificate still being processed, see
+     * {@link PollRepContent}
+     */
+    @Value("${cmp.poll.check-after:5}")
+    private long checkAfter;
 
     private CertificateService certificateService;
     @Autowired
     public void setCertificateService(CertificateService certificateService) { this.certificateService = certificateService; }
 
+    private CertificateStateNotifier certificateStateNotifier;
+    @Autowired
+    public void setCertificateStateNotifier(CertificateStateNotifier certificateStateNotifier) { this.certificateStateNotifier = certificateStateNotifier; }
+
     /**
      * Convert asynchronous behaviour (manipulation with certificate, e.g. issuing/re-keying/revoking) to synchronous
-     * (cmp client ask for certificate) using polling certificate until certificate.
+     * (cmp client ask for certificate) by waiting for the certificate action to be finished.
+     *
+     * <p>Thread waits for the signal from {@link CertificateStateNotifier} published when the certificate action
+     * has been processed, certificate state is read from database only when signal is received or recheck interval
+     * elapses (action processed by another instance).</p>
      *
      * @param tid processing transaction id, see {@link PKIHeader#getTransactionID()}
      * @param serialNumber of given certificate subject of polling
-     * @return null if certificate (with state={@link CertificateState#ISSUED}) not found
-     * @throws CmpProcessingException if polling of certificate failed
+     * @return certificate in <code>expectedState</code>
+     * @throws CmpProcessingException if polling of certificate failed or certificate is not in expected state
      */
     public Certificate pollCertificate(ASN1OctetString tid, String serialNumber, String uuid, CertificateState expectedState)
             throws CmpProcessingException {
+        Certificate polledCert = waitForCertificate(tid, serialNumber, uuid, expectedState);
+        verifyState(tid, polledCert, expectedState);
+        return polledCert;
+    }
+
+    /**
+     * Wait for the certificate action the same way as {@link #pollCertificate}, but certificate still being processed
+     * when timeout elapses is returned as well, so the caller can answer with <code>waiting</code> status and
+     * let the client ask again (pollReq).
+     *
+     * @param tid processing transaction id, see {@link PKIHeader#getTransactionID()}
+     * @param serialNumber of given certificate subject of polling
+     * @return certificate in its current state
+     * @throws CmpProcessingException if polling of certificate failed
+     * @see #isPending(Certificate, CertificateState)
+     */
+    public Certificate waitForCertificate(ASN1OctetString tid, String serialNumber, String uuid, CertificateState expectedState)
+            throws CmpProcessingException {
         LOG.trace(">>>>> CERT POLL (begin) >>>>> ");
         SecuredUUID certUUID = SecuredUUID.fromString(uuid);
 
-        Certificate polledCert;
+        Certificate polledCert = null;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollTimeout);
+        int counter = 0;//counter for logging purpose only
         try{
             LOG.trace("TID={}, SN={} | Polling of certificate with uuid={}", tid, serialNumber, certUUID);
-            long startRequest = System.currentTimeMillis();
-            long endRequest;
-            int cfgValue = pollFeatureTimeout == null ? 10 : pollFeatureTimeout;//in seconds
-            int timeout = 1000*cfgValue;
-            int counter = 0;//counter for logging purpose only
-            do {
-                LOG.trace(">>>>> TID={}, POLL=[{}] SN={} | polling request: certificate with uuid={}",
-                        tid, counter, serialNumber, certUUID);
-                // -- (2)certification polling (ask for created certificate entity)
-                polledCert = certificateService.getCertificateEntity(certUUID);
-                LOG.trace("<<<<< TID={}, POLL=[{}] SN={} | polling result: certificate entity in state {}, uuid={}",
-                        tid, counter, polledCert.getSerialNumber(), polledCert.getState(), certUUID);
-                endRequest = System.currentTimeMillis();
-                counter++;
-                if(polledCert != null) entityManager.refresh(polledCert);//get entity from db (instead from hibernate 1lvl cache)
-                if(counter > 1) TimeUnit.MILLISECONDS.sleep(1000);
-                if(serialNumber == null && polledCert != null) serialNumber = polledCert.getSerialNumber();
-            } while ( endRequest - startRequest < timeout
-                    && (polledCert != null && !expectedState.equals(polledCert.getState())));
+            while (true) {
+                // -- register before reading of state, signal of action finished in the meantime is not lost
+                CompletableFuture<Void> signal = certificateStateNotifier.register(certUUID.getValue());
+                try {
+                    LOG.trace(">>>>> TID={}, POLL=[{}] SN={} | polling request: certificate with uuid={}",
+                            tid, counter, serialNumber, certUUID);
+                    polledCert = certificateService.getCertificateEntity(certUUID);
+                    entityManager.refresh(polledCert);//get entity from db (instead from hibernate 1lvl cache)
+                    LOG.trace("<<<<< TID={}, POLL=[{}] SN={} | polling result: certificate entity in state {}, uuid={}",
+                            tid, counter, polledCert.getSerialNumber(), polledCert.getState(), certUUID);
+                    counter++;
+                    if(serialNumber == null) serialNumber = polledCert.getSerialNumber();
+
+                    long remaining = deadline - System.nanoTime();
+                    if (isFinalState(polledCert.getState(), expectedState) || remaining <= 0) break;
+
+                    signal.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(recheckInterval)), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // -- no signal, state is read again (action could be processed by another instance)
+                } finally {
+                    certificateStateNotifier.unregister(certUUID.getValue(), signal);
+                }
+            }
             LOG.trace("TID={}, SN={} | Polling of certificate with uuid={} is done", tid, serialNumber, certUUID);
         } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
                     "SN="+serialNumber+" | cannot poll certificate - processing thread has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
+                    "SN="+serialNumber+" | cannot poll certificate - waiting for certificate action failed", e);
         } catch (NotFoundException e) {
             throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat,
                     "SN="+serialNumber+" | issued certificate from CA cannot be found, uuid="+certUUID);
@@ -85,14 +143,46 @@ public class PollFeature {
             throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat,
                     "SN="+serialNumber+" | result of polling cannot be null or empty result");
         }
+        return polledCert;
+    }
+
+    /**
+     * @param certificate polled certificate, see {@link #waitForCertificate}
+     * @param expectedState state the certificate action leads to
+     * @return true if certificate action has not been finished yet (certificate can still get into expected state)
+     */
+    public boolean isPending(Certificate certificate, CertificateState expectedState) {
+        return !isFinalState(certificate.getState(), expectedState);
+    }
+
+    /**
+     * @return time (in seconds) after which client should poll again for certificate which is pending
+     */
+    public long getCheckAfter() {
+        return checkAfter;
+    }
+
+    /**
+     * @throws CmpProcessingException if polled certificate is not in expected state
+     */
+    public void verifyState(ASN1OctetString tid, Certificate polledCert, CertificateState expectedState)
+            throws CmpProcessingException {
         if (!expectedState.equals(polledCert.getState())) {
             throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
                     String.format("SN=%s | polled certificate is not at valid state (expected=%s), retrieved=%s",
-                            serialNumber,
+                            polledCert.getSerialNumber(),
                             expectedState,
                             polledCert.getState()));
         }
-        return polledCert;
+    }
+
+    /**
+     * Certificate in expected state or in state which cannot lead to the expected state without another action
+     */
+    private static boolean isFinalState(CertificateState state, CertificateState expectedState) {
+        return expectedState.equals(state)
+                || state == CertificateState.FAILED
+                || state == CertificateState.REJECTED;
     }
 
 }
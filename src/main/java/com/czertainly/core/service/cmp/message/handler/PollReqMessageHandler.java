@@ -0,0 +1,96 @@
+package com.czertainly.core.service.cmp.message.handler;
+
+import com.czertainly.api.interfaces.core.cmp.error.CmpBaseException;
+import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.cmp.CmpTransaction;
+import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
+import com.czertainly.core.service.cmp.message.CmpTransactionService;
+import com.czertainly.core.service.cmp.message.builder.PkiMessageBuilder;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.cmp.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * <p>5.3.22.  Polling Request and Response</p>
+ * <p>
+ *    Certificate request (ir, cr, kur) which cannot be finished in time is answered with status
+ *    <code>waiting</code>, client then asks for the certificate using pollReq. While the certificate is not
+ *    issued yet, pollRep with time of next poll is returned, otherwise the response corresponding to the original
+ *    certificate request (ip, cp, kup) with the issued certificate.</p>
+ *
+ * <pre>
+ *      PollReqContent ::= SEQUENCE OF SEQUENCE {
+ *          certReqId              INTEGER
+ *      }
+ *
+ *      PollRepContent ::= SEQUENCE OF SEQUENCE {
+ *          certReqId              INTEGER,
+ *          checkAfter             INTEGER,  -- time in seconds
+ *          reason                 PKIFreeText OPTIONAL
+ *      }
+ * </pre>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc4210#section-5.3.22">Polling Request and Response</a>
+ */
+@Component
+@Transactional
+public class PollReqMessageHandler implements MessageHandler<PKIMessage> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PollReqMessageHandler.class.getName());
+
+    private CmpTransactionService cmpTransactionService;
+    @Autowired
+    public void setCmpTransactionService(CmpTransactionService cmpTransactionService) { this.cmpTransactionService = cmpTransactionService; }
+
+    private PollFeature pollFeature;
+    @Autowired
+    public void setPollFeature(PollFeature pollFeature) { this.pollFeature = pollFeature; }
+
+    private CrmfMessageHandler crmfMessageHandler;
+    @Autowired
+    public void setCrmfMessageHandler(CrmfMessageHandler crmfMessageHandler) { this.crmfMessageHandler = crmfMessageHandler; }
+
+    @Override
+    public PKIMessage handle(PKIMessage request, ConfigurationContext configuration) throws CmpBaseException {
+        ASN1OctetString tid = request.getHeader().getTransactionID();
+        if (PKIBody.TYPE_POLL_REQ != request.getBody().getType()) {
+            throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
+                    "polling (pollReq) message cannot be handled - unsupported body rawType=" + request.getBody().getType());
+        }
+
+        ASN1Integer certReqId = ((PollReqContent) request.getBody().getContent()).getCertReqIds()[0][0];
+        CmpTransaction transaction = cmpTransactionService.findByTransactionId(tid.toString()).stream()
+                .filter(trx -> trx.getRequestType() != null)
+                .findFirst()
+                .orElseThrow(() -> new CmpProcessingException(tid, PKIFailureInfo.badRequest,
+                        "polling failed - given transaction has no certificate request"));
+
+        Certificate polledCert = pollFeature.waitForCertificate(tid, null,
+                transaction.getCertificateUuid().toString(), CertificateState.ISSUED);
+        if (pollFeature.isPending(polledCert, CertificateState.ISSUED)) {
+            LOG.info("TID={} | certificate with uuid={} is not issued yet, client is asked to poll again", tid, polledCert.getUuid());
+            try {
+                return new PkiMessageBuilder(configuration)
+                        .addHeader(PkiMessageBuilder.buildBasicHeaderTemplate(request))
+                        .addBody(new PKIBody(PKIBody.TYPE_POLL_REP,
+                                new PollRepContent(certReqId, new ASN1Integer(pollFeature.getCheckAfter()))))
+                        .addExtraCerts(null)
+                        .build();
+            } catch (Exception e) {
+                throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat,
+                        "problem build pollRep response message", e);
+            }
+        }
+        pollFeature.verifyState(tid, polledCert, CertificateState.ISSUED);
+
+        return crmfMessageHandler.handlePolledCertificate(request, transaction.getRequestType(), certReqId,
+                polledCert, configuration);
+    }
+}
@@ -0,0 +1,67 @@
+package com.czertainly.core.service.cmp.message.validator.impl;
+
+import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
+import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
+import com.czertainly.core.service.cmp.message.validator.BiValidator;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.cmp.*;
+
+/**
+ * Validate of polling messages, incoming {@link PollReqContent} and outgoing {@link PollRepContent}.
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc4210#section-5.3.22">Polling Request and Response</a>
+ */
+public class BodyPollValidator extends BaseValidator implements BiValidator<Void,Void> {
+
+    /**
+     * <p>Validate of Polling request message (pollReq)</p>
+     *
+     * <pre>
+     *      PollReqContent ::= SEQUENCE OF SEQUENCE {
+     *          certReqId              INTEGER
+     *      }
+     * </pre>
+     * @param request of message containing {@link PollReqContent}
+     * @throws CmpProcessingException if validation will fail
+     */
+    @Override
+    public Void validateIn(PKIMessage request, ConfigurationContext configuration) throws CmpProcessingException {
+        assertEqualBodyType(PKIBody.TYPE_POLL_REQ, request);
+        ASN1OctetString tid = request.getHeader().getTransactionID();
+        PollReqContent content = (PollReqContent) request.getBody().getContent();
+        ASN1Integer[][] certReqIds = content.getCertReqIds();
+        checkOneElementInArray(tid, certReqIds, "certReqId");
+        checkOneElementInArray(tid, certReqIds[0], "certReqId");
+        assertEqual(tid, certReqIds[0][0], ZERO, "value must be zero");
+        return null;// validation is ok
+    }
+
+    /**
+     * <p>Validation of Polling response message (pollRep)</p>
+     * <pre>
+     *      PollRepContent ::= SEQUENCE OF SEQUENCE {
+     *          certReqId              INTEGER,
+     *          checkAfter             INTEGER,  -- time in seconds
+     *          reason                 PKIFreeText OPTIONAL
+     *      }
+     * </pre>
+     *
+     * @param response of message containing {@link PollRepContent}
+     * @throws CmpProcessingException if validation will fail
+     */
+    @Override
+    public Void validateOut(PKIMessage response, ConfigurationContext configuration) throws CmpProcessingException {
+        assertEqualBodyType(PKIBody.TYPE_POLL_REP, response);
+        ASN1OctetString tid = response.getHeader().getTransactionID();
+        PollRepContent content = (PollRepContent) response.getBody().getContent();
+        if (content.size() != 1) {
+            throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat, "'PollRepContent' must have one element");
+        }
+        assertEqual(tid, content.getCertReqId(0), ZERO, "value must be zero");
+        if (content.getCheckAfter(0).getValue().signum() < 0) {
+            throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat, "checkAfter cannot be negative");
+        }
+        return null;// validation is ok
+    }
+}
@@ -22,6 +22,7 @@ import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType
 import com.czertainly.api.model.common.attribute.v2.properties.CustomAttributeProperties;
 import com.czertainly.api.model.common.attribute.v2.properties.MetadataAttributeProperties;
 import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.attribute.engine.AttributeDefinitionCache;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.dao.entity.AttributeDefinition;
 import com.czertainly.core.dao.entity.Group;
@@ -50,6 +51,7 @@ public class AttributeServiceImpl implements AttributeService {
 
     private AttributeEngine attributeEngine;
     private AttributeDefinitionRepository attributeDefinitionRepository;
+    private AttributeDefinitionCache attributeDefinitionCache;
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -61,6 +63,11 @@ public class AttributeServiceImpl implements AttributeService {
         this.attributeDefinitionRepository = attributeDefinitionRepository;
     }
 
+    @Autowired
+    public void setAttributeDefinitionCache(AttributeDefinitionCache attributeDefinitionCache) {
+        this.attributeDefinitionCache = attributeDefinitionCache;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.ATTRIBUTE, action = ResourceAction.LIST)
     public List<CustomAttributeDefinitionDto> listCustomAttributes(SecurityFilter filter, AttributeContentType attributeContentType) {
@@ -226,6 +233,7 @@ public class AttributeServiceImpl implements AttributeService {
         AttributeDefinition definition = attributeDefinitionRepository.findByUuidAndType(uuid, AttributeType.CUSTOM).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         definition.setEnabled(enable);
         attributeDefinitionRepository.save(definition);
+        attributeDefinitionCache.evict(definition);
     }
 
     @Override
@@ -272,6 +280,7 @@ public class AttributeServiceImpl implements AttributeService {
         AttributeDefinition definition = attributeDefinitionRepository.findByConnectorUuidAndAttributeUuid(connectorUUid, uuid).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         definition.setGlobal(true);
         attributeDefinitionRepository.save(definition);
+        attributeDefinitionCache.evict(definition);
         return getGlobalMetadata(definition.getUuid());
     }
 
@@ -281,6 +290,7 @@ public class AttributeServiceImpl implements AttributeService {
         AttributeDefinition definition = attributeDefinitionRepository.findByUuidAndTypeAndGlobalTrue(uuid, AttributeType.META).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         definition.setGlobal(false);
         attributeDefinitionRepository.save(definition);
+        attributeDefinitionCache.evict(definition);
     }
 
     @Override
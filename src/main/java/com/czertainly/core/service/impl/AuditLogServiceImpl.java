@@ -6,6 +6,7 @@ import com.czertainly.core.aop.AuditLogged;
 import com.czertainly.core.dao.entity.AuditLog;
 import com.czertainly.core.dao.entity.QAuditLog;
 import com.czertainly.core.dao.repository.AuditLogRepository;
+import com.czertainly.core.model.ExportFile;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.service.AuditLogService;
@@ -15,18 +16,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilderFactory;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQuery;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.jpa.HibernateHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
@@ -36,19 +48,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AuditLogServiceImpl implements AuditLogService {
 
-    private static final String LOGGER_NAME = "audit-log";
-    private static final Logger logger = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogServiceImpl.class);
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
     static {
         MAPPER.findAndRegisterModules();
         MAPPER.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         MAPPER.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        MAPPER.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
     }
 
     @Value("${export.auditLog.fileName.prefix:audit-logs}")
@@ -57,12 +70,25 @@ public class AuditLogServiceImpl implements AuditLogService {
     @Value("${auditLog.enabled:false}")
     private boolean auditLogEnabled;
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final int PURGE_CHUNK_SIZE = 10000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private AuditLogRepository auditLogRepository;
     @Autowired
     private ExportProcessor exportProcessor;
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+    @Autowired
+    private AuditorAware<String> auditorAware;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void log(ObjectType origination,
                     ObjectType affected,
                     String objectIdentifier,
@@ -72,12 +98,13 @@ public class AuditLogServiceImpl implements AuditLogService {
     ) {
         String additionalDataJson = null;
         try {
-            MAPPER.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
             additionalDataJson = additionalData != null ? MAPPER.writeValueAsString(additionalData) : null;
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException(e);
         }
 
+        // author and timestamps are resolved in calling thread, audit log can be written by background writer
+        OffsetDateTime now = OffsetDateTime.now();
         AuditLog auditLog = new AuditLog();
         auditLog.setOrigination(origination);
         auditLog.setAffected(affected);
@@ -85,15 +112,11 @@ public class AuditLogServiceImpl implements AuditLogService {
         auditLog.setOperation(operation);
         auditLog.setOperationStatus(operationStatus);
         auditLog.setAdditionalData(additionalDataJson);
+        auditLog.setAuthor(auditorAware.getCurrentAuditor().orElse(null));
+        auditLog.setCreated(now);
+        auditLog.setUpdated(now);
 
-        auditLog = auditLogRepository.save(auditLog);
-
-        try {
-            logger.info(MAPPER.writeValueAsString(auditLog.mapToDto()));
-        } catch (JsonProcessingException e) {
-            logger.info(auditLog.mapToDto().toString());
-            throw new IllegalArgumentException(e);
-        }
+        auditLogWriter.write(auditLog);
     }
 
     @Override
@@ -147,21 +170,58 @@ public class AuditLogServiceImpl implements AuditLogService {
     @Override
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.AUDIT_LOG, operation = OperationType.REQUEST)
     @ExternalAuthorization(resource = Resource.AUDIT_LOG, action = ResourceAction.EXPORT)
-    public ExportResultDto exportAuditLogs(AuditLogFilter filter, Sort sort) {
-        Predicate predicate = createPredicate(filter);
-        List<AuditLog> entities = auditLogRepository.findAll(predicate, sort);
-        List<AuditLogDto> dtos = entities.stream().map(AuditLog::mapToDto).collect(Collectors.toList());
-
-        return exportProcessor.generateExport(fileNamePrefix, dtos);
+    public ExportFile exportAuditLogs(AuditLogFilter filter, Sort sort) {
+        JPAQuery<AuditLog> query = new JPAQuery<AuditLog>(entityManager)
+                .select(QAuditLog.auditLog)
+                .from(QAuditLog.auditLog)
+                .where(createPredicate(filter))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        new Querydsl(entityManager, new PathBuilderFactory().create(AuditLog.class)).applySorting(sort, query);
+
+        // audit logs are scrolled from database and detached once written, so memory is bounded by fetch size
+        try (Stream<AuditLog> entities = query.stream()) {
+            Stream<AuditLogDto> dtos = entities.map(auditLog -> {
+                AuditLogDto dto = auditLog.mapToDto();
+                entityManager.detach(auditLog);
+                return dto;
+            });
+            return exportProcessor.generateExport(fileNamePrefix, AuditLogDto.class, dtos);
+        }
     }
 
     @Override
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.AUDIT_LOG, operation = OperationType.DELETE)
     @ExternalAuthorization(resource = Resource.AUDIT_LOG, action = ResourceAction.DELETE)
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void purgeAuditLogs(AuditLogFilter filter, Sort sort) {
         Predicate predicate = createPredicate(filter);
-        List<AuditLog> entities = auditLogRepository.findAll(predicate, sort);
-        auditLogRepository.deleteAll(entities);
+
+        // audit logs are deleted by set-based deletes of bounded chunks of IDs, entities are never loaded
+        // and each chunk is committed in its own transaction so locks and undo are held only for one chunk
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        long purgedCount = 0;
+        long deletedCount;
+        do {
+            deletedCount = transactionTemplate.execute(status -> {
+                List<Long> ids = new JPAQuery<Long>(entityManager)
+                        .select(QAuditLog.auditLog.id)
+                        .from(QAuditLog.auditLog)
+                        .where(predicate)
+                        .limit(PURGE_CHUNK_SIZE)
+                        .fetch();
+                if (ids.isEmpty()) {
+                    return 0L;
+                }
+                return new JPADeleteClause(entityManager, QAuditLog.auditLog)
+                        .where(QAuditLog.auditLog.id.in(ids))
+                        .execute();
+            });
+            purgedCount += deletedCount;
+        } while (deletedCount == PURGE_CHUNK_SIZE);
+
+        logger.info("Purged {} audit logs", purgedCount);
     }
 
     private Predicate createPredicate(AuditLogFilter filter) {
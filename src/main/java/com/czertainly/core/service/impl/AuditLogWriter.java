@@ -0,0 +1,212 @@
+package com.czertainly.core.service.impl;
+
+import com.czertainly.core.dao.entity.AuditLog;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists audit logs using JDBC batch inserts. In synchronous mode the audit log is inserted by the calling thread
+ * within its transaction. In asynchronous mode audit logs are put on a bounded queue and inserted by background writer
+ * in batches, flushed when the batch is full or flush interval elapses. When the queue is full, the calling thread
+ * inserts its audit log itself, so audit logs are never dropped and callers are slowed down to the writer throughput.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final String LOGGER_NAME = "audit-log";
+    private static final Logger auditLogger = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    static {
+        MAPPER.findAndRegisterModules();
+        MAPPER.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        MAPPER.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    public enum WriteMode {
+        SYNC,
+        ASYNC
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final WriteMode writeMode;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    private final String nextIdsSql;
+
+    private final String insertSql;
+
+    private final BlockingQueue<AuditLog> queue;
+
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    private final Counter overflowCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer flushDuration;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${auditlog.write-mode:sync}") String writeMode,
+                          @Value("${auditlog.queue-capacity:10000}") int queueCapacity,
+                          @Value("${auditlog.batch-size:500}") int batchSize,
+                          @Value("${auditlog.flush-interval:1000}") long flushInterval,
+                          @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeMode = WriteMode.valueOf(writeMode.toUpperCase());
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+
+        String schemaPrefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.nextIdsSql = "SELECT nextval('" + schemaPrefix + "audit_log_id_seq') FROM generate_series(1, ?)";
+        this.insertSql = "INSERT INTO " + schemaPrefix + "audit_log (id, uuid, i_author, i_cre, i_upd, origination, affected, object_identifier, operation, operation_status, additional_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("auditlog.writer.queue.size", queue, BlockingQueue::size)
+                .description("Number of audit logs waiting to be written by asynchronous writer")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("auditlog.writer.overflow")
+                .description("Number of audit logs written by calling thread because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("auditlog.writer.failed")
+                .description("Number of audit logs that asynchronous writer failed to write")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("auditlog.writer.flush.duration")
+                .description("Duration of audit logs batch insert")
+                .register(meterRegistry);
+
+        if (this.writeMode == WriteMode.ASYNC) {
+            writerThread = new Thread(this::processQueue, "audit-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            writerThread = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(Math.max(flushInterval, 1000) * 5);
+        }
+    }
+
+    /**
+     * Write audit log, with asynchronous write mode the audit log is only queued
+     * @param auditLog audit log to be written, with author and timestamps set
+     */
+    public void write(AuditLog auditLog) {
+        if (writeMode == WriteMode.ASYNC && running) {
+            if (queue.offer(auditLog)) return;
+            overflowCounter.increment();
+        }
+        insert(List.of(auditLog));
+    }
+
+    private void processQueue() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+
+                    AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                flush(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+        logger.debug("Audit log writer stopped");
+    }
+
+    private void flush(List<AuditLog> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            flushDuration.record(() -> insert(batch));
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("Failed to write {} audit logs: {}", batch.size(), e.getMessage());
+            // audit logs are still printed, so they are not lost from the log output
+            for (AuditLog auditLog : batch) {
+                printAuditLog(auditLog);
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> auditLogs) {
+        List<Long> ids = jdbcTemplate.queryForList(nextIdsSql, Long.class, auditLogs.size());
+        List<Object[]> rows = new ArrayList<>(auditLogs.size());
+        for (int i = 0; i < auditLogs.size(); i++) {
+            AuditLog auditLog = auditLogs.get(i);
+            auditLog.setId(ids.get(i));
+            rows.add(new Object[]{
+                    auditLog.getId(),
+                    auditLog.getUuid(),
+                    auditLog.getAuthor(),
+                    Timestamp.from(auditLog.getCreated().toInstant()),
+                    Timestamp.from(auditLog.getUpdated().toInstant()),
+                    auditLog.getOrigination() != null ? auditLog.getOrigination().name() : null,
+                    auditLog.getAffected() != null ? auditLog.getAffected().name() : null,
+                    auditLog.getObjectIdentifier(),
+                    auditLog.getOperation() != null ? auditLog.getOperation().name() : null,
+                    auditLog.getOperationStatus() != null ? auditLog.getOperationStatus().name() : null,
+                    auditLog.getAdditionalData()
+            });
+        }
+        jdbcTemplate.batchUpdate(insertSql, rows);
+
+        for (AuditLog auditLog : auditLogs) {
+            printAuditLog(auditLog);
+        }
+    }
+
+    private static void printAuditLog(AuditLog auditLog) {
+        try {
+            auditLogger.info(MAPPER.writeValueAsString(auditLog.mapToDto()));
+        } catch (JsonProcessingException e) {
+            auditLogger.info(auditLog.mapToDto().toString());
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.czertainly.api.model.common.attribute.v2.AttributeType;
 import com.czertainly.api.model.common.attribute.v2.BaseAttribute;
 import com.czertainly.api.model.common.attribute.v2.DataAttribute;
 import com.czertainly.api.model.common.attribute.v2.MetadataAttribute;
+import com.czertainly.api.model.common.enums.IPlatformEnum;
 import com.czertainly.api.model.connector.v2.CertificateIdentificationRequestDto;
 import com.czertainly.api.model.connector.v2.CertificateIdentificationResponseDto;
 import com.czertainly.api.model.core.audit.ObjectType;
@@ -37,6 +38,8 @@ import com.czertainly.core.enums.SearchFieldNameEnum;
 import com.czertainly.core.messaging.model.NotificationRecipient;
 import com.czertainly.core.messaging.producers.EventProducer;
 import com.czertainly.core.messaging.producers.NotificationProducer;
+import com.czertainly.core.model.ContinuationToken;
+import com.czertainly.core.model.KeysetPage;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.model.request.CertificateRequest;
 import com.czertainly.core.security.authn.client.UserManagementApiClient;
@@ -49,7 +52,12 @@ import com.czertainly.core.service.v2.ExtendedAttributeService;
 import com.czertainly.core.util.*;
 import com.czertainly.core.util.converter.Sql2PredicateConverter;
 import com.czertainly.core.validation.certificate.ICertificateValidator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.bouncycastle.asn1.ASN1Primitive;
@@ -62,10 +70,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MarkerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
@@ -89,10 +99,16 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -103,8 +119,6 @@ public class CertificateServiceImpl implements CertificateService {
     public static final Integer DEFAULT_PAGE_SIZE = 10;
     // Maximum page size for search API operation
     public static final Integer MAX_PAGE_SIZE = 1000;
-    // Default batch size to perform bulk delete operation on Certificates
-    public static final Integer DELETE_BATCH_SIZE = 1000;
 
     private static final String UNDEFINED_CERTIFICATE_OBJECT_NAME = "undefined";
     private static final Logger logger = LoggerFactory.getLogger(CertificateServiceImpl.class);
@@ -134,13 +148,19 @@ public class CertificateServiceImpl implements CertificateService {
     private DiscoveryCertificateRepository discoveryCertificateRepository;
 
     @Autowired
-    private ComplianceService complianceService;
+    private CertificateEventHistoryRepository certificateEventHistoryRepository;
 
     @Autowired
-    private CertificateEventHistoryService certificateEventHistoryService;
+    private CertificateLocationRepository certificateLocationRepository;
+
+    @Autowired
+    private CrlRepository crlRepository;
+
+    @Autowired
+    private ComplianceService complianceService;
 
     @Autowired
-    private SearchService searchService;
+    private CertificateEventHistoryService certificateEventHistoryService;
 
     @Lazy
     @Autowired
@@ -179,11 +199,46 @@ public class CertificateServiceImpl implements CertificateService {
 
     private CrlService crlService;
 
+    private SearchFieldValuesCache searchFieldValuesCache;
+
+    @Value("${certificate.status-update.parallelism:4}")
+    private int statusUpdateParallelism;
+
+    @Value("${certificate.status-update.batch-size:50}")
+    private int statusUpdateBatchSize;
+
+    @Value("${certificate.bulk-operation.chunk-size:1000}")
+    private int bulkOperationChunkSize;
+
+    private MeterRegistry meterRegistry;
+
+    private Timer statusUpdateDuration;
+
+    // seconds since the oldest status validation of certificates processed by last scheduled status update
+    private final AtomicLong statusUpdateLag = new AtomicLong();
+
     @Autowired
     public void setCrlService(CrlService crlService) {
         this.crlService = crlService;
     }
 
+    @Autowired
+    public void setSearchFieldValuesCache(SearchFieldValuesCache searchFieldValuesCache) {
+        this.searchFieldValuesCache = searchFieldValuesCache;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.statusUpdateDuration = Timer.builder("certificate.status.update.duration")
+                .description("Duration of scheduled certificate status update")
+                .register(meterRegistry);
+        Gauge.builder("certificate.status.update.lag", statusUpdateLag, AtomicLong::get)
+                .description("Time since the oldest status validation of certificates processed by last scheduled status update")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
@@ -208,23 +263,56 @@ public class CertificateServiceImpl implements CertificateService {
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.CERTIFICATE, operation = OperationType.REQUEST)
     @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.LIST, parentResource = Resource.RA_PROFILE, parentAction = ResourceAction.MEMBERS)
     public CertificateResponseDto listCertificates(SecurityFilter filter, SearchRequestDto request) throws ValidationException {
+        final BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> additionalWhereClause = getListCertificatesWhereClause(filter, request);
+        final Pageable p = PageRequest.of(request.getPageNumber() - 1, request.getItemsPerPage());
+
+        final List<Certificate> certificates = certificateRepository.findUsingSecurityFilter(filter, List.of("groups", "owner", "raProfile", "key"), additionalWhereClause, p, (root, cb) -> cb.desc(root.get("created")));
+        return createListCertificatesResponse(filter, request, certificates, additionalWhereClause, true);
+    }
+
+    @Override
+    @AuditLogged(originator = ObjectType.FE, affected = ObjectType.CERTIFICATE, operation = OperationType.REQUEST)
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.LIST, parentResource = Resource.RA_PROFILE, parentAction = ResourceAction.MEMBERS)
+    public KeysetPage<CertificateResponseDto> listCertificates(SecurityFilter filter, SearchRequestDto request, String continuationToken, boolean includeTotalCount) throws ValidationException {
+        final BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> additionalWhereClause = getListCertificatesWhereClause(filter, request);
+        final ContinuationToken position = continuationToken == null ? null : ContinuationToken.decode(continuationToken);
+        final BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> keysetWhereClause = position == null ? additionalWhereClause : (root, cb) -> cb.and(
+                additionalWhereClause.apply(root, cb),
+                cb.or(cb.lessThan(root.<OffsetDateTime>get("created"), position.created()),
+                        cb.and(cb.equal(root.get("created"), position.created()), cb.lessThan(root.<UUID>get("uuid"), position.uuid()))));
+
+        // one more certificate is loaded to find out whether there is a next page
+        final List<Certificate> certificates = certificateRepository.findFirstUsingSecurityFilter(filter, List.of("groups", "owner", "raProfile", "key"), keysetWhereClause, request.getItemsPerPage() + 1,
+                List.of((root, cb) -> cb.desc(root.get("created")), (root, cb) -> cb.desc(root.get("uuid"))));
+        String nextContinuationToken = null;
+        if (certificates.size() > request.getItemsPerPage()) {
+            Certificate last = certificates.get(request.getItemsPerPage() - 1);
+            nextContinuationToken = new ContinuationToken(last.getCreated(), last.getUuid()).encode();
+        }
+
+        final CertificateResponseDto responseDto = createListCertificatesResponse(filter, request, certificates.stream().limit(request.getItemsPerPage()).toList(), additionalWhereClause, includeTotalCount);
+        return new KeysetPage<>(responseDto, nextContinuationToken);
+    }
+
+    private BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> getListCertificatesWhereClause(SecurityFilter filter, SearchRequestDto request) {
         setupSecurityFilter(filter);
         RequestValidatorHelper.revalidateSearchRequestDto(request);
-        final Pageable p = PageRequest.of(request.getPageNumber() - 1, request.getItemsPerPage());
 
         // filter certificates based on attribute filters
         final List<UUID> objectUUIDs = attributeEngine.getResourceObjectUuidsByFilters(Resource.CERTIFICATE, filter, request.getFilters());
+        return (root, cb) -> Sql2PredicateConverter.mapSearchFilter2Predicates(request.getFilters(), cb, root, objectUUIDs);
+    }
 
-        final BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> additionalWhereClause = (root, cb) -> Sql2PredicateConverter.mapSearchFilter2Predicates(request.getFilters(), cb, root, objectUUIDs);
-        final List<CertificateDto> listedKeyDTOs = certificateRepository.findUsingSecurityFilter(filter, List.of("groups", "owner", "raProfile", "key"), additionalWhereClause, p, (root, cb) -> cb.desc(root.get("created"))).stream().map(Certificate::mapToListDto).toList();
-        final Long maxItems = certificateRepository.countUsingSecurityFilter(filter, additionalWhereClause);
-
+    private CertificateResponseDto createListCertificatesResponse(SecurityFilter filter, SearchRequestDto request, List<Certificate> certificates, BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> additionalWhereClause, boolean includeTotalCount) {
         final CertificateResponseDto responseDto = new CertificateResponseDto();
-        responseDto.setCertificates(listedKeyDTOs);
+        responseDto.setCertificates(certificates.stream().map(Certificate::mapToListDto).toList());
         responseDto.setItemsPerPage(request.getItemsPerPage());
         responseDto.setPageNumber(request.getPageNumber());
-        responseDto.setTotalItems(maxItems);
-        responseDto.setTotalPages((int) Math.ceil((double) maxItems / request.getItemsPerPage()));
+        if (includeTotalCount) {
+            final Long maxItems = certificateRepository.countUsingSecurityFilter(filter, additionalWhereClause);
+            responseDto.setTotalItems(maxItems);
+            responseDto.setTotalPages((int) Math.ceil((double) maxItems / request.getItemsPerPage()));
+        }
         return responseDto;
     }
 
@@ -383,46 +471,91 @@ public class CertificateServiceImpl implements CertificateService {
     public void bulkDeleteCertificate(SecurityFilter filter, RemoveCertificateDto request) throws NotFoundException {
         setupSecurityFilter(filter);
 
-        UUID loggedUserUuid = null;
+        // user is notified about certificates that could not be deleted
+        final UUID loggedUserUuid = UUID.fromString(AuthHelper.getUserIdentification().getUuid());
         if (request.getFilters() == null || request.getFilters().isEmpty() || (request.getUuids() != null && !request.getUuids().isEmpty())) {
             int deletedCount = 0;
             for (String uuid : request.getUuids()) {
-                UUID certificateUuid = UUID.fromString(uuid);
-                try {
-                    deleteCertificate(SecuredUUID.fromUUID(certificateUuid));
-                    ++deletedCount;
-                } catch (Exception e) {
-                    logger.error("Unable to delete the certificate {}: {}", certificateUuid, e.getMessage());
-                    if (loggedUserUuid == null) {
-                        loggedUserUuid = UUID.fromString(AuthHelper.getUserIdentification().getUuid());
-                    }
-                    notificationProducer.produceNotificationText(Resource.CERTIFICATE, certificateUuid, NotificationRecipient.buildUserNotificationRecipient(loggedUserUuid), "Unable to delete the certificate " + certificateUuid, e.getMessage());
-                }
+                if (bulkDeleteSingleCertificate(UUID.fromString(uuid), loggedUserUuid)) ++deletedCount;
             }
             logger.debug("Bulk deleted {} of {} certificates.", deletedCount, request.getUuids().size());
         } else {
-            String joins = "WHERE c.userUuid IS NULL";
-            String data = searchService.createCriteriaBuilderString(filter, true);
-            if (!data.isEmpty()) {
-                joins = joins + " AND " + data;
-            }
+            final BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> filtersWhereClause = getFiltersWhereClause(filter, request.getFilters());
+            int deletedCount = processCertificatesInChunks(filter, (root, cb) -> cb.and(filtersWhereClause.apply(root, cb), cb.isNull(root.get("userUuid"))), chunk -> deleteCertificatesChunk(chunk, loggedUserUuid));
+            logger.debug("Bulk deleted {} certificates by filters.", deletedCount);
+        }
+    }
+
+    private BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> getFiltersWhereClause(SecurityFilter filter, List<SearchFilterRequestDto> filters) {
+        // filter certificates based on attribute filters
+        final List<UUID> objectUUIDs = attributeEngine.getResourceObjectUuidsByFilters(Resource.CERTIFICATE, filter, filters);
+        return (root, cb) -> Sql2PredicateConverter.mapSearchFilter2Predicates(filters, cb, root, objectUUIDs);
+    }
+
+    /**
+     * Process certificates matching the filters in chunks ordered by UUID. Next chunk continues after the last UUID of previous one,
+     * so certificates that failed to be processed or no longer match the filters after being processed are not selected again.
+     * @return number of processed certificates reported by chunk processor
+     */
+    private int processCertificatesInChunks(SecurityFilter filter, BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> whereClause, ToIntFunction<List<UUID>> chunkProcessor) {
+        int processedCount = 0;
+        UUID lastUuid = null;
+        List<UUID> chunk;
+        do {
+            final UUID afterUuid = lastUuid;
+            chunk = certificateRepository.findFirstUuidsUsingSecurityFilter(filter, afterUuid == null ? whereClause : (root, cb) -> cb.and(whereClause.apply(root, cb), cb.greaterThan(root.get("uuid"), afterUuid)), bulkOperationChunkSize);
+            if (chunk.isEmpty()) break;
+
+            lastUuid = chunk.get(chunk.size() - 1);
+            processedCount += chunkProcessor.applyAsInt(chunk);
+        } while (chunk.size() == bulkOperationChunkSize);
+        return processedCount;
+    }
 
-            String customQuery = searchService.getQueryDynamicBasedOnFilter(request.getFilters(), "Certificate", getSearchableFieldInformation(), joins, false, false, "");
+    private int deleteCertificatesChunk(List<UUID> certificateUuids, UUID loggedUserUuid) {
+        int deletedCount = 0;
 
-            List<Certificate> certListDyn = (List<Certificate>) searchService.customQueryExecutor(customQuery);
+        // certificates pushed to locations have to be removed from them through connectors first
+        Set<UUID> locationCertificateUuids = new HashSet<>(certificateLocationRepository.findCertificateUuidsByCertificateUuids(certificateUuids));
+        for (UUID certificateUuid : locationCertificateUuids) {
+            if (bulkDeleteSingleCertificate(certificateUuid, loggedUserUuid)) ++deletedCount;
+        }
+        List<UUID> uuids = locationCertificateUuids.isEmpty() ? certificateUuids : certificateUuids.stream().filter(uuid -> !locationCertificateUuids.contains(uuid)).toList();
+        if (uuids.isEmpty()) {
+            return deletedCount;
+        }
 
-            for (List<Certificate> certificates : partitionList(certListDyn)) {
-                certificateRepository.deleteAll(certificates);
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            List<Long> contentIds = certificateRepository.findCertificateContentIdsByUuids(uuids);
+            crlRepository.clearCaCertificateUuids(uuids);
+            certificateEventHistoryRepository.deleteByCertificateUuids(uuids);
+            objectAssociationService.removeObjectsAssociations(Resource.CERTIFICATE, uuids);
+            attributeEngine.deleteAllObjectsAttributeContent(Resource.CERTIFICATE, uuids);
+            deletedCount += certificateRepository.deleteCertificateWithIds(uuids);
+            if (!contentIds.isEmpty()) {
+                certificateContentRepository.deleteNotUsedByIds(contentIds);
             }
-            for (List<CertificateContent> certificateContents : partitionContents(certificateContentRepository.findCertificateContentNotUsed())) {
-                certificateContentRepository.deleteAll(certificateContents);
+            transactionManager.commit(status);
+        } catch (Exception e) {
+            if (!status.isCompleted()) transactionManager.rollback(status);
+            logger.warn("Unable to delete chunk of {} certificates, deleting them one by one: {}", uuids.size(), e.getMessage());
+            for (UUID certificateUuid : uuids) {
+                if (bulkDeleteSingleCertificate(certificateUuid, loggedUserUuid)) ++deletedCount;
             }
         }
+        return deletedCount;
     }
 
-    @Deprecated
-    public List<SearchFieldDataDto> getSearchableFieldInformation() {
-        return getSearchableFieldsMap();
+    private boolean bulkDeleteSingleCertificate(UUID certificateUuid, UUID loggedUserUuid) {
+        try {
+            deleteCertificate(SecuredUUID.fromUUID(certificateUuid));
+            return true;
+        } catch (Exception e) {
+            logger.error("Unable to delete the certificate {}: {}", certificateUuid, e.getMessage());
+            notificationProducer.produceNotificationText(Resource.CERTIFICATE, certificateUuid, NotificationRecipient.buildUserNotificationRecipient(loggedUserUuid), "Unable to delete the certificate " + certificateUuid, e.getMessage());
+            return false;
+        }
     }
 
     @Override
@@ -433,15 +566,15 @@ public class CertificateServiceImpl implements CertificateService {
                 SearchHelper.prepareSearch(SearchFieldNameEnum.COMMON_NAME),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.SERIAL_NUMBER_LABEL),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.ISSUER_SERIAL_NUMBER),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.RA_PROFILE, raProfileRepository.findAll().stream().map(RaProfile::getName).toList()),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.GROUP, groupRepository.findAll().stream().map(Group::getName).toList()),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.OWNER, userManagementApiClient.getUsers().getData().stream().map(UserDto::getUsername).toList()),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.RA_PROFILE, searchFieldValuesCache.get(SearchFieldNameEnum.RA_PROFILE, () -> raProfileRepository.findAll().stream().map(RaProfile::getName).toList())),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.GROUP, searchFieldValuesCache.get(SearchFieldNameEnum.GROUP, () -> groupRepository.findAll().stream().map(Group::getName).toList())),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.OWNER, searchFieldValuesCache.get(SearchFieldNameEnum.OWNER, () -> userManagementApiClient.getUsers().getData().stream().map(UserDto::getUsername).toList())),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.CERTIFICATE_STATE, Arrays.stream(CertificateState.values()).map(CertificateState::getCode).toList()),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.CERTIFICATE_VALIDATION_STATUS, Arrays.stream(CertificateValidationStatus.values()).map(CertificateValidationStatus::getCode).toList()),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.COMPLIANCE_STATUS, Arrays.stream(ComplianceStatus.values()).map(ComplianceStatus::getCode).toList()),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.ISSUER_COMMON_NAME),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.FINGERPRINT),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.SIGNATURE_ALGORITHM, new ArrayList<>(certificateRepository.findDistinctSignatureAlgorithm())),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.SIGNATURE_ALGORITHM, searchFieldValuesCache.get(SearchFieldNameEnum.SIGNATURE_ALGORITHM, certificateRepository::findDistinctSignatureAlgorithm)),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.EXPIRES),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.NOT_BEFORE),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.SUBJECT_DN),
@@ -450,9 +583,9 @@ public class CertificateServiceImpl implements CertificateService {
                 SearchHelper.prepareSearch(SearchFieldNameEnum.OCSP_VALIDATION, Arrays.stream((CertificateValidationStatus.values())).map(CertificateValidationStatus::getCode).toList()),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.CRL_VALIDATION, Arrays.stream((CertificateValidationStatus.values())).map(CertificateValidationStatus::getCode).toList()),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.SIGNATURE_VALIDATION, Arrays.stream((CertificateValidationStatus.values())).map(CertificateValidationStatus::getCode).toList()),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.PUBLIC_KEY_ALGORITHM, new ArrayList<>(certificateRepository.findDistinctPublicKeyAlgorithm())),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.KEY_SIZE, new ArrayList<>(certificateRepository.findDistinctKeySize())),
-                SearchHelper.prepareSearch(SearchFieldNameEnum.KEY_USAGE, serializedListOfStringToListOfObject(certificateRepository.findDistinctKeyUsage())),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.PUBLIC_KEY_ALGORITHM, searchFieldValuesCache.get(SearchFieldNameEnum.PUBLIC_KEY_ALGORITHM, certificateRepository::findDistinctPublicKeyAlgorithm)),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.KEY_SIZE, searchFieldValuesCache.get(SearchFieldNameEnum.KEY_SIZE, certificateRepository::findDistinctKeySize)),
+                SearchHelper.prepareSearch(SearchFieldNameEnum.KEY_USAGE, searchFieldValuesCache.get(SearchFieldNameEnum.KEY_USAGE, () -> serializedListOfStringToListOfObject(certificateRepository.findDistinctKeyUsage()))),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.PRIVATE_KEY),
                 SearchHelper.prepareSearch(SearchFieldNameEnum.TRUSTED_CA)
         );
@@ -478,7 +611,6 @@ public class CertificateServiceImpl implements CertificateService {
         if (isSelfSigned(certificate)) {
             return;
         }
-        boolean issuerInInventory = false;
         X509Certificate subCert;
         try {
             subCert = CertificateUtil.parseCertificate(certificate.getCertificateContent().getContent());
@@ -486,31 +618,21 @@ public class CertificateServiceImpl implements CertificateService {
             // We do not need to handle exceptions here because if subject certificate cannot be parsed, we cannot update its certificate chain
             return;
         }
-        // Try to find issuer certificate in repository
-        for (Certificate issuer : certificateRepository.findBySubjectDnNormalized(certificate.getIssuerDnNormalized())) {
-            X509Certificate issCert;
-            try {
-                issCert = CertificateUtil.parseCertificate(issuer.getCertificateContent().getContent());
-            } catch (Exception e) {
-                // We do not need to handle exceptions here because if certificate cannot be parsed, we ignore it as a
-                // candidate for issuer and continue with next candidate
-                continue;
-            }
-            // Verify signature for a certificate with matching Subject DN, if it matches, the issuer is found
-            if (verifySignature(subCert, issCert)) {
-                certificate.setIssuerSerialNumber(issuer.getSerialNumber());
-                certificate.setIssuerCertificateUuid(issuer.getUuid());
-                certificateRepository.save(certificate);
-                issuerInInventory = true;
-                // If the issuer of certificate doesn't have its issuer, try to update issuer for this certificate as well
-                if (issuer.getIssuerCertificateUuid() == null) {
-                    updateCertificateChain(issuer);
-                }
-                break;
-            }
+        Certificate issuer = findIssuerByKeyIdentifier(certificate, subCert);
+        if (issuer == null) {
+            issuer = findIssuerBySignature(certificate, subCert);
         }
-        // If the issuer isn't in inventory, try to download it from AIA extension of the certificate
-        if (!issuerInInventory) {
+
+        if (issuer != null) {
+            certificate.setIssuerSerialNumber(issuer.getSerialNumber());
+            certificate.setIssuerCertificateUuid(issuer.getUuid());
+            certificateRepository.save(certificate);
+            // If the issuer of certificate doesn't have its issuer, try to update issuer for this certificate as well
+            if (issuer.getIssuerCertificateUuid() == null) {
+                updateCertificateChain(issuer);
+            }
+        } else {
+            // If the issuer isn't in inventory, try to download it from AIA extension of the certificate
             int downloadedCertificates = 0;
             List<String> aiaChain = downloadChainFromAia(certificate);
             Certificate previousCertificate = certificate;
@@ -696,6 +818,10 @@ public class CertificateServiceImpl implements CertificateService {
 
     @Override
     public void validate(Certificate certificate) {
+        validate(certificate, Map.of());
+    }
+
+    private void validate(Certificate certificate, Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> revocationChecks) {
         CertificateChainResponseDto certificateChainResponse = getCertificateChainInternal(certificate, true);
 
         CertificateValidationStatus newStatus;
@@ -703,7 +829,7 @@ public class CertificateServiceImpl implements CertificateService {
         ICertificateValidator certificateValidator = getCertificateValidator(certificate.getCertificateType());
 
         try {
-            newStatus = certificateValidator.validateCertificate(certificate, certificateChainResponse.isCompleteChain());
+            newStatus = certificateValidator.validateCertificate(certificate, certificateChainResponse.isCompleteChain(), revocationChecks);
         } catch (Exception e) {
             logger.warn("Unable to validate the certificate {}: {}", certificate, e.getMessage());
             newStatus = CertificateValidationStatus.FAILED;
@@ -763,6 +889,54 @@ public class CertificateServiceImpl implements CertificateService {
         }
     }
 
+    private Certificate findIssuerByKeyIdentifier(Certificate certificate, X509Certificate subCert) {
+        if (certificate.getAuthorityKeyIdentifier() == null) {
+            return null;
+        }
+
+        // Candidates with matching subject DN and subject key identifier are found by indexed lookup, key identifiers
+        // are not authenticated, so signature of the certificate is still verified with the key of the candidate
+        for (Certificate issuer : certificateRepository.findBySubjectDnNormalizedAndSubjectKeyIdentifier(certificate.getIssuerDnNormalized(), certificate.getAuthorityKeyIdentifier())) {
+            if (issuer.getUuid().equals(certificate.getUuid()) || issuer.getCertificateContentId() == null) {
+                continue;
+            }
+
+            X509Certificate issCert;
+            try {
+                issCert = CertificateUtil.parseCertificate(issuer.getCertificateContent().getContent());
+            } catch (Exception e) {
+                continue;
+            }
+            if (verifySignature(subCert, issCert)) {
+                return issuer;
+            }
+        }
+        return null;
+    }
+
+    private Certificate findIssuerBySignature(Certificate certificate, X509Certificate subCert) {
+        for (Certificate issuer : certificateRepository.findBySubjectDnNormalized(certificate.getIssuerDnNormalized())) {
+            // Skip candidates which key identifier is known and does not match, they were already excluded by lookup of issuer by key identifier
+            if (certificate.getAuthorityKeyIdentifier() != null && issuer.getSubjectKeyIdentifier() != null) {
+                continue;
+            }
+
+            X509Certificate issCert;
+            try {
+                issCert = CertificateUtil.parseCertificate(issuer.getCertificateContent().getContent());
+            } catch (Exception e) {
+                // We do not need to handle exceptions here because if certificate cannot be parsed, we ignore it as a
+                // candidate for issuer and continue with next candidate
+                continue;
+            }
+            // Verify signature for a certificate with matching Subject DN, if it matches, the issuer is found
+            if (verifySignature(subCert, issCert)) {
+                return issuer;
+            }
+        }
+        return null;
+    }
+
     private boolean verifySignature(X509Certificate subjectCertificate, X509Certificate issuerCertificate) {
         try {
             subjectCertificate.verify(issuerCertificate.getPublicKey());
@@ -983,33 +1157,124 @@ public class CertificateServiceImpl implements CertificateService {
         LocalDateTime before = LocalDateTime.now().minusDays(1);
 
         // process 1/24 of eligible certificates for status update
-        final List<UUID> certificateUuids = certificateRepository.findCertificatesToCheckStatus(before, skipStatuses, PageRequest.of(0, maxCertsToValidate));
+        final List<Object[]> certificatesToCheck = certificateRepository.findCertificatesToCheckStatus(before, skipStatuses, PageRequest.of(0, maxCertsToValidate));
+
+        // group certificates by issuer, so revocation data of the issuer is fetched and cached by single worker
+        Map<String, List<UUID>> certificatesByIssuer = new LinkedHashMap<>();
+        LocalDateTime oldestStatusValidation = null;
+        for (Object[] row : certificatesToCheck) {
+            certificatesByIssuer.computeIfAbsent(Objects.toString(row[1], ""), k -> new ArrayList<>()).add((UUID) row[0]);
+            LocalDateTime statusValidationTimestamp = (LocalDateTime) row[2];
+            if (statusValidationTimestamp != null && (oldestStatusValidation == null || statusValidationTimestamp.isBefore(oldestStatusValidation))) {
+                oldestStatusValidation = statusValidationTimestamp;
+            }
+        }
+        statusUpdateLag.set(oldestStatusValidation == null ? 0 : Duration.between(oldestStatusValidation, LocalDateTime.now()).toSeconds());
 
-        int certificatesUpdated = 0;
-        logger.info(MarkerFactory.getMarker("scheduleInfo"), "Scheduled certificate status update. Batch size {}/{} certificates", certificateUuids.size(), totalCertificates);
-        for (final UUID certificateUuid : certificateUuids) {
-            Certificate certificate = null;
-            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
-            try {
-                certificate = certificateRepository.findWithAssociationsByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
-                validate(certificate);
+        logger.info(MarkerFactory.getMarker("scheduleInfo"), "Scheduled certificate status update. Batch size {}/{} certificates of {} issuers", certificatesToCheck.size(), totalCertificates, certificatesByIssuer.size());
+
+        long start = System.nanoTime();
+        AtomicInteger certificatesUpdated = new AtomicInteger();
+        int workers = Math.max(1, Math.min(statusUpdateParallelism, (certificatesToCheck.size() + statusUpdateBatchSize - 1) / statusUpdateBatchSize));
+        ExecutorService executor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(workers));
+        try {
+            // batches of the same issuer are processed by multiple workers when issuer has many certificates,
+            // its CRL is still downloaded and stored only once thanks to single update of CRL of issuer in CRL service
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<UUID> issuerCertificateUuids : certificatesByIssuer.values()) {
+                for (int i = 0; i < issuerCertificateUuids.size(); i += statusUpdateBatchSize) {
+                    List<UUID> batchCertificateUuids = issuerCertificateUuids.subList(i, Math.min(i + statusUpdateBatchSize, issuerCertificateUuids.size()));
+                    futures.add(executor.submit(() -> certificatesUpdated.addAndGet(updateCertificatesStatus(batchCertificateUuids))));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status of certificates. Error: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled certificate status update was interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (statusUpdateDuration != null) statusUpdateDuration.record(durationMillis, TimeUnit.MILLISECONDS);
+        logger.info(MarkerFactory.getMarker("scheduleInfo"), "Certificates status updated for {}/{} certificates in {} ms using {} workers", certificatesUpdated.get(), certificatesToCheck.size(), durationMillis, workers);
+        return certificatesUpdated.get();
+    }
+
+    private int updateCertificatesStatus(List<UUID> certificateUuids) {
+        // revocation status is checked before the batch transaction, so database connection is not held while waiting for OCSP responders and CRL distribution points
+        Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> revocationChecks = checkRevocationStatus(certificateUuids);
+        return updateCertificatesStatusBatch(certificateUuids, revocationChecks);
+    }
+
+    private Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> checkRevocationStatus(List<UUID> certificateUuids) {
+        Map<UUID, Supplier<Map<CertificateValidationCheck, CertificateValidationCheckDto>>> preparedChecks = new HashMap<>();
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            for (UUID uuid : certificateUuids) {
+                Certificate certificate = certificateRepository.findWithAssociationsByUuid(uuid).orElse(null);
+                if (certificate == null || certificate.getCertificateContent() == null) continue;
+
+                CertificateChainResponseDto certificateChainResponse = getCertificateChainInternal(certificate, true);
+                preparedChecks.putAll(getCertificateValidator(certificate.getCertificateType()).prepareRevocationChecks(certificate, certificateChainResponse.isCompleteChain()));
+            }
+            transactionManager.commit(status);
+        } catch (Exception e) {
+            if (!status.isCompleted()) transactionManager.rollback(status);
+            // revocation status of certificates in batch is checked during their validation
+            logger.debug("Unable to prepare revocation checks of batch of {} certificates: {}", certificateUuids.size(), e.getMessage());
+            return Map.of();
+        }
+
+        Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> revocationChecks = new HashMap<>();
+        for (Map.Entry<UUID, Supplier<Map<CertificateValidationCheck, CertificateValidationCheckDto>>> preparedCheck : preparedChecks.entrySet()) {
+            revocationChecks.put(preparedCheck.getKey(), preparedCheck.getValue().get());
+        }
+        return revocationChecks;
+    }
+
+    private int updateCertificatesStatusBatch(List<UUID> certificateUuids, Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> revocationChecks) {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        UUID certificateUuid = null;
+        try {
+            for (UUID uuid : certificateUuids) {
+                certificateUuid = uuid;
+                Certificate certificate = certificateRepository.findWithAssociationsByUuid(uuid).orElseThrow(() -> new NotFoundException(Certificate.class, uuid));
+                validate(certificate, revocationChecks);
                 if (certificate.getRaProfileUuid() != null && certificate.getComplianceStatus() == ComplianceStatus.NOT_CHECKED) {
                     complianceService.checkComplianceOfCertificate(certificate);
                 }
+            }
 
-                transactionManager.commit(status);
-                ++certificatesUpdated;
-            } catch (NotFoundException e) {
-                logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status of the certificate. Error: {}", e.getMessage(), e);
-                transactionManager.rollback(status);
-            } catch (Exception e) {
-                logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status of the certificate. Certificate {}. Error: {}", certificate, e.getMessage(), e);
-                transactionManager.rollback(status);
+            transactionManager.commit(status);
+            countStatusUpdates("updated", certificateUuids.size());
+            return certificateUuids.size();
+        } catch (Exception e) {
+            if (!status.isCompleted()) transactionManager.rollback(status);
+            if (certificateUuids.size() == 1) {
+                logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status of the certificate {}. Error: {}", certificateUuid, e.getMessage(), e);
+                countStatusUpdates("failed", 1);
+                return 0;
             }
 
+            // failure of single certificate should not discard status of others, process the batch certificate by certificate
+            logger.debug("Unable to update status of batch of {} certificates, failed certificate {}. Updating certificates one by one.", certificateUuids.size(), certificateUuid);
+            int certificatesUpdated = 0;
+            for (UUID uuid : certificateUuids) {
+                certificatesUpdated += updateCertificatesStatusBatch(List.of(uuid), revocationChecks);
+            }
+            return certificatesUpdated;
         }
-        logger.info(MarkerFactory.getMarker("scheduleInfo"), "Certificates status updated for {}/{} certificates", certificatesUpdated, certificateUuids.size());
-        return certificatesUpdated;
+    }
+
+    private void countStatusUpdates(String result, int count) {
+        if (meterRegistry != null) meterRegistry.counter("certificate.status.update.processed", "result", result).increment(count);
     }
 
     @Override
@@ -1047,49 +1312,56 @@ public class CertificateServiceImpl implements CertificateService {
     @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.LIST, parentResource = Resource.RA_PROFILE, parentAction = ResourceAction.LIST)
     public StatisticsDto addCertificateStatistics(SecurityFilter filter, StatisticsDto dto) {
         setupSecurityFilter(filter);
-        List<Certificate> certificates = certificateRepository.findUsingSecurityFilter(filter, List.of("groups", "owner", "raProfile"), null);
-
-        Map<String, Long> groupStat = new HashMap<>();
-        Map<String, Long> raProfileStat = new HashMap<>();
-        Map<String, Long> typeStat = new HashMap<>();
-        Map<String, Long> keySizeStat = new HashMap<>();
-        Map<String, Long> bcStat = new HashMap<>();
-        Map<String, Long> expiryStat = new HashMap<>();
-        Map<String, Long> stateStat = new HashMap<>();
-        Map<String, Long> validationStatusStat = new HashMap<>();
-        Map<String, Long> complianceStat = new HashMap<>();
-        Date currentTime = new Date();
-        for (Certificate certificate : certificates) {
-            typeStat.merge(certificate.getCertificateType().getCode(), 1L, Long::sum);
 
-            if (certificate.getGroups() == null || certificate.getGroups().isEmpty()) {
-                groupStat.merge("Unassigned", 1L, Long::sum);
-            } else {
-                for (Group group : certificate.getGroups()) {
-                    groupStat.merge(group.getName(), 1L, Long::sum);
-                }
+        // statistics are aggregated in database, so memory usage does not depend on size of inventory
+        final BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> withContent = (root, cb) -> cb.isNotNull(root.get("certificateContentId"));
+        dto.setGroupStatByCertificateCount(getCertificateStatistics(filter, (root, cb) -> root.join("groups", JoinType.LEFT).get("name"), null, "Unassigned"));
+        dto.setRaProfileStatByCertificateCount(getCertificateStatistics(filter, (root, cb) -> root.join("raProfile", JoinType.LEFT).get("name"), null, "Unassigned"));
+        dto.setCertificateStatByType(getCertificateStatistics(filter, (root, cb) -> root.get("certificateType"), null, null));
+        dto.setCertificateStatByKeySize(getCertificateStatistics(filter, (root, cb) -> root.get("keySize"), null, null));
+        dto.setCertificateStatByBasicConstraints(getCertificateStatistics(filter, (root, cb) -> root.get("basicConstraints"), withContent, null));
+        dto.setCertificateStatByExpiry(getCertificateExpiryStatistics(filter, withContent));
+        dto.setCertificateStatByState(getCertificateStatistics(filter, (root, cb) -> root.get("state"), null, null));
+        dto.setCertificateStatByValidationStatus(getCertificateStatistics(filter, (root, cb) -> root.get("validationStatus"), null, null));
+        dto.setCertificateStatByComplianceStatus(getCertificateStatistics(filter, (root, cb) -> root.get("complianceStatus"), null, null));
+        return dto;
+    }
+
+    private Map<String, Long> getCertificateStatistics(SecurityFilter filter, BiFunction<Root<Certificate>, CriteriaBuilder, Expression<?>> groupBy, BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> additionalWhereClause, String nullValueKey) {
+        Map<String, Long> statistics = new HashMap<>();
+        for (Object[] row : certificateRepository.countGroupedUsingSecurityFilter(filter, groupBy, additionalWhereClause)) {
+            String key = row[0] == null ? nullValueKey : (row[0] instanceof IPlatformEnum platformEnum ? platformEnum.getCode() : row[0].toString());
+            if (key != null) {
+                statistics.merge(key, (Long) row[1], Long::sum);
             }
+        }
+        return statistics;
+    }
 
-            raProfileStat.merge(certificate.getRaProfile() != null ? certificate.getRaProfile().getName() : "Unassigned", 1L, Long::sum);
-            if (certificate.getCertificateContent() != null) {
-                expiryStat.merge(getExpiryTime(currentTime, certificate.getNotAfter()), 1L, Long::sum);
-                bcStat.merge(certificate.getBasicConstraints(), 1L, Long::sum);
+    private Map<String, Long> getCertificateExpiryStatistics(SecurityFilter filter, BiFunction<Root<Certificate>, CriteriaBuilder, Predicate> additionalWhereClause) {
+        final Date now = new Date();
+        final List<String> expiryKeys = List.of("expired", "10", "20", "30", "60", "90", "More");
+        final List<Integer> expiryDays = List.of(0, 10, 20, 30, 60, 90);
+
+        List<BiFunction<Root<Certificate>, CriteriaBuilder, Predicate>> conditions = new ArrayList<>();
+        conditions.add((root, cb) -> cb.lessThanOrEqualTo(root.get("notAfter"), now));
+        for (int i = 1; i < expiryDays.size(); i++) {
+            final Date from = new Date(now.getTime() + TimeUnit.DAYS.toMillis(expiryDays.get(i - 1)));
+            final Date to = new Date(now.getTime() + TimeUnit.DAYS.toMillis(expiryDays.get(i)));
+            final boolean first = i == 1;
+            conditions.add((root, cb) -> cb.and(first ? cb.greaterThan(root.get("notAfter"), from) : cb.greaterThanOrEqualTo(root.get("notAfter"), from), cb.lessThan(root.get("notAfter"), to)));
+        }
+        final Date lastBoundary = new Date(now.getTime() + TimeUnit.DAYS.toMillis(expiryDays.get(expiryDays.size() - 1)));
+        conditions.add((root, cb) -> cb.greaterThanOrEqualTo(root.get("notAfter"), lastBoundary));
+
+        Map<String, Long> statistics = new HashMap<>();
+        List<Long> counts = certificateRepository.countByConditionsUsingSecurityFilter(filter, conditions, additionalWhereClause);
+        for (int i = 0; i < expiryKeys.size(); i++) {
+            if (counts.get(i) > 0) {
+                statistics.put(expiryKeys.get(i), counts.get(i));
             }
-            keySizeStat.merge(certificate.getKeySize().toString(), 1L, Long::sum);
-            stateStat.merge(certificate.getState().getCode(), 1L, Long::sum);
-            validationStatusStat.merge(certificate.getValidationStatus().getCode(), 1L, Long::sum);
-            complianceStat.merge(certificate.getComplianceStatus().getCode(), 1L, Long::sum);
-        }
-        dto.setGroupStatByCertificateCount(groupStat);
-        dto.setRaProfileStatByCertificateCount(raProfileStat);
-        dto.setCertificateStatByType(typeStat);
-        dto.setCertificateStatByKeySize(keySizeStat);
-        dto.setCertificateStatByBasicConstraints(bcStat);
-        dto.setCertificateStatByExpiry(expiryStat);
-        dto.setCertificateStatByState(stateStat);
-        dto.setCertificateStatByValidationStatus(validationStatusStat);
-        dto.setCertificateStatByComplianceStatus(complianceStat);
-        return dto;
+        }
+        return statistics;
     }
 
     @Override
@@ -1345,34 +1617,6 @@ public class CertificateServiceImpl implements CertificateService {
                 .map(Certificate::mapToListDto).toList();
     }
 
-    private String getExpiryTime(Date now, Date expiry) {
-        long diffInMilliseconds = expiry.getTime() - now.getTime();
-        long difference = TimeUnit.DAYS.convert(diffInMilliseconds, TimeUnit.MILLISECONDS);
-        if (diffInMilliseconds <= 0) {
-            return "expired";
-        } else if (difference < 10) {
-            return "10";
-        } else if (difference < 20) {
-            return "20";
-        } else if (difference < 30) {
-            return "30";
-        } else if (difference < 60) {
-            return "60";
-        } else if (difference < 90) {
-            return "90";
-        }
-        return "More";
-    }
-
-
-    @Deprecated
-    private List<SearchFieldDataDto> getSearchableFieldsMap() {
-
-        final List<SearchFieldDataDto> fields = List.of(SearchHelper.prepareSearch(SearchFieldNameEnum.COMMON_NAME), SearchHelper.prepareSearch(SearchFieldNameEnum.SERIAL_NUMBER_LABEL), SearchHelper.prepareSearch(SearchFieldNameEnum.ISSUER_SERIAL_NUMBER), SearchHelper.prepareSearch(SearchFieldNameEnum.RA_PROFILE, raProfileRepository.findAll().stream().map(RaProfile::getName).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.GROUP, groupRepository.findAll().stream().map(Group::getName).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.OWNER), SearchHelper.prepareSearch(SearchFieldNameEnum.CERTIFICATE_STATE, Arrays.stream(CertificateState.values()).map(CertificateState::getCode).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.CERTIFICATE_VALIDATION_STATUS, Arrays.stream(CertificateValidationStatus.values()).map(CertificateValidationStatus::getCode).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.COMPLIANCE_STATUS, Arrays.stream(ComplianceStatus.values()).map(ComplianceStatus::getCode).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.ISSUER_COMMON_NAME), SearchHelper.prepareSearch(SearchFieldNameEnum.FINGERPRINT), SearchHelper.prepareSearch(SearchFieldNameEnum.SIGNATURE_ALGORITHM, new ArrayList<>(certificateRepository.findDistinctSignatureAlgorithm())), SearchHelper.prepareSearch(SearchFieldNameEnum.EXPIRES), SearchHelper.prepareSearch(SearchFieldNameEnum.NOT_BEFORE), SearchHelper.prepareSearch(SearchFieldNameEnum.SUBJECT_DN), SearchHelper.prepareSearch(SearchFieldNameEnum.ISSUER_DN), SearchHelper.prepareSearch(SearchFieldNameEnum.SUBJECT_ALTERNATIVE), SearchHelper.prepareSearch(SearchFieldNameEnum.OCSP_VALIDATION, Arrays.stream((CertificateValidationStatus.values())).map(CertificateValidationStatus::getCode).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.CRL_VALIDATION, Arrays.stream((CertificateValidationStatus.values())).map(CertificateValidationStatus::getCode).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.SIGNATURE_VALIDATION, Arrays.stream((CertificateValidationStatus.values())).map(CertificateValidationStatus::getCode).toList()), SearchHelper.prepareSearch(SearchFieldNameEnum.PUBLIC_KEY_ALGORITHM, new ArrayList<>(certificateRepository.findDistinctPublicKeyAlgorithm())), SearchHelper.prepareSearch(SearchFieldNameEnum.KEY_SIZE, new ArrayList<>(certificateRepository.findDistinctKeySize())), SearchHelper.prepareSearch(SearchFieldNameEnum.KEY_USAGE, serializedListOfStringToListOfObject(certificateRepository.findDistinctKeyUsage())));
-
-        logger.debug("Searchable Fields: {}", fields);
-        return fields;
-    }
 
     private List<Object> serializedListOfStringToListOfObject(List<String> serializedData) {
         Set<String> serSet = new LinkedHashSet<>();
@@ -1418,14 +1662,6 @@ public class CertificateServiceImpl implements CertificateService {
         return dto;
     }
 
-    // TODO - move to search service
-    private void bulkUpdateRaProfileComplianceCheck(List<SearchFilterRequestDto> searchFilter) {
-        List<Certificate> certificates = (List<Certificate>) searchService.completeSearchQueryExecutor(searchFilter, "Certificate", getSearchableFieldInformation());
-        CertificateComplianceCheckDto dto = new CertificateComplianceCheckDto();
-        dto.setCertificateUuids(certificates.stream().map(Certificate::getUuid).map(UUID::toString).toList());
-        checkCompliance(dto);
-    }
-
     private void certificateComplianceCheck(Certificate certificate) {
         if (certificate.getRaProfile() != null) {
             try {
@@ -1622,16 +1858,19 @@ public class CertificateServiceImpl implements CertificateService {
             }
         } else {
             RaProfile raProfile = removeRaProfile ? null : raProfileRepository.findByUuid(SecuredUUID.fromString(request.getRaProfileUuid())).orElseThrow(() -> new NotFoundException(RaProfile.class, request.getRaProfileUuid()));
+            UUID raProfileUuid = removeRaProfile ? null : raProfile.getUuid();
+            String message = "RA Profile Name: " + (removeRaProfile ? UNDEFINED_CERTIFICATE_OBJECT_NAME : raProfile.getName());
 
-            String data = searchService.createCriteriaBuilderString(filter, false);
-            if (!data.isEmpty()) {
-                data = "WHERE " + data;
-            }
+            int updatedCount = processCertificatesInChunks(filter, getFiltersWhereClause(filter, request.getFilters()), certificateUuids -> {
+                int count = certificateRepository.updateRaProfileUuid(raProfileUuid, certificateUuids);
+                certificateEventHistoryService.addEventHistoryForCertificates(certificateUuids, CertificateEvent.UPDATE_RA_PROFILE, CertificateEventStatus.SUCCESS, message);
 
-            String profileUpdateQuery = "UPDATE Certificate c SET c.raProfile = " + (removeRaProfile ? "NULL" : raProfile.getUuid()) + searchService.getCompleteSearchQuery(request.getFilters(), "certificate", data, getSearchableFieldInformation(), true, false).replace("GROUP BY c.id ORDER BY c.id DESC", "");
-            certificateRepository.bulkUpdateQuery(profileUpdateQuery);
-            certificateEventHistoryService.addEventHistoryForRequest(request.getFilters(), "Certificate", getSearchableFieldInformation(), CertificateEvent.UPDATE_RA_PROFILE, CertificateEventStatus.SUCCESS, "RA Profile Name: " + (removeRaProfile ? UNDEFINED_CERTIFICATE_OBJECT_NAME : raProfile.getName()));
-            bulkUpdateRaProfileComplianceCheck(request.getFilters());
+                CertificateComplianceCheckDto dto = new CertificateComplianceCheckDto();
+                dto.setCertificateUuids(certificateUuids.stream().map(UUID::toString).toList());
+                checkCompliance(dto);
+                return count;
+            });
+            logger.debug("Bulk updated RA profile of {} certificates by filters.", updatedCount);
         }
     }
 
@@ -1652,7 +1891,6 @@ public class CertificateServiceImpl implements CertificateService {
     private void bulkUpdateOwner(SecurityFilter filter, MultipleCertificateObjectUpdateDto request) throws NotFoundException {
         boolean removeOwner = request.getOwnerUuid().isEmpty();
         String ownerUuid = null;
-        String ownerName = null;
         if (!removeOwner) {
             ownerUuid = request.getOwnerUuid();
         }
@@ -1667,32 +1905,22 @@ public class CertificateServiceImpl implements CertificateService {
             certificateRepository.saveAll(batchOperationList);
             certificateEventHistoryService.asyncSaveAllInBatch(batchHistoryOperationList);
         } else {
-            String data = searchService.createCriteriaBuilderString(filter, false);
-            if (!data.isEmpty()) {
-                data = "WHERE " + data;
-            }
-            String ownerUpdateQuery = "UPDATE Certificate c SET c.owner = '" + (removeOwner ? "NULL" : ownerName) + "',c.owner_uuid = '" + (removeOwner ? "NULL" : UUID.fromString(request.getOwnerUuid())) + "' " + searchService.getCompleteSearchQuery(request.getFilters(), "certificate", data, getSearchableFieldInformation(), true, false).replace("GROUP BY c.id ORDER BY c.id DESC", "");
-            certificateRepository.bulkUpdateQuery(ownerUpdateQuery);
-            certificateEventHistoryService.addEventHistoryForRequest(request.getFilters(), "Certificate", getSearchableFieldInformation(), CertificateEvent.UPDATE_OWNER, CertificateEventStatus.SUCCESS, "Owner: " + (removeOwner ? UNDEFINED_CERTIFICATE_OBJECT_NAME : ownerName));
-        }
-    }
-
-    private List<List<Certificate>> partitionList(List<Certificate> fullList) {
-        List<List<Certificate>> certificates = new ArrayList<>();
-
-        for (int i = 0; i < fullList.size(); i += DELETE_BATCH_SIZE) {
-            certificates.add(fullList.subList(i, Math.min(i + DELETE_BATCH_SIZE, fullList.size())));
-        }
-        return certificates;
-    }
-
-    private List<List<CertificateContent>> partitionContents(List<CertificateContent> fullList) {
-        List<List<CertificateContent>> certificates = new ArrayList<>();
-
-        for (int i = 0; i < fullList.size(); i += DELETE_BATCH_SIZE) {
-            certificates.add(fullList.subList(i, Math.min(i + DELETE_BATCH_SIZE, fullList.size())));
+            // owner is stored as owner association, so it is updated for each certificate
+            final String newOwnerUuid = ownerUuid;
+            int updatedCount = processCertificatesInChunks(filter, getFiltersWhereClause(filter, request.getFilters()), certificateUuids -> {
+                int count = 0;
+                for (UUID certificateUuid : certificateUuids) {
+                    try {
+                        updateOwner(SecuredUUID.fromUUID(certificateUuid), newOwnerUuid);
+                        ++count;
+                    } catch (NotFoundException e) {
+                        logger.warn("Unable to update owner of the certificate {}: {}", certificateUuid, e.getMessage());
+                    }
+                }
+                return count;
+            });
+            logger.debug("Bulk updated owner of {} certificates by filters.", updatedCount);
         }
-        return certificates;
     }
 
     private void setupSecurityFilter(SecurityFilter filter) {
@@ -9,9 +9,13 @@ import com.czertainly.core.dao.entity.CrlEntryId;
 import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.dao.repository.CrlEntryRepository;
 import com.czertainly.core.dao.repository.CrlRepository;
+import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CrlService;
+import com.czertainly.core.util.CrlRevocationIndex;
 import com.czertainly.core.util.CrlUtil;
 import com.czertainly.core.util.CzertainlyX500NameStyle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x509.Extension;
@@ -19,23 +23,71 @@ import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.security.cert.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * CRLs are downloaded first and then stored in a new short transaction, independent of transaction of the caller,
+ * so the CRL is committed and visible to other validations as soon as it is stored. Update of CRL of the same issuer
+ * is done only once at a time, concurrent validations wait until the update is committed and read the stored CRL.
+ * Revocation index of CRL is changed only after its entries are committed.
+ */
 @Service
 public class CrlServiceImpl implements CrlService {
 
     private static final Logger logger = LoggerFactory.getLogger(CrlServiceImpl.class);
 
+    // Downloads of CRLs in progress by URL, concurrent requests for the same URL wait for the same download
+    private final ConcurrentHashMap<String, CompletableFuture<X509CRL>> crlDownloads = new ConcurrentHashMap<>();
+
+    // Updates of CRLs in progress by issuer DN and serial number, concurrent requests wait for the update and read its result
+    private final ConcurrentHashMap<String, CompletableFuture<Crl>> crlUpdates = new ConcurrentHashMap<>();
+
+    private final long updateWaitTimeout;
+
+    // Number of CRL entries flushed to database at once, aligned with hibernate.jdbc.batch_size
+    private final int entriesBatchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private CertificateRepository certificateRepository;
 
     private CrlRepository crlRepository;
 
     private CrlEntryRepository crlEntryRepository;
 
+    private CrlRevocationIndex crlRevocationIndex;
+
+    public CrlServiceImpl(@Value("${crl.update.wait-timeout:60000}") long updateWaitTimeout,
+                          @Value("${crl.entries.batch-size:500}") int entriesBatchSize) {
+        this.updateWaitTimeout = updateWaitTimeout;
+        this.entriesBatchSize = entriesBatchSize;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // CRL is stored in its own transaction, it must not join long transaction of the validation that triggered the update
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     @Autowired
     public void setCertificateRepository(CertificateRepository certificateRepository) {
         this.certificateRepository = certificateRepository;
@@ -51,54 +103,32 @@ public class CrlServiceImpl implements CrlService {
         this.crlEntryRepository = crlEntryRepository;
     }
 
+    @Autowired
+    public void setCrlRevocationIndex(CrlRevocationIndex crlRevocationIndex) {
+        this.crlRevocationIndex = crlRevocationIndex;
+    }
+
     @Override
     public Crl createCrlAndCrlEntries(byte[] crlDistributionPointsEncoded, String issuerDn, String issuerSerialNumber, UUID caCertificateUuid, String oldCrlNumber) throws IOException {
         List<String> crlUrls = CrlUtil.getCDPFromCertificate(crlDistributionPointsEncoded);
 
-        Crl crl = null;
-
         for (String crlUrl : crlUrls) {
-            X509CRL X509Crl;
+            X509CRL x509Crl;
             try {
-                X509Crl = CrlUtil.getX509Crl(crlUrl);
+                x509Crl = downloadCrl(crlUrl);
             } catch (Exception e) {
                 // Failed to read content from URL, continue to next URL
                 logger.error("Failed to read CRL content from URL: {}, {}", crlUrl, e.getMessage());
                 continue;
             }
 
-            String crlNumber = JcaX509ExtensionUtils.parseExtensionValue(X509Crl.getExtensionValue(Extension.cRLNumber.getId())).toString();
+            String crlNumber = JcaX509ExtensionUtils.parseExtensionValue(x509Crl.getExtensionValue(Extension.cRLNumber.getId())).toString();
             if (Objects.equals(crlNumber, oldCrlNumber)) return null;
 
-            crl = new Crl();
-            List<CrlEntry> crlEntries = new ArrayList<>();
-            crl.setNextUpdate(X509Crl.getNextUpdate());
-            byte[] issuerDnPrincipalEncoded = X509Crl.getIssuerX500Principal().getEncoded();
-            crl.setCrlIssuerDn(X500Name.getInstance(CzertainlyX500NameStyle.NORMALIZED, issuerDnPrincipalEncoded).toString());
-            crl.setSerialNumber(issuerSerialNumber);
-            crl.setIssuerDn(issuerDn);
-            crl.setCaCertificateUuid(caCertificateUuid);
-            crl.setCrlNumber(crlNumber);
-            crl.setCrlEntries(crlEntries);
-            crlRepository.save(crl);
-
-            Set<? extends X509CRLEntry> crlCertificates = X509Crl.getRevokedCertificates();
-            if (crlCertificates != null) {
-                Date lastRevocationDate = new Date(0);
-                for (X509CRLEntry x509CRLEntry : crlCertificates) {
-                    CrlEntry crlEntry = createCrlEntry(x509CRLEntry, crl);
-                    crlEntries.add(crlEntry);
-                    if (crlEntry.getRevocationDate().after(lastRevocationDate))
-                        lastRevocationDate = crlEntry.getRevocationDate();
-                }
-                crl.setLastRevocationDate(lastRevocationDate);
-                crlRepository.save(crl);
-            }
-
             // Managed to process a CRL url and do not need to try other URLs
-            break;
+            return transactionTemplate.execute(status -> storeCrl(x509Crl, crlUrl, crlNumber, issuerDn, issuerSerialNumber, caCertificateUuid));
         }
-        return crl;
+        return null;
     }
 
     @Override
@@ -107,7 +137,7 @@ public class CrlServiceImpl implements CrlService {
         for (String deltaCrlUrl : deltaCrlUrls) {
             X509CRL deltaCrl;
             try {
-                deltaCrl = CrlUtil.getX509Crl(deltaCrlUrl);
+                deltaCrl = downloadCrl(deltaCrlUrl);
             } catch (Exception e) {
                 // Failed to read content from URL, continue to next URL
                 continue;
@@ -120,15 +150,15 @@ public class CrlServiceImpl implements CrlService {
             // Compare DeltaCRLIndicator with base CRL number, if they are not equal, try to get newer CRL
             String deltaCrlIndicator = JcaX509ExtensionUtils.parseExtensionValue(deltaCrl.getExtensionValue(Extension.deltaCRLIndicator.getId())).toString();
             if (!Objects.equals(deltaCrlIndicator, crl.getCrlNumber())) {
+                // New CRL replaces the old one when it is stored
                 Crl newCrl = createCrlAndCrlEntries(certificate.getExtensionValue(Extension.cRLDistributionPoints.getId()), issuerDn, issuerSerialNumber, caCertificateUuid, crl.getCrlNumber());
                 // If received CRL is null, it means it is the old one again, and we are not able to set delta CRL properly
                 if (newCrl == null)
                     throw new ValidationException("Unable to get CRL with base CRL number equal to DeltaCRLIndicator");
-                // Otherwise delete the old CRL and continue with the new CRL
-                crlRepository.delete(crl);
                 crl = newCrl;
             }
-            updateDeltaCrl(crl, deltaCrl);
+            Crl baseCrl = crl;
+            crl = transactionTemplate.execute(status -> updateDeltaCrl(baseCrl, deltaCrl));
             // Managed to process a delta CRL url and do not need to try other URLs
             break;
         }
@@ -141,36 +171,55 @@ public class CrlServiceImpl implements CrlService {
         byte[] issuerDnPrincipalEncoded = certificate.getIssuerX500Principal().getEncoded();
         String issuerDn = X500Name.getInstance(CzertainlyX500NameStyle.NORMALIZED, issuerDnPrincipalEncoded).toString();
         String issuerSerialNumber = issuerCertificate.getSerialNumber().toString(16);
-        Optional<Crl> crlOptional = crlRepository.findByIssuerDnAndSerialNumber(issuerDn, issuerSerialNumber);
-        Optional<Certificate> caCertificate = certificateRepository.findBySubjectDnNormalizedAndSerialNumber(issuerDn, issuerSerialNumber);
-        byte[] crlDistributionPoints = certificate.getExtensionValue(Extension.cRLDistributionPoints.getId());
 
-        Crl crl = null;
-        UUID caCertificateUuid = caCertificate.isPresent() ? caCertificate.get().getUuid() : null;
-        // If CRL is not present or current UTC time is past its next_update timestamp, download the CRL and save the CRL and its entries in database
-        if (crlOptional.isEmpty() || (crl = crlOptional.get()).getNextUpdate().before(new Date())) {
-            Crl newCrl = createCrlAndCrlEntries(crlDistributionPoints, issuerDn, issuerSerialNumber, caCertificateUuid, crl != null ? crl.getCrlNumber() : null);
-            // If CRL received is not null, then the downloaded CRL is updated CRL, delete old CRL and use updated one
-            if (newCrl != null) {
-                if (crlOptional.isPresent()) crlRepository.delete(crl);
-                crl = newCrl;
-            }
+        Crl crl = crlRepository.findByIssuerDnAndSerialNumber(issuerDn, issuerSerialNumber).orElse(null);
+        if (!isCrlUpdateRequired(certificate, crl)) {
+            return crl;
         }
 
-        // Check if certificate has freshestCrl extension set
-        if (certificate.getExtensionValue(Extension.freshestCRL.getId()) != null) {
-            // If no delta CRL is set or delta CRL is not up-to-date, download delta CRL
-            if (crl != null && (crl.getNextUpdateDelta() == null || !crl.getNextUpdateDelta().before(new Date()))) {
-                updateCrlAndCrlEntriesFromDeltaCrl(certificate, crl, issuerDn, issuerSerialNumber, caCertificateUuid);
-            }
+        String updateKey = issuerDn + "|" + issuerSerialNumber;
+        CompletableFuture<Crl> update = new CompletableFuture<>();
+        CompletableFuture<Crl> inProgress = crlUpdates.putIfAbsent(updateKey, update);
+        if (inProgress != null) {
+            return waitForCrlUpdate(inProgress, issuerDn, issuerSerialNumber);
+        }
+
+        try {
+            // CRL is stored and updated in new transactions, so they are committed when update returns and waiters can read it
+            crl = updateCrl(certificate, issuerDn, issuerSerialNumber);
+            update.complete(crl);
+            return crl;
+        } catch (IOException | RuntimeException e) {
+            update.completeExceptionally(e);
+            throw e;
+        } finally {
+            crlUpdates.remove(updateKey, update);
         }
-        return crl;
     }
 
     @Override
-    public CrlEntry findCrlEntryForCertificate(String serialNumber, UUID crlUuid) {
-        CrlEntryId crlEntryId = new CrlEntryId(crlUuid, serialNumber);
-        return crlEntryRepository.findById(crlEntryId).orElse(null);
+    public CrlEntry findCrlEntryForCertificate(String serialNumber, Crl crl) {
+        UUID crlUuid = crl.getUuid();
+        Map<String, CrlRevocationIndex.RevokedEntry> index = crlRevocationIndex.getIndex(crlUuid, crl.getCrlNumberDelta());
+        if (index == null) {
+            index = loadCrlIndex(crlUuid, crl.getCrlNumberDelta());
+        }
+
+        // CRL is too large to be indexed, lookup entry in database
+        if (index == null) {
+            CrlEntryId crlEntryId = new CrlEntryId(crlUuid, serialNumber);
+            return crlEntryRepository.findById(crlEntryId).orElse(null);
+        }
+
+        CrlRevocationIndex.RevokedEntry revokedEntry = index.get(serialNumber);
+        if (revokedEntry == null) return null;
+
+        CrlEntry crlEntry = new CrlEntry();
+        crlEntry.setId(new CrlEntryId(crlUuid, serialNumber));
+        crlEntry.setRevocationDate(revokedEntry.revocationDate());
+        crlEntry.setRevocationReason(revokedEntry.revocationReason());
+        crlEntry.setCrl(crl);
+        return crlEntry;
     }
 
     @Override
@@ -178,34 +227,211 @@ public class CrlServiceImpl implements CrlService {
         return crlRepository.findByCaCertificateUuid(caCertificateUuid);
     }
 
-    private void updateDeltaCrl(Crl crl, X509CRL deltaCrl) throws IOException {
-        ASN1Primitive encodedCrlNumber = JcaX509ExtensionUtils.parseExtensionValue(deltaCrl.getExtensionValue(Extension.cRLNumber.getId()));
+    private boolean isCrlUpdateRequired(X509Certificate certificate, Crl crl) {
+        // If CRL is not present or current UTC time is past its next_update timestamp, download the CRL and save the CRL and its entries in database
+        if (crl == null || crl.getNextUpdate().before(new Date())) return true;
+        // If no delta CRL is set or delta CRL is not up-to-date, download delta CRL
+        return certificate.getExtensionValue(Extension.freshestCRL.getId()) != null
+                && (crl.getNextUpdateDelta() == null || !crl.getNextUpdateDelta().before(new Date()));
+    }
+
+    private Crl updateCrl(X509Certificate certificate, String issuerDn, String issuerSerialNumber) throws IOException {
+        // CRL is read again, it could have been updated while waiting for update in progress
+        Crl crl = crlRepository.findByIssuerDnAndSerialNumber(issuerDn, issuerSerialNumber).orElse(null);
+        Optional<Certificate> caCertificate = certificateRepository.findBySubjectDnNormalizedAndSerialNumber(issuerDn, issuerSerialNumber);
+        UUID caCertificateUuid = caCertificate.map(Certificate::getUuid).orElse(null);
+
+        if (crl == null || crl.getNextUpdate().before(new Date())) {
+            Crl newCrl = createCrlAndCrlEntries(certificate.getExtensionValue(Extension.cRLDistributionPoints.getId()), issuerDn, issuerSerialNumber, caCertificateUuid, crl != null ? crl.getCrlNumber() : null);
+            // If CRL received is not null, then the downloaded CRL is updated CRL which replaced the old one
+            if (newCrl != null) crl = newCrl;
+        }
+
+        // Check if certificate has freshestCrl extension set
+        if (crl != null && isCrlUpdateRequired(certificate, crl)) {
+            crl = updateCrlAndCrlEntriesFromDeltaCrl(certificate, crl, issuerDn, issuerSerialNumber, caCertificateUuid);
+        }
+        return crl;
+    }
+
+    private Crl waitForCrlUpdate(CompletableFuture<Crl> inProgress, String issuerDn, String issuerSerialNumber) throws IOException {
+        logger.debug("Waiting for update of CRL of issuer {} with serial number {} in progress", issuerDn, issuerSerialNumber);
+        Crl updatedCrl;
+        try {
+            updatedCrl = inProgress.get(updateWaitTimeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IOException("Failed to update CRL: " + e.getMessage(), e);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for update of CRL of issuer " + issuerDn + " in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for update of CRL of issuer " + issuerDn, e);
+        }
+
+        // CRL committed by update is read by this thread, instance of other thread is never used. If the CRL was replaced in the meantime, current CRL of the issuer is read
+        if (updatedCrl == null) return null;
+        return crlRepository.findByUuid(updatedCrl.getSecuredUuid())
+                .or(() -> crlRepository.findByIssuerDnAndSerialNumber(issuerDn, issuerSerialNumber))
+                .orElse(null);
+    }
+
+    private Crl storeCrl(X509CRL x509Crl, String crlUrl, String crlNumber, String issuerDn, String issuerSerialNumber, UUID caCertificateUuid) {
+        // Previous CRL of the issuer is replaced, so there is at most one CRL for issuer DN and serial number
+        crlRepository.findByIssuerDnAndSerialNumber(issuerDn, issuerSerialNumber).ifPresent(this::deleteCrl);
+
+        Crl crl = new Crl();
+        crl.setNextUpdate(x509Crl.getNextUpdate());
+        byte[] issuerDnPrincipalEncoded = x509Crl.getIssuerX500Principal().getEncoded();
+        crl.setCrlIssuerDn(X500Name.getInstance(CzertainlyX500NameStyle.NORMALIZED, issuerDnPrincipalEncoded).toString());
+        crl.setSerialNumber(issuerSerialNumber);
+        crl.setIssuerDn(issuerDn);
+        crl.setCaCertificateUuid(caCertificateUuid);
+        crl.setCrlNumber(crlNumber);
+        crlRepository.save(crl);
+
+        Map<String, CrlRevocationIndex.RevokedEntry> indexEntries = new HashMap<>();
+        Set<? extends X509CRLEntry> crlCertificates = x509Crl.getRevokedCertificates();
+        boolean indexable = crlCertificates == null || crlRevocationIndex.canIndex(crlCertificates.size());
+        if (crlCertificates != null) {
+            Date lastRevocationDate = new Date(0);
+            List<CrlEntry> batch = new ArrayList<>(entriesBatchSize);
+            for (X509CRLEntry x509CRLEntry : crlCertificates) {
+                CrlEntry crlEntry = createCrlEntry(x509CRLEntry, crl);
+                batch.add(crlEntry);
+                if (batch.size() == entriesBatchSize) flushCrlEntries(batch);
+
+                if (indexable)
+                    indexEntries.put(crlEntry.getId().getSerialNumber(), new CrlRevocationIndex.RevokedEntry(crlEntry.getRevocationDate(), crlEntry.getRevocationReason()));
+                if (crlEntry.getRevocationDate().after(lastRevocationDate))
+                    lastRevocationDate = crlEntry.getRevocationDate();
+            }
+            flushCrlEntries(batch);
+            logger.debug("Stored {} entries of CRL from URL {}", crlCertificates.size(), crlUrl);
+
+            crl.setLastRevocationDate(lastRevocationDate);
+            crlRepository.save(crl);
+        }
+        if (indexable) {
+            UUID crlUuid = crl.getUuid();
+            afterCommit(() -> crlRevocationIndex.index(crlUuid, null, indexEntries));
+        }
+        return crl;
+    }
+
+    private Map<String, CrlRevocationIndex.RevokedEntry> loadCrlIndex(UUID crlUuid, String deltaCrlNumber) {
+        // CRL and its entries are committed together, index is built only when the CRL is visible, otherwise its entries could be missing
+        if (crlRepository.findByUuid(SecuredUUID.fromUUID(crlUuid)).isEmpty()) {
+            logger.debug("CRL with UUID {} is not visible, revocation index is not built.", crlUuid);
+            return null;
+        }
+        if (!crlRevocationIndex.canIndex(crlEntryRepository.countByIdCrlUuid(crlUuid))) {
+            return null;
+        }
+
+        Map<String, CrlRevocationIndex.RevokedEntry> entries = new HashMap<>();
+        for (Object[] row : crlEntryRepository.findRevokedEntriesByCrlUuid(crlUuid)) {
+            entries.put((String) row[0], new CrlRevocationIndex.RevokedEntry((Date) row[1], (CertificateRevocationReason) row[2]));
+        }
+        crlRevocationIndex.index(crlUuid, deltaCrlNumber, entries);
+        return entries;
+    }
+
+    private X509CRL downloadCrl(String crlUrl) throws Exception {
+        CompletableFuture<X509CRL> download = new CompletableFuture<>();
+        CompletableFuture<X509CRL> inProgress = crlDownloads.putIfAbsent(crlUrl, download);
+        if (inProgress != null) {
+            logger.debug("Waiting for download of CRL from URL {} in progress", crlUrl);
+            try {
+                return inProgress.get(updateWaitTimeout, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) throw cause;
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+
+        try {
+            X509CRL x509Crl = CrlUtil.getX509Crl(crlUrl);
+            download.complete(x509Crl);
+            return x509Crl;
+        } catch (Exception e) {
+            download.completeExceptionally(e);
+            throw e;
+        } finally {
+            crlDownloads.remove(crlUrl, download);
+        }
+    }
+
+    private void flushCrlEntries(List<CrlEntry> batch) {
+        if (batch.isEmpty()) return;
+
+        // entries are inserted in JDBC batches and detached so persistence context does not grow with size of CRL
+        entityManager.flush();
+        for (CrlEntry crlEntry : batch) entityManager.detach(crlEntry);
+        batch.clear();
+    }
+
+    private void deleteCrl(Crl crl) {
+        crlRepository.delete(crl);
+        crlRevocationIndex.remove(crl.getUuid());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Crl updateDeltaCrl(Crl crl, X509CRL deltaCrl) {
+        ASN1Primitive encodedCrlNumber;
+        try {
+            encodedCrlNumber = JcaX509ExtensionUtils.parseExtensionValue(deltaCrl.getExtensionValue(Extension.cRLNumber.getId()));
+        } catch (IOException e) {
+            throw new ValidationException("Unable to parse CRL number of delta CRL: " + e.getMessage());
+        }
         // If delta CRL number has been set, check if delta CRL number is greater than one in DB entity, if it is, process delta CRL entries
         if (crl.getCrlNumberDelta() == null || Integer.parseInt(encodedCrlNumber.toString()) > Integer.parseInt(crl.getCrlNumberDelta())) {
-            List<CrlEntry> crlEntries = crl.getCrlEntries();
+            UUID crlUuid = crl.getUuid();
+            // Changes of revocation index are applied after delta CRL entries are committed
+            Map<String, CrlRevocationIndex.RevokedEntry> indexUpdates = new HashMap<>();
+            Set<String> indexRemovals = new HashSet<>();
             Date lastRevocationDateNew = crl.getLastRevocationDate();
             Set<? extends X509CRLEntry> deltaCrlEntries = deltaCrl.getRevokedCertificates();
             if (deltaCrlEntries != null) {
-                Map<String, CrlEntry> crlEntryMap = crl.getCrlEntriesMap();
                 for (X509CRLEntry deltaCrlEntry : deltaCrlEntries) {
                     Date entryRevocationDate = deltaCrlEntry.getRevocationDate();
                     // Process only entries which revocation date is >= last_revocation_date, others are already in DB
                     if (entryRevocationDate.after(crl.getLastRevocationDate()) || entryRevocationDate.equals(crl.getLastRevocationDate())) {
-                        String serialNumber = String.valueOf(deltaCrlEntry.getSerialNumber());
-                        CrlEntry crlEntry = crlEntryMap.get(serialNumber);
+                        String serialNumber = deltaCrlEntry.getSerialNumber().toString(16);
+                        CrlEntry crlEntry = crlEntryRepository.findById(new CrlEntryId(crl.getUuid(), serialNumber)).orElse(null);
                         //  Entry by serial number is not present, add new one
                         if (crlEntry == null) {
                             CrlEntry crlEntryNew = createCrlEntry(deltaCrlEntry, crl);
-                            crlEntries.add(crlEntryNew);
+                            indexUpdates.put(serialNumber, new CrlRevocationIndex.RevokedEntry(crlEntryNew.getRevocationDate(), crlEntryNew.getRevocationReason()));
+                            indexRemovals.remove(serialNumber);
                             // Entry by serial number is present and revocation reason is REMOVE_FROM_CRL, remove this entry
                         } else if (Objects.equals(deltaCrlEntry.getRevocationReason(), CRLReason.REMOVE_FROM_CRL)) {
-                            crlEntries.remove(crlEntry);
                             crlEntryRepository.delete(crlEntry);
+                            indexUpdates.remove(serialNumber);
+                            indexRemovals.add(serialNumber);
                             // Entry by serial number is present, probably reason changed so update its revocation reason and date
                         } else {
                             crlEntry.setRevocationReason(deltaCrlEntry.getRevocationReason() == null ? CertificateRevocationReason.UNSPECIFIED : CertificateRevocationReason.fromCrlReason(deltaCrlEntry.getRevocationReason()));
                             crlEntry.setRevocationDate(deltaCrlEntry.getRevocationDate());
                             crlEntryRepository.save(crlEntry);
+                            indexUpdates.put(serialNumber, new CrlRevocationIndex.RevokedEntry(crlEntry.getRevocationDate(), crlEntry.getRevocationReason()));
+                            indexRemovals.remove(serialNumber);
                         }
                         if (lastRevocationDateNew.before(deltaCrlEntry.getRevocationDate()))
                             lastRevocationDateNew = deltaCrlEntry.getRevocationDate();
@@ -216,8 +442,15 @@ public class CrlServiceImpl implements CrlService {
             crl.setLastRevocationDate(lastRevocationDateNew);
             crl.setCrlNumberDelta(encodedCrlNumber.toString());
             crl.setNextUpdateDelta(deltaCrl.getNextUpdate());
-            crlRepository.save(crl);
+            crl = crlRepository.save(crl);
+            String crlNumberDelta = crl.getCrlNumberDelta();
+            afterCommit(() -> {
+                indexUpdates.forEach((serialNumber, entry) -> crlRevocationIndex.put(crlUuid, serialNumber, entry));
+                indexRemovals.forEach(serialNumber -> crlRevocationIndex.remove(crlUuid, serialNumber));
+                crlRevocationIndex.setDeltaCrlNumber(crlUuid, crlNumberDelta);
+            });
         }
+        return crl;
     }
 
 
@@ -228,8 +461,7 @@ public class CrlServiceImpl implements CrlService {
         crlEntry.getId().setCrlUuid(crl.getUuid());
         crlEntry.setRevocationDate(x509CRLEntry.getRevocationDate());
         crlEntry.setRevocationReason(x509CRLEntry.getRevocationReason() == null ? CertificateRevocationReason.UNSPECIFIED : CertificateRevocationReason.fromCrlReason(x509CRLEntry.getRevocationReason()));
-        crlEntry.setCrl(crl);
-        crlEntryRepository.save(crlEntry);
+        entityManager.persist(crlEntry);
         return crlEntry;
     }
 
@@ -29,8 +29,12 @@ import com.czertainly.api.model.core.search.SearchFieldDataDto;
 import com.czertainly.core.aop.AuditLogged;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
 import com.czertainly.core.comparator.SearchFieldDataComparator;
 import com.czertainly.core.dao.entity.*;
+import com.czertainly.core.dao.entity.workflows.Action;
+import com.czertainly.core.dao.entity.workflows.Execution;
+import com.czertainly.core.dao.entity.workflows.ExecutionItem;
 import com.czertainly.core.dao.entity.workflows.Trigger;
 import com.czertainly.core.dao.entity.workflows.TriggerAssociation;
 import com.czertainly.core.dao.entity.workflows.TriggerHistory;
@@ -601,15 +605,20 @@ public class DiscoveryServiceImpl implements DiscoveryService {
             ignoreTriggerHistory.setObjectUuid(entry.getUuid());
         }
 
-        // Evaluate rest of the triggers in given order
+        // Evaluate rest of the triggers in given order, custom attributes and metadata of the certificate are loaded once for all triggers
+        ObjectAttributesContent attributesContent = orderedTriggers.isEmpty() ? null : certificateRuleEvaluator.loadAttributesContent(Resource.CERTIFICATE, List.of(entry)).get(entry.getUuid());
         for (Trigger trigger : orderedTriggers) {
             // Create trigger history entry
             TriggerHistory triggerHistory = triggerService.createTriggerHistory(OffsetDateTime.now(), trigger.getUuid(), discovery.getUuid(), entry.getUuid(), discoveryCertificate.getUuid());
             // If rules are satisfied, perform defined actions
-            if (certificateRuleEvaluator.evaluateRules(trigger.getRules(), entry, triggerHistory)) {
+            if (certificateRuleEvaluator.evaluateRules(trigger.getRules(), entry, triggerHistory, attributesContent)) {
                 triggerHistory.setConditionsMatched(true);
                 certificateRuleEvaluator.performActions(trigger, entry, triggerHistory);
                 triggerHistory.setActionsPerformed(triggerHistory.getRecords().isEmpty());
+                // actions could have set custom attributes evaluated by following triggers
+                if (setsCustomAttributes(trigger)) {
+                    attributesContent = certificateRuleEvaluator.loadAttributesContent(Resource.CERTIFICATE, List.of(entry)).get(entry.getUuid());
+                }
             } else {
                 triggerHistory.setConditionsMatched(false);
                 triggerHistory.setActionsPerformed(false);
@@ -636,4 +645,20 @@ public class DiscoveryServiceImpl implements DiscoveryService {
         );
         certificateService.validate(entry);
     }
+
+    private static boolean setsCustomAttributes(Trigger trigger) {
+        if (trigger.getActions() == null) {
+            return false;
+        }
+        for (Action action : trigger.getActions()) {
+            for (Execution execution : action.getExecutions()) {
+                for (ExecutionItem executionItem : execution.getItems()) {
+                    if (executionItem.getFieldSource() == FilterFieldSource.CUSTOM) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
 }
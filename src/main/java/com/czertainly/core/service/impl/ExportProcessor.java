@@ -1,20 +1,30 @@
 package com.czertainly.core.service.impl;
 
-import com.czertainly.api.model.core.audit.ExportResultDto;
+import com.czertainly.core.model.ExportFile;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -46,51 +56,94 @@ public class ExportProcessor {
     @Value("${export.zip:true}")
     private Boolean isZipped;
 
-    public <T> ExportResultDto generateExport(String fileNamePrefix, List<T> data) {
-        ExportResultDto result = new ExportResultDto();
-
+    private String getExportFileName(String fileNamePrefix) {
         String fileNameDateTime = LocalDateTime.now().format(EXPORT_DATE_TIME_FORMAT);
-        String fileName = String.format("%s_%s.csv", fileNamePrefix, fileNameDateTime);
+        return String.format("%s_%s.%s", fileNamePrefix, fileNameDateTime, Boolean.TRUE.equals(isZipped) ? "zip" : "csv");
+    }
 
-        if (data == null || data.isEmpty()) {
-            result.setFileContent(new byte[0]);
-            return result;
+    /**
+     * Writes exported data as CSV to temporary file, zipped if configured. Rows are serialized one by one as they are
+     * consumed from the stream, so the data are never held in memory all at once. Temporary file is deleted once
+     * content of the returned file is read.
+     *
+     * @param fileNamePrefix prefix of the name of the exported file
+     * @param type           type of exported rows used to create CSV schema
+     * @param data           stream of exported rows
+     * @return exported file, or null if there are no data to export
+     */
+    public <T> ExportFile generateExport(String fileNamePrefix, Class<T> type, Stream<T> data) {
+        Iterator<T> iterator = data.iterator();
+        if (!iterator.hasNext()) {
+            return null;
         }
 
-        try (ByteArrayOutputStream os = new ByteArrayOutputStream();
-             OutputStreamWriter osWriter = new OutputStreamWriter(os, encoding)) {
-
-            CsvSchema schema = CSV_MAPPER.schemaFor(data.get(0).getClass())
-                    .withColumnSeparator(separator)
-                    .withLineSeparator(lineEnding)
-                    .withUseHeader(isHeaderIncluded)
-                    .withQuoteChar('"')
-                    .withEscapeChar('\\');
-
-            ObjectWriter writer = CSV_MAPPER.writer()
-                    .with(schema);
-
-            writer.writeValue(osWriter, data);
-
-            if (isZipped) {
-                try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                     ZipOutputStream zos = new ZipOutputStream(bos)) {
-                    zos.putNextEntry(new ZipEntry(fileName));
-                    zos.write(os.toByteArray());
+        String fileName = getExportFileName(fileNamePrefix);
+        Path exportPath = null;
+        try {
+            exportPath = Files.createTempFile(fileNamePrefix, null);
+            try (OutputStream outputStream = Files.newOutputStream(exportPath)) {
+                if (Boolean.TRUE.equals(isZipped)) {
+                    ZipOutputStream zos = new ZipOutputStream(outputStream);
+                    zos.putNextEntry(new ZipEntry(fileName.replaceFirst("\\.zip$", ".csv")));
+                    writeCsv(type, iterator, zos);
                     zos.closeEntry();
                     zos.finish();
-                    zos.flush();
-
-                    result.setFileName(String.format("%s_%s.zip", fileNamePrefix, fileNameDateTime));
-                    result.setFileContent(bos.toByteArray());
+                } else {
+                    writeCsv(type, iterator, outputStream);
                 }
-            } else {
-                result.setFileName(fileName);
-                result.setFileContent(os.toByteArray());
             }
+            return new ExportFile(fileName, Files.size(exportPath), new TemporaryFileResource(exportPath));
         } catch (IOException e) {
+            deleteTemporaryFile(exportPath);
             throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            deleteTemporaryFile(exportPath);
+            throw e;
+        }
+    }
+
+    private <T> void writeCsv(Class<T> type, Iterator<T> data, OutputStream outputStream) throws IOException {
+        CsvSchema schema = CSV_MAPPER.schemaFor(type)
+                .withColumnSeparator(separator)
+                .withLineSeparator(lineEnding)
+                .withUseHeader(isHeaderIncluded)
+                .withQuoteChar('"')
+                .withEscapeChar('\\');
+
+        ObjectWriter writer = CSV_MAPPER.writer()
+                .with(schema)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        Writer osWriter = new BufferedWriter(new OutputStreamWriter(outputStream, encoding));
+        try (SequenceWriter sequenceWriter = writer.writeValues(osWriter)) {
+            while (data.hasNext()) {
+                sequenceWriter.write(data.next());
+            }
+        }
+        osWriter.flush();
+    }
+
+    private static void deleteTemporaryFile(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // temporary file is left to be removed with temporary directory
+        }
+    }
+
+    /**
+     * Exported file in temporary directory which is deleted when its content is read
+     */
+    private static class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
         }
-        return result;
     }
 }
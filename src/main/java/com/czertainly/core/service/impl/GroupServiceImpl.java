@@ -11,12 +11,14 @@ import com.czertainly.core.aop.AuditLogged;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.dao.entity.Group;
 import com.czertainly.core.dao.repository.GroupRepository;
+import com.czertainly.core.enums.SearchFieldNameEnum;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.GroupService;
 import com.czertainly.core.service.ResourceObjectAssociationService;
+import com.czertainly.core.util.SearchFieldValuesCache;
 import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -38,6 +40,8 @@ public class GroupServiceImpl implements GroupService {
 
     private AttributeEngine attributeEngine;
 
+    private SearchFieldValuesCache searchFieldValuesCache;
+
     @Autowired
     public void setGroupRepository(GroupRepository groupRepository) {
         this.groupRepository = groupRepository;
@@ -53,6 +57,11 @@ public class GroupServiceImpl implements GroupService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setSearchFieldValuesCache(SearchFieldValuesCache searchFieldValuesCache) {
+        this.searchFieldValuesCache = searchFieldValuesCache;
+    }
+
     @Override
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.GROUP, operation = OperationType.REQUEST)
     @ExternalAuthorization(resource = Resource.GROUP, action = ResourceAction.LIST)
@@ -92,6 +101,7 @@ public class GroupServiceImpl implements GroupService {
         group.setDescription(request.getDescription());
         group.setEmail(request.getEmail());
         groupRepository.save(group);
+        searchFieldValuesCache.evict(SearchFieldNameEnum.GROUP);
 
         GroupDto dto = group.mapToDto();
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.GROUP, group.getUuid(), request.getCustomAttributes()));
@@ -123,6 +133,7 @@ public class GroupServiceImpl implements GroupService {
         objectAssociationService.removeGroupAssociations(group.getUuid());
         attributeEngine.deleteAllObjectAttributeContent(Resource.GROUP, group.getUuid());
         groupRepository.delete(group);
+        searchFieldValuesCache.evict(SearchFieldNameEnum.GROUP);
     }
 
     @Override
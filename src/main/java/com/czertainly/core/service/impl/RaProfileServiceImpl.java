@@ -27,6 +27,7 @@ import com.czertainly.core.dao.entity.scep.ScepProfile;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
 import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
+import com.czertainly.core.enums.SearchFieldNameEnum;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
@@ -39,6 +40,7 @@ import com.czertainly.core.service.model.SecuredList;
 import com.czertainly.core.service.v2.ExtendedAttributeService;
 import com.czertainly.core.util.AttributeDefinitionUtils;
 import com.czertainly.core.util.CertificateUtil;
+import com.czertainly.core.util.SearchFieldValuesCache;
 import com.czertainly.core.util.X509ObjectToString;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
@@ -82,6 +84,7 @@ public class RaProfileServiceImpl implements RaProfileService {
     private ApprovalProfileRelationRepository approvalProfileRelationRepository;
     private ApprovalProfileRepository approvalProfileRepository;
     private CertificateContentRepository certificateContentRepository;
+    private SearchFieldValuesCache searchFieldValuesCache;
 
 
     @Override
@@ -119,6 +122,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         RaProfile raProfile = createRaProfile(request, authorityInstanceRef);
         raProfileRepository.save(raProfile);
+        searchFieldValuesCache.evict(SearchFieldNameEnum.RA_PROFILE);
 
         setAuthorityCertificates(authorityInstanceRef, raProfile);
 
@@ -713,6 +717,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         attributeEngine.deleteAllObjectAttributeContent(Resource.RA_PROFILE, raProfile.getUuid());
         raProfileRepository.delete(raProfile);
+        searchFieldValuesCache.evict(SearchFieldNameEnum.RA_PROFILE);
     }
 
     private List<SimplifiedComplianceProfileDto> getComplianceProfilesForRaProfile(String raProfileUuid, SecurityFilter filter) {
@@ -818,4 +823,9 @@ public class RaProfileServiceImpl implements RaProfileService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setSearchFieldValuesCache(SearchFieldValuesCache searchFieldValuesCache) {
+        this.searchFieldValuesCache = searchFieldValuesCache;
+    }
+
 }
@@ -169,6 +169,13 @@ public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssoc
         removeGroups(resource, objectUuid);
     }
 
+    @Override
+    public void removeObjectsAssociations(Resource resource, List<UUID> objectUuids) {
+        int ownersDeleted = ownerAssociationRepository.deleteByResourceAndObjectUuids(resource, objectUuids);
+        int groupsDeleted = groupAssociationRepository.deleteByResourceAndObjectUuids(resource, objectUuids);
+        logger.debug("Removed {} owners and {} groups from {} {} objects", ownersDeleted, groupsDeleted, objectUuids.size(), resource.getLabel());
+    }
+
     private void removeGroups(Resource resource, UUID objectUuid) {
         long associationsDeleted = groupAssociationRepository.deleteByResourceAndObjectUuid(resource, objectUuid);
         logger.debug("Removed {} groups from {} with UUID {}", associationsDeleted, resource.getLabel(), objectUuid);
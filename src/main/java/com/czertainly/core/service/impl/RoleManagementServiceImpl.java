@@ -8,10 +8,12 @@ import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.core.auth.*;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.security.authn.client.CzertainlyAuthenticationClient;
 import com.czertainly.core.security.authn.client.RoleManagementApiClient;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
+import com.czertainly.core.security.authz.opa.OpaClient;
 import com.czertainly.core.service.RoleManagementService;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
@@ -32,11 +34,25 @@ public class RoleManagementServiceImpl implements RoleManagementService {
 
     private AttributeEngine attributeEngine;
 
+    private OpaClient opaClient;
+
+    private CzertainlyAuthenticationClient authenticationClient;
+
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setOpaClient(OpaClient opaClient) {
+        this.opaClient = opaClient;
+    }
+
+    @Autowired
+    public void setAuthenticationClient(CzertainlyAuthenticationClient authenticationClient) {
+        this.authenticationClient = authenticationClient;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.LIST)
     public List<RoleDto> listRoles() {
@@ -75,6 +91,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         requestDto.setEmail(request.getEmail());
         requestDto.setSystemRole(false);
         RoleDetailDto dto = roleManagementApiClient.updateRole(roleUuid, requestDto);
+        authenticationClient.invalidateCache();
+        opaClient.invalidateCache();
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.ROLE, UUID.fromString(dto.getUuid()), request.getCustomAttributes()));
 
         return dto;
@@ -84,6 +102,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.DELETE)
     public void deleteRole(String roleUuid) {
         roleManagementApiClient.deleteRole(roleUuid);
+        authenticationClient.invalidateCache();
+        opaClient.invalidateCache();
         attributeEngine.deleteAllObjectAttributeContent(Resource.ROLE, UUID.fromString(roleUuid));
     }
 
@@ -98,7 +118,9 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     public SubjectPermissionsDto addPermissions(String roleUuid, RolePermissionsRequestDto request) {
         checkSystemRole(roleUuid);
 
-        return roleManagementApiClient.savePermissions(roleUuid, request);
+        SubjectPermissionsDto permissions = roleManagementApiClient.savePermissions(roleUuid, request);
+        opaClient.invalidateCache();
+        return permissions;
     }
 
     @Override
@@ -119,6 +141,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         checkSystemRole(roleUuid);
 
         roleManagementApiClient.addResourcePermissionObjects(roleUuid, resourceUuid, request);
+        opaClient.invalidateCache();
     }
 
     @Override
@@ -127,6 +150,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         checkSystemRole(roleUuid);
 
         roleManagementApiClient.updateResourcePermissionObjects(roleUuid, resourceUuid, objectUuid, request);
+        opaClient.invalidateCache();
     }
 
     @Override
@@ -135,6 +159,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         checkSystemRole(roleUuid);
 
         roleManagementApiClient.removeResourcePermissionObjects(roleUuid, resourceUuid, objectUuid);
+        opaClient.invalidateCache();
     }
 
     @Override
@@ -146,7 +171,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.UPDATE)
     public RoleDetailDto updateUsers(String roleUuid, List<String> userUuids) {
-        return roleManagementApiClient.updateUsers(roleUuid, userUuids);
+        RoleDetailDto dto = roleManagementApiClient.updateUsers(roleUuid, userUuids);
+        authenticationClient.invalidateCache();
+        opaClient.invalidateCache();
+        return dto;
     }
 
     @Override
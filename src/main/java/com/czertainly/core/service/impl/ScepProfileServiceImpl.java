@@ -27,6 +27,7 @@ import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.*;
 import com.czertainly.core.service.model.SecuredList;
+import com.czertainly.core.service.scep.ScepService;
 import com.czertainly.core.service.v2.ExtendedAttributeService;
 import com.czertainly.core.util.CertificateUtil;
 import com.czertainly.core.util.ValidatorUtil;
@@ -51,6 +52,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
     private ExtendedAttributeService extendedAttributeService;
     private CertificateService certificateService;
     private AttributeEngine attributeEngine;
+    private ScepService scepService;
 
     @Autowired
     public ScepProfileServiceImpl(ScepProfileRepository scepProfileRepository) {
@@ -62,6 +64,11 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setScepService(ScepService scepService) {
+        this.scepService = scepService;
+    }
+
     @Autowired
     public void setRaProfileService(RaProfileService raProfileRepository) {
         this.raProfileService = raProfileRepository;
@@ -215,6 +222,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         scepProfile.setIntuneApplicationId(request.getIntuneApplicationId());
         scepProfile.setIntuneApplicationKey(request.getIntuneApplicationKey());
         scepProfileRepository.save(scepProfile);
+        scepService.evictCaMaterial(scepProfile.getUuid());
 
         ScepProfileDetailDto dto = scepProfile.mapToDetailDto();
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.SCEP_PROFILE, scepProfile.getUuid(), request.getCustomAttributes()));
@@ -354,12 +362,14 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         ScepProfile scepProfile = getScepProfileEntity(uuid);
         scepProfile.setEnabled(true);
         scepProfileRepository.save(scepProfile);
+        scepService.evictCaMaterial(scepProfile.getUuid());
     }
 
     private void disable(SecuredUUID uuid) throws NotFoundException {
         ScepProfile scepProfile = getScepProfileEntity(uuid);
         scepProfile.setEnabled(false);
         scepProfileRepository.save(scepProfile);
+        scepService.evictCaMaterial(scepProfile.getUuid());
     }
 
     private void deleteScepProfile(ScepProfile scepProfile) {
@@ -377,6 +387,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         } else {
             attributeEngine.deleteAllObjectAttributeContent(Resource.SCEP_PROFILE, scepProfile.getUuid());
             scepProfileRepository.delete(scepProfile);
+            scepService.evictCaMaterial(scepProfile.getUuid());
         }
     }
 
@@ -13,16 +13,20 @@ import com.czertainly.api.model.core.certificate.CertificateState;
 import com.czertainly.api.model.core.certificate.group.GroupDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.enums.SearchFieldNameEnum;
 import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.security.authn.client.CzertainlyAuthenticationClient;
 import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
+import com.czertainly.core.security.authz.opa.OpaClient;
 import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.service.GroupService;
 import com.czertainly.core.service.ResourceObjectAssociationService;
 import com.czertainly.core.service.UserManagementService;
 import com.czertainly.core.util.CertificateUtil;
+import com.czertainly.core.util.SearchFieldValuesCache;
 import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -52,6 +56,12 @@ public class UserManagementServiceImpl implements UserManagementService {
 
     private AttributeEngine attributeEngine;
 
+    private OpaClient opaClient;
+
+    private CzertainlyAuthenticationClient authenticationClient;
+
+    private SearchFieldValuesCache searchFieldValuesCache;
+
     @Autowired
     public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
         this.userManagementApiClient = userManagementApiClient;
@@ -77,6 +87,21 @@ public class UserManagementServiceImpl implements UserManagementService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setOpaClient(OpaClient opaClient) {
+        this.opaClient = opaClient;
+    }
+
+    @Autowired
+    public void setAuthenticationClient(CzertainlyAuthenticationClient authenticationClient) {
+        this.authenticationClient = authenticationClient;
+    }
+
+    @Autowired
+    public void setSearchFieldValuesCache(SearchFieldValuesCache searchFieldValuesCache) {
+        this.searchFieldValuesCache = searchFieldValuesCache;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.LIST)
     public List<UserDto> listUsers() {
@@ -120,6 +145,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         requestDto.setGroups(groups);
 
         UserDetailDto response = userManagementApiClient.createUser(requestDto);
+        searchFieldValuesCache.evict(SearchFieldNameEnum.OWNER);
         if (certificate != null) {
             certificateService.updateCertificateUser(certificate.getUuid(), response.getUuid());
         }
@@ -147,6 +173,8 @@ public class UserManagementServiceImpl implements UserManagementService {
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.DELETE)
     public void deleteUser(String userUuid) {
         userManagementApiClient.removeUser(userUuid);
+        evictCachedAuthorizations(userUuid);
+        searchFieldValuesCache.evict(SearchFieldNameEnum.OWNER);
 
         UUID uuid = UUID.fromString(userUuid);
         certificateService.removeCertificateUser(uuid);
@@ -157,13 +185,17 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto updateRoles(String userUuid, List<String> roleUuids) {
-        return userManagementApiClient.updateRoles(userUuid, roleUuids);
+        UserDetailDto dto = userManagementApiClient.updateRoles(userUuid, roleUuids);
+        evictCachedAuthorizations(userUuid);
+        return dto;
     }
 
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto updateRole(String userUuid, String roleUuid) {
-        return userManagementApiClient.updateRole(userUuid, roleUuid);
+        UserDetailDto dto = userManagementApiClient.updateRole(userUuid, roleUuid);
+        evictCachedAuthorizations(userUuid);
+        return dto;
     }
 
     @Override
@@ -175,13 +207,17 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.ENABLE)
     public UserDetailDto enableUser(String userUuid) {
-        return userManagementApiClient.enableUser(userUuid);
+        UserDetailDto dto = userManagementApiClient.enableUser(userUuid);
+        evictCachedAuthorizations(userUuid);
+        return dto;
     }
 
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.ENABLE)
     public UserDetailDto disableUser(String userUuid) {
-        return userManagementApiClient.disableUser(userUuid);
+        UserDetailDto dto = userManagementApiClient.disableUser(userUuid);
+        evictCachedAuthorizations(userUuid);
+        return dto;
     }
 
     @Override
@@ -193,7 +229,9 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto removeRole(String userUuid, String roleUuid) {
-        return userManagementApiClient.removeRole(userUuid, roleUuid);
+        UserDetailDto dto = userManagementApiClient.removeRole(userUuid, roleUuid);
+        evictCachedAuthorizations(userUuid);
+        return dto;
     }
 
     @Override
@@ -269,6 +307,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
 
         UserDetailDto response = userManagementApiClient.updateUser(userUuid, requestDto);
+        evictCachedAuthorizations(userUuid);
 
         try {
             certificateService.removeCertificateUser(UUID.fromString(response.getUuid()));
@@ -280,4 +319,9 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
         return response;
     }
+
+    private void evictCachedAuthorizations(String userUuid) {
+        authenticationClient.evictUser(userUuid);
+        opaClient.invalidateCache();
+    }
 }
@@ -3,6 +3,8 @@ package com.czertainly.core.service.scep;
 import com.czertainly.api.exception.ScepException;
 import org.springframework.http.ResponseEntity;
 
+import java.util.UUID;
+
 public interface ScepService {
 
     /**
@@ -22,4 +24,10 @@ public interface ScepService {
      * @return SCEP response
      */
     ResponseEntity<Object> handlePost(String scepProfileName, String operation, byte[] message) throws ScepException;
+
+    /**
+     * Evict cached CA certificate chain, private key and provider of the SCEP Profile
+     * @param scepProfileUuid UUID of the SCEP Profile
+     */
+    void evictCaMaterial(UUID scepProfileUuid);
 }
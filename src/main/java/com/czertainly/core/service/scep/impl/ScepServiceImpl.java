@@ -4,6 +4,7 @@ import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
 import com.czertainly.api.exception.*;
 import com.czertainly.api.model.client.attribute.RequestAttributeDto;
 import com.czertainly.api.model.common.attribute.v2.DataAttribute;
+import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
 import com.czertainly.api.model.common.enums.cryptography.KeyType;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.certificate.CertificateDetailDto;
@@ -40,6 +41,7 @@ import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.AttributeDefinitionUtils;
 import com.czertainly.core.util.CertificateUtil;
 import com.czertainly.core.util.CertificateRequestUtils;
+import com.czertainly.core.util.ExpiringCache;
 import com.czertainly.core.util.RandomUtil;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.cert.jcajce.JcaCertStore;
@@ -67,6 +69,8 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 @Service
@@ -85,16 +89,17 @@ public class ScepServiceImpl implements ScepService {
             "Renewal",
             "SCEPStandard"
     );
+    private static final int CA_CACHE_MAX_SIZE = 1000;
 
     @Value("${app.version}")
     private String appVersion;
 
-    private List<X509Certificate> caCertificateChain = new ArrayList<>();
-    private X509Certificate recipient;
-    private boolean raProfileBased;
-    private RaProfile raProfile;
-    private List<RequestAttributeDto> issueAttributes;
-    private ScepProfile scepProfile;
+    /**
+     * CA certificate chain, private key and JCA provider of SCEP profiles. Each request only reads the cached material,
+     * all request specific state is kept in {@link ScepRequestContext}, so concurrent requests do not interfere.
+     */
+    private final ExpiringCache<UUID, ScepCaMaterial> caMaterialCache;
+
     private RaProfileRepository raProfileRepository;
     private ScepProfileRepository scepProfileRepository;
     private ScepTransactionRepository scepTransactionRepository;
@@ -104,6 +109,10 @@ public class ScepServiceImpl implements ScepService {
     private CryptographicOperationsApiClient cryptographicOperationsApiClient;
     private AttributeEngine attributeEngine;
 
+    public ScepServiceImpl(@Value("${scep.ca-cache.ttl:300000}") long caCacheTtl) {
+        this.caMaterialCache = new ExpiringCache<>(Duration.ofMillis(caCacheTtl), CA_CACHE_MAX_SIZE);
+    }
+
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
@@ -144,15 +153,6 @@ public class ScepServiceImpl implements ScepService {
         this.cryptographicOperationsApiClient = cryptographicOperationsApiClient;
     }
 
-    public void setRecipient(String certificateContent) {
-        try {
-            this.recipient = CertificateUtil.parseCertificate(certificateContent);
-        } catch (CertificateException e) {
-            // This should not occur
-            throw new IllegalArgumentException("Error converting the certificate to x509 object");
-        }
-    }
-
     @Override
     public ResponseEntity<Object> handleGet(String profileName, String operation, String message) throws ScepException {
         logger.debug("SCEP GET request received for profile: {}, operation: {}, message: {}", profileName, operation, message);
@@ -169,63 +169,100 @@ public class ScepServiceImpl implements ScepService {
         return service(profileName, operation, message);
     }
 
+    @Override
+    public void evictCaMaterial(UUID scepProfileUuid) {
+        caMaterialCache.invalidate(scepProfileUuid);
+    }
+
     private ResponseEntity<Object> service(String profileName, String operation, byte[] message) throws ScepException {
-        init(profileName);
-        validateProfile();
+        ScepRequestContext context = createRequestContext(profileName);
         logger.info("SCEP request received for profile: {}, operation: {}", profileName, operation);
         return switch (operation) {
-            case "GetCACert" -> getCaCerts();
+            case "GetCACert" -> getCaCerts(context);
             case "GetCACaps" -> getCaCaps();
-            case "PKIOperation" -> pkiOperation(message);
+            case "PKIOperation" -> pkiOperation(context, message);
             default ->
-                    buildResponse(null, buildFailedResponse(new ScepException("Unsupported Operation", FailInfo.BAD_REQUEST), null));
+                    buildResponse(context, null, buildFailedResponse(context, new ScepException("Unsupported Operation", FailInfo.BAD_REQUEST), null));
         };
     }
 
-    private void init(String profileName) throws ScepException {
-        this.raProfileBased = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUriString().contains("/raProfile/");
+    private ScepRequestContext createRequestContext(String profileName) throws ScepException {
+        boolean raProfileBased = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUriString().contains("/raProfile/");
+        RaProfile raProfile;
+        ScepProfile scepProfile;
         if (raProfileBased) {
             raProfile = raProfileRepository.findByName(profileName).orElse(null);
-            if (raProfile == null) {
-                return;
-            }
-            scepProfile = raProfile.getScepProfile();
+            scepProfile = raProfile != null ? raProfile.getScepProfile() : null;
+        } else {
+            scepProfile = scepProfileRepository.findByName(profileName).orElse(null);
+            raProfile = scepProfile != null ? scepProfile.getRaProfile() : null;
+        }
+
+        validateScepProfile(scepProfile, raProfileBased);
+        validateRaProfile(raProfile, raProfileBased);
+
+        List<RequestAttributeDto> issueAttributes;
+        if (raProfileBased) {
             String attributesJson = raProfile.getProtocolAttribute() != null ? raProfile.getProtocolAttribute().getScepIssueCertificateAttributes() : null;
             issueAttributes = AttributeDefinitionUtils.getClientAttributes(AttributeDefinitionUtils.deserialize(attributesJson, DataAttribute.class));
         } else {
-            scepProfile = scepProfileRepository.findByName(profileName).orElse(null);
-            if (scepProfile == null) {
-                return;
-            }
-            raProfile = scepProfile.getRaProfile();
-            if (raProfile == null) {
-                return;
-            }
+            issueAttributes = attributeEngine.getRequestObjectDataAttributesContent(raProfile.getAuthorityInstanceReference().getConnectorUuid(), AttributeOperation.CERTIFICATE_ISSUE, Resource.SCEP_PROFILE, scepProfile.getUuid());
+        }
 
-            issueAttributes = attributeEngine.getRequestObjectDataAttributesContent(scepProfile.getRaProfile().getAuthorityInstanceReference().getConnectorUuid(), AttributeOperation.CERTIFICATE_ISSUE, Resource.SCEP_PROFILE, scepProfile.getUuid());
+        ScepRequestContext context = new ScepRequestContext(raProfileBased, raProfile, scepProfile, issueAttributes, getCaMaterial(scepProfile));
+        logger.debug("SCEP request context created: isRaProfileBased: {}, raProfile: {}, scepProfile: {}", raProfileBased, raProfile, scepProfile);
+        return context;
+    }
+
+    private ScepCaMaterial getCaMaterial(ScepProfile scepProfile) throws ScepException {
+        ScepCaMaterial caMaterial = caMaterialCache.get(scepProfile.getUuid());
+        if (caMaterial != null && caMaterial.isCurrent(scepProfile)) {
+            return caMaterial;
         }
 
+        caMaterial = loadCaMaterial(scepProfile);
+        caMaterialCache.put(scepProfile.getUuid(), caMaterial);
+        return caMaterial;
+    }
+
+    private ScepCaMaterial loadCaMaterial(ScepProfile scepProfile) throws ScepException {
         Certificate scepCaCertificate = scepProfile.getCaCertificate();
-        if (scepCaCertificate == null) {
-            throw new ScepException("SCEP Profile does not have any associated CA certificate", FailInfo.BAD_REQUEST);
+        X509Certificate caCertificate;
+        try {
+            caCertificate = CertificateUtil.parseCertificate(scepCaCertificate.getCertificateContent().getContent());
+        } catch (CertificateException e) {
+            // This should not occur
+            throw new IllegalArgumentException("Error converting the certificate to x509 object");
         }
 
-        setRecipient(scepCaCertificate.getCertificateContent().getContent());
+        List<X509Certificate> caCertificateChain;
         try {
-            this.caCertificateChain = loadCertificateChain(scepCaCertificate);
+            caCertificateChain = loadCertificateChain(scepCaCertificate);
         } catch (NotFoundException e) {
             throw new ScepException("Failed to load certificate chain of SCEP profile CA certificate");
         }
 
-        logger.debug("SCEP service initialized: isRaProfileBased: {}, raProfile: {}, scepProfile: {}", raProfileBased, raProfile, scepProfile);
-    }
+        // Get the private key from the configuration of SCEP Profile
+        CzertainlyPrivateKey privateKey = null;
+        KeyAlgorithm keyAlgorithm = null;
+        CryptographicKey key = scepCaCertificate.getKey();
+        if (key != null) {
+            CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
+            keyAlgorithm = item.getKeyAlgorithm();
+            privateKey = new CzertainlyPrivateKey(
+                    key.getTokenInstanceReference().getTokenInstanceUuid(),
+                    item.getKeyReferenceUuid().toString(),
+                    key.getTokenInstanceReference().getConnector().mapToDto(),
+                    keyAlgorithm.getLabel()
+            );
+        }
+        CzertainlyProvider provider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptographicOperationsApiClient);
 
-    private void validateProfile() throws ScepException {
-        validateScepProfile();
-        validateRaProfile();
+        logger.debug("SCEP CA material loaded for SCEP profile {}: caCertificate={}, chainLength={}", scepProfile.getName(), scepCaCertificate.getUuid(), caCertificateChain.size());
+        return new ScepCaMaterial(scepCaCertificate.getUuid(), scepProfile.getUpdated(), caCertificate, List.copyOf(caCertificateChain), privateKey, keyAlgorithm, provider);
     }
 
-    private void validateScepProfile() throws ScepException {
+    private void validateScepProfile(ScepProfile scepProfile, boolean raProfileBased) throws ScepException {
         if (scepProfile == null) {
             throw new ScepException("Requested SCEP Profile not found", FailInfo.BAD_REQUEST);
         }
@@ -243,7 +280,7 @@ public class ScepServiceImpl implements ScepService {
         }
     }
 
-    private void validateRaProfile() throws ScepException {
+    private void validateRaProfile(RaProfile raProfile, boolean raProfileBased) throws ScepException {
         if (raProfile == null) {
             throw new ScepException("Requested RA Profile not found", FailInfo.BAD_REQUEST);
         }
@@ -255,7 +292,8 @@ public class ScepServiceImpl implements ScepService {
         }
     }
 
-    private ResponseEntity<Object> getCaCerts() {
+    private ResponseEntity<Object> getCaCerts(ScepRequestContext context) {
+        List<X509Certificate> caCertificateChain = context.caMaterial().caCertificateChain();
         byte[] encoded;
         try {
             if (caCertificateChain.size() > 1) {
@@ -266,7 +304,7 @@ public class ScepServiceImpl implements ScepService {
                 return getResponseEntity(encoded, "application/x-x509-ca-ra-cert", encoded.length);
             } else {
                 logger.debug("Certificate chain is one, returning CA certificate");
-                encoded = recipient.getEncoded();
+                encoded = context.caMaterial().caCertificate().getEncoded();
                 return getResponseEntity(encoded, "application/x-x509-ca-cert", encoded.length);
             }
         } catch (CertificateException | CMSException | IOException e) {
@@ -287,7 +325,7 @@ public class ScepServiceImpl implements ScepService {
         return new ResponseEntity<>(body, responseHeaders, HttpStatus.OK);
     }
 
-    private ResponseEntity<Object> pkiOperation(byte[] body) throws ScepException {
+    private ResponseEntity<Object> pkiOperation(ScepRequestContext context, byte[] body) throws ScepException {
         ScepRequest scepRequest;
         ScepResponse scepResponse;
         IntuneScepServiceClient intuneClient = null;
@@ -296,67 +334,61 @@ public class ScepServiceImpl implements ScepService {
 
         logger.debug("Processing SCEP request: transactionId={}", scepRequest.getTransactionId());
 
-        CryptographicKey key = scepProfile.getCaCertificate().getKey();
-        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
-        // Get the private key from the configuration of SCEP Profile
-        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
-                key.getTokenInstanceReference().getTokenInstanceUuid(),
-                item.getKeyReferenceUuid().toString(),
-                key.getTokenInstanceReference().getConnector().mapToDto(),
-                item.getKeyAlgorithm().getLabel()
-        );
-
-        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptographicOperationsApiClient);
+        ScepProfile scepProfile = context.scepProfile();
+        ScepCaMaterial caMaterial = context.caMaterial();
+        if (caMaterial.privateKey() == null) {
+            throw new ScepException("SCEP Profile CA certificate does not have associated private key", FailInfo.BAD_REQUEST);
+        }
 
         // decrypt the PKCS#10 request
         try {
             scepRequest.decryptData(
-                    czertainlyPrivateKey,
-                    czertainlyProvider,
-                    cryptographicKeyService.getKeyItemFromKey(scepProfile.getCaCertificate().getKey(), KeyType.PRIVATE_KEY).getKeyAlgorithm(),
+                    caMaterial.privateKey(),
+                    caMaterial.provider(),
+                    caMaterial.keyAlgorithm(),
                     scepProfile.getChallengePassword()
             );
         } catch (CMSException e) {
-            return buildResponse(scepRequest, buildFailedResponse(new ScepException("Unable to decrypt the data. " + e.getMessage(), FailInfo.BAD_REQUEST), scepRequest.getTransactionId()));
+            return buildResponse(context, scepRequest, buildFailedResponse(context, new ScepException("Unable to decrypt the data. " + e.getMessage(), FailInfo.BAD_REQUEST), scepRequest.getTransactionId()));
         }
 
         if (scepProfile.isIntuneEnabled()) {
-            Properties properties = getIntuneConfiguration();
+            Properties properties = getIntuneConfiguration(scepProfile);
             intuneClient = buildIntuneClient(properties);
         }
 
         // validate challenge password, if configured
         if (scepRequest.getMessageType().equals(MessageType.PKCS_REQ) || scepRequest.getMessageType().equals(MessageType.RENEWAL_REQ)) {
-            if (!validateScepChallengePassword(scepRequest.getChallengePassword())) {
-                return buildResponse(scepRequest, buildFailedResponse(new ScepException("Challenge password validation failed.", FailInfo.BAD_MESSAGE_CHECK), scepRequest.getTransactionId()));
+            if (!validateScepChallengePassword(scepProfile, scepRequest.getChallengePassword())) {
+                return buildResponse(context, scepRequest, buildFailedResponse(context, new ScepException("Challenge password validation failed.", FailInfo.BAD_MESSAGE_CHECK), scepRequest.getTransactionId()));
             }
             // validate the request POP
             try {
-                verifyRequest(scepRequest);
+                verifyRequest(scepProfile, scepRequest);
             } catch (ScepException e) {
-                return buildResponse(scepRequest, buildFailedResponse(e, scepRequest.getTransactionId()));
+                return buildResponse(context, scepRequest, buildFailedResponse(context, e, scepRequest.getTransactionId()));
             }
         }
 
         if (scepTransactionRepository.existsByTransactionIdAndScepProfile(scepRequest.getTransactionId(), scepProfile)) {
             try {
-                scepResponse = getExistingTransaction(scepRequest.getTransactionId());
+                scepResponse = getExistingTransaction(context, scepRequest.getTransactionId());
             } catch (ScepException e) {
-                scepResponse = buildFailedResponse(new ScepException("Error while formatting certificate", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                scepResponse = buildFailedResponse(context, new ScepException("Error while formatting certificate", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
             } catch (NotFoundException e) {
-                scepResponse = buildFailedResponse(new ScepException("Transaction certificate not found", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                scepResponse = buildFailedResponse(context, new ScepException("Transaction certificate not found", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
             }
         } else if (scepRequest.getMessageType().equals(MessageType.PKCS_REQ)) {
             try {
                 // Manual approval for the SCEP clients are configured in the SCEP Profile.
                 // If the SCEP Profile has the manual approval set to true, only the CSR will be generated
                 if (scepProfile.getRequireManualApproval() != null && !scepProfile.getRequireManualApproval()) {
-                    scepResponse = issueCertificate(scepRequest, intuneClient);
+                    scepResponse = issueCertificate(context, scepRequest, intuneClient);
                 } else {
-                    scepResponse = generateCsr(scepRequest, intuneClient);
+                    scepResponse = generateCsr(context, scepRequest, intuneClient);
                 }
             } catch (ScepException e) {
-                scepResponse = buildFailedResponse(e, scepRequest.getTransactionId());
+                scepResponse = buildFailedResponse(context, e, scepRequest.getTransactionId());
                 // 32-bit error code formulated using the instructions specified in https://msdn.microsoft.com/en-us/library/cc231198.aspx
                 // this is a vendor specific error code
                 final long errorCode = 0x20000000L + e.getFailInfo().getValue();
@@ -370,14 +402,14 @@ public class ScepServiceImpl implements ScepService {
                 }
             }
         } else if (scepRequest.getMessageType().equals(MessageType.CERT_POLL)) {
-            scepResponse = pollCertificate(scepRequest, intuneClient);
+            scepResponse = pollCertificate(context, scepRequest, intuneClient);
         } else {
-            scepResponse = buildFailedResponse(new ScepException("Unsupported Operation. The requested operation is not supported", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+            scepResponse = buildFailedResponse(context, new ScepException("Unsupported Operation. The requested operation is not supported", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
         }
-        return buildResponse(scepRequest, scepResponse);
+        return buildResponse(context, scepRequest, scepResponse);
     }
 
-    private ScepResponse buildFailedResponse(ScepException scepException, String transactionId) {
+    private ScepResponse buildFailedResponse(ScepRequestContext context, ScepException scepException, String transactionId) {
         ScepResponse scepResponse = new ScepResponse();
         scepResponse.setPkiStatus(PkiStatus.FAILURE);
         scepResponse.setFailInfo(scepException.getFailInfo());
@@ -391,35 +423,20 @@ public class ScepServiceImpl implements ScepService {
                 scepException.getFailInfo(),
                 scepException.getCause() != null ? scepException.getCause().getMessage() : null,
                 transactionId,
-                this.scepProfile.getName(),
-                this.raProfileBased ? this.raProfile.getName() : null
+                context.scepProfile().getName(),
+                context.raProfileBased() ? context.raProfile().getName() : null
         );
 
         return scepResponse;
     }
 
-    private ResponseEntity<Object> buildResponse(ScepRequest scepRequest, ScepResponse scepResponse) throws ScepException {
-        prepareMessage(scepRequest, scepResponse);
-        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptographicOperationsApiClient);
-        CryptographicKey key = scepProfile.getCaCertificate().getKey();
-        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
-        // Get the private key from the configuration of SCEP Profile
-        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
-                key.getTokenInstanceReference().getTokenInstanceUuid(),
-                item.getKeyReferenceUuid().toString(),
-                key.getTokenInstanceReference().getConnector().mapToDto(),
-                item.getKeyAlgorithm().getLabel()
-        );
-        try {
-            scepResponse.setSigningAttributes(
-                    CertificateUtil.getX509Certificate(scepProfile.getCaCertificate().getCertificateContent().getContent()),
-                    czertainlyPrivateKey,
-                    czertainlyProvider
-
-            );
-        } catch (CertificateException e) {
-            throw new ScepException("Unable to set certificate for signing SCEP response", e, FailInfo.BAD_REQUEST);
+    private ResponseEntity<Object> buildResponse(ScepRequestContext context, ScepRequest scepRequest, ScepResponse scepResponse) throws ScepException {
+        ScepCaMaterial caMaterial = context.caMaterial();
+        if (caMaterial.privateKey() == null) {
+            throw new ScepException("SCEP Profile CA certificate does not have associated private key", FailInfo.BAD_REQUEST);
         }
+        prepareMessage(context, scepRequest, scepResponse);
+        scepResponse.setSigningAttributes(caMaterial.caCertificate(), caMaterial.privateKey(), caMaterial.provider());
         scepResponse.generate();
         byte[] responseBody;
         try {
@@ -430,7 +447,9 @@ public class ScepServiceImpl implements ScepService {
         return getResponseEntity(responseBody, "application/x-pki-message", responseBody.length);
     }
 
-    private ScepResponse issueCertificate(ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
+    private ScepResponse issueCertificate(ScepRequestContext context, ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
+        ScepProfile scepProfile = context.scepProfile();
+        RaProfile raProfile = context.raProfile();
         if (scepProfile.isIntuneEnabled()) {
             validateIntuneRequest(
                     intuneClient,
@@ -441,7 +460,7 @@ public class ScepServiceImpl implements ScepService {
         try {
             requestDto.setRequest(new String(Base64.getEncoder().encode(scepRequest.getPkcs10Request().getEncoded())));
             requestDto.setFormat(CertificateRequestFormat.PKCS10);
-            requestDto.setAttributes(issueAttributes);
+            requestDto.setAttributes(context.issueAttributes());
         } catch (IOException e) {
             throw new ScepException("Unable to decode PKCS#10 request", e, FailInfo.BAD_REQUEST);
         }
@@ -463,7 +482,7 @@ public class ScepServiceImpl implements ScepService {
         ScepResponse scepResponse = new ScepResponse();
         if (response.getCertificateData() == null || response.getCertificateData().isEmpty()) {
             // certificate is not yet issued
-            addTransactionEntity(scepRequest.getTransactionId(), response.getUuid());
+            addTransactionEntity(scepProfile, scepRequest.getTransactionId(), response.getUuid());
             scepResponse.setPkiStatus(PkiStatus.PENDING);
             return scepResponse;
         }
@@ -478,12 +497,12 @@ public class ScepServiceImpl implements ScepService {
         Certificate certificateEntity;
         try {
             certificateEntity = certificateService.getCertificateEntity(SecuredUUID.fromString(response.getUuid()));
-            scepResponse.setCertificateChain(getIssuedCertificateChain(certificateEntity));
+            scepResponse.setCertificateChain(getIssuedCertificateChain(scepProfile, certificateEntity));
         } catch (NotFoundException e) {
             throw new ScepException(String.format("Issued certificate not found in inventory: uuid=%s", response.getUuid()), FailInfo.BAD_REQUEST);
         }
 
-        addTransactionEntity(scepRequest.getTransactionId(), response.getUuid());
+        addTransactionEntity(scepProfile, scepRequest.getTransactionId(), response.getUuid());
 
         scepResponse.setPkiStatus(PkiStatus.SUCCESS);
         if (scepProfile.isIntuneEnabled()) sendIntuneSuccessNotification(
@@ -495,8 +514,9 @@ public class ScepServiceImpl implements ScepService {
     }
 
 
-    private ScepResponse generateCsr(ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
-        if (scepProfile.isIntuneEnabled()) {
+    private ScepResponse generateCsr(ScepRequestContext context, ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
+        RaProfile raProfile = context.raProfile();
+        if (context.scepProfile().isIntuneEnabled()) {
             validateIntuneRequest(
                     intuneClient,
                     scepRequest
@@ -518,35 +538,35 @@ public class ScepServiceImpl implements ScepService {
             throw new ScepException("Unable to submit certificate request", e, FailInfo.BAD_REQUEST);
         }
 
-        addTransactionEntity(scepRequest.getTransactionId(), response.getUuid());
+        addTransactionEntity(context.scepProfile(), scepRequest.getTransactionId(), response.getUuid());
         scepResponse.setPkiStatus(PkiStatus.PENDING);
 
         return scepResponse;
     }
 
-    private ScepResponse getExistingTransaction(String transactionId) throws ScepException, NotFoundException {
-        ScepTransaction scepTransaction = scepTransactionRepository.findByTransactionIdAndScepProfile(transactionId, scepProfile).orElse(null);
+    private ScepResponse getExistingTransaction(ScepRequestContext context, String transactionId) throws ScepException, NotFoundException {
+        ScepTransaction scepTransaction = scepTransactionRepository.findByTransactionIdAndScepProfile(transactionId, context.scepProfile()).orElse(null);
         assert scepTransaction != null;
         Certificate certificate = scepTransaction.getCertificate();
 
         if (certificate.getState() == CertificateState.REJECTED) {
-            return buildFailedResponse(new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), transactionId);
+            return buildFailedResponse(context, new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), transactionId);
         }
         if (certificate.getState() == CertificateState.FAILED) {
-            return buildFailedResponse(new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), transactionId);
+            return buildFailedResponse(context, new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), transactionId);
         }
 
         ScepResponse scepResponse = new ScepResponse();
         if (certificate.getState() == CertificateState.ISSUED) {
             scepResponse.setPkiStatus(PkiStatus.SUCCESS);
-            scepResponse.setCertificateChain(getIssuedCertificateChain(certificate));
+            scepResponse.setCertificateChain(getIssuedCertificateChain(context.scepProfile(), certificate));
         } else {
             scepResponse.setPkiStatus(PkiStatus.PENDING);
         }
         return scepResponse;
     }
 
-    private void addTransactionEntity(String transactionId, String certificateUuid) {
+    private void addTransactionEntity(ScepProfile scepProfile, String transactionId, String certificateUuid) {
         ScepTransaction scepTransaction = new ScepTransaction();
         scepTransaction.setTransactionId(transactionId);
         scepTransaction.setCertificateUuid(UUID.fromString(certificateUuid));
@@ -554,22 +574,22 @@ public class ScepServiceImpl implements ScepService {
         scepTransactionRepository.save(scepTransaction);
     }
 
-    private ScepResponse pollCertificate(ScepRequest scepRequest, IntuneScepServiceClient intuneClient) {
+    private ScepResponse pollCertificate(ScepRequestContext context, ScepRequest scepRequest, IntuneScepServiceClient intuneClient) {
         ScepResponse scepResponse = new ScepResponse();
         try {
             ScepTransaction transaction = getTransaction(scepRequest.getTransactionId());
             if (transaction != null) {
                 Certificate certificate = transaction.getCertificate();
                 if (certificate.getState() == CertificateState.REJECTED) {
-                    return buildFailedResponse(new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                    return buildFailedResponse(context, new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
                 }
                 if (certificate.getState() == CertificateState.FAILED) {
-                    return buildFailedResponse(new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                    return buildFailedResponse(context, new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
                 }
 
                 if (certificate.getState().equals(CertificateState.ISSUED)) {
                     X509Certificate x509Certificate = CertificateUtil.parseCertificate(certificate.getCertificateContent().getContent());
-                    scepResponse.setCertificateChain(getIssuedCertificateChain(certificate));
+                    scepResponse.setCertificateChain(getIssuedCertificateChain(context.scepProfile(), certificate));
                     scepResponse.setPkiStatus(PkiStatus.SUCCESS);
                     sendIntuneSuccessNotification(
                             intuneClient,
@@ -580,7 +600,7 @@ public class ScepServiceImpl implements ScepService {
             } else {
                 scepResponse.setPkiStatus(PkiStatus.PENDING);
             }
-            prepareMessage(scepRequest, scepResponse);
+            prepareMessage(context, scepRequest, scepResponse);
 
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -611,8 +631,8 @@ public class ScepServiceImpl implements ScepService {
         return certificateChain;
     }
 
-    private List<X509Certificate> getIssuedCertificateChain(Certificate certificate) throws ScepException, NotFoundException {
-        if (!this.scepProfile.isIncludeCaCertificateChain() && !this.scepProfile.isIncludeCaCertificate()) {
+    private List<X509Certificate> getIssuedCertificateChain(ScepProfile scepProfile, Certificate certificate) throws ScepException, NotFoundException {
+        if (!scepProfile.isIncludeCaCertificateChain() && !scepProfile.isIncludeCaCertificate()) {
             try {
                 return List.of(CertificateUtil.parseCertificate(certificate.getCertificateContent().getContent()));
             } catch (CertificateException e) {
@@ -624,11 +644,11 @@ public class ScepServiceImpl implements ScepService {
 
         logger.debug("Building the certificate chain for the response message");
         var certificateChain = loadCertificateChain(certificate);
-        if (this.scepProfile.isIncludeCaCertificateChain()) return certificateChain;
+        if (scepProfile.isIncludeCaCertificateChain()) return certificateChain;
         else return certificateChain.subList(0, Math.min(2, certificateChain.size()));
     }
 
-    private void prepareMessage(ScepRequest scepRequest, ScepResponse scepResponse) {
+    private void prepareMessage(ScepRequestContext context, ScepRequest scepRequest, ScepResponse scepResponse) {
         if (scepRequest == null) {
             return;
         }
@@ -636,7 +656,7 @@ public class ScepServiceImpl implements ScepService {
         // are handled when generating the attributes for the CMS signed data for the response
         scepResponse.setRecipientNonce(scepRequest.getSenderNonce());
         scepResponse.setTransactionId(scepRequest.getTransactionId());
-        scepResponse.setCaCertificate(recipient);
+        scepResponse.setCaCertificate(context.caMaterial().caCertificate());
         scepResponse.setRecipientKeyInfo(scepRequest.getRequestKeyInfo());
         scepResponse.setDigestAlgorithmOid(scepRequest.getDigestAlgorithmOid());
         scepResponse.setSenderNonce(RandomUtil.generateRandomNonceBase64(16));
@@ -647,14 +667,14 @@ public class ScepServiceImpl implements ScepService {
         return scepTransactionRepository.findByTransactionId(transactionId).orElse(null);
     }
 
-    private boolean validateScepChallengePassword(String challengePassword) {
+    private boolean validateScepChallengePassword(ScepProfile scepProfile, String challengePassword) {
         if (scepProfile.getChallengePassword() == null || scepProfile.getChallengePassword().isEmpty()) {
             return true;
         }
         return challengePassword.equals(scepProfile.getChallengePassword());
     }
 
-    public void verifyRequest(ScepRequest scepRequest) throws ScepException {
+    private void verifyRequest(ScepProfile scepProfile, ScepRequest scepRequest) throws ScepException {
 
         // Throw exception if the request type is not renewal or issuing a new certificate
         if (!scepRequest.getMessageType().equals(MessageType.RENEWAL_REQ) && !scepRequest.getMessageType().equals(MessageType.PKCS_REQ)) {
@@ -666,7 +686,7 @@ public class ScepServiceImpl implements ScepService {
             // (https://datatracker.ietf.org/doc/id/draft-nourse-scep-23.txt), RENEWAL_REQ is not part of the message type
             // Commonly used SCEP clients like JSCEP and SSCEP uses this version of RFC and
             // may use PKCS_REQ for renewal
-            renewalValidation(scepRequest);
+            renewalValidation(scepProfile, scepRequest);
             try {
                 if (!scepRequest.verifyRequest()) {
                     throw new ScepException("Failed to verify PKCS#10 request POP, invalid signature", FailInfo.BAD_REQUEST);
@@ -675,11 +695,11 @@ public class ScepServiceImpl implements ScepService {
                 throw new ScepException("Failed to verify PKCS#10 request POP", FailInfo.BAD_REQUEST);
             }
         } else if (scepRequest.getMessageType().equals(MessageType.RENEWAL_REQ)) {
-            renewalValidation(scepRequest);
+            renewalValidation(scepProfile, scepRequest);
         }
     }
 
-    private void renewalValidation(ScepRequest scepRequest) throws ScepException {
+    private void renewalValidation(ScepProfile scepProfile, ScepRequest scepRequest) throws ScepException {
         JcaPKCS10CertificationRequest pkcs10Request = scepRequest.getPkcs10Request();
         Certificate extCertificate;
         try {
@@ -701,10 +721,10 @@ public class ScepServiceImpl implements ScepService {
             throw new ScepException("Exception when verifying signature." + e.getMessage());
         }
         // No need to verify the same key pair used in request since it is already handled by the rekey method in client operations
-        checkRenewalTimeframe(extCertificate);
+        checkRenewalTimeframe(scepProfile, extCertificate);
     }
 
-    private void checkRenewalTimeframe(Certificate certificate) throws ScepException {
+    private void checkRenewalTimeframe(ScepProfile scepProfile, Certificate certificate) throws ScepException {
         // Empty renewal threshold or the value 0 will be considered as null value and the half life of the certificate will be assumed
         if (scepProfile.getRenewalThreshold() == null || scepProfile.getRenewalThreshold() == 0) {
             // If the renewal timeframe is not given, we consider that renewal is possible only after the certificate
@@ -721,7 +741,7 @@ public class ScepServiceImpl implements ScepService {
         }
     }
 
-    private Properties getIntuneConfiguration() {
+    private Properties getIntuneConfiguration(ScepProfile scepProfile) {
         // Create the properties based on the SCEP profile Intune properties
         Properties configProperties = new Properties();
         configProperties.put("AAD_APP_ID", scepProfile.getIntuneApplicationId());
@@ -795,4 +815,17 @@ public class ScepServiceImpl implements ScepService {
             logger.error("Unable to update Intune because the client is not available.");
         }
     }
+
+    private record ScepRequestContext(boolean raProfileBased, RaProfile raProfile, ScepProfile scepProfile,
+                                      List<RequestAttributeDto> issueAttributes, ScepCaMaterial caMaterial) {
+    }
+
+    private record ScepCaMaterial(UUID caCertificateUuid, OffsetDateTime profileUpdated, X509Certificate caCertificate,
+                                  List<X509Certificate> caCertificateChain, CzertainlyPrivateKey privateKey,
+                                  KeyAlgorithm keyAlgorithm, CzertainlyProvider provider) {
+
+        boolean isCurrent(ScepProfile scepProfile) {
+            return caCertificateUuid.equals(scepProfile.getCaCertificateUuid()) && Objects.equals(profileUpdated, scepProfile.getUpdated());
+        }
+    }
 }
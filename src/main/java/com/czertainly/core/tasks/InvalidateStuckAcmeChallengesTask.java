@@ -0,0 +1,60 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.acme.AcmeService;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class InvalidateStuckAcmeChallengesTask extends SchedulerJobProcessor {
+
+    private static final String JOB_NAME = "invalidateStuckAcmeChallengesJob";
+    // scheduled for every minute, to invalidate ACME challenges stuck in processing
+    private static final String CRON_EXPRESSION = "0 * * ? * *";
+
+    private AcmeService acmeService;
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(final String jobName) {
+        int invalidated = acmeService.invalidateStuckChallenges();
+        return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, String.format("Invalidated %d ACME challenge(s) stuck in processing.", invalidated));
+    }
+
+    // SETTERs
+
+    @Autowired
+    public void setAcmeService(AcmeService acmeService) {
+        this.acmeService = acmeService;
+    }
+
+}
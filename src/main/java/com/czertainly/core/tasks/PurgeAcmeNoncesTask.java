@@ -0,0 +1,60 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.acme.AcmeNonceStore;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class PurgeAcmeNoncesTask extends SchedulerJobProcessor {
+
+    private static final String JOB_NAME = "purgeAcmeNoncesJob";
+    // scheduled for every minute, to remove expired nonces of ACME clients
+    private static final String CRON_EXPRESSION = "0 * * ? * *";
+
+    private AcmeNonceStore acmeNonceStore;
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(final String jobName) {
+        int purged = acmeNonceStore.purgeExpired();
+        return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, String.format("Purged %d expired ACME nonce(s).", purged));
+    }
+
+    // SETTERs
+
+    @Autowired
+    public void setAcmeNonceStore(AcmeNonceStore acmeNonceStore) {
+        this.acmeNonceStore = acmeNonceStore;
+    }
+
+}
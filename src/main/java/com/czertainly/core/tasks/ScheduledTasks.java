@@ -15,11 +15,17 @@ public class ScheduledTasks {
 
     UpdateIntuneRevocationRequestsTask updateIntuneRevocationRequestsTask;
 
+    PurgeAcmeNoncesTask purgeAcmeNoncesTask;
+
+    InvalidateStuckAcmeChallengesTask invalidateStuckAcmeChallengesTask;
+
     @Bean
     @ConditionalOnProperty(value = "scheduled-tasks.enabled", matchIfMissing = true, havingValue = "true")
     public void registerJobs() throws SchedulerException {
         updateCertificateStatusTask.registerScheduler();
         updateIntuneRevocationRequestsTask.registerScheduler();
+        purgeAcmeNoncesTask.registerScheduler();
+        invalidateStuckAcmeChallengesTask.registerScheduler();
     }
 
     // SETTERs
@@ -33,4 +39,14 @@ public class ScheduledTasks {
     public void setUpdateIntuneRevocationRequestsTask(UpdateIntuneRevocationRequestsTask updateIntuneRevocationRequestsTask) {
         this.updateIntuneRevocationRequestsTask = updateIntuneRevocationRequestsTask;
     }
+
+    @Autowired
+    public void setPurgeAcmeNoncesTask(PurgeAcmeNoncesTask purgeAcmeNoncesTask) {
+        this.purgeAcmeNoncesTask = purgeAcmeNoncesTask;
+    }
+
+    @Autowired
+    public void setInvalidateStuckAcmeChallengesTask(InvalidateStuckAcmeChallengesTask invalidateStuckAcmeChallengesTask) {
+        this.invalidateStuckAcmeChallengesTask = invalidateStuckAcmeChallengesTask;
+    }
 }
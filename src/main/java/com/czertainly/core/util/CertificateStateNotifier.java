@@ -0,0 +1,78 @@
+package com.czertainly.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signals completion of asynchronous certificate actions (issue, renew, rekey, revoke) to threads waiting for the
+ * certificate state change, e.g. protocol handlers that have to return the certificate in the same response.
+ * Signal is local to the instance and carries no state, waiters have to read the certificate state from database.
+ */
+@Component
+public class CertificateStateNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateStateNotifier.class);
+
+    private final Map<UUID, List<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Register waiter for the state change of the certificate. Waiter has to be registered before the state
+     * of the certificate is read to not miss the signal and has to be unregistered when it stops waiting.
+     * @param certificateUuid UUID of the certificate
+     * @return future completed when the state of the certificate could have been changed
+     */
+    public CompletableFuture<Void> register(UUID certificateUuid) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        waiters.compute(certificateUuid, (uuid, futures) -> {
+            List<CompletableFuture<Void>> list = futures == null ? new ArrayList<>() : futures;
+            list.add(future);
+            return list;
+        });
+        return future;
+    }
+
+    public void unregister(UUID certificateUuid, CompletableFuture<Void> future) {
+        waiters.computeIfPresent(certificateUuid, (uuid, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+
+    /**
+     * Signal the state change of the certificate once the current transaction completes, regardless whether it was
+     * committed or rolled back. Without active transaction the waiters are signalled immediately.
+     * @param certificateUuid UUID of the certificate
+     */
+    public void notifyAfterCompletion(UUID certificateUuid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            signal(certificateUuid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                signal(certificateUuid);
+            }
+        });
+    }
+
+    private void signal(UUID certificateUuid) {
+        List<CompletableFuture<Void>> futures = waiters.remove(certificateUuid);
+        if (futures == null) return;
+
+        logger.debug("Signalling state change of certificate {} to {} waiting thread(s)", certificateUuid, futures.size());
+        for (CompletableFuture<Void> future : futures) {
+            future.complete(null);
+        }
+    }
+}
@@ -26,14 +26,17 @@ import org.bouncycastle.asn1.pkcs.Attribute;
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.bouncycastle.asn1.x500.RDN;
 import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.Extensions;
 import org.bouncycastle.asn1.x509.GeneralName;
 import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.SubjectKeyIdentifier;
 import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.X509v3CertificateBuilder;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
 import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
 import org.bouncycastle.jcajce.provider.asymmetric.x509.CertificateFactory;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
@@ -330,6 +333,39 @@ public class CertificateUtil {
         return getThumbprint(certificate.getEncoded());
     }
 
+    /**
+     * Get key identifier from Subject Key Identifier extension of the certificate
+     * @param certificate X.509 certificate
+     * @return hex encoded key identifier or null if extension is not present or cannot be parsed
+     */
+    public static String getSubjectKeyIdentifier(X509Certificate certificate) {
+        byte[] extensionValue = certificate.getExtensionValue(Extension.subjectKeyIdentifier.getId());
+        if (extensionValue == null) return null;
+        try {
+            return DatatypeConverter.printHexBinary(SubjectKeyIdentifier.getInstance(JcaX509ExtensionUtils.parseExtensionValue(extensionValue)).getKeyIdentifier()).toLowerCase();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Unable to parse subject key identifier of certificate: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get key identifier from Authority Key Identifier extension of the certificate
+     * @param certificate X.509 certificate
+     * @return hex encoded key identifier or null if extension or key identifier is not present or cannot be parsed
+     */
+    public static String getAuthorityKeyIdentifier(X509Certificate certificate) {
+        byte[] extensionValue = certificate.getExtensionValue(Extension.authorityKeyIdentifier.getId());
+        if (extensionValue == null) return null;
+        try {
+            byte[] keyIdentifier = AuthorityKeyIdentifier.getInstance(JcaX509ExtensionUtils.parseExtensionValue(extensionValue)).getKeyIdentifier();
+            return keyIdentifier == null ? null : DatatypeConverter.printHexBinary(keyIdentifier).toLowerCase();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Unable to parse authority key identifier of certificate: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public static String normalizeCertificateContent(String content) {
         return content
                 .replace("-----BEGIN CERTIFICATE-----", "")
@@ -350,6 +386,8 @@ public class CertificateUtil {
         setIssuerDNParams(modal, X500Name.getInstance(CzertainlyX500NameStyle.DEFAULT, issuerDnPrincipalEncoded));
         modal.setIssuerDnNormalized(X500Name.getInstance(CzertainlyX500NameStyle.NORMALIZED, issuerDnPrincipalEncoded).toString());
         modal.setSubjectDnNormalized(X500Name.getInstance(CzertainlyX500NameStyle.NORMALIZED, subjectDnPrincipalEncoded).toString());
+        modal.setSubjectKeyIdentifier(getSubjectKeyIdentifier(certificate));
+        modal.setAuthorityKeyIdentifier(getAuthorityKeyIdentifier(certificate));
         modal.setNotAfter(certificate.getNotAfter());
         modal.setNotBefore(certificate.getNotBefore());
         if (certificate.getPublicKey() == null) {
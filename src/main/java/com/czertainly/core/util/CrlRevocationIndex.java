@@ -0,0 +1,144 @@
+package com.czertainly.core.util;
+
+import com.czertainly.api.model.core.authority.CertificateRevocationReason;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of revoked serial numbers per CRL. Index of CRL is built when CRL is stored or loaded from database
+ * and updated when delta CRL is applied. Total number of indexed entries is bounded, when limit is exceeded
+ * indexes of the least recently used CRLs are evicted and revocation status has to be resolved from database.
+ */
+@Component
+public class CrlRevocationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrlRevocationIndex.class);
+
+    private final long maxEntries;
+
+    private final LinkedHashMap<UUID, Index> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalEntries;
+
+    public CrlRevocationIndex(@Value("${crl.index.max-entries:1000000}") long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Check if CRL can be indexed with respect to the maximum number of indexed entries
+     * @param entriesCount number of CRL entries
+     * @return true if CRL fits into index
+     */
+    public boolean canIndex(long entriesCount) {
+        return entriesCount <= maxEntries;
+    }
+
+    /**
+     * Create or replace index of the CRL
+     * @param crlUuid UUID of the CRL
+     * @param deltaCrlNumber number of the last applied delta CRL, null if no delta CRL was applied
+     * @param entries revoked entries of CRL mapped by serial number in hex format
+     */
+    public void index(UUID crlUuid, String deltaCrlNumber, Map<String, RevokedEntry> entries) {
+        if (!canIndex(entries.size())) {
+            logger.debug("CRL with UUID {} has {} entries and exceeds maximum number of indexed entries.", crlUuid, entries.size());
+            remove(crlUuid);
+            return;
+        }
+
+        synchronized (indexes) {
+            Index previous = indexes.put(crlUuid, new Index(deltaCrlNumber, new ConcurrentHashMap<>(entries)));
+            if (previous != null) totalEntries -= previous.entries.size();
+            totalEntries += entries.size();
+            evictIfNeeded(crlUuid);
+        }
+    }
+
+    /**
+     * Add or update entry in index of CRL, if CRL is not indexed, nothing is done
+     * @param crlUuid UUID of the CRL
+     * @param serialNumber serial number in hex format
+     * @param entry revoked entry
+     */
+    public void put(UUID crlUuid, String serialNumber, RevokedEntry entry) {
+        synchronized (indexes) {
+            Index index = indexes.get(crlUuid);
+            if (index != null && index.entries.put(serialNumber, entry) == null) {
+                ++totalEntries;
+                evictIfNeeded(crlUuid);
+            }
+        }
+    }
+
+    /**
+     * Remove entry from index of CRL, if CRL is not indexed, nothing is done
+     * @param crlUuid UUID of the CRL
+     * @param serialNumber serial number in hex format
+     */
+    public void remove(UUID crlUuid, String serialNumber) {
+        synchronized (indexes) {
+            Index index = indexes.get(crlUuid);
+            if (index != null && index.entries.remove(serialNumber) != null) --totalEntries;
+        }
+    }
+
+    /**
+     * Set number of the last applied delta CRL to index of CRL, if CRL is not indexed, nothing is done
+     * @param crlUuid UUID of the CRL
+     * @param deltaCrlNumber number of the last applied delta CRL
+     */
+    public void setDeltaCrlNumber(UUID crlUuid, String deltaCrlNumber) {
+        synchronized (indexes) {
+            Index index = indexes.get(crlUuid);
+            if (index != null) indexes.put(crlUuid, new Index(deltaCrlNumber, index.entries));
+        }
+    }
+
+    /**
+     * Remove index of CRL
+     * @param crlUuid UUID of the CRL
+     */
+    public void remove(UUID crlUuid) {
+        synchronized (indexes) {
+            Index previous = indexes.remove(crlUuid);
+            if (previous != null) totalEntries -= previous.entries.size();
+        }
+    }
+
+    /**
+     * Get index of CRL. Index is returned only when it reflects the same delta CRL as the CRL entity,
+     * delta CRL could have been applied by another instance in the meantime.
+     * @param crlUuid UUID of the CRL
+     * @param deltaCrlNumber number of the last applied delta CRL of the CRL entity
+     * @return read-only map of revoked entries by serial number in hex format, or null if CRL is not indexed
+     */
+    public Map<String, RevokedEntry> getIndex(UUID crlUuid, String deltaCrlNumber) {
+        synchronized (indexes) {
+            Index index = indexes.get(crlUuid);
+            if (index == null || !Objects.equals(index.deltaCrlNumber, deltaCrlNumber)) return null;
+            return Collections.unmodifiableMap(index.entries);
+        }
+    }
+
+    private void evictIfNeeded(UUID currentCrlUuid) {
+        Iterator<Map.Entry<UUID, Index>> iterator = indexes.entrySet().iterator();
+        while (totalEntries > maxEntries && iterator.hasNext()) {
+            Map.Entry<UUID, Index> eldest = iterator.next();
+            if (eldest.getKey().equals(currentCrlUuid)) continue;
+            logger.debug("Evicting index of CRL with UUID {} with {} entries.", eldest.getKey(), eldest.getValue().entries.size());
+            totalEntries -= eldest.getValue().entries.size();
+            iterator.remove();
+        }
+    }
+
+    public record RevokedEntry(Date revocationDate, CertificateRevocationReason revocationReason) {
+    }
+
+    private record Index(String deltaCrlNumber, Map<String, RevokedEntry> entries) {
+    }
+}
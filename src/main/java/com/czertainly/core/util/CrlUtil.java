@@ -8,8 +8,8 @@ import org.bouncycastle.asn1.x509.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLConnection;
@@ -24,6 +24,8 @@ public class CrlUtil {
     private static final Logger logger = LoggerFactory.getLogger(CrlUtil.class);
     //CRL Timeout setting when initiating URL Connection. If the connection takes more than 30 seconds, it is determined as not reachable
     private static final Integer CRL_CONNECTION_TIMEOUT = 1000; //milliseconds
+    //CRL Timeout setting when reading CRL content, prevents concurrent requests waiting for the same download to hang indefinitely
+    private static final Integer CRL_READ_TIMEOUT = 30000; //milliseconds
 
     private CrlUtil() {
     }
@@ -78,8 +80,10 @@ public class CrlUtil {
         URL url = new URL(crlUrl);
         URLConnection connection = url.openConnection();
         connection.setConnectTimeout(CRL_CONNECTION_TIMEOUT);
+        connection.setReadTimeout(CRL_READ_TIMEOUT);
 
-        try (DataInputStream inStream = new DataInputStream(connection.getInputStream())) {
+        // CRL is parsed directly from buffered connection stream without reading whole response to byte array first
+        try (BufferedInputStream inStream = new BufferedInputStream(connection.getInputStream())) {
             X509Crl = (X509CRL) cf.generateCRL(inStream);
         } catch (CRLException e) {
             throw new CertificateException("File " + e.getMessage() + " not found");
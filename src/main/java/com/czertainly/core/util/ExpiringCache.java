@@ -0,0 +1,188 @@
+package com.czertainly.core.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Simple in-memory cache with time based expiration of entries and bounded number of entries.
+ * When the cache is full, the least recently used entry is evicted. Cache with non-positive TTL
+ * or maximum size is disabled and does not store any values.
+ *
+ * @param <K> type of the key
+ * @param <V> type of the cached value
+ */
+public class ExpiringCache<K, V> {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // incremented by each invalidation, guarded by entries
+    private long generation;
+
+    public ExpiringCache(Duration ttl, int maxSize) {
+        this(ttl, maxSize, Clock.systemUTC());
+    }
+
+    public ExpiringCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttlMillis = ttl == null ? 0 : ttl.toMillis();
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    /**
+     * Get value stored in cache
+     * @param key key of the entry
+     * @return cached value or null if not present or expired
+     */
+    public V get(K key) {
+        if (!isEnabled()) return null;
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Store value in cache with default TTL of the cache
+     * @param key key of the entry
+     * @param value value to cache, null values are not cached
+     */
+    public void put(K key, V value) {
+        put(key, value, Instant.ofEpochMilli(clock.millis() + ttlMillis));
+    }
+
+    /**
+     * Store value in cache that expires at specified time, but not later than default TTL of the cache
+     * @param key key of the entry
+     * @param value value to cache, null values are not cached
+     * @param expiresAt time when entry expires
+     */
+    public void put(K key, V value, Instant expiresAt) {
+        put(key, value, expiresAt, null);
+    }
+
+    /**
+     * Get current generation of the cache. Generation is changed by each invalidation of the cache.
+     * @return current generation
+     */
+    public long getGeneration() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Store value in cache with default TTL of the cache only when the cache has not been invalidated since the
+     * generation was read, so the value loaded before invalidation is not stored
+     * @param key key of the entry
+     * @param value value to cache, null values are not cached
+     * @param generation generation of the cache read by {@link #getGeneration()} before the value was loaded
+     */
+    public void putIfGeneration(K key, V value, long generation) {
+        put(key, value, Instant.ofEpochMilli(clock.millis() + ttlMillis), generation);
+    }
+
+    private void put(K key, V value, Instant expiresAt, Long expectedGeneration) {
+        if (!isEnabled() || value == null || expiresAt == null) return;
+
+        long now = clock.millis();
+        long expiresAtMillis = Math.min(expiresAt.toEpochMilli(), now + ttlMillis);
+        if (expiresAtMillis <= now) return;
+
+        synchronized (entries) {
+            if (expectedGeneration != null && expectedGeneration != generation) return;
+            entries.put(key, new Entry<>(value, expiresAtMillis));
+        }
+    }
+
+    /**
+     * Get value from cache or load it using loader function and cache it. Loader is called outside the cache lock,
+     * so concurrent calls for the same key can load the value multiple times.
+     * @param key key of the entry
+     * @param loader function to load the value if not cached
+     * @return cached or loaded value
+     */
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            ++generation;
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateIf(Predicate<K> keyPredicate) {
+        synchronized (entries) {
+            ++generation;
+            entries.keySet().removeIf(keyPredicate);
+        }
+    }
+
+    public void invalidateValuesIf(Predicate<V> valuePredicate) {
+        synchronized (entries) {
+            ++generation;
+            entries.values().removeIf(entry -> valuePredicate.test(entry.value));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            ++generation;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Remove all expired entries from cache
+     */
+    public void cleanUp() {
+        long now = clock.millis();
+        synchronized (entries) {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt <= now) iterator.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
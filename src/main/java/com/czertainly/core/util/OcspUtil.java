@@ -10,16 +10,21 @@ import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
 import org.bouncycastle.asn1.ocsp.OCSPResponseStatus;
 import org.bouncycastle.asn1.x509.AccessDescription;
 import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.Extensions;
 import org.bouncycastle.asn1.x509.GeneralName;
 import org.bouncycastle.asn1.x509.X509ObjectIdentifiers;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
 import org.bouncycastle.cert.ocsp.*;
 import org.bouncycastle.operator.DigestCalculator;
+import org.bouncycastle.operator.ContentVerifierProvider;
 import org.bouncycastle.operator.DigestCalculatorProvider;
 import org.bouncycastle.operator.OperatorException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +36,7 @@ import java.net.URL;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -103,33 +109,93 @@ public class OcspUtil {
     }
 
     public static CertificateValidationStatus checkOcsp(X509Certificate certificate, X509Certificate issuer, String serviceUrl) throws Exception {
-        OCSPReq request = generateOCSPRequest(issuer, certificate.getSerialNumber());
-        OCSPResp ocspResponse = getOCSPResponse(serviceUrl, request);
+        return checkOcsp(getCertificateId(issuer, certificate.getSerialNumber()), issuer, serviceUrl, 0).status();
+    }
+
+    /**
+     * Check revocation status of certificate identified by OCSP certificate ID
+     * @param certificateId OCSP certificate ID of the checked certificate
+     * @param issuerCertificate certificate of the issuer used to verify signature of the response
+     * @param serviceUrl URL of OCSP responder
+     * @param timeout connect and read timeout in milliseconds, zero means no timeout
+     * @return status of the certificate, time of next update provided by responder and whether the response signature was verified
+     */
+    public static OcspResult checkOcsp(CertificateID certificateId, X509Certificate issuerCertificate, String serviceUrl, int timeout) throws Exception {
+        OCSPReq request = generateOCSPRequest(certificateId);
+        OCSPResp ocspResponse = getOCSPResponse(serviceUrl, request, timeout);
 
         BasicOCSPResp basicResponse = (BasicOCSPResp) ocspResponse.getResponseObject();
         SingleResp[] responses = (basicResponse == null) ? null : basicResponse.getResponses();
         if (responses != null && responses.length == 1) {
             SingleResp resp = responses[0];
+            // Response for different certificate than requested does not tell anything about the checked certificate
+            if (!isMatchingCertificateId(resp.getCertID(), certificateId, issuerCertificate)) {
+                logger.debug("OCSP response from URL {} is for different certificate than requested", serviceUrl);
+                return new OcspResult(CertificateValidationStatus.FAILED, null, false);
+            }
+
+            boolean verified = isSignatureVerified(basicResponse, issuerCertificate);
+            if (!verified) logger.warn("Signature of OCSP response from URL {} could not be verified", serviceUrl);
+
             Object status = resp.getCertStatus();
             if (status == org.bouncycastle.cert.ocsp.CertificateStatus.GOOD) {
-                return CertificateValidationStatus.VALID;
+                return new OcspResult(CertificateValidationStatus.VALID, resp.getNextUpdate(), verified);
             } else if (status instanceof RevokedStatus) {
-                return CertificateValidationStatus.REVOKED;
+                return new OcspResult(CertificateValidationStatus.REVOKED, resp.getNextUpdate(), verified);
             } else if (status instanceof UnknownStatus) {
-                return CertificateValidationStatus.FAILED;
+                return new OcspResult(CertificateValidationStatus.FAILED, null, verified);
             }
         } else if (OCSPResponseStatus.SUCCESSFUL != ocspResponse.getStatus()) {
             throw new IOException("OCSP Request failed with status " + ocspResponseStatuses.get(ocspResponse.getStatus()));
         }
-        return CertificateValidationStatus.FAILED;
+        return new OcspResult(CertificateValidationStatus.FAILED, null, false);
     }
 
-    private static OCSPReq generateOCSPRequest(X509Certificate issuerCert, BigInteger serialNumber)
-            throws OCSPException, OperatorException, CertificateEncodingException {
+    public static CertificateID getCertificateId(X509Certificate issuerCert, BigInteger serialNumber) throws OCSPException, OperatorException, CertificateEncodingException {
         JcaDigestCalculatorProviderBuilder digestCalculatorProviderBuilder = new JcaDigestCalculatorProviderBuilder();
         DigestCalculatorProvider digestCalculatorProvider = digestCalculatorProviderBuilder.build();
         DigestCalculator digestCalculator = digestCalculatorProvider.get(CertificateID.HASH_SHA1);
-        CertificateID id = new CertificateID(digestCalculator, new JcaX509CertificateHolder(issuerCert), serialNumber);
+        return new CertificateID(digestCalculator, new JcaX509CertificateHolder(issuerCert), serialNumber);
+    }
+
+    private static boolean isMatchingCertificateId(CertificateID responseCertificateId, CertificateID certificateId, X509Certificate issuerCertificate) throws OCSPException, OperatorException, CertificateEncodingException {
+        // Issuer is matched using hash algorithm of the response, responder may use different algorithm than request
+        return responseCertificateId.getSerialNumber().equals(certificateId.getSerialNumber())
+                && responseCertificateId.matchesIssuer(new JcaX509CertificateHolder(issuerCertificate), new JcaDigestCalculatorProviderBuilder().build());
+    }
+
+    private static boolean isSignatureVerified(BasicOCSPResp basicResponse, X509Certificate issuerCertificate) {
+        try {
+            // Response signed directly by issuer of the certificate
+            ContentVerifierProvider issuerVerifierProvider = new JcaContentVerifierProviderBuilder().build(issuerCertificate.getPublicKey());
+            if (basicResponse.isSignatureValid(issuerVerifierProvider)) return true;
+
+            // Response signed by authorized responder, its certificate has to be issued by the issuer for OCSP signing
+            Date now = new Date();
+            for (X509CertificateHolder responderCertificate : basicResponse.getCerts()) {
+                if (isAuthorizedResponder(responderCertificate, issuerVerifierProvider, now)
+                        && basicResponse.isSignatureValid(new JcaContentVerifierProviderBuilder().build(responderCertificate))) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to verify signature of OCSP response: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private static boolean isAuthorizedResponder(X509CertificateHolder responderCertificate, ContentVerifierProvider issuerVerifierProvider, Date now) {
+        try {
+            ExtendedKeyUsage extendedKeyUsage = ExtendedKeyUsage.fromExtensions(responderCertificate.getExtensions());
+            return extendedKeyUsage != null && extendedKeyUsage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning)
+                    && responderCertificate.isValidOn(now) && responderCertificate.isSignatureValid(issuerVerifierProvider);
+        } catch (Exception e) {
+            logger.debug("Failed to verify OCSP responder certificate {}: {}", responderCertificate.getSubject(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static OCSPReq generateOCSPRequest(CertificateID id) throws OCSPException {
         BigInteger nonce = BigInteger.valueOf(System.currentTimeMillis());
         OCSPReqBuilder gen = new OCSPReqBuilder();
         gen.addRequest(id);
@@ -140,13 +206,15 @@ public class OcspUtil {
         return gen.build();
     }
 
-    private static OCSPResp getOCSPResponse(String serviceUrl, OCSPReq request) throws IOException {
+    private static OCSPResp getOCSPResponse(String serviceUrl, OCSPReq request, int timeout) throws IOException {
 
         try {
             byte[] array = request.getEncoded();
             if (serviceUrl.startsWith("http")) {
                 URL url = new URL(serviceUrl);
                 HttpURLConnection con = (HttpURLConnection) url.openConnection();
+                con.setConnectTimeout(timeout);
+                con.setReadTimeout(timeout);
                 con.setRequestProperty("Content-Type", "application/ocsp-request");
                 con.setRequestProperty("Accept", "application/ocsp-response");
                 con.setDoOutput(true);
@@ -167,4 +235,7 @@ public class OcspUtil {
             throw new IOException("Cannot get OCSP response from URL: " + serviceUrl, e);
         }
     }
+
+    public record OcspResult(CertificateValidationStatus status, Date nextUpdate, boolean verified) {
+    }
 }
@@ -0,0 +1,75 @@
+package com.czertainly.core.util;
+
+import com.czertainly.core.enums.SearchFieldNameEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache of values offered for searchable fields of certificates. Names of RA profiles, groups and owners are cached
+ * until they are evicted by the service changing them, or until their TTL expires to pick up changes made by other
+ * instances or directly in the auth service. Distinct values of certificate properties are refreshed after shorter TTL.
+ */
+@Component
+public class SearchFieldValuesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchFieldValuesCache.class);
+
+    private static final Set<SearchFieldNameEnum> OBJECT_FIELDS = EnumSet.of(SearchFieldNameEnum.RA_PROFILE, SearchFieldNameEnum.GROUP, SearchFieldNameEnum.OWNER);
+
+    private final ExpiringCache<SearchFieldNameEnum, List<?>> objectNamesCache;
+
+    private final ExpiringCache<SearchFieldNameEnum, List<?>> valuesCache;
+
+    public SearchFieldValuesCache(@Value("${search.values-cache.ttl:300000}") long valuesTtl,
+                                  @Value("${search.values-cache.objects-ttl:3600000}") long objectNamesTtl) {
+        int size = SearchFieldNameEnum.values().length;
+        this.objectNamesCache = new ExpiringCache<>(Duration.ofMillis(objectNamesTtl), size);
+        this.valuesCache = new ExpiringCache<>(Duration.ofMillis(valuesTtl), size);
+    }
+
+    /**
+     * Get values of the searchable field from cache or load them
+     * @param field searchable field
+     * @param loader function loading values of the field
+     * @return unmodifiable list of values
+     */
+    public List<?> get(SearchFieldNameEnum field, Supplier<? extends List<?>> loader) {
+        return getCache(field).computeIfAbsent(field, key -> Collections.unmodifiableList(new ArrayList<>(loader.get())));
+    }
+
+    /**
+     * Evict cached values of the searchable field. Has to be called when objects offered as values are created or deleted.
+     * When called in transaction, values are evicted again after its completion, since values loaded by concurrent
+     * request before commit do not contain the change yet.
+     * @param field searchable field
+     */
+    public void evict(SearchFieldNameEnum field) {
+        logger.debug("Evicting cached values of searchable field {}.", field);
+        getCache(field).invalidate(field);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    getCache(field).invalidate(field);
+                }
+            });
+        }
+    }
+
+    private ExpiringCache<SearchFieldNameEnum, List<?>> getCache(SearchFieldNameEnum field) {
+        return OBJECT_FIELDS.contains(field) ? objectNamesCache : valuesCache;
+    }
+}
@@ -9,6 +9,7 @@ import com.czertainly.api.model.core.search.FilterConditionOperator;
 import com.czertainly.api.model.core.search.FilterFieldSource;
 import com.czertainly.api.model.core.search.FilterFieldType;
 import com.czertainly.api.model.core.search.SearchableFields;
+import com.czertainly.core.config.CustomFunctionContributor;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.enums.ResourceToClass;
 import com.czertainly.core.enums.SearchFieldNameEnum;
@@ -42,11 +43,11 @@ public class Sql2PredicateConverter {
         }
         final Predicate propertyPredicates = criteriaBuilder.and(predicates.toArray(new Predicate[]{}));
         if (objectUUIDsToBeFiltered != null && !dtos.isEmpty() && hasFilteredAttributes) {
-            Predicate uuidOrPredicate = root.get("uuid").in(objectUUIDsToBeFiltered);
+            Predicate uuidOrPredicate = prepareInArrayPredicate(criteriaBuilder, root.get("uuid"), objectUUIDsToBeFiltered);
             if (root.getJavaType().equals(CryptographicKeyItem.class)) {
                 uuidOrPredicate = criteriaBuilder.or(
                         uuidOrPredicate,
-                        prepareExpression(root, "cryptographicKey.uuid").in(objectUUIDsToBeFiltered));
+                        prepareInArrayPredicate(criteriaBuilder, prepareExpression(root, "cryptographicKey.uuid"), objectUUIDsToBeFiltered));
             }
             return criteriaBuilder.and(propertyPredicates, uuidOrPredicate);
         }
@@ -236,6 +237,18 @@ public class Sql2PredicateConverter {
         return path;
     }
 
+    /**
+     * Prepare predicate checking that UUID expression is one of the UUIDs. UUIDs are bound as single array parameter
+     * instead of IN list, so the statement does not grow with number of UUIDs and is not limited by number of bind parameters.
+     * @param criteriaBuilder criteria builder
+     * @param expression UUID expression
+     * @param uuids UUIDs to check
+     * @return predicate
+     */
+    public static Predicate prepareInArrayPredicate(final CriteriaBuilder criteriaBuilder, final Expression<?> expression, final Collection<UUID> uuids) {
+        return criteriaBuilder.isTrue(criteriaBuilder.function(CustomFunctionContributor.IN_ARRAY_FUNCTION, Boolean.class, expression, criteriaBuilder.literal(uuids.toArray(new UUID[0]))));
+    }
+
     public static Join prepareJoin(final Root root, final String joinPath) {
         final StringTokenizer stz = new StringTokenizer(joinPath, ".");
         Join join = root.join(stz.nextToken(), JoinType.LEFT);
@@ -1,10 +1,37 @@
 package com.czertainly.core.validation.certificate;
 
+import com.czertainly.api.model.core.certificate.CertificateValidationCheck;
+import com.czertainly.api.model.core.certificate.CertificateValidationCheckDto;
 import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
 import com.czertainly.core.dao.entity.Certificate;
 
 import java.security.cert.CertificateException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 public interface ICertificateValidator {
     CertificateValidationStatus validateCertificate(Certificate certificate, boolean isCompleteChain) throws CertificateException;
+
+    /**
+     * Validate certificate using results of revocation checks done in advance
+     * @param certificate certificate to validate
+     * @param isCompleteChain whether the certificate chain is complete
+     * @param revocationChecks results of revocation checks by UUID of certificates in the chain, certificates without result are checked during validation
+     * @return validation status of the certificate
+     */
+    default CertificateValidationStatus validateCertificate(Certificate certificate, boolean isCompleteChain, Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> revocationChecks) throws CertificateException {
+        return validateCertificate(certificate, isCompleteChain);
+    }
+
+    /**
+     * Prepare revocation checks of the certificate and certificates in its chain. Prepared checks do not access
+     * certificates in database, so they can be run outside of transaction before the certificate is validated.
+     * @param certificate certificate to validate
+     * @param isCompleteChain whether the certificate chain is complete
+     * @return revocation checks by UUID of certificates in the chain
+     */
+    default Map<UUID, Supplier<Map<CertificateValidationCheck, CertificateValidationCheckDto>>> prepareRevocationChecks(Certificate certificate, boolean isCompleteChain) throws CertificateException {
+        return Map.of();
+    }
 }
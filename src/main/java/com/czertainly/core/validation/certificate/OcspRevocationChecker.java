@@ -0,0 +1,158 @@
+package com.czertainly.core.validation.certificate;
+
+import com.czertainly.api.model.core.certificate.CertificateValidationCheck;
+import com.czertainly.api.model.core.certificate.CertificateValidationCheckDto;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.core.util.ExpiringCache;
+import com.czertainly.core.util.OcspUtil;
+import jakarta.annotation.PreDestroy;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.util.encoders.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks revocation status of certificates using OCSP. All OCSP responders of the certificate are queried concurrently
+ * and the first definitive answer (good or revoked) is used. Definitive answers are cached per certificate ID
+ * (issuer name hash, issuer key hash and serial number) until next update time provided by the responder, only when
+ * the response is signed by the issuer or its authorized responder and matches the requested certificate ID.
+ */
+@Component
+public class OcspRevocationChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcspRevocationChecker.class);
+
+    private final int timeout;
+
+    private final ExpiringCache<String, CachedResponse> responseCache;
+
+    private final ExecutorService executor;
+
+    public OcspRevocationChecker(@Value("${ocsp.timeout:5000}") int timeout,
+                                 @Value("${ocsp.cache.max-ttl:3600000}") long cacheMaxTtl,
+                                 @Value("${ocsp.cache.max-size:10000}") int cacheMaxSize,
+                                 @Value("${ocsp.max-concurrent-requests:16}") int maxConcurrentRequests) {
+        this.timeout = timeout;
+        this.responseCache = new ExpiringCache<>(Duration.ofMillis(cacheMaxTtl), cacheMaxSize);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentRequests, runnable -> {
+            Thread thread = new Thread(runnable, "ocsp-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CertificateValidationCheckDto checkRevocationStatus(X509Certificate certificate, X509Certificate issuerCertificate, List<String> ocspUrls) {
+        CertificateID certificateId;
+        try {
+            certificateId = OcspUtil.getCertificateId(issuerCertificate, certificate.getSerialNumber());
+        } catch (Exception e) {
+            return new CertificateValidationCheckDto(CertificateValidationCheck.OCSP_VERIFICATION, CertificateValidationStatus.FAILED, "Failed to prepare OCSP request: " + e.getMessage());
+        }
+
+        String cacheKey = getCacheKey(certificateId);
+        CachedResponse cachedResponse = responseCache.get(cacheKey);
+        if (cachedResponse != null) {
+            logger.debug("Using cached OCSP response from URL {} for certificate with serial number {}", cachedResponse.ocspUrl(), certificate.getSerialNumber().toString(16));
+            return getDefinitiveResult(cachedResponse.ocspUrl(), cachedResponse.result());
+        }
+
+        CompletionService<ResponderOutcome> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<ResponderOutcome>> futures = new ArrayList<>();
+        for (String ocspUrl : ocspUrls) {
+            futures.add(completionService.submit(() -> queryResponder(certificateId, issuerCertificate, ocspUrl)));
+        }
+
+        // every responder is bounded by connect and read timeout, wait a bit longer for all of them to finish
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2L * timeout + 1000);
+        Map<String, ResponderOutcome> outcomes = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<ResponderOutcome> future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) break;
+
+                ResponderOutcome outcome = future.get();
+                OcspUtil.OcspResult result = outcome.result();
+                if (result != null && (result.status() == CertificateValidationStatus.VALID || result.status() == CertificateValidationStatus.REVOKED)) {
+                    // only responses with verified signature for the requested certificate are cached
+                    if (result.nextUpdate() != null && result.verified()) {
+                        responseCache.put(cacheKey, new CachedResponse(outcome.ocspUrl(), result), result.nextUpdate().toInstant());
+                    }
+                    return getDefinitiveResult(outcome.ocspUrl(), result);
+                }
+                outcomes.put(outcome.ocspUrl(), outcome);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // queryResponder does not throw, outcome contains error
+            logger.debug("Unexpected error while checking OCSP: {}", e.getMessage());
+        } finally {
+            for (Future<ResponderOutcome> future : futures) future.cancel(true);
+        }
+
+        StringBuilder ocspMessage = new StringBuilder();
+        for (String ocspUrl : ocspUrls) {
+            ResponderOutcome outcome = outcomes.get(ocspUrl);
+            if (outcome != null && outcome.result() != null) {
+                ocspMessage.append("OCSP Check result is unknown from URL ");
+                ocspMessage.append(ocspUrl);
+                ocspMessage.append(". ");
+            } else {
+                ocspMessage.append("Error while checking OCSP URL ");
+                ocspMessage.append(ocspUrl);
+                ocspMessage.append(". Error: ");
+                ocspMessage.append(outcome != null ? outcome.error() : "No response received in time");
+                ocspMessage.append(". ");
+            }
+        }
+        return new CertificateValidationCheckDto(CertificateValidationCheck.OCSP_VERIFICATION, CertificateValidationStatus.FAILED, ocspMessage.toString());
+    }
+
+    public void invalidateCache() {
+        responseCache.invalidateAll();
+    }
+
+    private ResponderOutcome queryResponder(CertificateID certificateId, X509Certificate issuerCertificate, String ocspUrl) {
+        try {
+            return new ResponderOutcome(ocspUrl, OcspUtil.checkOcsp(certificateId, issuerCertificate, ocspUrl, timeout), null);
+        } catch (Exception e) {
+            logger.debug("Not able to check OCSP: {}", e.getMessage());
+            return new ResponderOutcome(ocspUrl, null, e.getMessage());
+        }
+    }
+
+    private static CertificateValidationCheckDto getDefinitiveResult(String ocspUrl, OcspUtil.OcspResult result) {
+        String message = result.status() == CertificateValidationStatus.REVOKED
+                ? "Certificate was revoked according to information from OCSP URL " + ocspUrl + ". "
+                : "OCSP verification successful from URL " + ocspUrl + ". ";
+        return new CertificateValidationCheckDto(CertificateValidationCheck.OCSP_VERIFICATION, result.status(), message);
+    }
+
+    private static String getCacheKey(CertificateID certificateId) {
+        return Hex.toHexString(certificateId.getIssuerNameHash()) + ":" + Hex.toHexString(certificateId.getIssuerKeyHash()) + ":" + certificateId.getSerialNumber().toString(16);
+    }
+
+    private record ResponderOutcome(String ocspUrl, OcspUtil.OcspResult result, String error) {
+    }
+
+    private record CachedResponse(String ocspUrl, OcspUtil.OcspResult result) {
+    }
+}
@@ -32,6 +32,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service("X.509")
 public class X509CertificateValidator implements ICertificateValidator {
@@ -43,6 +44,8 @@ public class X509CertificateValidator implements ICertificateValidator {
 
     private CrlService crlService;
 
+    private OcspRevocationChecker ocspRevocationChecker;
+
     @Autowired
     public void setCertificateRepository(CertificateRepository certificateRepository) {
         this.certificateRepository = certificateRepository;
@@ -53,17 +56,22 @@ public class X509CertificateValidator implements ICertificateValidator {
         this.crlService = crlService;
     }
 
+    @Autowired
+    public void setOcspRevocationChecker(OcspRevocationChecker ocspRevocationChecker) {
+        this.ocspRevocationChecker = ocspRevocationChecker;
+    }
+
 
     @Override
     public CertificateValidationStatus validateCertificate(Certificate certificate, boolean isCompleteChain) throws CertificateException {
+        return validateCertificate(certificate, isCompleteChain, Map.of());
+    }
+
+    @Override
+    public CertificateValidationStatus validateCertificate(Certificate certificate, boolean isCompleteChain, Map<UUID, Map<CertificateValidationCheck, CertificateValidationCheckDto>> revocationChecks) throws CertificateException {
         logger.debug("Initiating the certificate validation: {}", certificate);
 
-        ArrayList<Certificate> certificateChain = new ArrayList<>();
-        Certificate lastCertificate = certificate;
-        do {
-            certificateChain.add(lastCertificate);
-            lastCertificate = lastCertificate.getIssuerCertificateUuid() == null ? null : certificateRepository.findByUuid(lastCertificate.getIssuerCertificateUuid()).orElse(null);
-        } while (lastCertificate != null);
+        List<Certificate> certificateChain = getCertificateChain(certificate);
 
         X509Certificate x509Certificate;
         X509Certificate x509IssuerCertificate = null;
@@ -74,7 +82,7 @@ public class X509CertificateValidator implements ICertificateValidator {
             x509Certificate = CertificateUtil.getX509Certificate(certificateChain.get(i).getCertificateContent().getContent());
 
             boolean isEndCertificate = i == 0;
-            validationOutput = validatePathCertificate(x509Certificate, x509IssuerCertificate, certificateChain.get(i).getTrustedCa(), previousCertStatus, isCompleteChain, isEndCertificate, certificateChain.get(i).getIssuerDnNormalized());
+            validationOutput = validatePathCertificate(x509Certificate, x509IssuerCertificate, certificateChain.get(i).getTrustedCa(), previousCertStatus, isCompleteChain, isEndCertificate, revocationChecks.get(certificateChain.get(i).getUuid()));
             CertificateValidationStatus resultStatus = calculateResultStatus(validationOutput);
             finalizeValidation(certificateChain.get(i), resultStatus, validationOutput);
 
@@ -86,7 +94,39 @@ public class X509CertificateValidator implements ICertificateValidator {
         return previousCertStatus;
     }
 
-    private Map<CertificateValidationCheck, CertificateValidationCheckDto> validatePathCertificate(X509Certificate certificate, X509Certificate issuerCertificate, Boolean trustedCa, CertificateValidationStatus issuerCertificateStatus, boolean isCompleteChain, boolean isEndCertificate, String issuerDn) {
+    @Override
+    public Map<UUID, Supplier<Map<CertificateValidationCheck, CertificateValidationCheckDto>>> prepareRevocationChecks(Certificate certificate, boolean isCompleteChain) throws CertificateException {
+        List<Certificate> certificateChain = getCertificateChain(certificate);
+
+        Map<UUID, Supplier<Map<CertificateValidationCheck, CertificateValidationCheckDto>>> revocationChecks = new HashMap<>();
+        X509Certificate x509IssuerCertificate = null;
+        for (int i = certificateChain.size() - 1; i >= 0; i--) {
+            X509Certificate x509Certificate = CertificateUtil.getX509Certificate(certificateChain.get(i).getCertificateContent().getContent());
+            X509Certificate issuerCertificate = x509IssuerCertificate;
+            revocationChecks.put(certificateChain.get(i).getUuid(), () -> checkRevocationStatus(x509Certificate, issuerCertificate, isCompleteChain));
+            x509IssuerCertificate = x509Certificate;
+        }
+        return revocationChecks;
+    }
+
+    private List<Certificate> getCertificateChain(Certificate certificate) {
+        List<Certificate> certificateChain = new ArrayList<>();
+        Certificate lastCertificate = certificate;
+        do {
+            certificateChain.add(lastCertificate);
+            lastCertificate = lastCertificate.getIssuerCertificateUuid() == null ? null : certificateRepository.findByUuid(lastCertificate.getIssuerCertificateUuid()).orElse(null);
+        } while (lastCertificate != null);
+        return certificateChain;
+    }
+
+    private Map<CertificateValidationCheck, CertificateValidationCheckDto> checkRevocationStatus(X509Certificate certificate, X509Certificate issuerCertificate, boolean isCompleteChain) {
+        Map<CertificateValidationCheck, CertificateValidationCheckDto> revocationChecks = new EnumMap<>(CertificateValidationCheck.class);
+        revocationChecks.put(CertificateValidationCheck.OCSP_VERIFICATION, checkOcspRevocationStatus(certificate, issuerCertificate));
+        revocationChecks.put(CertificateValidationCheck.CRL_VERIFICATION, checkCrlRevocationStatus(certificate, issuerCertificate, isCompleteChain));
+        return revocationChecks;
+    }
+
+    private Map<CertificateValidationCheck, CertificateValidationCheckDto> validatePathCertificate(X509Certificate certificate, X509Certificate issuerCertificate, Boolean trustedCa, CertificateValidationStatus issuerCertificateStatus, boolean isCompleteChain, boolean isEndCertificate, Map<CertificateValidationCheck, CertificateValidationCheckDto> revocationChecks) {
         Map<CertificateValidationCheck, CertificateValidationCheckDto> validationOutput = initializeValidationOutput();
 
         // check certificate signature
@@ -97,10 +137,9 @@ public class X509CertificateValidator implements ICertificateValidator {
         // section (a)(2) in https://datatracker.ietf.org/doc/html/rfc5280#section-6.1.3
         validationOutput.put(CertificateValidationCheck.CERTIFICATE_VALIDITY, checkCertificateValidity(certificate));
 
-        // check if certificate is not revoked - OCSP & CRL
+        // check if certificate is not revoked - OCSP & CRL, unless it was already checked in advance
         // section (a)(3) in https://datatracker.ietf.org/doc/html/rfc5280#section-6.1.3
-        validationOutput.put(CertificateValidationCheck.OCSP_VERIFICATION, checkOcspRevocationStatus(certificate, issuerCertificate));
-        validationOutput.put(CertificateValidationCheck.CRL_VERIFICATION, checkCrlRevocationStatus(certificate, issuerCertificate, isCompleteChain));
+        validationOutput.putAll(revocationChecks != null ? revocationChecks : checkRevocationStatus(certificate, issuerCertificate, isCompleteChain));
 
         // check certificate issuer DN and if certificate chain is valid
         // section (a)(4) in https://datatracker.ietf.org/doc/html/rfc5280#section-6.1.3
@@ -207,42 +246,7 @@ public class X509CertificateValidator implements ICertificateValidator {
             return new CertificateValidationCheckDto(CertificateValidationCheck.OCSP_VERIFICATION, CertificateValidationStatus.NOT_CHECKED, "Certificate does not contain AIA extension or OCSP URL is not present");
         }
 
-        StringBuilder ocspMessage = new StringBuilder();
-        CertificateValidationStatus ocspOutputStatus = CertificateValidationStatus.NOT_CHECKED;
-        for (String ocspUrl : ocspUrls) {
-            try {
-                CertificateValidationStatus ocspStatus = OcspUtil.checkOcsp(certificate, issuerCertificate, ocspUrl);
-                if (ocspStatus.equals(CertificateValidationStatus.VALID)) {
-                    if (ocspOutputStatus.equals(CertificateValidationStatus.NOT_CHECKED)) {
-                        ocspOutputStatus = ocspStatus;
-                    }
-                    ocspMessage.append("OCSP verification successful from URL ");
-                    ocspMessage.append(ocspUrl);
-                    ocspMessage.append(". ");
-                } else if (ocspStatus.equals(CertificateValidationStatus.REVOKED)) {
-                    ocspOutputStatus = ocspStatus;
-                    ocspMessage.append("Certificate was revoked according to information from OCSP URL ");
-                    ocspMessage.append(ocspUrl);
-                    ocspMessage.append(". ");
-                    break;
-                } else {
-                    ocspOutputStatus = ocspStatus;
-                    ocspMessage.append("OCSP Check result is unknown from URL ");
-                    ocspMessage.append(ocspUrl);
-                    ocspMessage.append(". ");
-                }
-            } catch (Exception e) {
-                logger.debug("Not able to check OCSP: {}", e.getMessage());
-                ocspOutputStatus = CertificateValidationStatus.FAILED;
-                ocspMessage.append("Error while checking OCSP URL ");
-                ocspMessage.append(ocspUrl);
-                ocspMessage.append(". Error: ");
-                ocspMessage.append(e.getMessage());
-                ocspMessage.append(". ");
-            }
-        }
-
-        return new CertificateValidationCheckDto(CertificateValidationCheck.OCSP_VERIFICATION, ocspOutputStatus, ocspMessage.toString());
+        return ocspRevocationChecker.checkRevocationStatus(certificate, issuerCertificate, ocspUrls);
     }
 
     private CertificateValidationCheckDto checkCrlRevocationStatus(X509Certificate certificate, X509Certificate issuerCertificate, boolean isCompleteChain) {
@@ -271,7 +275,7 @@ public class X509CertificateValidator implements ICertificateValidator {
         StringBuilder crlMessage = new StringBuilder();
         CertificateValidationStatus crlOutputStatus;
 
-        CrlEntry crlEntry = crlService.findCrlEntryForCertificate(certificate.getSerialNumber().toString(16), crl.getUuid());
+        CrlEntry crlEntry = crlService.findCrlEntryForCertificate(certificate.getSerialNumber().toString(16), crl);
 
         if (crlEntry == null) {
             crlOutputStatus = CertificateValidationStatus.VALID;
@@ -0,0 +1,81 @@
+package db.migration;
+
+import com.czertainly.core.util.CertificateUtil;
+import com.czertainly.core.util.DatabaseMigration;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.security.cert.X509Certificate;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migration script adding subject and authority key identifiers of certificates used to resolve certificate issuers
+ */
+public class V202405281200__CertificateKeyIdentifiersMigration extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public Integer getChecksum() {
+        return DatabaseMigration.JavaMigrationChecksums.V202405281200__CertificateKeyIdentifiersMigration.getChecksum();
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        createColumns(context);
+        backfillKeyIdentifiers(context);
+        createIndex(context);
+    }
+
+    private void createColumns(Context context) throws SQLException {
+        String sqlCommands = """
+                ALTER TABLE certificate
+                    ADD COLUMN subject_key_identifier TEXT NULL,
+                    ADD COLUMN authority_key_identifier TEXT NULL;
+                """;
+
+        try (final Statement statement = context.getConnection().createStatement()) {
+            statement.execute(sqlCommands);
+        }
+    }
+
+    private void backfillKeyIdentifiers(Context context) throws SQLException {
+        try (final Statement selectStatement = context.getConnection().createStatement();
+             final PreparedStatement updateStatement = context.getConnection().prepareStatement("UPDATE certificate SET subject_key_identifier = ?, authority_key_identifier = ? WHERE uuid = ?")) {
+            selectStatement.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = selectStatement.executeQuery("SELECT c.uuid, a.content FROM certificate c JOIN certificate_content a ON a.id = c.certificate_content_id")) {
+                int batchCount = 0;
+                while (rows.next()) {
+                    X509Certificate certificate;
+                    try {
+                        certificate = CertificateUtil.parseCertificate(rows.getString("content"));
+                    } catch (Exception e) {
+                        // certificate content that cannot be parsed is skipped, its issuer is resolved by signature verification
+                        continue;
+                    }
+
+                    updateStatement.setString(1, CertificateUtil.getSubjectKeyIdentifier(certificate));
+                    updateStatement.setString(2, CertificateUtil.getAuthorityKeyIdentifier(certificate));
+                    updateStatement.setObject(3, rows.getObject("uuid"));
+                    updateStatement.addBatch();
+                    if (++batchCount == BATCH_SIZE) {
+                        updateStatement.executeBatch();
+                        batchCount = 0;
+                    }
+                }
+                if (batchCount > 0) {
+                    updateStatement.executeBatch();
+                }
+            }
+        }
+    }
+
+    private void createIndex(Context context) throws SQLException {
+        try (final Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE INDEX certificate_subject_key_identifier_index ON certificate (subject_key_identifier)");
+        }
+    }
+}
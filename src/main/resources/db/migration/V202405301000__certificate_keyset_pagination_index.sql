@@ -0,0 +1,2 @@
+create index certificate_i_cre_uuid_index
+    on certificate (i_cre desc, uuid desc);
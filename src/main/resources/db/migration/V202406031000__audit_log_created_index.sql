@@ -0,0 +1,2 @@
+create index audit_log_i_cre_index
+    on audit_log (i_cre);
@@ -0,0 +1,20 @@
+ALTER TABLE attribute_content_item ADD COLUMN json_hash VARCHAR(32) GENERATED ALWAYS AS (md5(CAST(json AS TEXT))) STORED;
+
+-- merge duplicate content items of attribute definition
+CREATE TEMPORARY TABLE attribute_content_item_duplicate AS
+    SELECT uuid, keep_uuid FROM (
+        SELECT uuid, first_value(uuid) OVER (PARTITION BY attribute_definition_uuid, json_hash ORDER BY uuid) AS keep_uuid FROM attribute_content_item
+    ) AS items WHERE uuid <> keep_uuid;
+
+UPDATE attribute_content_2_object aco SET attribute_content_item_uuid = d.keep_uuid FROM attribute_content_item_duplicate d WHERE aco.attribute_content_item_uuid = d.uuid;
+DELETE FROM attribute_content_item aci USING attribute_content_item_duplicate d WHERE aci.uuid = d.uuid;
+DROP TABLE attribute_content_item_duplicate;
+
+-- remove duplicate links of content item to object
+DELETE FROM attribute_content_2_object aco USING (
+    SELECT uuid, row_number() OVER (PARTITION BY object_uuid, object_type, attribute_content_item_uuid, connector_uuid, source_object_type, source_object_uuid ORDER BY item_order, uuid) AS rn FROM attribute_content_2_object
+) AS links WHERE aco.uuid = links.uuid AND links.rn > 1;
+
+CREATE UNIQUE INDEX attribute_content_item_definition_hash_key ON attribute_content_item (attribute_definition_uuid, json_hash);
+CREATE UNIQUE INDEX attribute_content_2_object_object_item_key ON attribute_content_2_object (object_uuid, object_type, attribute_content_item_uuid,
+    COALESCE(connector_uuid, '00000000-0000-0000-0000-000000000000'), COALESCE(source_object_type, ''), COALESCE(source_object_uuid, '00000000-0000-0000-0000-000000000000'));
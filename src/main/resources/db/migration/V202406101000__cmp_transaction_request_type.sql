@@ -0,0 +1 @@
+ALTER TABLE cmp_transaction ADD COLUMN request_type INTEGER NULL;
@@ -20,6 +20,7 @@ import com.czertainly.api.model.core.certificate.CertificateDetailDto;
 import com.czertainly.api.model.core.certificate.CertificateState;
 import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
 import com.czertainly.api.model.core.connector.ConnectorStatus;
+import com.czertainly.core.attribute.engine.AttributeDefinitionCache;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
 import com.czertainly.core.dao.entity.*;
@@ -27,6 +28,7 @@ import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.util.BaseSpringBootTest;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,6 +47,14 @@ public class AttributeEngineTest extends BaseSpringBootTest {
     @Autowired
     private AttributeEngine attributeEngine;
     @Autowired
+    private AttributeDefinitionCache attributeDefinitionCache;
+    @Autowired
+    private AttributeDefinitionRepository attributeDefinitionRepository;
+    @Autowired
+    private AttributeContentItemRepository attributeContentItemRepository;
+    @Autowired
+    private AttributeContent2ObjectRepository attributeContent2ObjectRepository;
+    @Autowired
     private CertificateService certificateService;
     @Autowired
     private CertificateRepository certificateRepository;
@@ -56,6 +66,8 @@ public class AttributeEngineTest extends BaseSpringBootTest {
     private ConnectorRepository connectorRepository;
     @Autowired
     private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
+    @Autowired
+    private EntityManager entityManager;
     private Connector connectorAuthority;
     private Connector connectorDiscovery;
     private Certificate certificate;
@@ -143,6 +155,34 @@ public class AttributeEngineTest extends BaseSpringBootTest {
         Assertions.assertEquals("TEST", metadataResponseDto.get().getItems().get(0).getContent().get(0).getReference());
     }
 
+    @Test
+    public void testMetadataBatchDeletesAndInsertsInOrder() throws AttributeException {
+        ObjectAttributeContentInfo contentInfo = new ObjectAttributeContentInfo(connectorDiscovery.getUuid(), Resource.CERTIFICATE, certificate.getUuid(), Resource.DISCOVERY, networkDiscoveryUuid);
+
+        // second metadata of the batch replaces content of the first one and re-inserts content that was already assigned
+        networkDiscoveryMeta.setContent(List.of(new StringAttributeContent("localhost:1443")));
+        MetadataAttribute overwritingMeta = new MetadataAttribute();
+        overwritingMeta.setName(networkDiscoveryMeta.getName());
+        overwritingMeta.setUuid(networkDiscoveryMeta.getUuid());
+        overwritingMeta.setContentType(networkDiscoveryMeta.getContentType());
+        overwritingMeta.setType(AttributeType.META);
+        overwritingMeta.setDescription(networkDiscoveryMeta.getDescription());
+        MetadataAttributeProperties overwritingProps = new MetadataAttributeProperties();
+        overwritingProps.setLabel(networkDiscoveryMeta.getProperties().getLabel());
+        overwritingProps.setVisible(true);
+        overwritingProps.setGlobal(true);
+        overwritingProps.setOverwrite(true);
+        overwritingMeta.setProperties(overwritingProps);
+        overwritingMeta.setContent(List.of(new StringAttributeContent("localhost:0443"), new StringAttributeContent("localhost:2443")));
+        attributeEngine.updateMetadataAttributes(List.of(networkDiscoveryMeta, overwritingMeta), contentInfo);
+
+        var mappedMetadata = attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, certificate.getUuid()));
+        MetadataResponseDto metadataResponseDto = mappedMetadata.stream().filter(m -> m.getConnectorUuid().equals(connectorDiscovery.getUuid().toString())).findFirst().orElseThrow();
+        List<Object> contentData = metadataResponseDto.getItems().get(0).getContent().stream().map(content -> content.getData()).toList();
+        Assertions.assertEquals(2, contentData.size());
+        Assertions.assertTrue(contentData.containsAll(List.of("localhost:0443", "localhost:2443")));
+    }
+
     @Test
     public void testAttributeContentValidation() throws NotFoundException, AttributeException {
         RequestAttributeDto departmentAttributeDto = new RequestAttributeDto();
@@ -196,6 +236,63 @@ public class AttributeEngineTest extends BaseSpringBootTest {
         Assertions.assertTrue(certificateDetailDto.getCustomAttributes().isEmpty());
     }
 
+    @Test
+    public void testSharedAttributeContentItems() throws AttributeException {
+        long contentItemsCount = attributeContentItemRepository.count();
+        long objectContentItemsCount = attributeContent2ObjectRepository.count();
+
+        // reporting the same metadata again does not create duplicate content items nor assignments to object
+        networkDiscoveryMeta.setContent(List.of(new StringAttributeContent("localhost:0443"), new StringAttributeContent("localhost:0443")));
+        attributeEngine.updateMetadataAttributes(List.of(networkDiscoveryMeta), new ObjectAttributeContentInfo(connectorDiscovery.getUuid(), Resource.CERTIFICATE, certificate.getUuid(), Resource.DISCOVERY, networkDiscoveryUuid));
+        Assertions.assertEquals(contentItemsCount, attributeContentItemRepository.count());
+        Assertions.assertEquals(objectContentItemsCount, attributeContent2ObjectRepository.count());
+
+        // content item stored by entity is resolved by its hash same as content item inserted in bulk
+        AttributeContentItem contentItem = new AttributeContentItem();
+        contentItem.setAttributeDefinitionUuid(attributeDefinitionCache.getDefinitionByName(AttributeType.META, networkDiscoveryMeta.getName()).orElseThrow().getUuid());
+        contentItem.setJson(new StringAttributeContent("localhost:1443"));
+        attributeContentItemRepository.saveAndFlush(contentItem);
+
+        networkDiscoveryMeta.setContent(List.of(new StringAttributeContent("localhost:0443"), new StringAttributeContent("localhost:1443")));
+        attributeEngine.updateMetadataAttributes(List.of(networkDiscoveryMeta), new ObjectAttributeContentInfo(connectorDiscovery.getUuid(), Resource.CERTIFICATE, certificate.getUuid(), Resource.DISCOVERY, UUID.randomUUID()));
+        Assertions.assertEquals(contentItemsCount + 1, attributeContentItemRepository.count());
+        Assertions.assertEquals(objectContentItemsCount + 2, attributeContent2ObjectRepository.count());
+    }
+
+    @Test
+    public void testCachedAttributeDefinition() throws AttributeException {
+        AttributeDefinition definition = attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, departmentCustomAttribute.getName()).orElseThrow();
+        Assertions.assertEquals("Department", definition.getLabel());
+
+        // returned definition is a copy, changes are not visible in cache
+        definition.setLabel("Changed");
+        Assertions.assertEquals("Department", attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, departmentCustomAttribute.getName()).orElseThrow().getLabel());
+
+        // update of definition evicts cached definition
+        departmentCustomAttribute.getProperties().setLabel("Department Updated");
+        attributeEngine.updateCustomAttributeDefinition(departmentCustomAttribute, List.of(Resource.CERTIFICATE, Resource.AUTHORITY));
+        Assertions.assertEquals("Department Updated", attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, departmentCustomAttribute.getName()).orElseThrow().getLabel());
+
+        attributeEngine.deleteAttributeDefinition(AttributeType.CUSTOM, UUID.fromString(departmentCustomAttribute.getUuid()));
+        Assertions.assertTrue(attributeDefinitionCache.getDefinitionByName(AttributeType.CUSTOM, departmentCustomAttribute.getName()).isEmpty());
+    }
+
+    @Test
+    public void testCachedMetadataDefinitionUpdate() throws AttributeException {
+        UUID definitionUuid = attributeDefinitionCache.getDefinitionByName(AttributeType.META, networkDiscoveryMeta.getName()).orElseThrow().getUuid();
+        entityManager.flush();
+        entityManager.clear();
+        AttributeDefinition managedDefinition = attributeDefinitionRepository.findByUuid(definitionUuid).orElseThrow();
+
+        // changed definition is stored by updating managed definition, not by merging cached copy without content items
+        networkDiscoveryMeta.getProperties().setLabel("Discovery Source Updated");
+        AttributeDefinition updatedDefinition = attributeEngine.updateMetadataAttributeDefinition(networkDiscoveryMeta, connectorDiscovery.getUuid());
+        Assertions.assertSame(managedDefinition, updatedDefinition);
+        Assertions.assertEquals("Discovery Source Updated", managedDefinition.getLabel());
+        Assertions.assertFalse(managedDefinition.getContentItems().isEmpty());
+        Assertions.assertEquals("Discovery Source Updated", attributeDefinitionCache.getDefinitionByName(AttributeType.META, networkDiscoveryMeta.getName()).orElseThrow().getLabel());
+    }
+
     private void loadCustomAttributesData() throws AttributeException, NotFoundException {
         departmentCustomAttribute = new CustomAttribute();
         departmentCustomAttribute.setUuid(UUID.randomUUID().toString());
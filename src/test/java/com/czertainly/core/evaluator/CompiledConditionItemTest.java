@@ -0,0 +1,255 @@
+package com.czertainly.core.evaluator;
+
+import com.czertainly.api.exception.RuleException;
+import com.czertainly.api.model.core.search.FilterConditionOperator;
+import com.czertainly.api.model.core.search.FilterFieldSource;
+import com.czertainly.api.model.core.search.SearchableFields;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.DiscoveryHistory;
+import com.czertainly.core.dao.entity.Group;
+import com.czertainly.core.dao.entity.workflows.ConditionItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+class CompiledConditionItemTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledConditionItemTest.class);
+
+    @Test
+    void testCompiledConditionMatchesReflectiveEvaluation() throws RuleException, ParseException {
+        Certificate certificate = createCertificate();
+        List<ConditionItem> conditionItems = List.of(
+                createConditionItem(SearchableFields.COMMON_NAME, FilterConditionOperator.STARTS_WITH, "Common"),
+                createConditionItem(SearchableFields.COMMON_NAME, FilterConditionOperator.EQUALS, "Other"),
+                createConditionItem(SearchableFields.GROUP_NAME, FilterConditionOperator.NOT_EQUALS, "group3"),
+                createConditionItem(SearchableFields.GROUP_NAME, FilterConditionOperator.EQUALS, "group1"),
+                createConditionItem(SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER, "2010-12-12"),
+                createConditionItem(SearchableFields.NOT_BEFORE, FilterConditionOperator.LESSER_OR_EQUAL, "2010-12-12"));
+
+        for (ConditionItem conditionItem : conditionItems) {
+            boolean compiled = CompiledConditionItem.compile(conditionItem, Certificate.class).evaluate(certificate);
+            boolean reflective = CompiledConditionItem.compile(conditionItem, null).evaluate(certificate);
+            Assertions.assertEquals(reflective, compiled, "Different result for " + conditionItem.getFieldIdentifier() + " " + conditionItem.getOperator());
+        }
+    }
+
+    @Test
+    void testCompiledConditionOnStringField() throws RuleException, ParseException {
+        Certificate certificate = createCertificate();
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.EQUALS, "Common Name");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.EQUALS, "Other");
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.NOT_EQUALS, "Other");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.NOT_EQUALS, "Common Name");
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.CONTAINS, "mon Na");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.CONTAINS, "Other");
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.NOT_CONTAINS, "Other");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.NOT_CONTAINS, "mon Na");
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.STARTS_WITH, "Common");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.STARTS_WITH, "Name");
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.ENDS_WITH, "Name");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.ENDS_WITH, "Common");
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.EMPTY, null);
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.NOT_EMPTY, null);
+
+        certificate.setCommonName(null);
+        assertCondition(true, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.EMPTY, null);
+        assertCondition(false, certificate, SearchableFields.COMMON_NAME, FilterConditionOperator.NOT_EMPTY, null);
+    }
+
+    @Test
+    void testCompiledConditionOnListField() throws RuleException, ParseException {
+        Certificate certificate = createCertificate();
+        assertCondition(true, certificate, SearchableFields.KEY_SIZE, FilterConditionOperator.EQUALS, 2048);
+        assertCondition(false, certificate, SearchableFields.KEY_SIZE, FilterConditionOperator.EQUALS, 4096);
+        assertCondition(true, certificate, SearchableFields.KEY_SIZE, FilterConditionOperator.NOT_EQUALS, 4096);
+        assertCondition(false, certificate, SearchableFields.KEY_SIZE, FilterConditionOperator.NOT_EQUALS, 2048);
+        assertCondition(false, certificate, SearchableFields.KEY_SIZE, FilterConditionOperator.EMPTY, null);
+        assertCondition(true, certificate, SearchableFields.KEY_SIZE, FilterConditionOperator.NOT_EMPTY, null);
+
+        // condition on property of collection items has to be satisfied by all items
+        assertCondition(false, certificate, SearchableFields.GROUP_NAME, FilterConditionOperator.EQUALS, "group1");
+        assertCondition(true, certificate, SearchableFields.GROUP_NAME, FilterConditionOperator.NOT_EQUALS, "group3");
+        assertCondition(false, certificate, SearchableFields.GROUP_NAME, FilterConditionOperator.NOT_EQUALS, "group1");
+        assertCondition(true, certificate, SearchableFields.GROUP_NAME, FilterConditionOperator.NOT_EMPTY, null);
+        assertCondition(false, certificate, SearchableFields.GROUP_NAME, FilterConditionOperator.EMPTY, null);
+
+        certificate.setGroups(new HashSet<>(List.of(certificate.getGroups().stream().filter(group -> group.getName().equals("group1")).findFirst().orElseThrow())));
+        assertCondition(true, certificate, SearchableFields.GROUP_NAME, FilterConditionOperator.EQUALS, "group1");
+    }
+
+    @Test
+    void testCompiledConditionOnBooleanField() throws RuleException, ParseException {
+        Certificate certificate = createCertificate();
+        assertCondition(true, certificate, SearchableFields.TRUSTED_CA, FilterConditionOperator.EQUALS, true);
+        assertCondition(false, certificate, SearchableFields.TRUSTED_CA, FilterConditionOperator.EQUALS, false);
+        assertCondition(true, certificate, SearchableFields.TRUSTED_CA, FilterConditionOperator.NOT_EQUALS, false);
+        assertCondition(false, certificate, SearchableFields.TRUSTED_CA, FilterConditionOperator.NOT_EQUALS, true);
+    }
+
+    @Test
+    void testCompiledConditionOnDateField() throws RuleException, ParseException {
+        // not before is 2019-12-01
+        Certificate certificate = createCertificate();
+        assertCondition(true, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER, "2019-11-30");
+        assertCondition(false, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER, "2019-12-01");
+        assertCondition(true, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER_OR_EQUAL, "2019-12-01");
+        assertCondition(false, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER_OR_EQUAL, "2019-12-02");
+        assertCondition(true, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.LESSER, "2019-12-02");
+        assertCondition(false, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.LESSER, "2019-12-01");
+        assertCondition(true, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.LESSER_OR_EQUAL, "2019-12-01");
+        assertCondition(false, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.LESSER_OR_EQUAL, "2019-11-30");
+        assertCondition(true, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.NOT_EMPTY, null);
+        assertCondition(false, certificate, SearchableFields.NOT_BEFORE, FilterConditionOperator.EMPTY, null);
+    }
+
+    @Test
+    void testCompiledConditionOnDatetimeAndNumberField() throws RuleException, ParseException {
+        DiscoveryHistory discovery = new DiscoveryHistory();
+        discovery.setStartTime(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2019-12-01 22:10:15"));
+        discovery.setTotalCertificatesDiscovered(10);
+
+        assertCondition(true, discovery, SearchableFields.START_TIME, FilterConditionOperator.GREATER, "2019-12-01T22:10:00.000+00:00");
+        assertCondition(false, discovery, SearchableFields.START_TIME, FilterConditionOperator.GREATER, "2019-12-01T22:10:30.000+00:00");
+        assertCondition(true, discovery, SearchableFields.START_TIME, FilterConditionOperator.GREATER_OR_EQUAL, "2019-12-01T22:10:15.000+00:00");
+        assertCondition(false, discovery, SearchableFields.START_TIME, FilterConditionOperator.GREATER_OR_EQUAL, "2019-12-01T22:10:16.000+00:00");
+        assertCondition(true, discovery, SearchableFields.START_TIME, FilterConditionOperator.LESSER, "2019-12-01T22:10:30.000+00:00");
+        assertCondition(false, discovery, SearchableFields.START_TIME, FilterConditionOperator.LESSER, "2019-12-01T22:10:00.000+00:00");
+        assertCondition(true, discovery, SearchableFields.START_TIME, FilterConditionOperator.LESSER_OR_EQUAL, "2019-12-01T22:10:15.000+00:00");
+        assertCondition(false, discovery, SearchableFields.START_TIME, FilterConditionOperator.LESSER_OR_EQUAL, "2019-12-01T22:10:14.000+00:00");
+
+        assertCondition(true, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.EQUALS, 10);
+        assertCondition(false, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.EQUALS, 11);
+        assertCondition(true, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.NOT_EQUALS, 11);
+        assertCondition(false, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.NOT_EQUALS, 10);
+        assertCondition(true, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.GREATER, 9);
+        assertCondition(false, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.GREATER, 10);
+        assertCondition(true, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.GREATER_OR_EQUAL, 10);
+        assertCondition(false, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.GREATER_OR_EQUAL, 11);
+        assertCondition(true, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.LESSER, 11);
+        assertCondition(false, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.LESSER, 10);
+        assertCondition(true, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.LESSER_OR_EQUAL, 10);
+        assertCondition(false, discovery, SearchableFields.TOTAL_CERT_DISCOVERED, FilterConditionOperator.LESSER_OR_EQUAL, 9);
+    }
+
+    @Test
+    void testInvalidConditionIsRejectedOnCompile() {
+        Assertions.assertThrows(RuleException.class, () -> CompiledConditionItem.compile(createConditionItem("invalid", FilterConditionOperator.EQUALS, "value"), Certificate.class));
+        Assertions.assertThrows(RuleException.class, () -> CompiledConditionItem.compile(createConditionItem(SearchableFields.COMMON_NAME, FilterConditionOperator.GREATER, "value"), Certificate.class));
+        Assertions.assertThrows(RuleException.class, () -> CompiledConditionItem.compile(createConditionItem(SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER, "not a date"), Certificate.class));
+    }
+
+    @Test
+    void testCacheRecompilesChangedAndEvictedConditionItem() throws RuleException {
+        CompiledConditionCache cache = new CompiledConditionCache();
+        ConditionItem conditionItem = createConditionItem(SearchableFields.COMMON_NAME, FilterConditionOperator.EQUALS, "Common Name");
+        conditionItem.setUuid(UUID.randomUUID());
+
+        CompiledConditionItem compiledItem = cache.get(conditionItem, Certificate.class);
+        Assertions.assertSame(compiledItem, cache.get(conditionItem, Certificate.class));
+
+        conditionItem.setValue("Other Name");
+        CompiledConditionItem recompiledItem = cache.get(conditionItem, Certificate.class);
+        Assertions.assertNotSame(compiledItem, recompiledItem);
+
+        cache.evict(List.of(conditionItem));
+        Assertions.assertNotSame(recompiledItem, cache.get(conditionItem, Certificate.class));
+    }
+
+    /**
+     * Compares evaluation of compiled condition items with resolving the condition for each evaluated object.
+     * Run with -Dbenchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkCompiledConditionEvaluation() throws RuleException, ParseException {
+        Certificate certificate = createCertificate();
+        List<ConditionItem> conditionItems = List.of(
+                createConditionItem(SearchableFields.COMMON_NAME, FilterConditionOperator.STARTS_WITH, "Common"),
+                createConditionItem(SearchableFields.GROUP_NAME, FilterConditionOperator.NOT_EQUALS, "group3"),
+                createConditionItem(SearchableFields.NOT_BEFORE, FilterConditionOperator.GREATER, "2010-12-12"));
+        List<CompiledConditionItem> compiledItems = conditionItems.stream().map(conditionItem -> {
+            try {
+                return CompiledConditionItem.compile(conditionItem, Certificate.class);
+            } catch (RuleException e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+
+        int iterations = 200_000;
+        long reflectiveNanos = 0;
+        long compiledNanos = 0;
+        int satisfied = 0;
+        // first round is warm-up
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (ConditionItem conditionItem : conditionItems) {
+                    if (CompiledConditionItem.compile(conditionItem, null).evaluate(certificate)) satisfied++;
+                }
+            }
+            reflectiveNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (CompiledConditionItem compiledItem : compiledItems) {
+                    if (compiledItem.evaluate(certificate)) satisfied++;
+                }
+            }
+            compiledNanos = System.nanoTime() - start;
+        }
+
+        logger.info("Evaluated {} condition items: reflective {} ms, compiled {} ms, speedup {}x ({} satisfied)",
+                iterations * conditionItems.size(), reflectiveNanos / 1_000_000, compiledNanos / 1_000_000,
+                String.format("%.1f", (double) reflectiveNanos / compiledNanos), satisfied);
+        Assertions.assertTrue(compiledNanos < reflectiveNanos);
+    }
+
+    private static Certificate createCertificate() throws ParseException {
+        Certificate certificate = new Certificate();
+        certificate.setCommonName("Common Name");
+        certificate.setNotBefore(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2019-12-01 22:10:15"));
+        certificate.setKeySize(2048);
+        certificate.setTrustedCa(true);
+
+        Group group1 = new Group();
+        group1.setUuid(UUID.randomUUID());
+        group1.setName("group1");
+        Group group2 = new Group();
+        group2.setUuid(UUID.randomUUID());
+        group2.setName("group2");
+        certificate.setGroups(new HashSet<>(List.of(group1, group2)));
+        return certificate;
+    }
+
+    /**
+     * Assert result of the condition compiled on class of the object and of the condition evaluated by reflection
+     */
+    private static void assertCondition(boolean expected, Object object, SearchableFields field, FilterConditionOperator operator, Object value) throws RuleException {
+        ConditionItem conditionItem = createConditionItem(field, operator, value);
+        String message = field + " " + operator + " " + value;
+        Assertions.assertEquals(expected, CompiledConditionItem.compile(conditionItem, object.getClass()).evaluate(object), "Compiled: " + message);
+        Assertions.assertEquals(expected, CompiledConditionItem.compile(conditionItem, null).evaluate(object), "Reflective: " + message);
+    }
+
+    private static ConditionItem createConditionItem(SearchableFields field, FilterConditionOperator operator, Object value) {
+        return createConditionItem(field.toString(), operator, value);
+    }
+
+    private static ConditionItem createConditionItem(String fieldIdentifier, FilterConditionOperator operator, Object value) {
+        ConditionItem conditionItem = new ConditionItem();
+        conditionItem.setFieldSource(FilterFieldSource.PROPERTY);
+        conditionItem.setFieldIdentifier(fieldIdentifier);
+        conditionItem.setOperator(operator);
+        conditionItem.setValue(value);
+        return conditionItem;
+    }
+}
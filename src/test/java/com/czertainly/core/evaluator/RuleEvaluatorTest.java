@@ -21,6 +21,7 @@ import com.czertainly.api.model.core.search.FilterFieldSource;
 import com.czertainly.api.model.core.search.SearchableFields;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.entity.workflows.*;
 import com.czertainly.core.dao.repository.*;
@@ -282,6 +283,57 @@ public class RuleEvaluatorTest extends BaseSpringBootTest {
 
     }
 
+    @Test
+    public void testCertificateRuleEvaluatorLoadedAttributesContent() throws AlreadyExistException, NotFoundException, RuleException, AttributeException {
+        Certificate certificate2 = new Certificate();
+        certificateRepository.save(certificate2);
+
+        CustomAttributeCreateRequestDto customAttributeRequest = new CustomAttributeCreateRequestDto();
+        customAttributeRequest.setName("customBatch");
+        customAttributeRequest.setLabel("customBatch");
+        customAttributeRequest.setResources(List.of(Resource.CERTIFICATE));
+        customAttributeRequest.setContentType(AttributeContentType.STRING);
+        CustomAttributeDefinitionDetailDto customAttribute = attributeService.createCustomAttribute(customAttributeRequest);
+        attributeEngine.updateObjectCustomAttributeContent(Resource.CERTIFICATE, certificate.getUuid(), null, customAttribute.getName(), List.of(new StringAttributeContent("ref", "data")));
+
+        Connector connector = new Connector();
+        connectorRepository.save(connector);
+        MetadataAttribute metadataAttribute = new MetadataAttribute();
+        metadataAttribute.setContentType(AttributeContentType.STRING);
+        metadataAttribute.setName("metaBatch");
+        metadataAttribute.setUuid(UUID.randomUUID().toString());
+        metadataAttribute.setContent(List.of(new StringAttributeContent("ref", "meta")));
+        metadataAttribute.setType(AttributeType.META);
+        MetadataAttributeProperties props = new MetadataAttributeProperties();
+        props.setLabel("Test meta batch");
+        metadataAttribute.setProperties(props);
+        attributeEngine.updateMetadataAttributes(List.of(metadataAttribute), new ObjectAttributeContentInfo(connector.getUuid(), Resource.CERTIFICATE, certificate2.getUuid()));
+
+        Map<UUID, ObjectAttributesContent> attributesContents = certificateRuleEvaluator.loadAttributesContent(Resource.CERTIFICATE, List.of(certificate, certificate2, new Certificate()));
+        Assertions.assertEquals(2, attributesContents.size());
+
+        ConditionItem customCondition = new ConditionItem();
+        customCondition.setFieldSource(FilterFieldSource.CUSTOM);
+        customCondition.setFieldIdentifier("customBatch");
+        customCondition.setOperator(FilterConditionOperator.EQUALS);
+        customCondition.setValue("data");
+        ConditionItem metaCondition = new ConditionItem();
+        metaCondition.setFieldSource(FilterFieldSource.META);
+        metaCondition.setFieldIdentifier("metaBatch|STRING");
+        metaCondition.setOperator(FilterConditionOperator.EQUALS);
+        metaCondition.setValue("meta");
+
+        Assertions.assertTrue(certificateRuleEvaluator.evaluateConditionItem(customCondition, certificate, Resource.CERTIFICATE, attributesContents.get(certificate.getUuid())));
+        Assertions.assertFalse(certificateRuleEvaluator.evaluateConditionItem(customCondition, certificate2, Resource.CERTIFICATE, attributesContents.get(certificate2.getUuid())));
+        Assertions.assertFalse(certificateRuleEvaluator.evaluateConditionItem(metaCondition, certificate, Resource.CERTIFICATE, attributesContents.get(certificate.getUuid())));
+        Assertions.assertTrue(certificateRuleEvaluator.evaluateConditionItem(metaCondition, certificate2, Resource.CERTIFICATE, attributesContents.get(certificate2.getUuid())));
+
+        // loaded content is used instead of current content of the object
+        attributeEngine.updateObjectCustomAttributeContent(Resource.CERTIFICATE, certificate.getUuid(), null, customAttribute.getName(), List.of(new StringAttributeContent("ref", "changed")));
+        Assertions.assertTrue(certificateRuleEvaluator.evaluateConditionItem(customCondition, certificate, Resource.CERTIFICATE, attributesContents.get(certificate.getUuid())));
+        Assertions.assertFalse(certificateRuleEvaluator.evaluateConditionItem(customCondition, certificate, Resource.CERTIFICATE));
+    }
+
     @Test
     public void testSetCertificateGroup() throws JsonProcessingException, RuleException {
         executionItem.setFieldSource(FilterFieldSource.PROPERTY);
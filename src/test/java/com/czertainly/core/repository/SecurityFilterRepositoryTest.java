@@ -0,0 +1,106 @@
+package com.czertainly.core.repository;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.CertificateContent;
+import com.czertainly.core.dao.entity.Group;
+import com.czertainly.core.dao.entity.GroupAssociation;
+import com.czertainly.core.dao.repository.CertificateContentRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.GroupAssociationRepository;
+import com.czertainly.core.dao.repository.GroupRepository;
+import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.security.authz.SecurityFilter;
+import com.czertainly.core.security.authz.SecurityResourceFilter;
+import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+class SecurityFilterRepositoryTest extends BaseSpringBootTest {
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+    @Autowired
+    private GroupRepository groupRepository;
+    @Autowired
+    private GroupAssociationRepository groupAssociationRepository;
+
+    private final List<Certificate> certificates = new ArrayList<>();
+
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            CertificateContent content = new CertificateContent();
+            content.setContent("security-filter" + i);
+            content = certificateContentRepository.save(content);
+
+            Certificate certificate = new Certificate();
+            certificate.setSubjectDn("securityFilter" + i);
+            certificate.setIssuerDn("securityFilter" + i);
+            certificate.setSerialNumber("fedcba" + i);
+            certificate.setState(CertificateState.ISSUED);
+            certificate.setValidationStatus(CertificateValidationStatus.VALID);
+            certificate.setCertificateContent(content);
+            certificate.setCertificateContentId(content.getId());
+            certificates.add(certificateRepository.save(certificate));
+        }
+
+        group = new Group();
+        group.setName("securityFilterGroup");
+        group = groupRepository.save(group);
+
+        GroupAssociation groupAssociation = new GroupAssociation();
+        groupAssociation.setResource(Resource.CERTIFICATE);
+        groupAssociation.setObjectUuid(certificates.get(1).getUuid());
+        groupAssociation.setGroupUuid(group.getUuid());
+        groupAssociationRepository.save(groupAssociation);
+    }
+
+    @Test
+    void testAllowedObjects() {
+        SecurityFilter filter = createFilter(new SecurityResourceFilter(List.of(certificates.get(0).getUuid().toString()), List.of(), true));
+        Assertions.assertEquals(Set.of(certificates.get(0).getUuid()), findUuids(filter));
+    }
+
+    @Test
+    void testForbiddenObjects() {
+        SecurityFilter filter = createFilter(new SecurityResourceFilter(List.of(), List.of(certificates.get(0).getUuid().toString()), false));
+        Set<UUID> uuids = findUuids(filter);
+        Assertions.assertFalse(uuids.contains(certificates.get(0).getUuid()));
+        Assertions.assertTrue(uuids.containsAll(List.of(certificates.get(1).getUuid(), certificates.get(2).getUuid())));
+    }
+
+    @Test
+    void testAllowedObjectsOrGroupMembers() {
+        SecurityFilter filter = createFilter(new SecurityResourceFilter(List.of(certificates.get(0).getUuid().toString()), List.of(), true));
+        filter.setGroupMembersFilter(new SecurityResourceFilter(List.of(group.getUuid().toString()), List.of(), true));
+        Assertions.assertEquals(Set.of(certificates.get(0).getUuid(), certificates.get(1).getUuid()), findUuids(filter));
+        Assertions.assertEquals(2L, certificateRepository.countUsingSecurityFilter(filter));
+    }
+
+    private Set<UUID> findUuids(SecurityFilter filter) {
+        return certificateRepository.findUsingSecurityFilter(filter).stream().map(Certificate::getUuid).collect(Collectors.toSet());
+    }
+
+    private static SecurityFilter createFilter(SecurityResourceFilter resourceFilter) {
+        resourceFilter.setResource(Resource.CERTIFICATE);
+        resourceFilter.setResourceAction(ResourceAction.LIST);
+        SecurityFilter filter = SecurityFilter.create();
+        filter.setResourceFilter(resourceFilter);
+        return filter;
+    }
+}
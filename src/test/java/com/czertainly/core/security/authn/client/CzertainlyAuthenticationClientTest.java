@@ -13,9 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -26,6 +30,12 @@ class CzertainlyAuthenticationClientTest {
     private static MockWebServer authServiceMock;
 
     private static CzertainlyAuthenticationClient czertainlyAuthenticationClient;
+
+    private static CzertainlyAuthenticationClient cachingAuthenticationClient;
+
+    private static final String TOKEN_HEADER_NAME = "X-USERINFO";
+
+    private static final String USER_UUID = "2b8a8b0c-8d4f-4a2b-9c1e-7d3f5a6b8c9d";
     // @formatter:off
     String RAW_DATA = "{" +
             "\"authenticated\": true," +
@@ -41,6 +51,18 @@ class CzertainlyAuthenticationClientTest {
             "}" +
             "}";
 
+    String RAW_DATA_WITH_UUID = "{" +
+            "\"authenticated\": true," +
+            "\"data\": {" +
+            "\"user\": {" +
+            "\"uuid\": \"" + USER_UUID + "\"," +
+            "\"username\": \"FrantisekJednicka\"," +
+            "\"enabled\": true" +
+            "}," +
+            "\"roles\": []" +
+            "}" +
+            "}";
+
     @BeforeAll
     static void setup() throws IOException {
         authServiceMock = new MockWebServer();
@@ -50,6 +72,8 @@ class CzertainlyAuthenticationClientTest {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         czertainlyAuthenticationClient = new CzertainlyAuthenticationClient(objectMapper, authServiceBaseUrl);
+        cachingAuthenticationClient = new CzertainlyAuthenticationClient(objectMapper, authServiceBaseUrl, 60000, 100);
+        ReflectionTestUtils.setField(cachingAuthenticationClient, "authTokenHeaderName", TOKEN_HEADER_NAME);
     }
 
     @AfterAll
@@ -60,9 +84,12 @@ class CzertainlyAuthenticationClientTest {
 
     @AfterEach
     void cleanup() {
+        cachingAuthenticationClient.invalidateCache();
         try {
-            // Clear the last request by reading it
-            authServiceMock.takeRequest(50, TimeUnit.MILLISECONDS);
+            // Clear the last requests by reading them
+            while (authServiceMock.takeRequest(50, TimeUnit.MILLISECONDS) != null) {
+                // drain recorded requests
+            }
         } catch (InterruptedException e) {
             // No request found, no cleanup needed
         }
@@ -114,6 +141,109 @@ class CzertainlyAuthenticationClientTest {
         assertThrows(CzertainlyAuthenticationException.class, willThrow);
     }
 
+    @Test
+    void cachesAuthenticationForSameHeaders() {
+        // given
+        setUpSuccessfulAuthenticationResponse();
+        int requestCount = authServiceMock.getRequestCount();
+
+        // when
+        AuthenticationInfo first = cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+        AuthenticationInfo second = cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+
+        // then
+        assertEquals(1, authServiceMock.getRequestCount() - requestCount);
+        assertEquals("FrantisekJednicka", first.getUsername());
+        assertEquals(first.getRawData(), second.getRawData());
+    }
+
+    @Test
+    void doesNotShareAuthenticationBetweenDifferentHeaders() {
+        // given
+        setUpSuccessfulAuthenticationResponse();
+        setUpSuccessfulAuthenticationResponse();
+        int requestCount = authServiceMock.getRequestCount();
+
+        // when
+        cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+        cachingAuthenticationClient.authenticate(getTokenHeaders("token2"));
+
+        // then
+        assertEquals(2, authServiceMock.getRequestCount() - requestCount);
+    }
+
+    @Test
+    void authenticatesAgainAfterUserEviction() {
+        // given
+        setUpSuccessfulAuthenticationResponseWithUuid();
+        setUpSuccessfulAuthenticationResponseWithUuid();
+        int requestCount = authServiceMock.getRequestCount();
+
+        // when
+        AuthenticationInfo info = cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+        cachingAuthenticationClient.evictUser(info.getUserUuid());
+        cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+
+        // then
+        assertEquals(USER_UUID, info.getUserUuid());
+        assertEquals(2, authServiceMock.getRequestCount() - requestCount);
+    }
+
+    @Test
+    void doesNotCacheAnonymousAuthentication() {
+        // given
+        setUpAnonymousAuthenticationResponse();
+        setUpAnonymousAuthenticationResponse();
+        int requestCount = authServiceMock.getRequestCount();
+
+        // when
+        cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+        cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+
+        // then
+        assertEquals(2, authServiceMock.getRequestCount() - requestCount);
+    }
+
+    @Test
+    void doesNotCacheAuthenticationRequestedBeforeUserEviction() throws Exception {
+        // given
+        authServiceMock.enqueue(
+                new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("content-type", "application/json")
+                        .setBodyDelay(500, TimeUnit.MILLISECONDS)
+                        .setBody(RAW_DATA_WITH_UUID)
+        );
+        setUpSuccessfulAuthenticationResponseWithUuid();
+        int requestCount = authServiceMock.getRequestCount();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // when
+            Future<AuthenticationInfo> inFlight = executor.submit(() -> cachingAuthenticationClient.authenticate(getTokenHeaders("token1")));
+            // user is evicted while response to the first request is delayed
+            long deadline = System.currentTimeMillis() + 5000;
+            while (authServiceMock.getRequestCount() == requestCount && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, authServiceMock.getRequestCount() - requestCount);
+            cachingAuthenticationClient.evictUser(USER_UUID);
+            assertEquals(USER_UUID, inFlight.get(5, TimeUnit.SECONDS).getUserUuid());
+            cachingAuthenticationClient.authenticate(getTokenHeaders("token1"));
+
+            // then
+            assertEquals(2, authServiceMock.getRequestCount() - requestCount);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    HttpHeaders getTokenHeaders(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(TOKEN_HEADER_NAME, token);
+        return headers;
+    }
+
     RecordedRequest getLastRequest() throws InterruptedException {
         return authServiceMock.takeRequest(500, TimeUnit.MILLISECONDS);
     }
@@ -128,6 +258,24 @@ class CzertainlyAuthenticationClientTest {
         );
     }
 
+    void setUpSuccessfulAuthenticationResponseWithUuid() {
+        authServiceMock.enqueue(
+                new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("content-type", "application/json")
+                        .setBody(RAW_DATA_WITH_UUID)
+        );
+    }
+
+    void setUpAnonymousAuthenticationResponse() {
+        authServiceMock.enqueue(
+                new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("content-type", "application/json")
+                        .setBody("{\"authenticated\": false}")
+        );
+    }
+
     void setUpEmptyResponse() {
         authServiceMock.enqueue(
                 new MockResponse()
@@ -1,10 +1,16 @@
 package com.czertainly.core.security.authz;
 
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.dao.entity.GroupAssociation;
+import com.czertainly.core.dao.repository.GroupAssociationRepository;
+import com.czertainly.core.dao.repository.OwnerAssociationRepository;
+import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authn.CzertainlyAuthenticationToken;
 import com.czertainly.core.security.authn.CzertainlyUserDetails;
 import com.czertainly.core.security.authn.client.AuthenticationInfo;
 import com.czertainly.core.security.authz.opa.OpaClient;
 import com.czertainly.core.security.authz.opa.dto.AnonymousPrincipal;
+import com.czertainly.core.security.authz.opa.dto.OpaObjectAccessResult;
 import com.czertainly.core.security.authz.opa.dto.OpaRequestedResource;
 import com.czertainly.core.security.authz.opa.dto.OpaResourceAccessResult;
 import com.czertainly.core.util.AuthenticationTokenTestHelper;
@@ -28,6 +34,9 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.access.AccessDecisionVoter.ACCESS_DENIED;
 import static org.springframework.security.access.AccessDecisionVoter.ACCESS_GRANTED;
@@ -41,6 +50,12 @@ class ExternalMethodAuthorizationVoterTest {
     @Spy
     ObjectMapper om = new ObjectMapper();
 
+    @Mock
+    GroupAssociationRepository groupAssociationRepository;
+
+    @Mock
+    OwnerAssociationRepository ownerAssociationRepository;
+
     @InjectMocks
     ExternalMethodAuthorizationVoter voter;
 
@@ -221,6 +236,121 @@ class ExternalMethodAuthorizationVoterTest {
         assertEquals(principal, om.writeValueAsString(new AnonymousPrincipal("anonymousUser")));
     }
 
+    @Test
+    void accessIsGrantedWhenAllObjectsAreOwned() throws NoSuchMethodException {
+        // given
+        UUID ownedUuid = UUID.randomUUID();
+        UUID otherOwnedUuid = UUID.randomUUID();
+        mockGroupOwnerAssociations(List.of(ownedUuid, otherOwnedUuid), Map.of());
+
+        // when
+        int result = voter.vote(authenticationWithUserUuid(), methodInvocationWithListOfSecuredUUIDs(ownedUuid.toString(), otherOwnedUuid.toString()), certificateDetailAttributes());
+
+        // then
+        assertEquals(ACCESS_GRANTED, result);
+        verify(opaClient, never()).checkObjectAccess(any(), any(), any(), any());
+        verify(groupAssociationRepository, never()).findByResourceAndObjectUuidIn(any(), any());
+    }
+
+    @Test
+    void accessIsGrantedByGroupMembersWithSingleOpaRequest() throws NoSuchMethodException {
+        // given
+        UUID ownedUuid = UUID.randomUUID();
+        UUID groupMemberUuid = UUID.randomUUID();
+        UUID otherGroupMemberUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID otherGroupUuid = UUID.randomUUID();
+        mockGroupOwnerAssociations(List.of(ownedUuid), Map.of(ownedUuid, List.of(groupUuid), groupMemberUuid, List.of(groupUuid), otherGroupMemberUuid, List.of(groupUuid, otherGroupUuid)));
+        when(opaClient.checkObjectAccess(any(), any(), any(), any()))
+                .thenReturn(groupMembersAccess(groupUuid, otherGroupUuid));
+
+        // when
+        int result = voter.vote(authenticationWithUserUuid(), methodInvocationWithListOfSecuredUUIDs(ownedUuid.toString(), groupMemberUuid.toString(), otherGroupMemberUuid.toString()), certificateDetailAttributes());
+
+        // then
+        assertEquals(ACCESS_GRANTED, result);
+        verify(opaClient, times(1)).checkObjectAccess(any(), any(), any(), any());
+        verify(groupAssociationRepository).findByResourceAndObjectUuidIn(Resource.CERTIFICATE, Set.of(ownedUuid, groupMemberUuid, otherGroupMemberUuid));
+    }
+
+    @Test
+    void accessIsDeniedWhenNotAllObjectsAreOwnedAndOwnedObjectIsNotInGroup() throws NoSuchMethodException {
+        // given
+        UUID ownedUuid = UUID.randomUUID();
+        UUID groupMemberUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        mockGroupOwnerAssociations(List.of(ownedUuid), Map.of(groupMemberUuid, List.of(groupUuid)));
+
+        // when
+        int result = voter.vote(authenticationWithUserUuid(), methodInvocationWithListOfSecuredUUIDs(ownedUuid.toString(), groupMemberUuid.toString()), certificateDetailAttributes());
+
+        // then
+        assertEquals(ACCESS_DENIED, result);
+    }
+
+    @Test
+    void accessIsDeniedWhenAnyObjectGroupIsNotAllowed() throws NoSuchMethodException {
+        // given
+        UUID groupMemberUuid = UUID.randomUUID();
+        UUID otherGroupMemberUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID otherGroupUuid = UUID.randomUUID();
+        mockGroupOwnerAssociations(List.of(), Map.of(groupMemberUuid, List.of(groupUuid), otherGroupMemberUuid, List.of(groupUuid, otherGroupUuid)));
+        when(opaClient.checkObjectAccess(any(), any(), any(), any()))
+                .thenReturn(groupMembersAccess(groupUuid));
+
+        // when
+        int result = voter.vote(authenticationWithUserUuid(), methodInvocationWithListOfSecuredUUIDs(groupMemberUuid.toString(), otherGroupMemberUuid.toString()), certificateDetailAttributes());
+
+        // then
+        assertEquals(ACCESS_DENIED, result);
+    }
+
+    void mockGroupOwnerAssociations(List<UUID> ownedUuids, Map<UUID, List<UUID>> objectsGroups) {
+        when(opaClient.checkResourceAccess(any(), any(), any(), any()))
+                .thenReturn(OpaResourceAccessResult.unauthorized());
+        when(ownerAssociationRepository.findObjectUuidsByOwnerUuidAndResourceAndObjectUuidIn(any(), any(), any()))
+                .thenReturn(ownedUuids);
+
+        List<GroupAssociation> groupAssociations = new ArrayList<>();
+        objectsGroups.forEach((objectUuid, groupUuids) -> groupUuids.forEach(groupUuid -> {
+            GroupAssociation groupAssociation = new GroupAssociation();
+            groupAssociation.setResource(Resource.CERTIFICATE);
+            groupAssociation.setObjectUuid(objectUuid);
+            groupAssociation.setGroupUuid(groupUuid);
+            groupAssociations.add(groupAssociation);
+        }));
+        if (!groupAssociations.isEmpty()) {
+            when(groupAssociationRepository.findByResourceAndObjectUuidIn(any(), any()))
+                    .thenReturn(groupAssociations);
+        }
+    }
+
+    OpaObjectAccessResult groupMembersAccess(UUID... allowedGroupUuids) {
+        OpaObjectAccessResult result = new OpaObjectAccessResult();
+        result.setActionAllowedForGroupOfObjects(false);
+        result.setAllowedObjects(Arrays.stream(allowedGroupUuids).map(UUID::toString).toList());
+        result.setForbiddenObjects(List.of());
+        return result;
+    }
+
+    Collection<ConfigAttribute> certificateDetailAttributes() {
+        Collection<ConfigAttribute> attributes = new ArrayList<>();
+        attributes.add(new ExternalAuthorizationConfigAttribute("name", Resource.CERTIFICATE.getCode()));
+        attributes.add(new ExternalAuthorizationConfigAttribute("action", ResourceAction.DETAIL.getCode()));
+        attributes.add(new ExternalAuthorizationConfigAttribute("parentName", Resource.NONE.getCode()));
+        attributes.add(new ExternalAuthorizationConfigAttribute("parentAction", ResourceAction.NONE.getCode()));
+        return attributes;
+    }
+
+    CzertainlyAuthenticationToken authenticationWithUserUuid() {
+        return new CzertainlyAuthenticationToken(
+                new CzertainlyUserDetails(
+                        new AuthenticationInfo(UUID.randomUUID().toString(), "FrantisekJednicka", List.of())
+                )
+        );
+    }
+
     CzertainlyAuthenticationToken createCzertainlyAuthentication() {
         return new CzertainlyAuthenticationToken(
                 new CzertainlyUserDetails(
@@ -22,6 +22,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,6 +36,8 @@ class OpaClientTest {
 
     private static OpaClient opaClient;
 
+    private static OpaClient cachingOpaClient;
+
     @BeforeAll
     static void setup() throws IOException {
         opaMock = new MockWebServer();
@@ -42,6 +47,7 @@ class OpaClientTest {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         opaClient = new OpaClient(objectMapper, opaBaseUrl);
+        cachingOpaClient = new OpaClient(objectMapper, opaBaseUrl, 60000, 100);
     }
 
     @AfterAll
@@ -52,6 +58,7 @@ class OpaClientTest {
 
     @AfterEach
     void cleanup() {
+        cachingOpaClient.invalidateCache();
         try {
             // Clear the last request by reading it
             opaMock.takeRequest(50, TimeUnit.MILLISECONDS);
@@ -147,6 +154,115 @@ class OpaClientTest {
         assertThrows(AccessDeniedException.class, shouldThrow);
     }
 
+    @Test
+    void cachesDecisionForSameInput() {
+        // given
+        setUpSuccessfulResourceAccessResponse();
+        int requestCount = opaMock.getRequestCount();
+
+        // when
+        OpaResourceAccessResult first = cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+        OpaResourceAccessResult second = cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+
+        // then
+        assertEquals(1, opaMock.getRequestCount() - requestCount);
+        assertTrue(first.isAuthorized());
+        assertTrue(second.isAuthorized());
+        assertEquals(List.of("SomeOpaRule"), second.getAllow());
+    }
+
+    @Test
+    void doesNotShareCachedDecisionBetweenDifferentInputs() {
+        // given
+        setUpSuccessfulResourceAccessResponse();
+        setUpSuccessfulResourceAccessResponse();
+        int requestCount = opaMock.getRequestCount();
+        OpaRequestedResource otherResource = getResource();
+        otherResource.setObjectUUIDs(List.of("f258cdda-17b5-11ed-861d-0242ac120002"));
+
+        // when
+        cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+        cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, otherResource, getPrincipal(), null);
+
+        // then
+        assertEquals(2, opaMock.getRequestCount() - requestCount);
+        drainRequests(2);
+    }
+
+    @Test
+    void callsOpaAgainAfterCacheInvalidation() {
+        // given
+        setUpSuccessfulResourceAccessResponse();
+        setUpSuccessfulResourceAccessResponse();
+        int requestCount = opaMock.getRequestCount();
+
+        // when
+        cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+        cachingOpaClient.invalidateCache();
+        cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+
+        // then
+        assertEquals(2, opaMock.getRequestCount() - requestCount);
+        drainRequests(2);
+    }
+
+    @Test
+    void doesNotCacheDecisionRequestedBeforeCacheInvalidation() throws Exception {
+        // given
+        opaMock.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("content-type", "application/json")
+                .setBodyDelay(500, TimeUnit.MILLISECONDS)
+                .setBody("{\"result\": {\"allow\": [\"SomeOpaRule\"], \"authorized\": true}}"));
+        setUpSuccessfulResourceAccessResponse();
+        int requestCount = opaMock.getRequestCount();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // when
+            Future<OpaResourceAccessResult> inFlight = executor.submit(() -> cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null));
+            // cache is invalidated while response to the first request is delayed
+            long deadline = System.currentTimeMillis() + 5000;
+            while (opaMock.getRequestCount() == requestCount && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, opaMock.getRequestCount() - requestCount);
+            cachingOpaClient.invalidateCache();
+            assertTrue(inFlight.get(5, TimeUnit.SECONDS).isAuthorized());
+            cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+
+            // then
+            assertEquals(2, opaMock.getRequestCount() - requestCount);
+            drainRequests(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotCacheFailedRequests() {
+        // given
+        setUpFaultyResponse();
+        setUpSuccessfulResourceAccessResponse();
+
+        // when
+        Executable shouldThrow = () -> cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null);
+
+        // then
+        assertThrows(AccessDeniedException.class, shouldThrow);
+        assertTrue(cachingOpaClient.checkResourceAccess(OpaPolicy.METHOD.policyName, getResource(), getPrincipal(), null).isAuthorized());
+        drainRequests(2);
+    }
+
+    void drainRequests(int count) {
+        try {
+            for (int i = 0; i < count; i++) {
+                opaMock.takeRequest(50, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            // No request found, no cleanup needed
+        }
+    }
 
     OpaRequestedResource getResource() {
         Map<String, String> properties = new HashMap<>();
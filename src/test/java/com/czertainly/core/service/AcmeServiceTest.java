@@ -23,6 +23,7 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import jakarta.persistence.EntityManager;
 import org.bouncycastle.operator.OperatorCreationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,10 +37,12 @@ import java.net.URISyntaxException;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.OffsetDateTime;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 public class AcmeServiceTest extends BaseSpringBootTest {
 
@@ -87,6 +90,9 @@ public class AcmeServiceTest extends BaseSpringBootTest {
     @Autowired
     private AcmeService acmeService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private AcmeNonce acmeValidNonce;
     private JWSSigner rsa2048Signer;
     private RSAKey rsa2048PublicJWK;
@@ -634,4 +640,33 @@ public class AcmeServiceTest extends BaseSpringBootTest {
         // contains Link header
         Assertions.assertNotNull(response.getHeaders().get("Link"));
     }
+
+    @Test
+    public void testInvalidateStuckChallenges() {
+        UUID authorizationUuid = acmeChallengeRepository.findByChallengeId("challenge123").orElseThrow().getAuthorizationUuid();
+        AcmeChallenge stuckChallenge = createProcessingChallenge("challengeStuck", authorizationUuid);
+        createProcessingChallenge("challengeProcessing", authorizationUuid);
+        entityManager.flush();
+        entityManager.createQuery("UPDATE AcmeChallenge c SET c.updated = :updated WHERE c.uuid = :uuid")
+                .setParameter("updated", OffsetDateTime.now().minusHours(1))
+                .setParameter("uuid", stuckChallenge.getUuid())
+                .executeUpdate();
+        entityManager.clear();
+
+        acmeService.invalidateStuckChallenges();
+
+        Assertions.assertEquals(ChallengeStatus.INVALID, acmeChallengeRepository.findByChallengeId("challengeStuck").orElseThrow().getStatus());
+        Assertions.assertEquals(ChallengeStatus.PROCESSING, acmeChallengeRepository.findByChallengeId("challengeProcessing").orElseThrow().getStatus());
+        Assertions.assertEquals(ChallengeStatus.VALID, acmeChallengeRepository.findByChallengeId("challenge123").orElseThrow().getStatus());
+    }
+
+    private AcmeChallenge createProcessingChallenge(String challengeId, UUID authorizationUuid) {
+        AcmeChallenge challenge = new AcmeChallenge();
+        challenge.setChallengeId(challengeId);
+        challenge.setStatus(ChallengeStatus.PROCESSING);
+        challenge.setType(ChallengeType.HTTP01);
+        challenge.setToken(challengeId);
+        challenge.setAuthorizationUuid(authorizationUuid);
+        return acmeChallengeRepository.save(challenge);
+    }
 }
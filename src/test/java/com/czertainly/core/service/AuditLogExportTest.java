@@ -2,18 +2,29 @@ package com.czertainly.core.service;
 
 import com.czertainly.api.model.core.audit.AuditLogFilter;
 import com.czertainly.api.model.core.audit.AuditLogResponseDto;
-import com.czertainly.api.model.core.audit.ExportResultDto;
+import com.czertainly.api.model.core.audit.ObjectType;
+import com.czertainly.api.model.core.audit.OperationStatusEnum;
+import com.czertainly.api.model.core.audit.OperationType;
+import com.czertainly.core.dao.repository.AuditLogRepository;
+import com.czertainly.core.model.ExportFile;
 import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 @SpringBootTest
 public class AuditLogExportTest extends BaseSpringBootTest {
@@ -21,18 +32,54 @@ public class AuditLogExportTest extends BaseSpringBootTest {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Purge commits deleted chunks in its own transactions, so purge tests run without test transaction
+     * and remove created audit logs afterwards.
+     */
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> auditLogRepository.deleteAll());
+    }
+
     @Test
     public void testExportAuditLog() throws IOException {
+        auditLogService.log(ObjectType.BE, ObjectType.BE, null, OperationType.START, OperationStatusEnum.SUCCESS, null);
         auditLogService.listAuditLogs(new AuditLogFilter(), Pageable.ofSize(10));
-        ExportResultDto result = auditLogService.exportAuditLogs(new AuditLogFilter(), Sort.by("id"));
 
-        try (FileOutputStream fos = new FileOutputStream(File.createTempFile(result.getFileName(), ""))) {
-            fos.write(result.getFileContent());
-            fos.flush();
+        ExportFile export = auditLogService.exportAuditLogs(new AuditLogFilter(), Sort.by("id"));
+        Assertions.assertNotNull(export);
+        Assertions.assertTrue(export.fileName().endsWith(".zip"));
+        Assertions.assertEquals(export.contentLength(), export.resource().contentLength());
+
+        try (ZipInputStream zis = new ZipInputStream(export.resource().getInputStream())) {
+            ZipEntry entry = zis.getNextEntry();
+            Assertions.assertNotNull(entry);
+            Assertions.assertEquals(export.fileName().replace(".zip", ".csv"), entry.getName());
+            List<String> lines = new String(zis.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            Assertions.assertFalse(lines.isEmpty());
+            Assertions.assertTrue(lines.get(0).contains("operation"));
+            Assertions.assertNull(zis.getNextEntry());
         }
+        // temporary file of export is removed once it is read
+        Assertions.assertFalse(export.resource().exists());
+    }
+
+    @Test
+    public void testExportAuditLogEmpty() {
+        AuditLogFilter filter = new AuditLogFilter();
+        filter.setOperation(OperationType.STOP);
+
+        Assertions.assertNull(auditLogService.exportAuditLogs(filter, Sort.by("id")));
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void testPurgeAuditLogs() {
         auditLogService.logStartup();
         auditLogService.logShutdown();
@@ -43,4 +90,20 @@ public class AuditLogExportTest extends BaseSpringBootTest {
         // therefore we expect only 1 record to be available after purging all
         Assertions.assertEquals(1, logs.getItems().size());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testPurgeAuditLogsByFilter() {
+        auditLogService.log(ObjectType.BE, ObjectType.BE, null, OperationType.START, OperationStatusEnum.SUCCESS, null);
+        auditLogService.log(ObjectType.BE, ObjectType.BE, null, OperationType.START, OperationStatusEnum.SUCCESS, null);
+        auditLogService.log(ObjectType.BE, ObjectType.BE, null, OperationType.STOP, OperationStatusEnum.SUCCESS, null);
+
+        AuditLogFilter filter = new AuditLogFilter();
+        filter.setOperation(OperationType.START);
+        auditLogService.purgeAuditLogs(filter, Sort.unsorted());
+
+        Assertions.assertTrue(auditLogService.listAuditLogs(filter, Pageable.ofSize(10)).getItems().isEmpty());
+        filter.setOperation(OperationType.STOP);
+        Assertions.assertEquals(1, auditLogService.listAuditLogs(filter, Pageable.ofSize(10)).getItems().size());
+    }
 }
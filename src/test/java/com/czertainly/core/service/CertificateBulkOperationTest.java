@@ -0,0 +1,228 @@
+package com.czertainly.core.service;
+
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.model.client.certificate.MultipleCertificateObjectUpdateDto;
+import com.czertainly.api.model.client.certificate.RemoveCertificateDto;
+import com.czertainly.api.model.client.certificate.SearchFilterRequestDto;
+import com.czertainly.api.model.common.NameAndUuidDto;
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.auth.UserDetailDto;
+import com.czertainly.api.model.core.certificate.CertificateEvent;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.api.model.core.search.FilterConditionOperator;
+import com.czertainly.api.model.core.search.FilterFieldSource;
+import com.czertainly.api.model.core.search.SearchableFields;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.CertificateContent;
+import com.czertainly.core.dao.entity.CertificateEventHistory;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.repository.CertificateContentRepository;
+import com.czertainly.core.dao.repository.CertificateEventHistoryRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.RaProfileRepository;
+import com.czertainly.core.search.SearchFilterRequestDtoDummy;
+import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.security.authz.SecurityFilter;
+import com.czertainly.core.util.BaseSpringBootTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk delete is asynchronous and suspends the caller transaction, so bulk operations are invoked on the target service
+ * bypassing the proxy. Chunk transactions then join the test transaction and all changes are rolled back after the test.
+ */
+@TestPropertySource(properties = "certificate.bulk-operation.chunk-size=2")
+class CertificateBulkOperationTest extends BaseSpringBootTest {
+
+    private static final String COMMON_NAME_PREFIX = "bulk-operation-";
+
+    @Autowired
+    private CertificateService certificateService;
+    @Autowired
+    private CertificateRepository certificateRepository;
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+    @Autowired
+    private CertificateEventHistoryRepository certificateEventHistoryRepository;
+    @Autowired
+    private RaProfileRepository raProfileRepository;
+    @Autowired
+    private ResourceObjectAssociationService associationService;
+    @Autowired
+    private EntityManager entityManager;
+
+    @SpyBean
+    private ComplianceService complianceService;
+    @MockBean
+    private UserManagementApiClient userManagementApiClient;
+
+    private CertificateService targetCertificateService;
+
+    private final List<Certificate> matchingCertificates = new ArrayList<>();
+    private Certificate otherCertificate;
+    private RaProfile raProfile;
+
+    @BeforeEach
+    void setUp() {
+        targetCertificateService = AopTestUtils.getUltimateTargetObject(certificateService);
+
+        // 5 matching certificates are processed in 3 chunks
+        for (int i = 0; i < 5; i++) {
+            matchingCertificates.add(createCertificate(COMMON_NAME_PREFIX + i, createCertificateContent("bulk-content-" + i)));
+        }
+        // content of first matching certificate is still used by certificate not matching the filters
+        otherCertificate = createCertificate("other-certificate", matchingCertificates.get(0).getCertificateContent());
+
+        raProfile = new RaProfile();
+        raProfile.setName("Bulk operation RA profile");
+        raProfile = raProfileRepository.save(raProfile);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testBulkDeleteByFilters() throws NotFoundException {
+        RemoveCertificateDto request = new RemoveCertificateDto();
+        request.setFilters(getFilters());
+
+        targetCertificateService.bulkDeleteCertificate(SecurityFilter.create(), request);
+        entityManager.clear();
+
+        for (Certificate certificate : matchingCertificates) {
+            Assertions.assertTrue(certificateRepository.findByUuid(certificate.getUuid()).isEmpty());
+        }
+        Assertions.assertTrue(certificateRepository.findByUuid(otherCertificate.getUuid()).isPresent());
+
+        // orphaned contents are removed, shared content is kept
+        Assertions.assertTrue(certificateContentRepository.findById(matchingCertificates.get(0).getCertificateContentId()).isPresent());
+        for (Certificate certificate : matchingCertificates.subList(1, matchingCertificates.size())) {
+            Assertions.assertTrue(certificateContentRepository.findById(certificate.getCertificateContentId()).isEmpty());
+        }
+    }
+
+    @Test
+    void testBulkUpdateRaProfileByFilters() throws NotFoundException, ConnectorException {
+        MultipleCertificateObjectUpdateDto request = new MultipleCertificateObjectUpdateDto();
+        request.setRaProfileUuid(raProfile.getUuid().toString());
+        request.setFilters(getFilters());
+
+        targetCertificateService.bulkUpdateCertificateObjects(SecurityFilter.create(), request);
+        entityManager.clear();
+
+        for (Certificate certificate : matchingCertificates) {
+            Certificate updated = certificateRepository.findByUuid(certificate.getUuid()).orElseThrow();
+            Assertions.assertEquals(raProfile.getUuid(), updated.getRaProfileUuid());
+            Assertions.assertEquals(1, getEventHistory(updated, CertificateEvent.UPDATE_RA_PROFILE).size());
+        }
+        Certificate other = certificateRepository.findByUuid(otherCertificate.getUuid()).orElseThrow();
+        Assertions.assertNull(other.getRaProfileUuid());
+        Assertions.assertTrue(getEventHistory(other, CertificateEvent.UPDATE_RA_PROFILE).isEmpty());
+
+        // compliance is checked again for each certificate with switched RA profile
+        Set<UUID> matchingUuids = matchingCertificates.stream().map(Certificate::getUuid).collect(Collectors.toSet());
+        Mockito.verify(complianceService, Mockito.times(matchingCertificates.size()))
+                .checkComplianceOfCertificate(Mockito.argThat(certificate -> matchingUuids.contains(certificate.getUuid())));
+        Mockito.verify(complianceService, Mockito.never())
+                .checkComplianceOfCertificate(Mockito.argThat(certificate -> certificate.getUuid().equals(otherCertificate.getUuid())));
+    }
+
+    @Test
+    void testBulkUpdateOwnerByFilters() throws NotFoundException {
+        UUID ownerUuid = UUID.randomUUID();
+        UserDetailDto userDetail = new UserDetailDto();
+        userDetail.setUuid(ownerUuid.toString());
+        userDetail.setUsername("bulkOwner");
+        Mockito.when(userManagementApiClient.getUserDetail(ownerUuid.toString())).thenReturn(userDetail);
+
+        MultipleCertificateObjectUpdateDto request = new MultipleCertificateObjectUpdateDto();
+        request.setOwnerUuid(ownerUuid.toString());
+        request.setFilters(getFilters());
+
+        targetCertificateService.bulkUpdateCertificateObjects(SecurityFilter.create(), request);
+        entityManager.clear();
+
+        for (Certificate certificate : matchingCertificates) {
+            NameAndUuidDto owner = associationService.getOwner(Resource.CERTIFICATE, certificate.getUuid());
+            Assertions.assertNotNull(owner);
+            Assertions.assertEquals(ownerUuid.toString(), owner.getUuid());
+            Assertions.assertEquals("bulkOwner", owner.getName());
+            Assertions.assertEquals(1, getEventHistory(certificateRepository.findByUuid(certificate.getUuid()).orElseThrow(), CertificateEvent.UPDATE_OWNER).size());
+        }
+        Assertions.assertNull(associationService.getOwner(Resource.CERTIFICATE, otherCertificate.getUuid()));
+    }
+
+    @Test
+    void testFindFirstUuidsUsingSecurityFilter() {
+        // UUIDs are ordered by database, which compares them as unsigned bytes like their string representation
+        List<UUID> matchingUuids = matchingCertificates.stream().map(Certificate::getUuid).sorted(Comparator.comparing(UUID::toString)).toList();
+
+        List<UUID> firstChunk = certificateRepository.findFirstUuidsUsingSecurityFilter(SecurityFilter.create(),
+                (root, cb) -> cb.like(root.get("commonName"), COMMON_NAME_PREFIX + "%"), 2);
+        Assertions.assertEquals(matchingUuids.subList(0, 2), firstChunk);
+
+        UUID lastUuid = firstChunk.get(1);
+        List<UUID> remaining = certificateRepository.findFirstUuidsUsingSecurityFilter(SecurityFilter.create(),
+                (root, cb) -> cb.and(cb.like(root.get("commonName"), COMMON_NAME_PREFIX + "%"), cb.greaterThan(root.get("uuid"), lastUuid)), 10);
+        Assertions.assertEquals(matchingUuids.subList(2, matchingUuids.size()), remaining);
+    }
+
+    @Test
+    void testUpdateRaProfileUuid() {
+        List<UUID> uuids = List.of(matchingCertificates.get(0).getUuid(), matchingCertificates.get(1).getUuid());
+
+        Assertions.assertEquals(2, certificateRepository.updateRaProfileUuid(raProfile.getUuid(), uuids));
+        entityManager.clear();
+
+        for (Certificate certificate : matchingCertificates) {
+            Certificate updated = certificateRepository.findByUuid(certificate.getUuid()).orElseThrow();
+            Assertions.assertEquals(uuids.contains(certificate.getUuid()) ? raProfile.getUuid() : null, updated.getRaProfileUuid());
+        }
+    }
+
+    private List<CertificateEventHistory> getEventHistory(Certificate certificate, CertificateEvent event) {
+        return certificateEventHistoryRepository.findByCertificateOrderByCreatedDesc(certificate).stream()
+                .filter(history -> history.getEvent() == event)
+                .toList();
+    }
+
+    private List<SearchFilterRequestDto> getFilters() {
+        return List.of(new SearchFilterRequestDtoDummy(FilterFieldSource.PROPERTY, SearchableFields.COMMON_NAME.name(), FilterConditionOperator.STARTS_WITH, COMMON_NAME_PREFIX));
+    }
+
+    private CertificateContent createCertificateContent(String content) {
+        CertificateContent certificateContent = new CertificateContent();
+        certificateContent.setContent(content);
+        return certificateContentRepository.save(certificateContent);
+    }
+
+    private Certificate createCertificate(String commonName, CertificateContent certificateContent) {
+        Certificate certificate = new Certificate();
+        certificate.setCommonName(commonName);
+        certificate.setSubjectDn("CN=" + commonName);
+        certificate.setIssuerDn("CN=Bulk Operation CA");
+        certificate.setSerialNumber(Integer.toHexString(commonName.hashCode()));
+        certificate.setState(CertificateState.ISSUED);
+        certificate.setValidationStatus(CertificateValidationStatus.VALID);
+        certificate.setCertificateContent(certificateContent);
+        certificate.setCertificateContentId(certificateContent.getId());
+        return certificateRepository.save(certificate);
+    }
+}
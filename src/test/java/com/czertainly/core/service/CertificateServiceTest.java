@@ -4,6 +4,7 @@ import com.czertainly.api.exception.AlreadyExistException;
 import com.czertainly.api.exception.AttributeException;
 import com.czertainly.api.exception.CertificateOperationException;
 import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.exception.ValidationException;
 import com.czertainly.api.model.client.certificate.*;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.common.attribute.v2.AttributeType;
@@ -20,12 +21,23 @@ import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.repository.*;
+import com.czertainly.core.model.KeysetPage;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.util.BaseSpringBootTest;
 import com.czertainly.core.util.MetaDefinitions;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.SubjectKeyIdentifier;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -34,14 +46,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigInteger;
 import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
 import java.security.KeyStore;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public class CertificateServiceTest extends BaseSpringBootTest {
@@ -66,6 +83,8 @@ public class CertificateServiceTest extends BaseSpringBootTest {
     private GroupRepository groupRepository;
     @Autowired
     private ResourceObjectAssociationService associationService;
+    @Autowired
+    private EntityManager entityManager;
 
     private AttributeEngine attributeEngine;
 
@@ -181,6 +200,49 @@ public class CertificateServiceTest extends BaseSpringBootTest {
         Assertions.assertEquals(certificate.getUuid().toString(), certificateEntities.getCertificates().get(0).getUuid());
     }
 
+    @Test
+    public void testListCertificatesUsingKeyset() throws NotFoundException {
+        Group secondGroup = new Group();
+        secondGroup.setName("keysetGroup");
+        secondGroup = groupRepository.save(secondGroup);
+
+        for (int i = 0; i < 2; i++) {
+            CertificateContent content = new CertificateContent();
+            content.setContent("keyset" + i);
+            content = certificateContentRepository.save(content);
+
+            Certificate keysetCertificate = new Certificate();
+            keysetCertificate.setSubjectDn("keysetCertificate" + i);
+            keysetCertificate.setIssuerDn("keysetCertificate" + i);
+            keysetCertificate.setSerialNumber("abcdef" + i);
+            keysetCertificate.setState(CertificateState.ISSUED);
+            keysetCertificate.setValidationStatus(CertificateValidationStatus.VALID);
+            keysetCertificate.setCertificateContent(content);
+            keysetCertificate.setCertificateContentId(content.getId());
+            keysetCertificate = certificateRepository.save(keysetCertificate);
+            // certificates in multiple groups must not be duplicated or shift the page
+            associationService.setGroups(Resource.CERTIFICATE, keysetCertificate.getUuid(), Set.of(group.getUuid(), secondGroup.getUuid()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        SearchRequestDto request = new SearchRequestDto();
+        request.setItemsPerPage(2);
+        KeysetPage<CertificateResponseDto> firstPage = certificateService.listCertificates(SecurityFilter.create(), request, null, true);
+        Assertions.assertEquals(2, firstPage.content().getCertificates().size());
+        Assertions.assertEquals(2, firstPage.content().getCertificates().stream().map(CertificateDto::getUuid).distinct().count());
+        Assertions.assertTrue(firstPage.content().getCertificates().stream().filter(c -> c.getSubjectDn().startsWith("keysetCertificate")).allMatch(c -> c.getGroups().size() == 2));
+        Assertions.assertEquals(3, firstPage.content().getTotalItems());
+        Assertions.assertNotNull(firstPage.continuationToken());
+
+        KeysetPage<CertificateResponseDto> secondPage = certificateService.listCertificates(SecurityFilter.create(), request, firstPage.continuationToken(), false);
+        Assertions.assertEquals(1, secondPage.content().getCertificates().size());
+        Assertions.assertNull(secondPage.continuationToken());
+        Assertions.assertTrue(firstPage.content().getCertificates().stream().noneMatch(c -> c.getUuid().equals(secondPage.content().getCertificates().get(0).getUuid())));
+
+        Assertions.assertThrows(ValidationException.class, () -> certificateService.listCertificates(SecurityFilter.create(), request, "invalid", false));
+    }
+
     @Test
     public void testGetCertificate() throws NotFoundException, CertificateException, IOException {
         CertificateDetailDto dto = certificateService.getCertificate(certificate.getSecuredUuid());
@@ -212,6 +274,47 @@ public class CertificateServiceTest extends BaseSpringBootTest {
         Assertions.assertEquals("177e75f42e95ecb98f831eb57de27b0bc8c47643", cert.getSerialNumber());
     }
 
+    @Test
+    public void testUpdateCertificateChainByKeyIdentifier() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair caKeyPair = keyPairGenerator.generateKeyPair();
+        KeyPair otherCaKeyPair = keyPairGenerator.generateKeyPair();
+        KeyPair endKeyPair = keyPairGenerator.generateKeyPair();
+
+        X500Name caName = new X500Name("CN=Key Identifier Test CA");
+        SubjectKeyIdentifier caKeyIdentifier = new JcaX509ExtensionUtils().createSubjectKeyIdentifier(caKeyPair.getPublic());
+        // CA with the same subject DN and subject key identifier, but different key, must not be resolved as issuer
+        X509Certificate otherCaCertificate = createCertificate(caName, BigInteger.ONE, caName, otherCaKeyPair, otherCaKeyPair, caKeyIdentifier, null);
+        X509Certificate caCertificate = createCertificate(caName, BigInteger.TWO, caName, caKeyPair, caKeyPair, caKeyIdentifier, null);
+        X509Certificate endCertificate = createCertificate(caName, BigInteger.TEN, new X500Name("CN=Key Identifier Test"), endKeyPair, caKeyPair,
+                new JcaX509ExtensionUtils().createSubjectKeyIdentifier(endKeyPair.getPublic()), new AuthorityKeyIdentifier(caKeyIdentifier.getKeyIdentifier()));
+
+        Certificate otherCa = certificateService.checkCreateCertificate(Base64.getEncoder().encodeToString(otherCaCertificate.getEncoded()));
+        Certificate ca = certificateService.checkCreateCertificate(Base64.getEncoder().encodeToString(caCertificate.getEncoded()));
+        Certificate end = certificateService.checkCreateCertificate(Base64.getEncoder().encodeToString(endCertificate.getEncoded()));
+        Assertions.assertEquals(ca.getSubjectKeyIdentifier(), end.getAuthorityKeyIdentifier());
+        Assertions.assertEquals(otherCa.getSubjectKeyIdentifier(), end.getAuthorityKeyIdentifier());
+
+        CertificateChainResponseDto chain = certificateService.getCertificateChain(end.getSecuredUuid(), false);
+        Assertions.assertTrue(chain.isCompleteChain());
+        Assertions.assertEquals(1, chain.getCertificates().size());
+        Assertions.assertEquals(ca.getUuid().toString(), chain.getCertificates().get(0).getUuid());
+        Assertions.assertEquals(ca.getUuid(), certificateRepository.findByUuid(end.getSecuredUuid()).orElseThrow().getIssuerCertificateUuid());
+    }
+
+    private X509Certificate createCertificate(X500Name issuerName, BigInteger serialNumber, X500Name subjectName, KeyPair subjectKeyPair, KeyPair issuerKeyPair,
+                                              SubjectKeyIdentifier subjectKeyIdentifier, AuthorityKeyIdentifier authorityKeyIdentifier) throws Exception {
+        JcaX509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(issuerName, serialNumber, new Date(System.currentTimeMillis() - 60000),
+                new Date(System.currentTimeMillis() + 86400000), subjectName, subjectKeyPair.getPublic());
+        certificateBuilder.addExtension(Extension.basicConstraints, true, new BasicConstraints(authorityKeyIdentifier == null));
+        certificateBuilder.addExtension(Extension.subjectKeyIdentifier, false, subjectKeyIdentifier);
+        if (authorityKeyIdentifier != null) {
+            certificateBuilder.addExtension(Extension.authorityKeyIdentifier, false, authorityKeyIdentifier);
+        }
+        return new JcaX509CertificateConverter().getCertificate(certificateBuilder.build(new JcaContentSignerBuilder("SHA256withRSA").build(issuerKeyPair.getPrivate())));
+    }
+
     @Test
     public void testAddCertificate_certificateException() {
         Assertions.assertThrows(CertificateException.class, () -> certificateService.checkCreateCertificate("certificate"));
@@ -0,0 +1,164 @@
+package com.czertainly.core.service;
+
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.repository.CertificateContentRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.CrlRepository;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.*;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CRLConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scheduled status update commits its own transactions in worker threads, so the test runs without test transaction
+ * and removes created data afterwards.
+ */
+@TestPropertySource(properties = {"certificate.status-update.batch-size=2", "certificate.status-update.parallelism=3"})
+class CertificateStatusUpdateTest extends BaseSpringBootTest {
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+
+    @Autowired
+    private CrlRepository crlRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private WireMockServer mockServer;
+
+    private final List<Certificate> certificates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockServer.stop();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            crlRepository.deleteAll();
+            // certificates are removed before their issuer
+            for (int i = certificates.size() - 1; i >= 0; i--) {
+                certificateRepository.findByUuid(certificates.get(i).getUuid()).ifPresent(certificateRepository::delete);
+            }
+            certificateRepository.flush();
+            for (Certificate certificate : certificates) {
+                certificateContentRepository.deleteById(certificate.getCertificateContentId());
+            }
+        });
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testStatusUpdateOfIssuerSplitToBatches() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair caKeyPair = keyPairGenerator.generateKeyPair();
+        X500Name caName = new X500Name("CN=Status Update Test CA");
+
+        X509Certificate caCertificate = createCertificate(caName, caName, BigInteger.ONE, caKeyPair, caKeyPair, null);
+        Certificate ca = saveCertificate(caCertificate);
+        ca.setTrustedCa(true);
+        certificateRepository.save(ca);
+
+        String crlUrl = mockServer.baseUrl() + "/ca.crl";
+        for (int i = 2; i <= 6; i++) {
+            saveCertificate(createCertificate(caName, new X500Name("CN=Status Update Test " + i), BigInteger.valueOf(i), keyPairGenerator.generateKeyPair(), caKeyPair, crlUrl));
+        }
+        Set<BigInteger> revokedSerialNumbers = Set.of(BigInteger.TWO, BigInteger.valueOf(3));
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/ca.crl"))
+                .willReturn(WireMock.aResponse().withStatus(200).withFixedDelay(200).withBody(createCrl(caName, caKeyPair, revokedSerialNumbers).getEncoded())));
+
+        // 6 certificates of the same issuer are split into 3 batches processed by 3 workers
+        Assertions.assertEquals(6, certificateService.updateCertificatesStatusScheduled());
+
+        for (Certificate certificate : certificates) {
+            Certificate updated = certificateRepository.findByUuid(certificate.getUuid()).orElseThrow();
+            Assertions.assertNotNull(updated.getStatusValidationTimestamp());
+            if (revokedSerialNumbers.contains(new BigInteger(updated.getSerialNumber(), 16))) {
+                Assertions.assertEquals(CertificateValidationStatus.REVOKED, updated.getValidationStatus());
+                Assertions.assertEquals(CertificateState.REVOKED, updated.getState());
+            } else {
+                Assertions.assertNotEquals(CertificateValidationStatus.REVOKED, updated.getValidationStatus());
+            }
+        }
+
+        // CRL of the issuer is downloaded and stored once by the concurrent workers
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/ca.crl")));
+        Assertions.assertEquals(1, crlRepository.count());
+    }
+
+    private Certificate saveCertificate(X509Certificate x509Certificate) {
+        Certificate certificate = certificateService.createCertificateEntity(x509Certificate);
+        certificate.setState(CertificateState.ISSUED);
+        certificate.setValidationStatus(CertificateValidationStatus.NOT_CHECKED);
+        certificate = certificateRepository.save(certificate);
+        certificates.add(certificate);
+        return certificate;
+    }
+
+    private X509Certificate createCertificate(X500Name issuerName, X500Name subjectName, BigInteger serialNumber, KeyPair subjectKeyPair, KeyPair issuerKeyPair, String crlUrl) throws Exception {
+        JcaX509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(issuerName, serialNumber, new Date(System.currentTimeMillis() - 60000),
+                new Date(System.currentTimeMillis() + 86400000), subjectName, subjectKeyPair.getPublic());
+        certificateBuilder.addExtension(Extension.basicConstraints, true, new BasicConstraints(crlUrl == null));
+        if (crlUrl != null) {
+            GeneralName generalName = new GeneralName(GeneralName.uniformResourceIdentifier, new DERIA5String(crlUrl));
+            DistributionPoint distributionPoint = new DistributionPoint(new DistributionPointName(new GeneralNames(generalName)), null, null);
+            certificateBuilder.addExtension(Extension.cRLDistributionPoints, false, new CRLDistPoint(new DistributionPoint[]{distributionPoint}));
+        }
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(issuerKeyPair.getPrivate());
+        return new JcaX509CertificateConverter().getCertificate(certificateBuilder.build(signer));
+    }
+
+    private X509CRL createCrl(X500Name issuerName, KeyPair issuerKeyPair, Set<BigInteger> revokedSerialNumbers) throws Exception {
+        Date now = new Date();
+        X509v2CRLBuilder crlBuilder = new X509v2CRLBuilder(issuerName, now);
+        crlBuilder.setNextUpdate(new Date(now.getTime() + 86400000));
+        crlBuilder.addExtension(Extension.cRLNumber, false, new CRLNumber(BigInteger.ONE));
+        for (BigInteger serialNumber : revokedSerialNumbers) {
+            crlBuilder.addCRLEntry(serialNumber, now, CRLReason.keyCompromise);
+        }
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(issuerKeyPair.getPrivate());
+        return new JcaX509CRLConverter().getCRL(crlBuilder.build(signer));
+    }
+}
@@ -1,8 +1,18 @@
 package com.czertainly.core.service;
 
 import com.czertainly.api.model.client.dashboard.StatisticsDto;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateType;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.api.model.core.compliance.ComplianceStatus;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.CertificateContent;
 import com.czertainly.core.dao.entity.Group;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.repository.CertificateContentRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.dao.repository.GroupRepository;
+import com.czertainly.core.dao.repository.RaProfileRepository;
 import com.czertainly.core.util.BaseSpringBootTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -11,6 +21,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 @SpringBootTest
 @Transactional
 @Rollback
@@ -22,6 +35,15 @@ public class StatisticsServiceTest extends BaseSpringBootTest {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+
+    @Autowired
+    private RaProfileRepository raProfileRepository;
+
     @Test
     public void testGetStatistics() {
         StatisticsDto result = statisticsService.getStatistics();
@@ -39,4 +61,49 @@ public class StatisticsServiceTest extends BaseSpringBootTest {
         Assertions.assertEquals(0l, result.getTotalCertificates());
         Assertions.assertEquals(1l, result.getTotalGroups());
     }
+
+    @Test
+    public void testGetStatistics_certificates() {
+        RaProfile raProfile = new RaProfile();
+        raProfile.setName("testRaProfile");
+        raProfile = raProfileRepository.save(raProfile);
+
+        CertificateContent certificateContent = new CertificateContent();
+        certificateContent.setContent("123456");
+        certificateContent = certificateContentRepository.save(certificateContent);
+
+        Certificate certificate = new Certificate();
+        certificate.setState(CertificateState.ISSUED);
+        certificate.setValidationStatus(CertificateValidationStatus.VALID);
+        certificate.setComplianceStatus(ComplianceStatus.OK);
+        certificate.setCertificateType(CertificateType.X509);
+        certificate.setKeySize(2048);
+        certificate.setBasicConstraints("Subject Type=End Entity");
+        certificate.setNotAfter(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(5)));
+        certificate.setCertificateContent(certificateContent);
+        certificate.setRaProfile(raProfile);
+        certificateRepository.save(certificate);
+
+        Certificate certificateRequest = new Certificate();
+        certificateRequest.setState(CertificateState.REQUESTED);
+        certificateRequest.setValidationStatus(CertificateValidationStatus.NOT_CHECKED);
+        certificateRequest.setComplianceStatus(ComplianceStatus.NOT_CHECKED);
+        certificateRequest.setCertificateType(CertificateType.X509);
+        certificateRequest.setKeySize(2048);
+        certificateRepository.save(certificateRequest);
+
+        StatisticsDto result = statisticsService.getStatistics();
+        Assertions.assertEquals(2L, result.getTotalCertificates());
+        Assertions.assertEquals(2L, result.getCertificateStatByType().get(CertificateType.X509.getCode()));
+        Assertions.assertEquals(2L, result.getCertificateStatByKeySize().get("2048"));
+        Assertions.assertEquals(2L, result.getGroupStatByCertificateCount().get("Unassigned"));
+        Assertions.assertEquals(1L, result.getRaProfileStatByCertificateCount().get("Unassigned"));
+        Assertions.assertEquals(1L, result.getRaProfileStatByCertificateCount().get(raProfile.getName()));
+        Assertions.assertEquals(1L, result.getCertificateStatByState().get(CertificateState.ISSUED.getCode()));
+        Assertions.assertEquals(1L, result.getCertificateStatByValidationStatus().get(CertificateValidationStatus.VALID.getCode()));
+        Assertions.assertEquals(1L, result.getCertificateStatByComplianceStatus().get(ComplianceStatus.NOT_CHECKED.getCode()));
+        Assertions.assertEquals(1L, result.getCertificateStatByBasicConstraints().get("Subject Type=End Entity"));
+        Assertions.assertEquals(1, result.getCertificateStatByExpiry().size());
+        Assertions.assertEquals(1L, result.getCertificateStatByExpiry().get("10"));
+    }
 }
@@ -0,0 +1,121 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.core.service.acme.AcmeDnsResolver;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.NameNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AcmeChallengeValidatorTest {
+
+    private static final String TOKEN = "token123";
+    private static final String KEY_AUTHORIZATION = "token123.thumbprint";
+
+    private MockWebServer clientServer;
+    private StubDnsResolver dnsResolver;
+    private AcmeChallengeValidator challengeValidator;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        clientServer = new MockWebServer();
+        clientServer.start();
+        dnsResolver = new StubDnsResolver();
+        challengeValidator = new AcmeChallengeValidator(2, 3, 10, 1000, dnsResolver, clientServer.getPort());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        challengeValidator.shutdown();
+        clientServer.shutdown();
+    }
+
+    @Test
+    public void testHttpChallenge() throws Exception {
+        clientServer.enqueue(new MockResponse().setBody(KEY_AUTHORIZATION + "\r\n"));
+
+        Assertions.assertTrue(challengeValidator.validateHttpChallenge("localhost", TOKEN, KEY_AUTHORIZATION).get(5, TimeUnit.SECONDS));
+        RecordedRequest request = clientServer.takeRequest();
+        Assertions.assertEquals("/.well-known/acme-challenge/" + TOKEN, request.getPath());
+    }
+
+    @Test
+    public void testHttpChallengeRetried() throws Exception {
+        clientServer.enqueue(new MockResponse().setResponseCode(404));
+        clientServer.enqueue(new MockResponse().setBody(KEY_AUTHORIZATION));
+
+        Assertions.assertTrue(challengeValidator.validateHttpChallenge("localhost", TOKEN, KEY_AUTHORIZATION).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, clientServer.getRequestCount());
+    }
+
+    @Test
+    public void testHttpChallengeInvalid() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            clientServer.enqueue(new MockResponse().setBody("wrong"));
+        }
+
+        Assertions.assertFalse(challengeValidator.validateHttpChallenge("localhost", TOKEN, KEY_AUTHORIZATION).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, clientServer.getRequestCount());
+    }
+
+    @Test
+    public void testHttpChallengeRedirectToDisallowedPort() throws Exception {
+        clientServer.enqueue(new MockResponse().setResponseCode(302).setHeader("Location", "http://localhost:8081/challenge"));
+
+        Assertions.assertFalse(challengeValidator.validateHttpChallenge("localhost", TOKEN, KEY_AUTHORIZATION).get(5, TimeUnit.SECONDS));
+        // redirect to disallowed port is not retried
+        Assertions.assertEquals(1, clientServer.getRequestCount());
+    }
+
+    @Test
+    public void testDnsChallenge() throws Exception {
+        dnsResolver.answers.add(null);
+        dnsResolver.answers.add(List.of("other"));
+        dnsResolver.answers.add(List.of("other", KEY_AUTHORIZATION));
+
+        Assertions.assertTrue(challengeValidator.validateDnsChallenge("example.com", KEY_AUTHORIZATION, "dns://").get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, dnsResolver.lookups.get());
+        Assertions.assertEquals("_acme-challenge.example.com", dnsResolver.lastName);
+        Assertions.assertEquals(1, dnsResolver.invalidations.get());
+    }
+
+    @Test
+    public void testValidationRejectedAfterShutdown() throws Exception {
+        challengeValidator.shutdown();
+
+        Assertions.assertFalse(challengeValidator.validateHttpChallenge("localhost", TOKEN, KEY_AUTHORIZATION).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, clientServer.getRequestCount());
+    }
+
+    private static class StubDnsResolver implements AcmeDnsResolver {
+
+        private final List<List<String>> answers = new ArrayList<>();
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final AtomicInteger invalidations = new AtomicInteger();
+        private volatile String lastName;
+
+        @Override
+        public List<String> getTxtRecords(String name, String providerUrl) throws NameNotFoundException {
+            lastName = name;
+            List<String> answer = answers.get(lookups.getAndIncrement());
+            if (answer == null) {
+                throw new NameNotFoundException(name);
+            }
+            return answer;
+        }
+
+        @Override
+        public void invalidate(String name, String providerUrl) {
+            invalidations.incrementAndGet();
+        }
+    }
+}
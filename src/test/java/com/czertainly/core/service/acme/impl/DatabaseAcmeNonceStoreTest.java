@@ -0,0 +1,54 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.core.dao.entity.acme.AcmeNonce;
+import com.czertainly.core.dao.repository.acme.AcmeNonceRepository;
+import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.Optional;
+
+public class DatabaseAcmeNonceStoreTest extends BaseSpringBootTest {
+
+    @Autowired
+    private DatabaseAcmeNonceStore nonceStore;
+
+    @Autowired
+    private AcmeNonceRepository acmeNonceRepository;
+
+    @Test
+    public void testAddNonce() {
+        Date expires = new Date(System.currentTimeMillis() + 60000);
+        nonceStore.add("nonce", expires);
+
+        Optional<AcmeNonce> acmeNonce = acmeNonceRepository.findByNonce("nonce");
+        Assertions.assertTrue(acmeNonce.isPresent());
+        Assertions.assertEquals(expires.getTime(), acmeNonce.get().getExpires().getTime());
+        Assertions.assertNotNull(acmeNonce.get().getCreated());
+    }
+
+    @Test
+    public void testNonceIsConsumedOnlyOnce() {
+        nonceStore.add("nonce", new Date(System.currentTimeMillis() + 60000));
+
+        Assertions.assertTrue(nonceStore.consume("nonce"));
+        Assertions.assertTrue(acmeNonceRepository.findByNonce("nonce").isEmpty());
+
+        // replayed nonce is rejected
+        Assertions.assertFalse(nonceStore.consume("nonce"));
+        Assertions.assertFalse(nonceStore.consume("unknown"));
+    }
+
+    @Test
+    public void testExpiredNonceIsRejected() {
+        nonceStore.add("expired", new Date(System.currentTimeMillis() - 1000));
+        Assertions.assertFalse(nonceStore.consume("expired"));
+
+        nonceStore.add("valid", new Date(System.currentTimeMillis() + 60000));
+        nonceStore.purgeExpired();
+        Assertions.assertTrue(acmeNonceRepository.findByNonce("expired").isEmpty());
+        Assertions.assertTrue(nonceStore.consume("valid"));
+    }
+}
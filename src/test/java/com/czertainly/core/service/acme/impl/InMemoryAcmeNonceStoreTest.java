@@ -0,0 +1,58 @@
+package com.czertainly.core.service.acme.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class InMemoryAcmeNonceStoreTest {
+
+    @Test
+    public void testNonceIsConsumedOnlyOnce() {
+        InMemoryAcmeNonceStore nonceStore = new InMemoryAcmeNonceStore(100);
+        nonceStore.add("nonce", new Date(System.currentTimeMillis() + 60000));
+
+        Assertions.assertTrue(nonceStore.consume("nonce"));
+        Assertions.assertFalse(nonceStore.consume("nonce"));
+        Assertions.assertFalse(nonceStore.consume("unknown"));
+    }
+
+    @Test
+    public void testExpiredNonce() {
+        InMemoryAcmeNonceStore nonceStore = new InMemoryAcmeNonceStore(100);
+        nonceStore.add("expired", new Date(System.currentTimeMillis() - 1000));
+        Assertions.assertFalse(nonceStore.consume("expired"));
+
+        nonceStore.add("expired", new Date(System.currentTimeMillis() - 1000));
+        nonceStore.add("valid", new Date(System.currentTimeMillis() + 60000));
+        nonceStore.purgeExpired();
+        Assertions.assertTrue(nonceStore.consume("valid"));
+    }
+
+    @Test
+    public void testConcurrentConsume() throws Exception {
+        InMemoryAcmeNonceStore nonceStore = new InMemoryAcmeNonceStore(100);
+        nonceStore.add("nonce", new Date(System.currentTimeMillis() + 60000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> nonceStore.consume("nonce"));
+            }
+            int consumed = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (Boolean.TRUE.equals(result.get())) consumed++;
+            }
+            Assertions.assertEquals(1, consumed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
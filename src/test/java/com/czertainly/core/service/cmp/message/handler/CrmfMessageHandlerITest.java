@@ -200,7 +200,7 @@ public class CrmfMessageHandlerITest extends BaseSpringBootTest {
                 .toASN1Structure();
 
         // -- issue of certificate is mocked
-        given(pollFeature.pollCertificate(any(), any(), any(), any()))
+        given(pollFeature.waitForCertificate(any(), any(), any(), any()))
                 .willReturn(issuedCertificate);
 
         PKIMessage response = testedHandler.handle(request,
@@ -251,7 +251,7 @@ public class CrmfMessageHandlerITest extends BaseSpringBootTest {
                 .toASN1Structure();
 
         // -- issue of certificate is mocked
-        given(pollFeature.pollCertificate(any(), any(), any(), any()))
+        given(pollFeature.waitForCertificate(any(), any(), any(), any()))
                 .willReturn(issuedCertificate);
 
         // -- test handling of message
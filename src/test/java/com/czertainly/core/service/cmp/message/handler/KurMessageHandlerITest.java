@@ -196,7 +196,7 @@ public class KurMessageHandlerITest extends BaseSpringBootTest {
                 .toASN1Structure();
 
         // -- issue of certificate is mocked
-        given(pollFeature.pollCertificate(any(), any(), any(), any()))
+        given(pollFeature.waitForCertificate(any(), any(), any(), any()))
                 .willReturn(issuedCertificate);
 
         // -- test handling of message
@@ -246,7 +246,7 @@ public class KurMessageHandlerITest extends BaseSpringBootTest {
                 .toASN1Structure();
 
         // -- issue of certificate is mocked
-        given(pollFeature.pollCertificate(any(), any(), any(), any()))
+        given(pollFeature.waitForCertificate(any(), any(), any(), any()))
                 .willReturn(issuedCertificate);
 
         // -- test handling of message
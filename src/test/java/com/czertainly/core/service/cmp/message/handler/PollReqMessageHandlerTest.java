@@ -0,0 +1,111 @@
+package com.czertainly.core.service.cmp.message.handler;
+
+import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.cmp.CmpTransactionState;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.cmp.CmpProfile;
+import com.czertainly.core.dao.entity.cmp.CmpTransaction;
+import com.czertainly.core.service.cmp.CmpEntityUtil;
+import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
+import com.czertainly.core.service.cmp.configurations.variants.CmpConfigurationContext;
+import com.czertainly.core.service.cmp.message.CmpTransactionService;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.cmp.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigInteger;
+import java.security.Security;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class PollReqMessageHandlerTest {
+
+    @InjectMocks
+    private PollReqMessageHandler tested;
+
+    @Mock private CmpTransactionService cmpTransactionService;
+    @Mock private PollFeature pollFeature;
+    @Mock private CrmfMessageHandler crmfMessageHandler;
+
+    private final String trxId = "poll-trx-id";
+    private final String sharedSecret = "top-secret";
+    private PKIMessage request;
+    private ConfigurationContext configuration;
+    private Certificate certificate;
+    private CmpTransaction transaction;
+
+    @BeforeAll
+    public static void beforeAll() {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        CmpProfile cmpProfile = CmpEntityUtil.createCmpProfile(CmpEntityUtil.createRaProfile(), sharedSecret);
+        request = CmpTestUtil.createMacBasedMessage(trxId, sharedSecret,
+                new PKIBody(PKIBody.TYPE_POLL_REQ, new PollReqContent(BigInteger.ZERO))).toASN1Structure();
+        configuration = new CmpConfigurationContext(cmpProfile, request, null, null, null);
+        certificate = CmpEntityUtil.createCertificate(BigInteger.ONE, CertificateState.PENDING_APPROVAL,
+                CmpEntityUtil.createEmptyCertContent());
+        transaction = CmpEntityUtil.createTransaction(trxId, certificate, cmpProfile, CmpTransactionState.CERT_ISSUED);
+        transaction.setRequestType(PKIBody.TYPE_CERT_REQ);
+    }
+
+    @Test
+    void test_pollReq_certificateNotIssuedYet_pollRep() throws Exception {
+        given(cmpTransactionService.findByTransactionId(request.getHeader().getTransactionID().toString()))
+                .willReturn(List.of(transaction));
+        given(pollFeature.waitForCertificate(any(), isNull(), eq(certificate.getUuid().toString()), eq(CertificateState.ISSUED)))
+                .willReturn(certificate);
+        given(pollFeature.isPending(certificate, CertificateState.ISSUED)).willReturn(true);
+        given(pollFeature.getCheckAfter()).willReturn(5L);
+
+        PKIMessage response = tested.handle(request, configuration);
+
+        assertEquals(PKIBody.TYPE_POLL_REP, response.getBody().getType());
+        PollRepContent content = (PollRepContent) response.getBody().getContent();
+        assertEquals(1, content.size());
+        assertEquals(BigInteger.ZERO, content.getCertReqId(0).getValue());
+        assertEquals(BigInteger.valueOf(5), content.getCheckAfter(0).getValue());
+    }
+
+    @Test
+    void test_pollReq_certificateIssued_originalResponse() throws Exception {
+        certificate.setState(CertificateState.ISSUED);
+        given(cmpTransactionService.findByTransactionId(request.getHeader().getTransactionID().toString()))
+                .willReturn(List.of(transaction));
+        given(pollFeature.waitForCertificate(any(), isNull(), eq(certificate.getUuid().toString()), eq(CertificateState.ISSUED)))
+                .willReturn(certificate);
+        given(pollFeature.isPending(certificate, CertificateState.ISSUED)).willReturn(false);
+
+        tested.handle(request, configuration);
+
+        verify(pollFeature).verifyState(any(), eq(certificate), eq(CertificateState.ISSUED));
+        verify(crmfMessageHandler).handlePolledCertificate(eq(request), eq(PKIBody.TYPE_CERT_REQ),
+                eq(new ASN1Integer(0)), eq(certificate), eq(configuration));
+    }
+
+    @Test
+    void test_pollReq_noCertificateRequestInTransaction() {
+        transaction.setRequestType(null);
+        given(cmpTransactionService.findByTransactionId(request.getHeader().getTransactionID().toString()))
+                .willReturn(List.of(transaction));
+
+        CmpProcessingException ex = assertThrows(CmpProcessingException.class,
+                () -> tested.handle(request, configuration));
+        assertEquals(PKIFailureInfo.badRequest, ex.getFailureInfo());
+    }
+}
@@ -0,0 +1,112 @@
+package com.czertainly.core.service.impl;
+
+import com.czertainly.api.model.core.audit.ObjectType;
+import com.czertainly.api.model.core.audit.OperationStatusEnum;
+import com.czertainly.api.model.core.audit.OperationType;
+import com.czertainly.core.dao.entity.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class AuditLogWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        Mockito.when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyInt()))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(2)).boxed().toList());
+        Mockito.when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batchSizes.add(rows.size());
+            return new int[rows.size()];
+        });
+    }
+
+    @Test
+    void testSyncWriteInsertsImmediately() throws InterruptedException {
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, meterRegistry, "sync", 10, 500, 1000, "core");
+        AuditLog auditLog = createAuditLog();
+        writer.write(auditLog);
+
+        Assertions.assertEquals(List.of(1), batchSizes);
+        Assertions.assertEquals(1L, auditLog.getId());
+        Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("INSERT INTO core.audit_log"), anyList());
+        writer.shutdown();
+    }
+
+    @Test
+    void testAsyncWriteInsertsInBatches() throws InterruptedException {
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, meterRegistry, "async", 10000, 100, 200, "");
+        for (int i = 0; i < 1050; i++) {
+            writer.write(createAuditLog());
+        }
+        writer.shutdown();
+
+        Assertions.assertEquals(1050, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        Assertions.assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        Assertions.assertEquals(0, meterRegistry.counter("auditlog.writer.overflow").count());
+    }
+
+    @Test
+    void testFullQueueIsWrittenByCaller() throws InterruptedException {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        Mockito.when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (!Thread.currentThread().getName().equals("audit-log-writer")) {
+                batchSizes.add(rows.size());
+            } else {
+                writerBlocked.countDown();
+                releaseWriter.await(5, TimeUnit.SECONDS);
+            }
+            return new int[rows.size()];
+        });
+
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, meterRegistry, "async", 1, 1, 10, "");
+        writer.write(createAuditLog());
+        Assertions.assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+
+        // first audit log fills the queue, second one cannot be queued and is written by calling thread
+        writer.write(createAuditLog());
+        writer.write(createAuditLog());
+
+        Assertions.assertEquals(List.of(1), batchSizes);
+        Assertions.assertEquals(1, meterRegistry.counter("auditlog.writer.overflow").count());
+        releaseWriter.countDown();
+        writer.shutdown();
+    }
+
+    private static AuditLog createAuditLog() {
+        OffsetDateTime now = OffsetDateTime.now();
+        AuditLog auditLog = new AuditLog();
+        auditLog.setOrigination(ObjectType.FE);
+        auditLog.setAffected(ObjectType.AUDIT_LOG);
+        auditLog.setOperation(OperationType.REQUEST);
+        auditLog.setOperationStatus(OperationStatusEnum.SUCCESS);
+        auditLog.setAuthor("user");
+        auditLog.setCreated(now);
+        auditLog.setUpdated(now);
+        return auditLog;
+    }
+}
@@ -0,0 +1,388 @@
+package com.czertainly.core.service.impl;
+
+import com.czertainly.core.dao.entity.Crl;
+import com.czertainly.core.dao.entity.CrlEntry;
+import com.czertainly.core.dao.entity.CrlEntryId;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.CrlEntryRepository;
+import com.czertainly.core.dao.repository.CrlRepository;
+import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.util.CrlRevocationIndex;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import jakarta.persistence.EntityManager;
+import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.*;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CRLConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class CrlServiceImplTest {
+
+    private static final int CRL_ENTRIES_COUNT = 1201;
+
+    // CRLs and CRL entries committed to database, writes are visible to other transactions only after commit
+    private final List<Crl> storedCrls = Collections.synchronizedList(new ArrayList<>());
+    private final List<CrlEntry> storedCrlEntries = Collections.synchronizedList(new ArrayList<>());
+
+    private final TestTransactionManager transactionManager = new TestTransactionManager();
+
+    private volatile Runnable beforePersist = () -> {};
+
+    private WireMockServer mockServer;
+    private EntityManager entityManager;
+    private CrlRevocationIndex crlRevocationIndex;
+    private CrlServiceImpl crlService;
+    private X509Certificate certificate;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+
+        KeyPairGenerator keyPairGen = KeyPairGenerator.getInstance("RSA");
+        keyPairGen.initialize(2048);
+        keyPair = keyPairGen.generateKeyPair();
+        certificate = createCertificateWithCrl(mockServer.baseUrl() + "/crl.crl");
+
+        CrlRepository crlRepository = Mockito.mock(CrlRepository.class);
+        Mockito.when(crlRepository.findByIssuerDnAndSerialNumber(anyString(), anyString())).thenAnswer(invocation -> findStoredCrl(crl -> crl.getIssuerDn().equals(invocation.getArgument(0)) && crl.getSerialNumber().equals(invocation.getArgument(1))));
+        Mockito.when(crlRepository.findByUuid(any(SecuredUUID.class))).thenAnswer(invocation -> findStoredCrl(crl -> crl.getUuid().equals(invocation.<SecuredUUID>getArgument(0).getValue())));
+        Mockito.when(crlRepository.save(any(Crl.class))).thenAnswer(invocation -> {
+            Crl crl = invocation.getArgument(0);
+            if (crl.getUuid() == null) crl.setUuid(UUID.randomUUID());
+            transactionManager.write(() -> {
+                synchronized (storedCrls) {
+                    if (!storedCrls.contains(crl)) storedCrls.add(crl);
+                }
+            });
+            return crl;
+        });
+        Mockito.doAnswer(invocation -> {
+            Crl crl = invocation.getArgument(0);
+            transactionManager.write(() -> storedCrls.remove(crl));
+            return null;
+        }).when(crlRepository).delete(any(Crl.class));
+
+        CrlEntryRepository crlEntryRepository = Mockito.mock(CrlEntryRepository.class);
+        Mockito.when(crlEntryRepository.countByIdCrlUuid(any(UUID.class))).thenAnswer(invocation -> (long) findStoredCrlEntries(invocation.getArgument(0)).size());
+        Mockito.when(crlEntryRepository.findRevokedEntriesByCrlUuid(any(UUID.class))).thenAnswer(invocation -> findStoredCrlEntries(invocation.getArgument(0)).stream()
+                .map(crlEntry -> new Object[]{crlEntry.getId().getSerialNumber(), crlEntry.getRevocationDate(), crlEntry.getRevocationReason()})
+                .toList());
+        Mockito.when(crlEntryRepository.findById(any(CrlEntryId.class))).thenAnswer(invocation -> findStoredCrlEntries(invocation.<CrlEntryId>getArgument(0).getCrlUuid()).stream()
+                .filter(crlEntry -> crlEntry.getId().getSerialNumber().equals(invocation.<CrlEntryId>getArgument(0).getSerialNumber()))
+                .findFirst());
+
+        entityManager = Mockito.mock(EntityManager.class);
+        Mockito.doAnswer(invocation -> {
+            beforePersist.run();
+            CrlEntry crlEntry = invocation.getArgument(0);
+            transactionManager.write(() -> storedCrlEntries.add(crlEntry));
+            return null;
+        }).when(entityManager).persist(any(CrlEntry.class));
+
+        crlRevocationIndex = new CrlRevocationIndex(1000000);
+        crlService = new CrlServiceImpl(10000, 500);
+        crlService.setTransactionManager(transactionManager);
+        crlService.setCrlRepository(crlRepository);
+        crlService.setCertificateRepository(Mockito.mock(CertificateRepository.class));
+        crlService.setCrlEntryRepository(crlEntryRepository);
+        crlService.setCrlRevocationIndex(crlRevocationIndex);
+        ReflectionTestUtils.setField(crlService, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockServer.stop();
+    }
+
+    @Test
+    void testCrlEntriesStoredInBatches() throws Exception {
+        stubCrlPoint(createCrl(CRL_ENTRIES_COUNT), 0);
+
+        Crl crl = crlService.getCurrentCrl(certificate, certificate);
+        Assertions.assertNotNull(crl);
+
+        // 1201 entries are flushed in batches of 500, 500 and 201 entries and detached after flush
+        Mockito.verify(entityManager, Mockito.times(CRL_ENTRIES_COUNT)).persist(any(CrlEntry.class));
+        Mockito.verify(entityManager, Mockito.times(3)).flush();
+        Mockito.verify(entityManager, Mockito.times(CRL_ENTRIES_COUNT)).detach(any(CrlEntry.class));
+
+        Assertions.assertNotNull(crlService.findCrlEntryForCertificate(BigInteger.valueOf(2).toString(16), crl));
+        Assertions.assertNotNull(crlService.findCrlEntryForCertificate(BigInteger.valueOf(CRL_ENTRIES_COUNT + 1).toString(16), crl));
+        Assertions.assertNull(crlService.findCrlEntryForCertificate(BigInteger.valueOf(CRL_ENTRIES_COUNT + 2).toString(16), crl));
+    }
+
+    @Test
+    void testConcurrentCrlUpdateDownloadsAndStoresCrlOnce() throws Exception {
+        stubCrlPoint(createCrl(10), 500);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Crl>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return crlService.getCurrentCrl(certificate, certificate);
+                }));
+            }
+            start.countDown();
+
+            Set<UUID> crlUuids = new HashSet<>();
+            for (Future<Crl> result : results) {
+                Crl crl = result.get(30, TimeUnit.SECONDS);
+                Assertions.assertNotNull(crl);
+                crlUuids.add(crl.getUuid());
+            }
+            Assertions.assertEquals(1, crlUuids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/crl.crl")));
+        Assertions.assertEquals(1, storedCrls.size());
+        Mockito.verify(entityManager, Mockito.times(10)).persist(any(CrlEntry.class));
+    }
+
+    @Test
+    void testCrlUpdateReplacesPreviousCrl() throws Exception {
+        stubCrlPoint(createCrl(10), 0);
+        Crl crl = crlService.getCurrentCrl(certificate, certificate);
+
+        // expire CRL so next validation downloads it again
+        crl.setNextUpdate(new Date(System.currentTimeMillis() - 1000));
+        crl.setCrlNumber("0");
+        Crl newCrl = crlService.getCurrentCrl(certificate, certificate);
+
+        Assertions.assertNotEquals(crl.getUuid(), newCrl.getUuid());
+        Assertions.assertEquals(List.of(newCrl), storedCrls);
+    }
+
+    @Test
+    void testWaiterReadsCommittedCrlWhileLeaderTransactionOpen() throws Exception {
+        stubCrlPoint(createCrl(10), 0);
+        String revokedSerialNumber = BigInteger.valueOf(5).toString(16);
+
+        // leader is blocked while storing CRL entries, and keeps its own transaction open after the CRL is updated
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch releaseStore = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        beforePersist = () -> {
+            storing.countDown();
+            awaitLatch(releaseStore);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TransactionTemplate callerTransaction = new TransactionTemplate(transactionManager);
+            Future<Crl> leader = executor.submit(() -> callerTransaction.execute(status -> {
+                Crl crl = getCurrentCrl();
+                awaitLatch(releaseLeader);
+                return crl;
+            }));
+            Assertions.assertTrue(storing.await(10, TimeUnit.SECONDS));
+
+            Future<List<CrlEntry>> waiter = executor.submit(() -> callerTransaction.execute(status -> {
+                Crl crl = getCurrentCrl();
+                List<CrlEntry> crlEntries = new ArrayList<>();
+                crlEntries.add(crlService.findCrlEntryForCertificate(revokedSerialNumber, crl));
+                // index is built again from entries visible to the waiter
+                crlRevocationIndex.remove(crl.getUuid());
+                crlEntries.add(crlService.findCrlEntryForCertificate(revokedSerialNumber, crl));
+                return crlEntries;
+            }));
+
+            // waiter does not get CRL until it is committed
+            Assertions.assertThrows(TimeoutException.class, () -> waiter.get(500, TimeUnit.MILLISECONDS));
+            releaseStore.countDown();
+
+            List<CrlEntry> crlEntries = waiter.get(10, TimeUnit.SECONDS);
+            Assertions.assertFalse(leader.isDone());
+            Assertions.assertEquals(2, crlEntries.size());
+            for (CrlEntry crlEntry : crlEntries) {
+                Assertions.assertNotNull(crlEntry, "Revoked certificate was not found in CRL");
+            }
+
+            releaseLeader.countDown();
+            Assertions.assertEquals(storedCrls.get(0).getUuid(), leader.get(10, TimeUnit.SECONDS).getUuid());
+        } finally {
+            releaseStore.countDown();
+            releaseLeader.countDown();
+            executor.shutdownNow();
+        }
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/crl.crl")));
+    }
+
+    @Test
+    void testIndexNotBuiltForCrlNotVisible() throws Exception {
+        Crl crl = new Crl();
+        crl.setUuid(UUID.randomUUID());
+
+        Assertions.assertNull(crlService.findCrlEntryForCertificate(BigInteger.TWO.toString(16), crl));
+        Assertions.assertNull(crlRevocationIndex.getIndex(crl.getUuid(), null));
+    }
+
+    private Crl getCurrentCrl() {
+        try {
+            return crlService.getCurrentCrl(certificate, certificate);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) throw new IllegalStateException("Latch was not released");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<CrlEntry> findStoredCrlEntries(UUID crlUuid) {
+        synchronized (storedCrlEntries) {
+            return storedCrlEntries.stream().filter(crlEntry -> crlEntry.getId().getCrlUuid().equals(crlUuid)).toList();
+        }
+    }
+
+    private Optional<Crl> findStoredCrl(java.util.function.Predicate<Crl> predicate) {
+        synchronized (storedCrls) {
+            return storedCrls.stream().filter(predicate).findFirst();
+        }
+    }
+
+    private void stubCrlPoint(X509CRL crl, int delay) throws Exception {
+        mockServer.stubFor(WireMock
+                .get(WireMock.urlPathMatching("/crl.crl"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(delay)
+                        .withBody(crl.getEncoded())));
+    }
+
+    private X509Certificate createCertificateWithCrl(String crlUrl) throws Exception {
+        X500Name x500Name = new X500Name("CN=testCrlService");
+        SubjectPublicKeyInfo subjectPublicKeyInfo = SubjectPublicKeyInfo.getInstance(keyPair.getPublic().getEncoded());
+        X509v3CertificateBuilder certificateBuilder = new X509v3CertificateBuilder(x500Name, BigInteger.ONE, new Date(0), new Date(Long.MAX_VALUE), x500Name, subjectPublicKeyInfo);
+        GeneralName generalName = new GeneralName(GeneralName.uniformResourceIdentifier, new DERIA5String(crlUrl));
+        DistributionPoint distributionPoint = new DistributionPoint(new DistributionPointName(new GeneralNames(generalName)), null, null);
+        certificateBuilder.addExtension(Extension.cRLDistributionPoints, false, new CRLDistPoint(new DistributionPoint[]{distributionPoint}));
+
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256WithRSAEncryption").build(keyPair.getPrivate());
+        return new JcaX509CertificateConverter().getCertificate(certificateBuilder.build(signer));
+    }
+
+    private X509CRL createCrl(int entriesCount) throws Exception {
+        Date now = new Date();
+        X509v2CRLBuilder crlGen = new X509v2CRLBuilder(new X500Name("CN=testCrlService"), now);
+        crlGen.setNextUpdate(new Date(now.getTime() + 24 * 60 * 60 * 1000L));
+        crlGen.addExtension(Extension.cRLNumber, false, new CRLNumber(BigInteger.ONE));
+        for (int i = 0; i < entriesCount; i++) {
+            crlGen.addCRLEntry(BigInteger.valueOf(i + 2L), now, CRLReason.keyCompromise);
+        }
+
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256WithRSAEncryption").build(keyPair.getPrivate());
+        return new JcaX509CRLConverter().getCRL(crlGen.build(signer));
+    }
+
+    /**
+     * Transaction manager keeping writes of each transaction pending until the transaction is committed
+     */
+    private static class TestTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final ThreadLocal<List<Runnable>> currentWrites = new ThreadLocal<>();
+
+        void write(Runnable write) {
+            List<Runnable> writes = currentWrites.get();
+            if (writes == null) write.run();
+            else writes.add(write);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new TestTransaction(currentWrites.get());
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((TestTransaction) transaction).writes != null;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            TestTransaction testTransaction = (TestTransaction) transaction;
+            testTransaction.writes = new ArrayList<>();
+            currentWrites.set(testTransaction.writes);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            TestTransaction testTransaction = (TestTransaction) transaction;
+            List<Runnable> suspended = testTransaction.writes;
+            testTransaction.writes = null;
+            currentWrites.remove();
+            return suspended;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void doResume(Object transaction, Object suspendedResources) {
+            currentWrites.set((List<Runnable>) suspendedResources);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            ((TestTransaction) status.getTransaction()).writes.forEach(Runnable::run);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            // pending writes are discarded
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            currentWrites.remove();
+        }
+
+        private static class TestTransaction {
+            private List<Runnable> writes;
+
+            private TestTransaction(List<Runnable> writes) {
+                this.writes = writes;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,357 @@
+package com.czertainly.core.service.scep;
+
+import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
+import com.czertainly.api.model.common.enums.cryptography.KeyType;
+import com.czertainly.api.model.connector.cryptography.operations.SignDataRequestDto;
+import com.czertainly.api.model.connector.cryptography.operations.SignDataResponseDto;
+import com.czertainly.api.model.connector.cryptography.operations.data.SignatureResponseData;
+import com.czertainly.api.model.core.certificate.CertificateChainResponseDto;
+import com.czertainly.api.model.core.certificate.CertificateDetailDto;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import com.czertainly.api.model.core.cryptography.key.KeyState;
+import com.czertainly.api.model.core.cryptography.key.KeyUsage;
+import com.czertainly.api.model.core.scep.MessageType;
+import com.czertainly.api.model.core.scep.PkiStatus;
+import com.czertainly.api.model.core.v2.ClientCertificateDataResponseDto;
+import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
+import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.dao.entity.*;
+import com.czertainly.core.dao.entity.scep.ScepProfile;
+import com.czertainly.core.dao.repository.RaProfileRepository;
+import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
+import com.czertainly.core.dao.repository.scep.ScepTransactionRepository;
+import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.service.CertificateService;
+import com.czertainly.core.service.CryptographicKeyService;
+import com.czertainly.core.service.scep.impl.ScepServiceImpl;
+import com.czertainly.core.service.scep.message.ScepConstants;
+import com.czertainly.core.service.v2.ClientOperationService;
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.ASN1PrintableString;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERPrintableString;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.cms.Attribute;
+import org.bouncycastle.asn1.cms.AttributeTable;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cms.*;
+import org.bouncycastle.cms.jcajce.*;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequest;
+import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequestBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigInteger;
+import java.security.*;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Sends parallel SCEP requests to single SCEP profile to verify that request state of concurrent enrollments
+ * does not leak between them and CA material of the profile is loaded only once.
+ */
+class ScepServiceConcurrencyTest {
+
+    private static final String PROFILE_NAME = "mdmScepProfile";
+    private static final String CHALLENGE_PASSWORD = "mdmChallengePassword";
+    private static final int PARALLEL_REQUESTS = 32;
+
+    private static KeyPair caKeyPair;
+    private static X509Certificate caCertificate;
+    private static KeyPair clientKeyPair;
+    private static X509Certificate clientCertificate;
+
+    private final Map<String, Certificate> issuedCertificates = new ConcurrentHashMap<>();
+
+    private ScepServiceImpl scepService;
+    private ScepProfile scepProfile;
+    private CertificateService certificateService;
+    private CryptographicKeyService cryptographicKeyService;
+
+    @BeforeAll
+    static void setupCertificates() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+
+        KeyPairGenerator ecKeyPairGenerator = KeyPairGenerator.getInstance("EC");
+        ecKeyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        caKeyPair = ecKeyPairGenerator.generateKeyPair();
+        X500Name caName = new X500Name("CN=SCEP Test CA");
+        caCertificate = createCertificate(caName, caName, caKeyPair.getPublic(), caKeyPair.getPrivate(), "SHA256withECDSA");
+
+        KeyPairGenerator rsaKeyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaKeyPairGenerator.initialize(2048);
+        clientKeyPair = rsaKeyPairGenerator.generateKeyPair();
+        X500Name clientName = new X500Name("CN=SCEP Test Client");
+        clientCertificate = createCertificate(clientName, clientName, clientKeyPair.getPublic(), clientKeyPair.getPrivate(), "SHA256withRSA");
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        Connector connector = Mockito.mock(Connector.class);
+        Mockito.when(connector.mapToDto()).thenReturn(new ConnectorDto());
+        TokenInstanceReference tokenInstanceReference = new TokenInstanceReference();
+        tokenInstanceReference.setTokenInstanceUuid(UUID.randomUUID().toString());
+        tokenInstanceReference.setConnector(connector);
+
+        CryptographicKey key = new CryptographicKey();
+        key.setUuid(UUID.randomUUID());
+        key.setTokenInstanceReference(tokenInstanceReference);
+        CryptographicKeyItem privateKeyItem = createKeyItem(key, KeyType.PRIVATE_KEY, List.of(KeyUsage.SIGN));
+        key.setItems(Set.of(privateKeyItem, createKeyItem(key, KeyType.PUBLIC_KEY, List.of(KeyUsage.VERIFY))));
+
+        Certificate caCertificateEntity = createCertificateEntity(caCertificate);
+        caCertificateEntity.setState(CertificateState.ISSUED);
+        caCertificateEntity.setValidationStatus(CertificateValidationStatus.VALID);
+        caCertificateEntity.setKey(key);
+
+        AuthorityInstanceReference authorityInstanceReference = new AuthorityInstanceReference();
+        authorityInstanceReference.setUuid(UUID.randomUUID());
+        authorityInstanceReference.setConnectorUuid(UUID.randomUUID());
+        RaProfile raProfile = new RaProfile();
+        raProfile.setUuid(UUID.randomUUID());
+        raProfile.setName("mdmRaProfile");
+        raProfile.setEnabled(true);
+        raProfile.setAuthorityInstanceReference(authorityInstanceReference);
+
+        scepProfile = new ScepProfile();
+        scepProfile.setUuid(UUID.randomUUID());
+        scepProfile.setName(PROFILE_NAME);
+        scepProfile.setEnabled(true);
+        scepProfile.setRequireManualApproval(false);
+        scepProfile.setChallengePassword(CHALLENGE_PASSWORD);
+        scepProfile.setCaCertificate(caCertificateEntity);
+        scepProfile.setRaProfile(raProfile);
+        scepProfile.setUpdated(OffsetDateTime.now());
+
+        ScepProfileRepository scepProfileRepository = Mockito.mock(ScepProfileRepository.class);
+        Mockito.when(scepProfileRepository.findByName(PROFILE_NAME)).thenReturn(Optional.of(scepProfile));
+
+        AttributeEngine attributeEngine = Mockito.mock(AttributeEngine.class);
+        Mockito.when(attributeEngine.getRequestObjectDataAttributesContent(any(), any(), any(), any())).thenReturn(List.of());
+
+        CertificateDetailDto caCertificateDto = new CertificateDetailDto();
+        caCertificateDto.setUuid(caCertificateEntity.getUuid().toString());
+        caCertificateDto.setCertificateContent(caCertificateEntity.getCertificateContent().getContent());
+        caCertificateDto.setValidationStatus(CertificateValidationStatus.VALID);
+        CertificateChainResponseDto caCertificateChain = new CertificateChainResponseDto();
+        caCertificateChain.setCertificates(List.of(caCertificateDto));
+
+        certificateService = Mockito.mock(CertificateService.class);
+        Mockito.when(certificateService.getCertificateChain(any(), eq(true))).thenReturn(caCertificateChain);
+        Mockito.when(certificateService.getCertificateEntityByFingerprint(any())).thenThrow(new NotFoundException(Certificate.class, "fingerprint"));
+        Mockito.when(certificateService.getCertificateEntity(any())).thenAnswer(invocation -> issuedCertificates.get(invocation.<SecuredUUID>getArgument(0).toString()));
+
+        cryptographicKeyService = Mockito.mock(CryptographicKeyService.class);
+        Mockito.when(cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY)).thenReturn(privateKeyItem);
+
+        // connector signing is emulated by CA private key
+        CryptographicOperationsApiClient cryptographicOperationsApiClient = Mockito.mock(CryptographicOperationsApiClient.class);
+        Mockito.when(cryptographicOperationsApiClient.signData(any(), any(), any(), any())).thenAnswer(invocation -> {
+            SignDataRequestDto request = invocation.getArgument(3);
+            Signature signature = Signature.getInstance("SHA256withECDSA");
+            signature.initSign(caKeyPair.getPrivate());
+            signature.update(request.getData().get(0).getData());
+            SignatureResponseData signatureData = new SignatureResponseData();
+            signatureData.setData(signature.sign());
+            SignDataResponseDto response = new SignDataResponseDto();
+            response.setSignatures(List.of(signatureData));
+            return response;
+        });
+
+        // authority issues certificate for the subject and public key of the request
+        ClientOperationService clientOperationService = Mockito.mock(ClientOperationService.class);
+        Mockito.when(clientOperationService.issueCertificate(any(), any(), any())).thenAnswer(invocation -> {
+            ClientCertificateSignRequestDto request = invocation.getArgument(2);
+            JcaPKCS10CertificationRequest csr = new JcaPKCS10CertificationRequest(Base64.getDecoder().decode(request.getRequest()));
+            X509Certificate certificate = createCertificate(new X500Name(caCertificate.getSubjectX500Principal().getName()), csr.getSubject(), csr.getPublicKey(), caKeyPair.getPrivate(), "SHA256withECDSA");
+            Certificate certificateEntity = createCertificateEntity(certificate);
+            issuedCertificates.put(certificateEntity.getUuid().toString(), certificateEntity);
+
+            ClientCertificateDataResponseDto response = new ClientCertificateDataResponseDto();
+            response.setUuid(certificateEntity.getUuid().toString());
+            response.setCertificateData(certificateEntity.getCertificateContent().getContent());
+            return response;
+        });
+
+        scepService = new ScepServiceImpl(60000);
+        scepService.setScepProfileRepository(scepProfileRepository);
+        scepService.setRaProfileRepository(Mockito.mock(RaProfileRepository.class));
+        scepService.setScepTransactionRepository(Mockito.mock(ScepTransactionRepository.class));
+        scepService.setAttributeEngine(attributeEngine);
+        scepService.setCertificateService(certificateService);
+        scepService.setCryptographicKeyService(cryptographicKeyService);
+        scepService.setCryptographicOperationsApiClient(cryptographicOperationsApiClient);
+        scepService.setClientOperationService(clientOperationService);
+    }
+
+    @Test
+    void testParallelPkcsRequests() throws Exception {
+        // warm up CA material cache of the profile
+        Assertions.assertArrayEquals(caCertificate.getEncoded(), (byte[]) handleRequest("GetCACert", null).getBody());
+
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                String commonName = "device-" + i;
+                String transactionId = "transaction-" + i;
+                byte[] senderNonce = new byte[16];
+                new SecureRandom().nextBytes(senderNonce);
+                byte[] message = createPkcsReq(commonName, transactionId, senderNonce);
+
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    ResponseEntity<Object> response = handleRequest("PKIOperation", message);
+                    verifyCertRep((byte[]) response.getBody(), commonName, transactionId, senderNonce);
+                    return null;
+                }));
+            }
+
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(PARALLEL_REQUESTS, issuedCertificates.size());
+        Mockito.verify(certificateService, Mockito.times(1)).getCertificateChain(any(), eq(true));
+        Mockito.verify(cryptographicKeyService, Mockito.times(1)).getKeyItemFromKey(any(), eq(KeyType.PRIVATE_KEY));
+    }
+
+    @Test
+    void testCaMaterialReloadedAfterProfileChange() throws Exception {
+        handleRequest("GetCACert", null);
+        handleRequest("GetCACert", null);
+        Mockito.verify(certificateService, Mockito.times(1)).getCertificateChain(any(), eq(true));
+
+        scepService.evictCaMaterial(scepProfile.getUuid());
+        handleRequest("GetCACert", null);
+        Mockito.verify(certificateService, Mockito.times(2)).getCertificateChain(any(), eq(true));
+
+        scepProfile.setUpdated(scepProfile.getUpdated().plusSeconds(1));
+        handleRequest("GetCACert", null);
+        Mockito.verify(certificateService, Mockito.times(3)).getCertificateChain(any(), eq(true));
+    }
+
+    private ResponseEntity<Object> handleRequest(String operation, byte[] message) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/protocols/scep/" + PROFILE_NAME + "/pkiclient.exe");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return scepService.handlePost(PROFILE_NAME, operation, message != null ? message : new byte[0]);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static byte[] createPkcsReq(String commonName, String transactionId, byte[] senderNonce) throws Exception {
+        byte[] csr = new JcaPKCS10CertificationRequestBuilder(new X500Name("CN=" + commonName), clientKeyPair.getPublic())
+                .addAttribute(PKCSObjectIdentifiers.pkcs_9_at_challengePassword, new DERPrintableString(CHALLENGE_PASSWORD))
+                .build(new JcaContentSignerBuilder("SHA256withRSA").setProvider(BouncyCastleProvider.PROVIDER_NAME).build(clientKeyPair.getPrivate()))
+                .getEncoded();
+
+        // CA has ECDSA key, therefore request is encrypted using challenge password
+        CMSEnvelopedDataGenerator envelopedDataGenerator = new CMSEnvelopedDataGenerator();
+        envelopedDataGenerator.addRecipientInfoGenerator(new JcePasswordRecipientInfoGenerator(CMSAlgorithm.AES128_CBC, CHALLENGE_PASSWORD.toCharArray()));
+        CMSEnvelopedData envelopedData = envelopedDataGenerator.generate(new CMSProcessableByteArray(csr),
+                new JceCMSContentEncryptorBuilder(CMSAlgorithm.AES256_CBC).setProvider(BouncyCastleProvider.PROVIDER_NAME).build());
+
+        Hashtable<ASN1ObjectIdentifier, Attribute> attributes = new Hashtable<>();
+        addAttribute(attributes, ScepConstants.id_messageType, new DERPrintableString(Integer.toString(MessageType.PKCS_REQ.getValue())));
+        addAttribute(attributes, ScepConstants.id_transactionId, new DERPrintableString(transactionId));
+        addAttribute(attributes, ScepConstants.id_senderNonce, new DEROctetString(senderNonce));
+
+        JcaSignerInfoGeneratorBuilder signerInfoGeneratorBuilder = new JcaSignerInfoGeneratorBuilder(new JcaDigestCalculatorProviderBuilder().setProvider(BouncyCastleProvider.PROVIDER_NAME).build());
+        signerInfoGeneratorBuilder.setSignedAttributeGenerator(new DefaultSignedAttributeTableGenerator(new AttributeTable(attributes)));
+        CMSSignedDataGenerator signedDataGenerator = new CMSSignedDataGenerator();
+        signedDataGenerator.addSignerInfoGenerator(signerInfoGeneratorBuilder.build(
+                new JcaContentSignerBuilder("SHA256withRSA").setProvider(BouncyCastleProvider.PROVIDER_NAME).build(clientKeyPair.getPrivate()), clientCertificate));
+        signedDataGenerator.addCertificates(new JcaCertStore(List.of(clientCertificate)));
+        return signedDataGenerator.generate(new CMSProcessableByteArray(envelopedData.getEncoded()), true).getEncoded();
+    }
+
+    private static void verifyCertRep(byte[] response, String commonName, String transactionId, byte[] senderNonce) throws Exception {
+        CMSSignedData signedData = new CMSSignedData(response);
+        SignerInformation signerInformation = signedData.getSignerInfos().getSigners().iterator().next();
+        Assertions.assertTrue(signerInformation.verify(new JcaSimpleSignerInfoVerifierBuilder().setProvider(BouncyCastleProvider.PROVIDER_NAME).build(caCertificate)));
+
+        AttributeTable attributes = signerInformation.getSignedAttributes();
+        Assertions.assertEquals(transactionId, ASN1PrintableString.getInstance(getAttributeValue(attributes, ScepConstants.id_transactionId)).getString());
+        Assertions.assertEquals(Integer.toString(PkiStatus.SUCCESS.getValue()), ASN1PrintableString.getInstance(getAttributeValue(attributes, ScepConstants.id_pkiStatus)).getString());
+        Assertions.assertArrayEquals(senderNonce, ASN1OctetString.getInstance(getAttributeValue(attributes, ScepConstants.id_recipientNonce)).getOctets());
+
+        CMSEnvelopedData envelopedData = new CMSEnvelopedData((byte[]) signedData.getSignedContent().getContent());
+        RecipientInformation recipientInformation = envelopedData.getRecipientInfos().getRecipients().iterator().next();
+        byte[] certRep = recipientInformation.getContent(new JceKeyTransEnvelopedRecipient(clientKeyPair.getPrivate()).setProvider(BouncyCastleProvider.PROVIDER_NAME));
+        Collection<X509CertificateHolder> certificates = new CMSSignedData(certRep).getCertificates().getMatches(null);
+        Assertions.assertEquals(1, certificates.size());
+        Assertions.assertEquals(new X500Name("CN=" + commonName), certificates.iterator().next().getSubject());
+    }
+
+    private static void addAttribute(Hashtable<ASN1ObjectIdentifier, Attribute> attributes, String oid, ASN1Encodable value) {
+        Attribute attribute = new Attribute(new ASN1ObjectIdentifier(oid), new DERSet(value));
+        attributes.put(attribute.getAttrType(), attribute);
+    }
+
+    private static ASN1Encodable getAttributeValue(AttributeTable attributes, String oid) {
+        return attributes.get(new ASN1ObjectIdentifier(oid)).getAttrValues().getObjectAt(0);
+    }
+
+    private static X509Certificate createCertificate(X500Name issuer, X500Name subject, PublicKey publicKey, PrivateKey signingKey, String signatureAlgorithm) throws Exception {
+        Date notBefore = new Date(System.currentTimeMillis() - 60000);
+        Date notAfter = new Date(System.currentTimeMillis() + 86400000);
+        return new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(issuer, new BigInteger(64, new SecureRandom()), notBefore, notAfter, subject, publicKey)
+                        .build(new JcaContentSignerBuilder(signatureAlgorithm).setProvider(BouncyCastleProvider.PROVIDER_NAME).build(signingKey)));
+    }
+
+    private static Certificate createCertificateEntity(X509Certificate certificate) throws Exception {
+        CertificateContent certificateContent = new CertificateContent();
+        certificateContent.setContent(Base64.getEncoder().encodeToString(certificate.getEncoded()));
+        Certificate certificateEntity = new Certificate();
+        certificateEntity.setUuid(UUID.randomUUID());
+        certificateEntity.setCertificateContent(certificateContent);
+        return certificateEntity;
+    }
+
+    private static CryptographicKeyItem createKeyItem(CryptographicKey key, KeyType keyType, List<KeyUsage> usage) {
+        CryptographicKeyItem item = new CryptographicKeyItem();
+        item.setKeyReferenceUuid(UUID.randomUUID());
+        item.setCryptographicKey(key);
+        item.setType(keyType);
+        item.setKeyAlgorithm(KeyAlgorithm.ECDSA);
+        item.setState(KeyState.ACTIVE);
+        item.setUsage(usage);
+        item.setEnabled(true);
+        return item;
+    }
+}
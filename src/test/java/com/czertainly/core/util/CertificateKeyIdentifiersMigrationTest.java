@@ -0,0 +1,118 @@
+package com.czertainly.core.util;
+
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.CertificateContent;
+import com.czertainly.core.dao.repository.CertificateContentRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import db.migration.V202405281200__CertificateKeyIdentifiersMigration;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+class CertificateKeyIdentifiersMigrationTest extends BaseSpringBootTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+
+    @Test
+    void testKeyIdentifiersBackfill() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair caKeyPair = keyPairGenerator.generateKeyPair();
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        JcaX509ExtensionUtils extensionUtils = new JcaX509ExtensionUtils();
+        byte[] subjectKeyIdentifier = extensionUtils.createSubjectKeyIdentifier(keyPair.getPublic()).getKeyIdentifier();
+        byte[] authorityKeyIdentifier = extensionUtils.createSubjectKeyIdentifier(caKeyPair.getPublic()).getKeyIdentifier();
+        X509Certificate x509Certificate = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(new X500Name("CN=Migration Test CA"), BigInteger.TEN, new Date(System.currentTimeMillis() - 60000),
+                        new Date(System.currentTimeMillis() + 86400000), new X500Name("CN=Migration Test"), keyPair.getPublic())
+                        .addExtension(Extension.subjectKeyIdentifier, false, extensionUtils.createSubjectKeyIdentifier(keyPair.getPublic()))
+                        .addExtension(Extension.authorityKeyIdentifier, false, new AuthorityKeyIdentifier(authorityKeyIdentifier))
+                        .build(new JcaContentSignerBuilder("SHA256withRSA").build(caKeyPair.getPrivate())));
+
+        UUID certificateUuid = createCertificate(Base64.getEncoder().encodeToString(x509Certificate.getEncoded()), "0a");
+        UUID invalidCertificateUuid = createCertificate("invalid", "0b");
+        certificateRepository.flush();
+
+        // migration is run again on the connection of test transaction, dropped columns are restored by rollback
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL search_path TO core");
+            statement.execute("ALTER TABLE certificate DROP COLUMN subject_key_identifier, DROP COLUMN authority_key_identifier");
+        }
+        Context context = Mockito.mock(Context.class);
+        Mockito.when(context.getConnection()).thenReturn(connection);
+        new V202405281200__CertificateKeyIdentifiersMigration().migrate(context);
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT subject_key_identifier, authority_key_identifier FROM certificate WHERE uuid = ?")) {
+            statement.setObject(1, certificateUuid);
+            try (ResultSet rows = statement.executeQuery()) {
+                Assertions.assertTrue(rows.next());
+                Assertions.assertEquals(HexFormat.of().formatHex(subjectKeyIdentifier), rows.getString("subject_key_identifier"));
+                Assertions.assertEquals(HexFormat.of().formatHex(authorityKeyIdentifier), rows.getString("authority_key_identifier"));
+            }
+
+            statement.setObject(1, invalidCertificateUuid);
+            try (ResultSet rows = statement.executeQuery()) {
+                Assertions.assertTrue(rows.next());
+                Assertions.assertNull(rows.getString("subject_key_identifier"));
+                Assertions.assertNull(rows.getString("authority_key_identifier"));
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'certificate_subject_key_identifier_index'");
+             ResultSet rows = statement.executeQuery()) {
+            Assertions.assertTrue(rows.next());
+            Assertions.assertEquals(1, rows.getInt(1));
+        }
+    }
+
+    private UUID createCertificate(String content, String serialNumber) {
+        CertificateContent certificateContent = new CertificateContent();
+        certificateContent.setContent(content);
+        certificateContent = certificateContentRepository.save(certificateContent);
+
+        Certificate certificate = new Certificate();
+        certificate.setSubjectDn("CN=Migration Test");
+        certificate.setIssuerDn("CN=Migration Test CA");
+        certificate.setSerialNumber(serialNumber);
+        certificate.setState(CertificateState.ISSUED);
+        certificate.setValidationStatus(CertificateValidationStatus.VALID);
+        certificate.setCertificateContent(certificateContent);
+        certificate.setCertificateContentId(certificateContent.getId());
+        return certificateRepository.save(certificate).getUuid();
+    }
+}
@@ -0,0 +1,57 @@
+package com.czertainly.core.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+class CertificateStateNotifierTest {
+
+    private final CertificateStateNotifier notifier = new CertificateStateNotifier();
+
+    @Test
+    void testSignalWithoutTransaction() {
+        UUID certificateUuid = UUID.randomUUID();
+        CompletableFuture<Void> first = notifier.register(certificateUuid);
+        CompletableFuture<Void> second = notifier.register(certificateUuid);
+        CompletableFuture<Void> other = notifier.register(UUID.randomUUID());
+
+        notifier.notifyAfterCompletion(certificateUuid);
+
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertTrue(second.isDone());
+        Assertions.assertFalse(other.isDone());
+    }
+
+    @Test
+    void testSignalAfterTransactionCompletion() {
+        UUID certificateUuid = UUID.randomUUID();
+        CompletableFuture<Void> signal = notifier.register(certificateUuid);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            notifier.notifyAfterCompletion(certificateUuid);
+            Assertions.assertFalse(signal.isDone());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertTrue(signal.isDone());
+    }
+
+    @Test
+    void testUnregisteredWaiterIsNotSignalled() {
+        UUID certificateUuid = UUID.randomUUID();
+        CompletableFuture<Void> signal = notifier.register(certificateUuid);
+        notifier.unregister(certificateUuid, signal);
+
+        notifier.notifyAfterCompletion(certificateUuid);
+        Assertions.assertFalse(signal.isDone());
+    }
+}
@@ -0,0 +1,59 @@
+package com.czertainly.core.util;
+
+import com.czertainly.api.model.core.authority.CertificateRevocationReason;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+class CrlRevocationIndexTest {
+
+    @Test
+    void testIndexAndDeltaUpdates() {
+        CrlRevocationIndex crlRevocationIndex = new CrlRevocationIndex(10);
+        UUID crlUuid = UUID.randomUUID();
+        crlRevocationIndex.index(crlUuid, null, Map.of("1a", revokedEntry(CertificateRevocationReason.KEY_COMPROMISE)));
+
+        Map<String, CrlRevocationIndex.RevokedEntry> index = crlRevocationIndex.getIndex(crlUuid, null);
+        Assertions.assertNotNull(index);
+        Assertions.assertEquals(CertificateRevocationReason.KEY_COMPROMISE, index.get("1a").revocationReason());
+        Assertions.assertNull(index.get("1b"));
+
+        crlRevocationIndex.put(crlUuid, "1b", revokedEntry(CertificateRevocationReason.UNSPECIFIED));
+        crlRevocationIndex.remove(crlUuid, "1a");
+        crlRevocationIndex.setDeltaCrlNumber(crlUuid, "2");
+
+        // index of different delta CRL is not returned
+        Assertions.assertNull(crlRevocationIndex.getIndex(crlUuid, null));
+        index = crlRevocationIndex.getIndex(crlUuid, "2");
+        Assertions.assertNotNull(index);
+        Assertions.assertNull(index.get("1a"));
+        Assertions.assertNotNull(index.get("1b"));
+    }
+
+    @Test
+    void testEvictionOfLeastRecentlyUsedIndex() {
+        CrlRevocationIndex crlRevocationIndex = new CrlRevocationIndex(3);
+        UUID firstCrlUuid = UUID.randomUUID();
+        UUID secondCrlUuid = UUID.randomUUID();
+        UUID thirdCrlUuid = UUID.randomUUID();
+
+        crlRevocationIndex.index(firstCrlUuid, null, Map.of("01", revokedEntry(CertificateRevocationReason.UNSPECIFIED)));
+        crlRevocationIndex.index(secondCrlUuid, null, Map.of("02", revokedEntry(CertificateRevocationReason.UNSPECIFIED)));
+        Assertions.assertNotNull(crlRevocationIndex.getIndex(firstCrlUuid, null));
+
+        crlRevocationIndex.index(thirdCrlUuid, null, Map.of("03", revokedEntry(CertificateRevocationReason.UNSPECIFIED), "04", revokedEntry(CertificateRevocationReason.UNSPECIFIED)));
+        Assertions.assertNotNull(crlRevocationIndex.getIndex(firstCrlUuid, null));
+        Assertions.assertNull(crlRevocationIndex.getIndex(secondCrlUuid, null));
+        Assertions.assertNotNull(crlRevocationIndex.getIndex(thirdCrlUuid, null));
+
+        // CRL exceeding the limit is not indexed at all
+        Assertions.assertFalse(crlRevocationIndex.canIndex(4));
+    }
+
+    private static CrlRevocationIndex.RevokedEntry revokedEntry(CertificateRevocationReason reason) {
+        return new CrlRevocationIndex.RevokedEntry(new Date(), reason);
+    }
+}
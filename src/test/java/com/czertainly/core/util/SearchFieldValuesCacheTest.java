@@ -0,0 +1,61 @@
+package com.czertainly.core.util;
+
+import com.czertainly.core.enums.SearchFieldNameEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SearchFieldValuesCacheTest {
+
+    @Test
+    void testValuesAreCachedUntilEvicted() {
+        SearchFieldValuesCache cache = new SearchFieldValuesCache(60000, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<?> values = cache.get(SearchFieldNameEnum.GROUP, () -> List.of("group-" + loads.incrementAndGet()));
+        Assertions.assertEquals(List.of("group-1"), values);
+        Assertions.assertEquals(List.of("group-1"), cache.get(SearchFieldNameEnum.GROUP, () -> List.of("group-" + loads.incrementAndGet())));
+        Assertions.assertEquals(1, loads.get());
+
+        cache.evict(SearchFieldNameEnum.GROUP);
+        Assertions.assertEquals(List.of("group-2"), cache.get(SearchFieldNameEnum.GROUP, () -> List.of("group-" + loads.incrementAndGet())));
+    }
+
+    @Test
+    void testValuesAreEvictedAgainAfterTransactionCompletion() {
+        SearchFieldValuesCache cache = new SearchFieldValuesCache(60000, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(SearchFieldNameEnum.GROUP);
+            // values loaded by concurrent request before commit of the transaction
+            cache.get(SearchFieldNameEnum.GROUP, () -> List.of("group-" + loads.incrementAndGet()));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(List.of("group-2"), cache.get(SearchFieldNameEnum.GROUP, () -> List.of("group-" + loads.incrementAndGet())));
+    }
+
+    @Test
+    void testDisabledValuesCacheLoadsEveryTime() {
+        SearchFieldValuesCache cache = new SearchFieldValuesCache(0, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(SearchFieldNameEnum.KEY_SIZE, () -> List.of(loads.incrementAndGet()));
+        cache.get(SearchFieldNameEnum.KEY_SIZE, () -> List.of(loads.incrementAndGet()));
+        Assertions.assertEquals(2, loads.get());
+
+        // names of objects are cached with their own TTL
+        cache.get(SearchFieldNameEnum.RA_PROFILE, () -> List.of(loads.incrementAndGet()));
+        cache.get(SearchFieldNameEnum.RA_PROFILE, () -> List.of(loads.incrementAndGet()));
+        Assertions.assertEquals(3, loads.get());
+    }
+}
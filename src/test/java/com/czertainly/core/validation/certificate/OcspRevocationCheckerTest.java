@@ -0,0 +1,209 @@
+package com.czertainly.core.validation.certificate;
+
+import com.czertainly.api.model.core.certificate.CertificateValidationCheckDto;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.*;
+import org.bouncycastle.cert.ocsp.jcajce.JcaBasicOCSPRespBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.List;
+
+class OcspRevocationCheckerTest {
+
+    private static KeyPair caKeyPair;
+    private static X509CertificateHolder caCertificateHolder;
+    private static X509Certificate caCertificate;
+    private static X509Certificate certificate;
+
+    private MockWebServer ocspResponder;
+    private OcspRevocationChecker ocspRevocationChecker;
+
+    @BeforeAll
+    static void setupCertificates() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        caKeyPair = keyPairGenerator.generateKeyPair();
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(caKeyPair.getPrivate());
+        Date notBefore = new Date(System.currentTimeMillis() - 60000);
+        Date notAfter = new Date(System.currentTimeMillis() + 86400000);
+        X500Name caName = new X500Name("CN=OCSP Test CA");
+        caCertificateHolder = new JcaX509v3CertificateBuilder(caName, BigInteger.ONE, notBefore, notAfter, caName, caKeyPair.getPublic()).build(signer);
+        caCertificate = new JcaX509CertificateConverter().getCertificate(caCertificateHolder);
+        certificate = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(caName, BigInteger.valueOf(0xabcdef), notBefore, notAfter, new X500Name("CN=OCSP Test"), keyPair.getPublic()).build(signer));
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        ocspResponder = new MockWebServer();
+        ocspResponder.start();
+        ocspRevocationChecker = new OcspRevocationChecker(1000, 60000, 100, 4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        ocspRevocationChecker.shutdown();
+        ocspResponder.shutdown();
+    }
+
+    @Test
+    void testGoodResponseIsCachedUntilNextUpdate() {
+        ocspResponder.setDispatcher(ocspDispatcher(CertificateStatus.GOOD, new Date(System.currentTimeMillis() + 3600000)));
+        List<String> ocspUrls = List.of(ocspResponder.url("/ocsp").toString());
+
+        CertificateValidationCheckDto result = ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(CertificateValidationStatus.VALID, result.getStatus());
+
+        result = ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(CertificateValidationStatus.VALID, result.getStatus());
+        Assertions.assertEquals(1, ocspResponder.getRequestCount());
+    }
+
+    @Test
+    void testResponseWithoutNextUpdateIsNotCached() {
+        ocspResponder.setDispatcher(ocspDispatcher(new RevokedStatus(new Date(), CRLReason.keyCompromise), null));
+        List<String> ocspUrls = List.of(ocspResponder.url("/ocsp").toString());
+
+        CertificateValidationCheckDto result = ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(CertificateValidationStatus.REVOKED, result.getStatus());
+
+        ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(2, ocspResponder.getRequestCount());
+    }
+
+    @Test
+    void testFirstDefinitiveAnswerIsUsed() throws IOException {
+        ocspResponder.setDispatcher(ocspDispatcher(CertificateStatus.GOOD, new Date(System.currentTimeMillis() + 3600000)));
+        try (MockWebServer stalledResponder = new MockWebServer()) {
+            stalledResponder.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+            stalledResponder.start();
+
+            List<String> ocspUrls = List.of(stalledResponder.url("/ocsp").toString(), ocspResponder.url("/ocsp").toString());
+            long start = System.currentTimeMillis();
+            CertificateValidationCheckDto result = ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+
+            Assertions.assertEquals(CertificateValidationStatus.VALID, result.getStatus());
+            Assertions.assertTrue(result.getMessage().contains(ocspResponder.url("/ocsp").toString()));
+            Assertions.assertTrue(System.currentTimeMillis() - start < 1000);
+        }
+    }
+
+    @Test
+    void testFailedResponders() {
+        ocspResponder.enqueue(new MockResponse().setResponseCode(500));
+        List<String> ocspUrls = List.of(ocspResponder.url("/ocsp").toString());
+
+        CertificateValidationCheckDto result = ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(CertificateValidationStatus.FAILED, result.getStatus());
+        Assertions.assertTrue(result.getMessage().startsWith("Error while checking OCSP URL " + ocspUrls.get(0)));
+    }
+
+    @Test
+    void testResponseSignedByAuthorizedResponderIsCached() throws Exception {
+        KeyPair responderKeyPair = generateKeyPair();
+        X509CertificateHolder responderCertificateHolder = createResponderCertificate(responderKeyPair, KeyPurposeId.id_kp_OCSPSigning);
+        ocspResponder.setDispatcher(ocspDispatcher(CertificateStatus.GOOD, new Date(System.currentTimeMillis() + 3600000), responderKeyPair, responderCertificateHolder, null));
+        List<String> ocspUrls = List.of(ocspResponder.url("/ocsp").toString());
+
+        Assertions.assertEquals(CertificateValidationStatus.VALID, ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls).getStatus());
+        Assertions.assertEquals(CertificateValidationStatus.VALID, ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls).getStatus());
+        Assertions.assertEquals(1, ocspResponder.getRequestCount());
+    }
+
+    @Test
+    void testResponseWithUnverifiedSignatureIsNotCached() throws Exception {
+        // responder certificate issued by CA but without OCSP signing extended key usage
+        KeyPair responderKeyPair = generateKeyPair();
+        X509CertificateHolder responderCertificateHolder = createResponderCertificate(responderKeyPair, KeyPurposeId.id_kp_serverAuth);
+        ocspResponder.setDispatcher(ocspDispatcher(CertificateStatus.GOOD, new Date(System.currentTimeMillis() + 3600000), responderKeyPair, responderCertificateHolder, null));
+        List<String> ocspUrls = List.of(ocspResponder.url("/ocsp").toString());
+
+        ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(2, ocspResponder.getRequestCount());
+    }
+
+    @Test
+    void testResponseForDifferentCertificateIsNotUsed() {
+        ocspResponder.setDispatcher(ocspDispatcher(CertificateStatus.GOOD, new Date(System.currentTimeMillis() + 3600000), caKeyPair, caCertificateHolder, BigInteger.TEN));
+        List<String> ocspUrls = List.of(ocspResponder.url("/ocsp").toString());
+
+        CertificateValidationCheckDto result = ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(CertificateValidationStatus.FAILED, result.getStatus());
+
+        ocspRevocationChecker.checkRevocationStatus(certificate, caCertificate, ocspUrls);
+        Assertions.assertEquals(2, ocspResponder.getRequestCount());
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static X509CertificateHolder createResponderCertificate(KeyPair responderKeyPair, KeyPurposeId keyPurposeId) throws Exception {
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(caKeyPair.getPrivate());
+        return new JcaX509v3CertificateBuilder(caCertificateHolder.getSubject(), BigInteger.TWO, new Date(System.currentTimeMillis() - 60000),
+                new Date(System.currentTimeMillis() + 86400000), new X500Name("CN=OCSP Test Responder"), responderKeyPair.getPublic())
+                .addExtension(Extension.extendedKeyUsage, false, new ExtendedKeyUsage(keyPurposeId))
+                .build(signer);
+    }
+
+    private static Dispatcher ocspDispatcher(CertificateStatus status, Date nextUpdate) {
+        return ocspDispatcher(status, nextUpdate, caKeyPair, caCertificateHolder, null);
+    }
+
+    private static Dispatcher ocspDispatcher(CertificateStatus status, Date nextUpdate, KeyPair signerKeyPair, X509CertificateHolder signerCertificateHolder, BigInteger responseSerialNumber) {
+        return new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                try {
+                    OCSPReq ocspRequest = new OCSPReq(request.getBody().readByteArray());
+                    BasicOCSPRespBuilder responseBuilder = new JcaBasicOCSPRespBuilder(signerKeyPair.getPublic(),
+                            new JcaDigestCalculatorProviderBuilder().build().get(RespID.HASH_SHA1));
+                    for (Req req : ocspRequest.getRequestList()) {
+                        CertificateID certificateId = responseSerialNumber == null ? req.getCertID() : CertificateID.deriveCertificateID(req.getCertID(), responseSerialNumber);
+                        responseBuilder.addResponse(certificateId, status, new Date(), nextUpdate);
+                    }
+                    BasicOCSPResp basicResponse = responseBuilder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signerKeyPair.getPrivate()),
+                            new X509CertificateHolder[]{signerCertificateHolder}, new Date());
+                    OCSPResp ocspResponse = new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicResponse);
+                    return new MockResponse()
+                            .setHeader("Content-Type", "application/ocsp-response")
+                            .setBody(new Buffer().write(ocspResponse.getEncoded()));
+                } catch (Exception e) {
+                    return new MockResponse().setResponseCode(500);
+                }
+            }
+        };
+    }
+}
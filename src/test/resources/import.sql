@@ -0,0 +1,2 @@
+-- expression index of V202406041000__attribute_content_item_hash.sql that cannot be declared on the entity, required by ON CONFLICT of attribute content links
+CREATE UNIQUE INDEX attribute_content_2_object_object_item_key ON attribute_content_2_object (object_uuid, object_type, attribute_content_item_uuid, COALESCE(connector_uuid, '00000000-0000-0000-0000-000000000000'), COALESCE(source_object_type, ''), COALESCE(source_object_uuid, '00000000-0000-0000-0000-000000000000'));